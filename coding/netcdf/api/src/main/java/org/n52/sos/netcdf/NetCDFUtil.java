@@ -57,6 +57,7 @@ import org.n52.shetland.ogc.om.values.Value;
 import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
 import org.n52.shetland.util.EnvelopeOrGeometry;
 import org.n52.sos.netcdf.data.dataset.IdentifierDatasetSensor;
+import org.n52.sos.netcdf.data.dataset.SensorDataColumns;
 import org.n52.sos.netcdf.data.dataset.TimeSeriesProfileSensorDataset;
 import org.n52.sos.netcdf.data.dataset.TimeSeriesSensorDataset;
 import org.n52.sos.netcdf.data.dataset.TrajectoryProfileSensorDataset;
@@ -99,9 +100,9 @@ public class NetCDFUtil {
      */
     public static List<NetCDFObservation> createNetCDFSosObservations(ObservationStream omObservations)
             throws EncodingException, OwsExceptionReport {
-        // the main map of observation value strings by asset, time, phenomenon,
-        // and subsensor (height, profile bin, etc)
-        Map<String, Map<Time, Map<OmObservableProperty, Map<SubSensor, Value<?>>>>> obsValuesMap = new HashMap<>();
+        // the observation values by asset, collected in primitive columns by
+        // time, phenomenon and subsensor (height, profile bin, etc)
+        Map<String, SensorDataColumns.Builder> obsValuesMap = new HashMap<>();
 
         SetMultimap<String, OmObservableProperty> sensorPhens = HashMultimap.create();
         Map<String, AbstractFeature> sensorProcedure = Maps.newHashMap();
@@ -233,33 +234,22 @@ public class NetCDFUtil {
                 }
             }
 
-            // get the sensor's data map
-            Map<Time, Map<OmObservableProperty, Map<SubSensor, Value<?>>>> sensorObsMap = obsValuesMap.get(sensor);
-            if (sensorObsMap == null) {
-                sensorObsMap = new HashMap<>();
-                obsValuesMap.put(sensor, sensorObsMap);
-            }
-
-            // get the map of the asset's phenomena by time
-            Map<OmObservableProperty, Map<SubSensor, Value<?>>> obsPropMap = sensorObsMap.get(obsTime);
-            if (obsPropMap == null) {
-                obsPropMap = new HashMap<>();
-                sensorObsMap.put(obsTime, obsPropMap);
+            // get the sensor's data columns
+            SensorDataColumns.Builder sensorColumns = obsValuesMap.get(sensor);
+            if (sensorColumns == null) {
+                sensorColumns = new SensorDataColumns.Builder();
+                obsValuesMap.put(sensor, sensorColumns);
             }
 
+            // add obs value to the columns (null subsensors are ok)
             OmObservableProperty phen = phenomenaMap.get(phenId);
-            Map<SubSensor, Value<?>> subSensorMap = obsPropMap.get(phen);
-            if (subSensorMap == null) {
-                subSensorMap = new HashMap<>();
-                obsPropMap.put(phen, subSensorMap);
-            }
-
-            // add obs value to subsensor map (null subsensors are ok)
+            SubSensor subSensor;
             if (sosObs.isSetParameter() && hasSamplingGeometry(sosObs)) {
-                subSensorMap.put(createSubSensor(sensor, getSamplingGeometryGeometry(sosObs)), obsValue);
+                subSensor = createSubSensor(sensor, getSamplingGeometryGeometry(sosObs));
             } else {
-                subSensorMap.put(createSubSensor(sensor, foi), obsValue);
+                subSensor = createSubSensor(sensor, foi);
             }
+            sensorColumns.add(obsTime, phen, subSensor, quantityValue.getValue().doubleValue());
         }
 
         // now we know about each station's dimensions, sort into CF feature
@@ -301,11 +291,12 @@ public class NetCDFUtil {
         Envelope trajectoryEnvelope = new Envelope();
         Envelope trajectoryProfileEnvelope = new Envelope();
 
-        for (Map.Entry<String, Map<Time, Map<OmObservableProperty, Map<SubSensor, Value<?>>>>> obsValuesEntry : obsValuesMap
-                .entrySet()) {
+        double fillValue = getNetcdfHelper().getFillValue();
+        for (Map.Entry<String, SensorDataColumns.Builder> obsValuesEntry : obsValuesMap.entrySet()) {
             IdentifierDatasetSensor datasetSensor = new IdentifierDatasetSensor(obsValuesEntry.getKey());
             String sensor  = datasetSensor.getSensorIdentifier();
-            Set<Time> sensorTimes = obsValuesEntry.getValue().keySet();
+            SensorDataColumns sensorColumns = obsValuesEntry.getValue().build(fillValue);
+            List<Time> sensorTimes = sensorColumns.getTimes();
 
             int lngCount = sensorLngs.get(sensor).size();
             int latCount = sensorLats.get(sensor).size();
@@ -361,7 +352,7 @@ public class NetCDFUtil {
                 // time series
                 timeSeriesSamplingTimePeriod.extendToContain(sensorTimes);
                 timeSeriesSensorDatasets.put(sensor, new TimeSeriesSensorDataset(datasetSensor, staticLng, staticLat,
-                        staticHeight, obsValuesEntry.getValue(), sensorProcedure.get(sensor)));
+                        staticHeight, sensorColumns, sensorProcedure.get(sensor)));
                 timeSeriesPhenomena.addAll(sensorPhens.get(sensor));
                 if (staticLng != null && staticLat != null) {
                     timeSeriesEnvelope.expandToInclude(staticLng, staticLat);
@@ -370,7 +361,7 @@ public class NetCDFUtil {
                 // time series profile
                 timeSeriesProfileSamplingTimePeriod.extendToContain(sensorTimes);
                 timeSeriesProfileSensorDatasets.put(sensor, new TimeSeriesProfileSensorDataset(datasetSensor, staticLng,
-                        staticLat, obsValuesEntry.getValue(), sensorProcedure.get(sensor)));
+                        staticLat, sensorColumns, sensorProcedure.get(sensor)));
                 timeSeriesProfilePhenomena.addAll(sensorPhens.get(sensor));
                 if (staticLng != null && staticLat != null) {
                     timeSeriesProfileEnvelope.expandToInclude(staticLng, staticLat);
@@ -379,14 +370,14 @@ public class NetCDFUtil {
                 // trajectory
                 trajectorySamplingTimePeriod.extendToContain(sensorTimes);
                 trajectorySensorDatasets.put(sensor,
-                        new TrajectorySensorDataset(datasetSensor, staticHeight, obsValuesEntry.getValue(), sensorProcedure.get(sensor)));
+                        new TrajectorySensorDataset(datasetSensor, staticHeight, sensorColumns, sensorProcedure.get(sensor)));
                 trajectoryPhenomena.addAll(sensorPhens.get(sensor));
                 expandEnvelopeToInclude(trajectoryEnvelope, sensorLngs.get(sensor), sensorLats.get(sensor));
             } else if (locationVaries && heightVaries) {
                 // trajectory profile
                 trajectoryProfileSamplingTimePeriod.extendToContain(sensorTimes);
                 trajectoryProfileSensorDatasets.put(sensor,
-                        new TrajectoryProfileSensorDataset(datasetSensor, obsValuesEntry.getValue(), sensorProcedure.get(sensor)));
+                        new TrajectoryProfileSensorDataset(datasetSensor, sensorColumns, sensorProcedure.get(sensor)));
                 trajectoryProfilePhenomena.addAll(sensorPhens.get(sensor));
                 expandEnvelopeToInclude(trajectoryProfileEnvelope, sensorLngs.get(sensor), sensorLats.get(sensor));
             }
@@ -66,6 +66,8 @@ public class NetcdfHelper implements Constructable {
 
     private boolean upperCaseNames;
 
+    private boolean streaming;
+
     private CiRoleCodes contributor;
 
     private CiRoleCodes publisher;
@@ -210,6 +212,21 @@ public class NetcdfHelper implements Constructable {
         this.upperCaseNames = upperCaseNames;
     }
 
+    /**
+     * @return <code>true</code>, if the netCDF files should be streamed from disk to the response
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * @param streaming the streaming to set
+     */
+    @Setting(NetcdfSettingsProvider.NETCDF_STREAMING)
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
     /**
      * @return the contributor
      */
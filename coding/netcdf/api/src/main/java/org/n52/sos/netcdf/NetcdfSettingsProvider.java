@@ -59,4 +59,6 @@ public interface NetcdfSettingsProvider {
 
     public static final String NETCDF_PHEN_Z = "netcdf.phenomenon.z";
 
+    public static final String NETCDF_STREAMING = "netcdf.streaming";
+
 }
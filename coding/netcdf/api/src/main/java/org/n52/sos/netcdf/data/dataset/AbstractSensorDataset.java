@@ -68,6 +68,8 @@ public abstract class AbstractSensorDataset implements Comparable<AbstractSensor
 
     private Map<Time,Map<OmObservableProperty,Map<SubSensor,Value<?>>>> dataValues;
 
+    private SensorDataColumns dataColumns;
+
     public AbstractSensorDataset( CF.FeatureType featureType, DatasetSensor sensor,
             Map<Time,Map<OmObservableProperty,Map<SubSensor,Value<?>>>> dataValues, AbstractFeature procedure){
         this.featureType = featureType;
@@ -108,6 +110,17 @@ public abstract class AbstractSensorDataset implements Comparable<AbstractSensor
         subSensors = Collections.unmodifiableList(subSensorList);
     }
 
+    public AbstractSensorDataset(CF.FeatureType featureType, DatasetSensor sensor, SensorDataColumns dataColumns,
+            AbstractFeature procedure) {
+        this.featureType = featureType;
+        this.sensor = sensor;
+        this.procedure = procedure;
+        this.dataColumns = dataColumns;
+        this.times = dataColumns.getTimes();
+        this.obsProps = dataColumns.getPhenomena();
+        this.subSensors = dataColumns.getSubSensors();
+    }
+
 
     public DatasetSensor getSensor() {
         return sensor;
@@ -137,10 +150,21 @@ public abstract class AbstractSensorDataset implements Comparable<AbstractSensor
         return times;
     }
 
+    /**
+     * @return the data values or {@code null} if the dataset is backed by {@link SensorDataColumns}
+     */
     public Map<Time, Map<OmObservableProperty, Map<SubSensor, Value<?>>>> getDataValues() {
         return dataValues;
     }
 
+    public SensorDataColumns getDataColumns() {
+        return dataColumns;
+    }
+
+    public boolean isSetDataColumns() {
+        return getDataColumns() != null;
+    }
+
     public static Set<AbstractSensorDataset> getAbstractAssetDatasets( Set<? extends AbstractSensorDataset> stationDatasets ){
         Set<AbstractSensorDataset> abstractStationDatasets = new HashSet<AbstractSensorDataset>();
         abstractStationDatasets.addAll( stationDatasets );
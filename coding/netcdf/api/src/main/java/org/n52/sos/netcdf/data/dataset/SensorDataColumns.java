@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.netcdf.data.dataset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.n52.shetland.ogc.gml.time.Time;
+import org.n52.shetland.ogc.om.OmObservableProperty;
+import org.n52.sos.netcdf.data.subsensor.SubSensor;
+
+/**
+ * Column oriented storage of the values of a sensor dataset. The times, phenomena and sub sensors are sorted and the
+ * values of each phenomenon are stored in a primitive array in row-major order (time, sub sensor) that is
+ * initialized with the fill value, so it matches the layout of the netCDF data variable.
+ *
+ * @since 5.0.2
+ *
+ */
+public class SensorDataColumns {
+    private final List<Time> times;
+    private final List<OmObservableProperty> phenomena;
+    private final List<SubSensor> subSensors;
+    private final Map<OmObservableProperty, double[]> values;
+
+    private SensorDataColumns(List<Time> times, List<OmObservableProperty> phenomena, List<SubSensor> subSensors,
+            Map<OmObservableProperty, double[]> values) {
+        this.times = Collections.unmodifiableList(times);
+        this.phenomena = Collections.unmodifiableList(phenomena);
+        this.subSensors = Collections.unmodifiableList(subSensors);
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    public List<Time> getTimes() {
+        return times;
+    }
+
+    public List<OmObservableProperty> getPhenomena() {
+        return phenomena;
+    }
+
+    public List<SubSensor> getSubSensors() {
+        return subSensors;
+    }
+
+    /**
+     * @return the number of values per time and phenomenon, at least 1
+     */
+    public int getSubSensorCount() {
+        return subSensors.isEmpty() ? 1 : subSensors.size();
+    }
+
+    /**
+     * Get the values of the phenomenon. The value for the time at index {@code t} and the sub sensor at index
+     * {@code s} is at index {@code t * getSubSensorCount() + s}.
+     *
+     * @param phenomenon
+     *            the phenomenon
+     * @return the values or {@code null} if the phenomenon is unknown
+     */
+    public double[] getValues(OmObservableProperty phenomenon) {
+        return values.get(phenomenon);
+    }
+
+    /**
+     * Builder that collects the values of a sensor in the order they are streamed. Each value only occupies a few
+     * primitive array slots until {@link #build(double)} sorts them into the columns.
+     */
+    public static class Builder {
+        private static final int INITIAL_CAPACITY = 64;
+        private final Map<Time, Integer> timeIndices = new LinkedHashMap<>();
+        private final Map<OmObservableProperty, Integer> phenomenonIndices = new LinkedHashMap<>();
+        private final Map<SubSensor, Integer> subSensorIndices = new LinkedHashMap<>();
+        private int[] timeIndex = new int[INITIAL_CAPACITY];
+        private int[] phenomenonIndex = new int[INITIAL_CAPACITY];
+        private int[] subSensorIndex = new int[INITIAL_CAPACITY];
+        private double[] value = new double[INITIAL_CAPACITY];
+        private int size;
+
+        /**
+         * Add a value. A later value for the same time, phenomenon and sub sensor replaces the earlier one.
+         *
+         * @param time
+         *            the time
+         * @param phenomenon
+         *            the phenomenon
+         * @param subSensor
+         *            the sub sensor, may be {@code null}
+         * @param v
+         *            the value
+         * @return this
+         */
+        public Builder add(Time time, OmObservableProperty phenomenon, SubSensor subSensor, double v) {
+            if (size == value.length) {
+                int capacity = size * 2;
+                timeIndex = Arrays.copyOf(timeIndex, capacity);
+                phenomenonIndex = Arrays.copyOf(phenomenonIndex, capacity);
+                subSensorIndex = Arrays.copyOf(subSensorIndex, capacity);
+                value = Arrays.copyOf(value, capacity);
+            }
+            timeIndex[size] = indexOf(timeIndices, time);
+            phenomenonIndex[size] = indexOf(phenomenonIndices, phenomenon);
+            subSensorIndex[size] = subSensor == null ? -1 : indexOf(subSensorIndices, subSensor);
+            value[size] = v;
+            size++;
+            return this;
+        }
+
+        /**
+         * Sort the collected values into the columns.
+         *
+         * @param fillValue
+         *            the value for missing values
+         * @return the columns
+         */
+        public SensorDataColumns build(double fillValue) {
+            List<Time> sortedTimes = new ArrayList<>(timeIndices.keySet());
+            Collections.sort(sortedTimes);
+            List<OmObservableProperty> sortedPhenomena = new ArrayList<>(phenomenonIndices.keySet());
+            Collections.sort(sortedPhenomena);
+            List<SubSensor> sortedSubSensors = new ArrayList<>(subSensorIndices.keySet());
+            Collections.sort(sortedSubSensors);
+
+            int[] timePosition = getPositions(timeIndices, sortedTimes);
+            int[] subSensorPosition = getPositions(subSensorIndices, sortedSubSensors);
+            int subSensorCount = sortedSubSensors.isEmpty() ? 1 : sortedSubSensors.size();
+
+            double[][] columns = new double[phenomenonIndices.size()][];
+            Map<OmObservableProperty, double[]> valuesByPhenomenon = new HashMap<>(phenomenonIndices.size());
+            for (Map.Entry<OmObservableProperty, Integer> entry : phenomenonIndices.entrySet()) {
+                double[] column = new double[sortedTimes.size() * subSensorCount];
+                Arrays.fill(column, fillValue);
+                columns[entry.getValue()] = column;
+                valuesByPhenomenon.put(entry.getKey(), column);
+            }
+            for (int i = 0; i < size; i++) {
+                int s = subSensorIndex[i] < 0 ? 0 : subSensorPosition[subSensorIndex[i]];
+                columns[phenomenonIndex[i]][timePosition[timeIndex[i]] * subSensorCount + s] = value[i];
+            }
+            return new SensorDataColumns(sortedTimes, sortedPhenomena, sortedSubSensors, valuesByPhenomenon);
+        }
+
+        private static <T> int indexOf(Map<T, Integer> indices, T key) {
+            Integer index = indices.get(key);
+            if (index == null) {
+                index = indices.size();
+                indices.put(key, index);
+            }
+            return index;
+        }
+
+        private static <T> int[] getPositions(Map<T, Integer> indices, List<T> sorted) {
+            int[] positions = new int[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                positions[indices.get(sorted.get(i))] = i;
+            }
+            return positions;
+        }
+    }
+}
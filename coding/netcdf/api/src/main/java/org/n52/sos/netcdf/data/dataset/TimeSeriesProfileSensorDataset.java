@@ -58,6 +58,13 @@ public class TimeSeriesProfileSensorDataset extends AbstractSensorDataset implem
         this.lat = lat;
     }
 
+    public TimeSeriesProfileSensorDataset(DatasetSensor sensor, Double lng, Double lat,
+            SensorDataColumns dataColumns, AbstractFeature procedure) {
+        super(CF.FeatureType.timeSeriesProfile, sensor, dataColumns, procedure);
+        this.lng = lng;
+        this.lat = lat;
+    }
+
     @Override
     public Double getLng() {
         return lng;
@@ -59,6 +59,14 @@ public class TimeSeriesSensorDataset extends AbstractSensorDataset implements St
         this.alt = alt;
     }
 
+    public TimeSeriesSensorDataset(DatasetSensor sensor, Double lng, Double lat, Double alt,
+            SensorDataColumns dataColumns, AbstractFeature procedure) {
+        super(CF.FeatureType.timeSeries, sensor, dataColumns, procedure);
+        this.lng = lng;
+        this.lat = lat;
+        this.alt = alt;
+    }
+
     @Override
     public Double getLng() {
         return lng;
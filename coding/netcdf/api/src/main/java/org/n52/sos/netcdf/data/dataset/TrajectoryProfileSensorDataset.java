@@ -51,4 +51,9 @@ public class TrajectoryProfileSensorDataset extends AbstractSensorDataset {
             Map<Time, Map<OmObservableProperty, Map<SubSensor, Value<?>>>> dataValues, AbstractFeature procedure) {
         super( CF.FeatureType.trajectoryProfile, sensor, dataValues, procedure);
     }
+
+    public TrajectoryProfileSensorDataset(DatasetSensor sensor, SensorDataColumns dataColumns,
+            AbstractFeature procedure) {
+        super(CF.FeatureType.trajectoryProfile, sensor, dataColumns, procedure);
+    }
 }
@@ -55,6 +55,12 @@ public class TrajectorySensorDataset extends AbstractSensorDataset implements St
         this.alt = alt;
     }
 
+    public TrajectorySensorDataset(DatasetSensor sensor, Double alt, SensorDataColumns dataColumns,
+            AbstractFeature procedure) {
+        super(CF.FeatureType.trajectory, sensor, dataColumns, procedure);
+        this.alt = alt;
+    }
+
     @Override
     public Double getAlt() {
         return alt;
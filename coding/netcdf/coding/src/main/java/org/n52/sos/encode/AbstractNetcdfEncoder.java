@@ -28,8 +28,11 @@
  */
 package org.n52.sos.encode;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
@@ -41,6 +44,8 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import javax.inject.Inject;
 
@@ -86,6 +91,7 @@ import org.n52.shetland.ogc.sos.response.AbstractObservationResponse;
 import org.n52.shetland.ogc.sos.response.BinaryAttachmentResponse;
 import org.n52.shetland.ogc.sos.response.DescribeSensorResponse;
 import org.n52.shetland.util.DateTimeHelper;
+import org.n52.sos.coding.encode.FileAttachmentResponse;
 import org.n52.sos.coding.encode.ProcedureDescriptionFormatRepository;
 import org.n52.sos.ds.AbstractDescribeSensorHandler;
 import org.n52.sos.netcdf.Nc4ForceTimeChunkingStategy;
@@ -102,6 +108,8 @@ import org.n52.svalbard.encode.EncodingContext;
 import org.n52.svalbard.encode.ObservationEncoder;
 import org.n52.svalbard.encode.exception.EncodingException;
 import org.n52.svalbard.encode.exception.UnsupportedEncoderInputException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.axiomalaska.cf4j.CFStandardNames;
 import com.axiomalaska.cf4j.constants.ACDDConstants;
@@ -142,6 +150,8 @@ import ucar.nc2.jni.netcdf.Nc4Iosp;
  */
 public abstract class AbstractNetcdfEncoder implements ObservationEncoder<BinaryAttachmentResponse, Object> {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractNetcdfEncoder.class);
+
     private final Set<SupportedType> SUPPORTED_TYPES =
             ImmutableSet.<SupportedType>builder().add(OmConstants.OBS_TYPE_TRUTH_OBSERVATION_TYPE).build();
 
@@ -297,9 +307,93 @@ public abstract class AbstractNetcdfEncoder implements ObservationEncoder<Binary
         }
     }
 
+    /**
+     * Encode the {@link NetCDFObservation}s to a netCDF response. Implementations should create the response with
+     * {@link #createResponse(File, String, File)} and delete the temporary directory with
+     * {@link #deleteTemporaryDirectory(File, BinaryAttachmentResponse)}.
+     *
+     * @param netCDFSosObsList
+     *            the observations to encode
+     * @param version
+     *            the netCDF version
+     * @return the {@link BinaryAttachmentResponse} or, if streaming is enabled, the {@link FileAttachmentResponse}
+     * @throws EncodingException
+     *             If an error occurs
+     * @throws IOException
+     *             If the netCDF file could not be written
+     */
     protected abstract BinaryAttachmentResponse encodeNetCDFObsToNetcdf(List<NetCDFObservation> netCDFSosObsList,
             Version version) throws EncodingException, IOException;
 
+    /**
+     * Create the response for the encoded file. If streaming is enabled the file is not loaded into memory but
+     * written to the response by the {@code FileAttachmentResponseWriter}. The temporary directory is deleted when
+     * the response is closed, whether it was written or not.
+     *
+     * @param file
+     *            the encoded file
+     * @param filename
+     *            the file name of the attachment
+     * @param tempDir
+     *            the temporary directory of the file
+     * @return the response
+     * @throws IOException
+     *             If the file could not be read
+     */
+    protected BinaryAttachmentResponse createResponse(File file, String filename, File tempDir) throws IOException {
+        if (getNetcdfHelper().isStreaming()) {
+            return new FileAttachmentResponse(file, getContentType(), filename, tempDir);
+        }
+        return new BinaryAttachmentResponse(java.nio.file.Files.readAllBytes(file.toPath()), getContentType(),
+                filename);
+    }
+
+    /**
+     * Zip the files to a new file in the directory. The zipped files are deleted as soon as they are added.
+     *
+     * @param dir
+     *            the directory to create the zip file in
+     * @param files
+     *            the files to zip
+     * @param zipFilename
+     *            the name of the zip file
+     * @return the zip file
+     * @throws IOException
+     *             If the zip file could not be written
+     */
+    protected File createZip(File dir, Collection<File> files, String zipFilename) throws IOException {
+        File zip = new File(dir, zipFilename);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(zip));
+                ZipOutputStream zipfile = new ZipOutputStream(out)) {
+            for (File file : files) {
+                zipfile.putNextEntry(new ZipEntry(file.getName()));
+                java.nio.file.Files.copy(file.toPath(), zipfile);
+                zipfile.closeEntry();
+                java.nio.file.Files.delete(file.toPath());
+            }
+        }
+        return zip;
+    }
+
+    /**
+     * Delete the temporary directory including its content, unless it is still required by the response.
+     *
+     * @param tempDir
+     *            the temporary directory
+     * @param response
+     *            the created response, may be {@code null}
+     */
+    protected void deleteTemporaryDirectory(File tempDir, BinaryAttachmentResponse response) {
+        if (response instanceof FileAttachmentResponse) {
+            return;
+        }
+        try {
+            FileAttachmentResponse.delete(tempDir.toPath());
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete temporary directory " + tempDir, e);
+        }
+    }
+
     protected abstract void addProfileSpecificGlobalAttributes(NetcdfFileWriter writer,
             AbstractSensorDataset sensorDataset) throws EncodingException;
 
@@ -438,8 +532,14 @@ public abstract class AbstractNetcdfEncoder implements ObservationEncoder<Binary
             obsPropVarMap.put(obsProp, vObsProp);
 
             // init obs prop data array
-            Array obsPropArray = getArray(obsPropDims);
-            initArrayWithFillValue(obsPropArray, getNetcdfHelper().getFillValue());
+            Array obsPropArray;
+            if (sensorDataset.isSetDataColumns()) {
+                // the columns are already in the layout of the variable
+                obsPropArray = getArray(obsPropDims, sensorDataset.getDataColumns().getValues(obsProp));
+            } else {
+                obsPropArray = getArray(obsPropDims);
+                initArrayWithFillValue(obsPropArray, getNetcdfHelper().getFillValue());
+            }
             varDataArrayMap.put(vObsProp, obsPropArray);
         }
 
@@ -475,6 +575,10 @@ public abstract class AbstractNetcdfEncoder implements ObservationEncoder<Binary
             }
             timeArray.set(timeIndex, getTimeValue(time));
 
+            if (sensorDataset.isSetDataColumns()) {
+                continue;
+            }
+
             // data values
             Map<OmObservableProperty, Map<SubSensor, Value<?>>> obsPropMap = sensorDataset.getDataValues().get(time);
             for (OmObservableProperty obsProp : obsPropMap.keySet()) {
@@ -804,6 +908,17 @@ public abstract class AbstractNetcdfEncoder implements ObservationEncoder<Binary
         return getArray(getDimShapes(zDims));
     }
 
+    private Array getArray(List<Dimension> dims, double[] values) {
+        if (DataType.FLOAT.equals(getDataType())) {
+            float[] floatValues = new float[values.length];
+            for (int i = 0; i < values.length; i++) {
+                floatValues[i] = (float) values[i];
+            }
+            return Array.factory(DataType.FLOAT, getDimShapes(dims), floatValues);
+        }
+        return Array.factory(DataType.DOUBLE, getDimShapes(dims), values);
+    }
+
     private Array getArray() {
         if (DataType.FLOAT.equals(getDataType())) {
             return new ArrayFloat.D1(1);
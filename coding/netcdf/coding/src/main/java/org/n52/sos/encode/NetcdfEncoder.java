@@ -139,14 +139,16 @@ public class NetcdfEncoder extends AbstractBasicNetcdfEncoder {
         File tempDir = Files.createTempDir();
         String filename = getFilename(sensorDataset);
         File netcdfFile = new File(tempDir, filename);
+        BinaryAttachmentResponse response = null;
         try {
             encodeSensorDataToNetcdf(netcdfFile, sensorDataset, version);
-            return new BinaryAttachmentResponse(Files.toByteArray(netcdfFile), getContentType(),
-                    String.format(filename, makeDateSafe(new DateTime(DateTimeZone.UTC))));
+            response = createResponse(netcdfFile,
+                    String.format(filename, makeDateSafe(new DateTime(DateTimeZone.UTC))), tempDir);
+            return response;
         } catch (IOException e) {
             throw new EncodingException("Couldn't create netCDF file", e);
         } finally {
-            tempDir.delete();
+            deleteTemporaryDirectory(tempDir, response);
         }
     }
 
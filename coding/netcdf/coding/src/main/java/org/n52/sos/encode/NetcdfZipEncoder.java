@@ -28,15 +28,13 @@
  */
 package org.n52.sos.encode;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -130,42 +128,23 @@ public class NetcdfZipEncoder extends AbstractBasicNetcdfEncoder {
     protected BinaryAttachmentResponse encodeNetCDFObsToNetcdf(List<NetCDFObservation> netCDFObsList, Version version)
             throws EncodingException {
         File tempDir = Files.createTempDir();
-
-        for (NetCDFObservation netCDFObs : netCDFObsList) {
-            for (AbstractSensorDataset sensorDataset : netCDFObs.getSensorDatasets()) {
-                try {
+        BinaryAttachmentResponse response = null;
+        try {
+            List<File> netcdfFiles = new LinkedList<>();
+            for (NetCDFObservation netCDFObs : netCDFObsList) {
+                for (AbstractSensorDataset sensorDataset : netCDFObs.getSensorDatasets()) {
                     File netcdfFile = new File(tempDir, getFilename(sensorDataset));
                     encodeSensorDataToNetcdf(netcdfFile, sensorDataset, version);
-                } catch (IOException ex) {
-                    throw new EncodingException(ex);
+                    netcdfFiles.add(netcdfFile);
                 }
             }
-        }
-
-        BinaryAttachmentResponse response = null;
-        try(ByteArrayOutputStream zipBoas = createZip(tempDir)) {
-            response =
-                    new BinaryAttachmentResponse(zipBoas.toByteArray(), getContentType(), String.format(
-                            DOWNLOAD_FILENAME_FORMAT, makeDateSafe(new DateTime(DateTimeZone.UTC))));
+            String filename = String.format(DOWNLOAD_FILENAME_FORMAT, makeDateSafe(new DateTime(DateTimeZone.UTC)));
+            response = createResponse(createZip(tempDir, netcdfFiles, filename), filename, tempDir);
+            return response;
         } catch (IOException e) {
             throw new EncodingException("Couldn't create netCDF zip file", e);
         } finally {
-            tempDir.delete();
-        }
-
-        return response;
-    }
-
-    private static ByteArrayOutputStream createZip(File dirToZip) throws IOException {
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        try (ZipOutputStream zipfile = new ZipOutputStream(bos)) {
-            ZipEntry zipentry = null;
-            for (File file : dirToZip.listFiles()) {
-                zipentry = new ZipEntry(file.getName());
-                zipfile.putNextEntry(zipentry);
-                zipfile.write(Files.toByteArray(file));
-            }
+            deleteTemporaryDirectory(tempDir, response);
         }
-        return bos;
     }
 }
@@ -140,17 +140,15 @@ private static final Logger LOGGER = LoggerFactory.getLogger(OceanSITESEncoder.c
         File tempDir = Files.createTempDir();
         String filename = getFilename(sensorDataset);
         File netcdfFile = new File(tempDir, filename);
-        encodeSensorDataToNetcdf(netcdfFile, sensorDataset, version);
-
         BinaryAttachmentResponse response = null;
         try {
-            response = new BinaryAttachmentResponse(Files.toByteArray(netcdfFile), getContentType(),
-                    String.format(filename, makeDateSafe(new DateTime(DateTimeZone.UTC))));
+            encodeSensorDataToNetcdf(netcdfFile, sensorDataset, version);
+            response = createResponse(netcdfFile,
+                    String.format(filename, makeDateSafe(new DateTime(DateTimeZone.UTC))), tempDir);
+            return response;
         } finally {
-            tempDir.delete();
+            deleteTemporaryDirectory(tempDir, response);
         }
-
-        return response;
     }
 
     private void throwTooManyFeatureTypesOrSensorsException(List<NetCDFObservation> netCDFObsList,
@@ -30,8 +30,10 @@ package org.n52.sos.converter;
 
 import static java.util.stream.Collectors.toSet;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -48,6 +50,7 @@ import org.n52.janmayen.http.MediaType;
 import org.n52.shetland.ogc.gml.CodeWithAuthority;
 import org.n52.shetland.ogc.gml.time.Time;
 import org.n52.shetland.ogc.gml.time.TimeInstant;
+import org.n52.shetland.ogc.gml.time.TimePeriod;
 import org.n52.shetland.ogc.om.AbstractPhenomenon;
 import org.n52.shetland.ogc.om.ObservationMergeIndicator;
 import org.n52.shetland.ogc.om.ObservationStream;
@@ -93,9 +96,6 @@ import org.n52.svalbard.encode.XmlEncoderKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
-
 public class SplitMergeObservations
         implements RequestResponseModifier {
 
@@ -194,73 +194,89 @@ public class SplitMergeObservations
     private void splitDataArrayIntoObservations(final InsertObservationRequest request)
             throws OwsExceptionReport {
         LOGGER.debug("Start splitting observations. Count: {}", request.getObservations().size());
-        final Collection<OmObservation> finalObservationCollection = Sets.newHashSet();
+        // identical observations are inserted only once, the order of the rows is kept
+        final Set<OmObservation> finalObservationCollection = new LinkedHashSet<>(getSplitCount(request));
         for (final OmObservation observation : request.getObservations()) {
             if (isSweArrayObservation(observation)) {
-                LOGGER.debug("Found SweArrayObservation to split.");
-                final SweDataArrayValue sweDataArrayValue = (SweDataArrayValue) observation.getValue().getValue();
-                final OmObservationConstellation observationConstellation = observation.getObservationConstellation();
-                int counter = 0;
-                final int resultTimeIndex =
-                        getResultTimeIndex((SweDataRecord) sweDataArrayValue.getValue().getElementType());
-                final int phenomenonTimeIndex =
-                        getPhenomenonTimeIndex((SweDataRecord) sweDataArrayValue.getValue().getElementType());
-                final int resultValueIndex =
-                        getResultValueIndex((SweDataRecord) sweDataArrayValue.getValue().getElementType(),
-                                observationConstellation.getObservableProperty());
-                observationConstellation.setObservationType(getObservationTypeFromElementType(
-                        (SweDataRecord) sweDataArrayValue.getValue().getElementType(),
-                        observationConstellation.getObservableProperty()));
-                // split into single observation
-                for (final List<String> block : sweDataArrayValue.getValue().getValues()) {
-                    LOGGER.debug("Processing block {}/{}", ++counter, sweDataArrayValue.getValue().getValues().size());
-                    final OmObservation newObservation = new OmObservation();
-                    newObservation.setObservationConstellation(observationConstellation);
-                    // identifier
-                    if (observation.isSetIdentifier()) {
-                        final CodeWithAuthority identifier = observation.getIdentifierCodeWithAuthority();
-                        identifier.setValue(identifier.getValue() + counter);
-                        newObservation.setIdentifier(identifier);
-                    }
-                    // phen time
-                    Time phenomenonTime;
-                    if (phenomenonTimeIndex == -1) {
-                        phenomenonTime = observation.getPhenomenonTime();
-                    } else {
-                        phenomenonTime = DateTimeHelper.parseIsoString2DateTime2Time(block.get(phenomenonTimeIndex));
-                    }
-                    // result time
-                    if (resultTimeIndex == -1) {
-                        // use phenomenon time if outer observation's resultTime
-                        // value
-                        // or nilReason is "template"
-                        if ((!observation.isSetResultTime() || observation.isTemplateResultTime())
-                                && phenomenonTime instanceof TimeInstant) {
-                            newObservation.setResultTime((TimeInstant) phenomenonTime);
-                        } else {
-                            newObservation.setResultTime(observation.getResultTime());
-                        }
-                    } else {
-                        newObservation.setResultTime(
-                                new TimeInstant(DateTimeHelper.parseIsoString2DateTime(block.get(resultTimeIndex))));
-                    }
-                    if (observation.isSetParameter()) {
-                        newObservation.setParameter(observation.getParameter());
-                    }
-                    // value
-                    final ObservationValue<?> value = createObservationResultValue(
-                            observationConstellation.getObservationType(), block.get(resultValueIndex), phenomenonTime,
-                            ((SweDataRecord) sweDataArrayValue.getValue().getElementType()).getFields()
-                                    .get(resultValueIndex));
-                    newObservation.setValue(value);
-                    finalObservationCollection.add(newObservation);
-                }
+                splitDataArrayIntoObservations(observation, finalObservationCollection);
             } else {
                 LOGGER.debug("Found non splittable observation");
                 finalObservationCollection.add(observation);
             }
         }
-        request.setObservation(Lists.newArrayList(finalObservationCollection));
+        request.setObservation(new ArrayList<>(finalObservationCollection));
+    }
+
+    private void splitDataArrayIntoObservations(OmObservation observation, Collection<OmObservation> splitted)
+            throws OwsExceptionReport {
+        final SweDataArrayValue sweDataArrayValue = (SweDataArrayValue) observation.getValue().getValue();
+        final List<List<String>> blocks = sweDataArrayValue.getValue().getValues();
+        LOGGER.debug("Found SweArrayObservation to split. Count: {}", blocks.size());
+        final OmObservationConstellation observationConstellation = observation.getObservationConstellation();
+        final SweDataRecord elementType = (SweDataRecord) sweDataArrayValue.getValue().getElementType();
+        final int resultTimeIndex = getResultTimeIndex(elementType);
+        final int phenomenonTimeIndex = getPhenomenonTimeIndex(elementType);
+        final int resultValueIndex =
+                getResultValueIndex(elementType, observationConstellation.getObservableProperty());
+        final SweField resultDefinitionField = elementType.getFields().get(resultValueIndex);
+        observationConstellation.setObservationType(
+                getObservationTypeFromElementType(elementType, observationConstellation.getObservableProperty()));
+        final String observationType = observationConstellation.getObservationType();
+        // use phenomenon time if outer observation's resultTime value or nilReason is "template"
+        final boolean resultTimeFromPhenomenonTime =
+                !observation.isSetResultTime() || observation.isTemplateResultTime();
+        final CodeWithAuthority identifier =
+                observation.isSetIdentifier() ? observation.getIdentifierCodeWithAuthority() : null;
+        final TimeParser phenomenonTimeParser = new TimeParser();
+        final TimeParser resultTimeParser = new TimeParser();
+        int counter = 0;
+        // split into single observation
+        for (final List<String> block : blocks) {
+            ++counter;
+            final OmObservation newObservation = new OmObservation();
+            newObservation.setObservationConstellation(observationConstellation);
+            // identifier
+            if (identifier != null) {
+                newObservation.setIdentifier(
+                        new CodeWithAuthority(identifier.getValue() + counter, identifier.getCodeSpace()));
+            }
+            // phen time
+            Time phenomenonTime;
+            if (phenomenonTimeIndex == -1) {
+                phenomenonTime = observation.getPhenomenonTime();
+            } else {
+                phenomenonTime = phenomenonTimeParser.parse(block.get(phenomenonTimeIndex));
+            }
+            // result time
+            if (resultTimeIndex == -1) {
+                if (resultTimeFromPhenomenonTime && phenomenonTime instanceof TimeInstant) {
+                    newObservation.setResultTime((TimeInstant) phenomenonTime);
+                } else {
+                    newObservation.setResultTime(observation.getResultTime());
+                }
+            } else {
+                newObservation.setResultTime(resultTimeParser.parseInstant(block.get(resultTimeIndex)));
+            }
+            if (observation.isSetParameter()) {
+                newObservation.setParameter(observation.getParameter());
+            }
+            // value
+            newObservation.setValue(createObservationResultValue(observationType, block.get(resultValueIndex),
+                    phenomenonTime, resultDefinitionField));
+            splitted.add(newObservation);
+        }
+    }
+
+    private int getSplitCount(InsertObservationRequest request) {
+        int count = 0;
+        for (final OmObservation observation : request.getObservations()) {
+            if (isSweArrayObservation(observation)) {
+                count += ((SweDataArrayValue) observation.getValue().getValue()).getValue().getValues().size();
+            } else {
+                count++;
+            }
+        }
+        return count;
     }
 
     private ObservationValue<?> createObservationResultValue(String observationType, String valueString,
@@ -410,4 +426,45 @@ public class SplitMergeObservations
                 || sosRequest.getBooleanExtension(Sos2Constants.Extensions.MergeObservationsIntoDataArray);
     }
 
+    /**
+     * Parses the time strings of a single data array column. Consecutive rows often share the same time (e.g. a
+     * common result time), so the last parsed value is reused if the string does not change. Every row gets its own
+     * copy of the parsed time, only the immutable values are shared.
+     */
+    private static class TimeParser {
+        private String lastString;
+        private Time lastTime;
+
+        Time parse(String string) throws OwsExceptionReport {
+            if (lastString == null || !lastString.equals(string)) {
+                lastTime = DateTimeHelper.parseIsoString2DateTime2Time(string);
+                lastString = string;
+            }
+            if (lastTime instanceof TimePeriod) {
+                TimePeriod period = (TimePeriod) lastTime;
+                return new TimePeriod(period.getStart(), period.getEnd());
+            }
+            return copyOf((TimeInstant) lastTime);
+        }
+
+        TimeInstant parseInstant(String string) throws OwsExceptionReport {
+            if (lastString == null || !lastString.equals(string) || !(lastTime instanceof TimeInstant)) {
+                lastTime = new TimeInstant(DateTimeHelper.parseIsoString2DateTime(string));
+                lastString = string;
+            }
+            return copyOf((TimeInstant) lastTime);
+        }
+
+        private static TimeInstant copyOf(TimeInstant instant) {
+            TimeInstant copy = instant.isSetIndeterminateValue()
+                    ? new TimeInstant(instant.getIndeterminateValue())
+                    : new TimeInstant(instant.getValue());
+            if (instant.isSetIndeterminateValue() && instant.isSetValue()) {
+                copy.setValue(instant.getValue());
+            }
+            copy.setRequestedTimeLength(instant.getRequestedTimeLength());
+            copy.setGmlId(instant.getGmlId());
+            return copy;
+        }
+    }
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.converter;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.shetland.ogc.gml.CodeWithAuthority;
+import org.n52.shetland.ogc.gml.time.IndeterminateValue;
+import org.n52.shetland.ogc.gml.time.TimeInstant;
+import org.n52.shetland.ogc.om.OmConstants;
+import org.n52.shetland.ogc.om.OmObservableProperty;
+import org.n52.shetland.ogc.om.OmObservation;
+import org.n52.shetland.ogc.om.OmObservationConstellation;
+import org.n52.shetland.ogc.om.SingleObservationValue;
+import org.n52.shetland.ogc.om.values.QuantityValue;
+import org.n52.shetland.ogc.om.values.SweDataArrayValue;
+import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
+import org.n52.shetland.ogc.sos.Sos2Constants;
+import org.n52.shetland.ogc.sos.SosConstants;
+import org.n52.shetland.ogc.sos.request.InsertObservationRequest;
+import org.n52.shetland.ogc.swe.SweDataArray;
+import org.n52.shetland.ogc.swe.SweDataRecord;
+import org.n52.shetland.ogc.swe.SweField;
+import org.n52.shetland.ogc.swe.encoding.SweTextEncoding;
+import org.n52.shetland.ogc.swe.simpleType.SweBoolean;
+import org.n52.shetland.ogc.swe.simpleType.SweCount;
+import org.n52.shetland.ogc.swe.simpleType.SweQuantity;
+import org.n52.shetland.ogc.swe.simpleType.SweTime;
+import org.n52.shetland.ogc.swes.SwesExtension;
+import org.n52.shetland.util.CollectionHelper;
+import org.n52.shetland.util.DateTimeHelper;
+
+import com.google.common.collect.Lists;
+
+public class SplitMergeObservationsTest {
+
+    private static final String OBS_PROP = "http://www.52north.org/test/observableProperty/1";
+
+    private static final String UNIT = "degC";
+
+    private static final String IDENTIFIER = "http://www.52north.org/test/observation/";
+
+    private static final String CODESPACE = "http://www.52north.org/test/codespace";
+
+    private static final String TIME_1 = "2018-01-01T00:00:00.000Z";
+
+    private static final String TIME_2 = "2018-01-01T01:00:00.000Z";
+
+    private static final String REDUCED_PRECISION_TIME = "2018-01-01";
+
+    private SplitMergeObservations modifier;
+
+    @Before
+    public void setUp() {
+        modifier = new SplitMergeObservations();
+    }
+
+    @Test
+    public void shouldSplitDataArrayInRowOrder()
+            throws OwsExceptionReport {
+        InsertObservationRequest request = createRequest(
+                CollectionHelper.list(TIME_2, "3.0"),
+                CollectionHelper.list(TIME_1, "1.0"),
+                CollectionHelper.list(TIME_1, "2.0"));
+        modifier.modifyRequest(request);
+        List<OmObservation> observations = request.getObservations();
+        assertThat(observations.size(), is(3));
+        assertThat(getValue(observations.get(0)), is(3.0));
+        assertThat(getValue(observations.get(1)), is(1.0));
+        assertThat(getValue(observations.get(2)), is(2.0));
+        assertThat(getTime(observations.get(0)), is(getTime(TIME_2)));
+        assertThat(getTime(observations.get(1)), is(getTime(TIME_1)));
+        assertThat(getTime(observations.get(2)), is(getTime(TIME_1)));
+    }
+
+    @Test
+    public void shouldCreateIdentifierPerRow()
+            throws OwsExceptionReport {
+        InsertObservationRequest request = createRequest(
+                CollectionHelper.list(TIME_1, "1.0"),
+                CollectionHelper.list(TIME_2, "2.0"),
+                CollectionHelper.list(TIME_2, "3.0"));
+        modifier.modifyRequest(request);
+        List<OmObservation> observations = request.getObservations();
+        assertThat(observations.size(), is(3));
+        for (int i = 0; i < observations.size(); i++) {
+            CodeWithAuthority identifier = observations.get(i).getIdentifierCodeWithAuthority();
+            assertThat(identifier.getValue(), is(IDENTIFIER + (i + 1)));
+            assertThat(identifier.getCodeSpace(), is(CODESPACE));
+        }
+        assertThat(observations.get(0).getIdentifierCodeWithAuthority(),
+                not(sameInstance(observations.get(1).getIdentifierCodeWithAuthority())));
+    }
+
+    @Test
+    public void shouldNotShareTimesBetweenRows()
+            throws OwsExceptionReport {
+        InsertObservationRequest request = createRequest(
+                CollectionHelper.list(TIME_1, "1.0"),
+                CollectionHelper.list(TIME_1, "2.0"));
+        modifier.modifyRequest(request);
+        List<OmObservation> observations = request.getObservations();
+        assertThat(observations.size(), is(2));
+        assertThat(observations.get(0).getPhenomenonTime(),
+                not(sameInstance(observations.get(1).getPhenomenonTime())));
+        assertThat(observations.get(0).getResultTime(), not(sameInstance(observations.get(1).getResultTime())));
+        assertThat(getTime(observations.get(1)), is(getTime(TIME_1)));
+    }
+
+    @Test
+    public void shouldCopyTheFullParsedTime()
+            throws OwsExceptionReport {
+        InsertObservationRequest request = createRequest(
+                CollectionHelper.list(REDUCED_PRECISION_TIME, "1.0"),
+                CollectionHelper.list(REDUCED_PRECISION_TIME, "2.0"));
+        modifier.modifyRequest(request);
+        List<OmObservation> observations = request.getObservations();
+        TimeInstant parsed = (TimeInstant) DateTimeHelper.parseIsoString2DateTime2Time(REDUCED_PRECISION_TIME);
+        assertThat(observations.size(), is(2));
+        for (OmObservation observation : observations) {
+            TimeInstant time = (TimeInstant) observation.getPhenomenonTime();
+            assertThat(time.getValue().getMillis(), is(parsed.getValue().getMillis()));
+            assertThat(time.getRequestedTimeLength(), is(parsed.getRequestedTimeLength()));
+            assertThat(time.getIndeterminateValue(), is(parsed.getIndeterminateValue()));
+        }
+    }
+
+    @Test
+    public void shouldInsertIdenticalObservationsOnlyOnce()
+            throws OwsExceptionReport {
+        InsertObservationRequest request = createRequest(CollectionHelper.list(TIME_1, "1.0"));
+        OmObservationConstellation constellation = new OmObservationConstellation();
+        constellation.setObservableProperty(new OmObservableProperty(OBS_PROP));
+        constellation.setObservationType(OmConstants.OBS_TYPE_MEASUREMENT);
+        OmObservation observation = new OmObservation();
+        observation.setObservationConstellation(constellation);
+        observation.setValue(new SingleObservationValue<>(new TimeInstant(new DateTime(TIME_2)),
+                new QuantityValue(3.0)));
+        request.setObservation(Lists.newArrayList(request.getObservations().get(0), observation, observation));
+        modifier.modifyRequest(request);
+        List<OmObservation> observations = request.getObservations();
+        assertThat(observations.size(), is(2));
+        assertThat(observations.get(1), is(sameInstance(observation)));
+    }
+
+    private double getValue(OmObservation observation) {
+        return ((QuantityValue) observation.getValue().getValue()).getValue().doubleValue();
+    }
+
+    private long getTime(OmObservation observation) {
+        return ((TimeInstant) observation.getPhenomenonTime()).getValue().getMillis();
+    }
+
+    private long getTime(String time) {
+        return new DateTime(time).getMillis();
+    }
+
+    @SafeVarargs
+    private final InsertObservationRequest createRequest(List<String>... blocks) {
+        InsertObservationRequest request = new InsertObservationRequest();
+        request.setService(SosConstants.SOS);
+        request.setVersion(Sos2Constants.SERVICEVERSION);
+        SwesExtension<SweBoolean> splitExt = new SwesExtension<>();
+        splitExt.setDefinition(Sos2Constants.Extensions.SplitDataArrayIntoObservations.name());
+        splitExt.setValue(new SweBoolean().setValue(Boolean.TRUE));
+        request.addExtension(splitExt);
+
+        OmObservationConstellation constellation = new OmObservationConstellation();
+        constellation.setObservableProperty(new OmObservableProperty(OBS_PROP));
+        constellation.setObservationType(OmConstants.OBS_TYPE_SWE_ARRAY_OBSERVATION);
+
+        SweDataRecord record = new SweDataRecord();
+        SweTime time = new SweTime();
+        time.setDefinition(OmConstants.PHENOMENON_TIME);
+        time.setUom(OmConstants.PHEN_UOM_ISO8601);
+        record.addField(new SweField(OmConstants.PHENOMENON_TIME_NAME, time));
+        SweQuantity quantity = new SweQuantity();
+        quantity.setDefinition(OBS_PROP);
+        quantity.setUom(UNIT);
+        record.addField(new SweField(OmConstants.EN_OBSERVED_PROPERTY, quantity));
+
+        SweTextEncoding encoding = new SweTextEncoding();
+        encoding.setBlockSeparator("#");
+        encoding.setDecimalSeparator(".");
+        encoding.setTokenSeparator("@");
+
+        SweDataArray dataArray = new SweDataArray();
+        dataArray.setElementCount(new SweCount().setValue(blocks.length));
+        dataArray.setElementType(record);
+        dataArray.setEncoding(encoding);
+        for (List<String> block : blocks) {
+            dataArray.add(block);
+        }
+        SweDataArrayValue dataArrayValue = new SweDataArrayValue();
+        dataArrayValue.setValue(dataArray);
+        SingleObservationValue<SweDataArray> value = new SingleObservationValue<>();
+        value.setPhenomenonTime(new TimeInstant(null, IndeterminateValue.TEMPLATE));
+        value.setValue(dataArrayValue);
+
+        OmObservation observation = new OmObservation();
+        observation.setObservationConstellation(constellation);
+        observation.setIdentifier(new CodeWithAuthority(IDENTIFIER, CODESPACE));
+        observation.setResultTime(new TimeInstant(null, IndeterminateValue.TEMPLATE));
+        observation.setValue(value);
+        request.setObservation(Lists.newArrayList(observation));
+        return request;
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.cache;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import org.joda.time.DateTime;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * The phenomenon time extent of a dataset, i.e. of a procedure, observable property, feature of interest and offering
+ * constellation. Instances are immutable, use {@link #extend(DateTime, DateTime)} to get an extended copy. Datasets are
+ * equal if they belong to the same constellation, regardless of their phenomenon time extent.
+ *
+ * @since 5.0.2
+ */
+public class DatasetInfo implements Serializable {
+    private static final long serialVersionUID = 2829375163426081465L;
+    private final String procedure;
+    private final String observableProperty;
+    private final String featureOfInterest;
+    private final String offering;
+    private final DateTime phenomenonTimeStart;
+    private final DateTime phenomenonTimeEnd;
+
+    public DatasetInfo(String procedure, String observableProperty, String featureOfInterest, String offering,
+                       DateTime phenomenonTimeStart, DateTime phenomenonTimeEnd) {
+        this.procedure = Objects.requireNonNull(procedure, "procedure");
+        this.observableProperty = Objects.requireNonNull(observableProperty, "observableProperty");
+        this.featureOfInterest = Objects.requireNonNull(featureOfInterest, "featureOfInterest");
+        this.offering = Objects.requireNonNull(offering, "offering");
+        this.phenomenonTimeStart = phenomenonTimeStart;
+        this.phenomenonTimeEnd = phenomenonTimeEnd;
+    }
+
+    public String getProcedure() {
+        return procedure;
+    }
+
+    public String getObservableProperty() {
+        return observableProperty;
+    }
+
+    public String getFeatureOfInterest() {
+        return featureOfInterest;
+    }
+
+    public String getOffering() {
+        return offering;
+    }
+
+    public DateTime getPhenomenonTimeStart() {
+        return phenomenonTimeStart;
+    }
+
+    public DateTime getPhenomenonTimeEnd() {
+        return phenomenonTimeEnd;
+    }
+
+    public boolean isSetPhenomenonTime() {
+        return phenomenonTimeStart != null && phenomenonTimeEnd != null;
+    }
+
+    /**
+     * @return the procedure, observable property and feature of interest of this dataset
+     */
+    public Constellation getConstellation() {
+        return new Constellation(procedure, observableProperty, featureOfInterest);
+    }
+
+    /**
+     * Creates a copy of this dataset whose phenomenon time extent contains the specified period.
+     *
+     * @param start the start of the period
+     * @param end   the end of the period
+     *
+     * @return the extended dataset
+     */
+    public DatasetInfo extend(DateTime start, DateTime end) {
+        DateTime newStart = phenomenonTimeStart == null || start != null && start.isBefore(phenomenonTimeStart)
+                ? start
+                : phenomenonTimeStart;
+        DateTime newEnd = phenomenonTimeEnd == null || end != null && end.isAfter(phenomenonTimeEnd)
+                ? end
+                : phenomenonTimeEnd;
+        return new DatasetInfo(procedure, observableProperty, featureOfInterest, offering, newStart, newEnd);
+    }
+
+    /**
+     * Creates a copy of this dataset whose phenomenon time extent contains the extent of the specified dataset.
+     *
+     * @param other the other dataset
+     *
+     * @return the extended dataset
+     */
+    public DatasetInfo extend(DatasetInfo other) {
+        return extend(other.getPhenomenonTimeStart(), other.getPhenomenonTimeEnd());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(procedure, observableProperty, featureOfInterest, offering);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        final DatasetInfo other = (DatasetInfo) obj;
+        return Objects.equals(procedure, other.procedure)
+                && Objects.equals(observableProperty, other.observableProperty)
+                && Objects.equals(featureOfInterest, other.featureOfInterest)
+                && Objects.equals(offering, other.offering);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).omitNullValues()
+                .add("procedure", procedure)
+                .add("observableProperty", observableProperty)
+                .add("featureOfInterest", featureOfInterest)
+                .add("offering", offering)
+                .add("phenomenonTimeStart", phenomenonTimeStart)
+                .add("phenomenonTimeEnd", phenomenonTimeEnd)
+                .toString();
+    }
+
+    /**
+     * The procedure, observable property and feature of interest of a dataset, used to look up the dataset within its
+     * offering.
+     */
+    public static final class Constellation implements Serializable {
+        private static final long serialVersionUID = -1387624517093126735L;
+        private final String procedure;
+        private final String observableProperty;
+        private final String featureOfInterest;
+
+        public Constellation(String procedure, String observableProperty, String featureOfInterest) {
+            this.procedure = Objects.requireNonNull(procedure, "procedure");
+            this.observableProperty = Objects.requireNonNull(observableProperty, "observableProperty");
+            this.featureOfInterest = Objects.requireNonNull(featureOfInterest, "featureOfInterest");
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(procedure, observableProperty, featureOfInterest);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final Constellation other = (Constellation) obj;
+            return procedure.equals(other.procedure) && observableProperty.equals(other.observableProperty)
+                    && featureOfInterest.equals(other.featureOfInterest);
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("procedure", procedure)
+                    .add("observableProperty", observableProperty)
+                    .add("featureOfInterest", featureOfInterest)
+                    .toString();
+        }
+    }
+
+}
@@ -28,6 +28,7 @@
  */
 package org.n52.sos.cache;
 
+import java.util.Collection;
 import java.util.Locale;
 import java.util.Set;
 
@@ -126,6 +127,18 @@ public interface SosContentCache
      */
     Set<String> getFeatureOfInterestTypesForOffering(String offering);
 
+    /**
+     * Get the datasets of the specified offering with their phenomenon time extent.
+     *
+     * @param offering
+     *            the offering
+     *
+     * @return the datasets
+     *
+     * @since 5.0.2
+     */
+    Collection<DatasetInfo> getDatasetsForOffering(String offering);
+
     /**
      * Checks whether or not the specified feature is contained in this cache.
      *
@@ -824,6 +837,47 @@ public interface SosContentCache
 
     Set<String> getPublishedObservableProperties();
 
+    /**
+     * Checks whether or not the specified feature is published. In contrast to
+     * {@code getPublishedFeatureOfInterest().contains(featureOfInterest)} the published features are not copied.
+     *
+     * @param featureOfInterest
+     *            the feature
+     *
+     * @return {@code true} if it is published
+     */
+    boolean hasPublishedFeatureOfInterest(String featureOfInterest);
+
+    /**
+     * Checks whether or not the specified procedure is published.
+     *
+     * @param procedure
+     *            the procedure
+     *
+     * @return {@code true} if it is published
+     */
+    boolean hasPublishedProcedure(String procedure);
+
+    /**
+     * Checks whether or not the specified offering is published.
+     *
+     * @param offering
+     *            the offering
+     *
+     * @return {@code true} if it is published
+     */
+    boolean hasPublishedOffering(String offering);
+
+    /**
+     * Checks whether or not the specified observable property is published.
+     *
+     * @param observableProperty
+     *            the observable property
+     *
+     * @return {@code true} if it is published
+     */
+    boolean hasPublishedObservableProperty(String observableProperty);
+
     enum TypeInstance {
         TYPE, INSTANCE;
     }
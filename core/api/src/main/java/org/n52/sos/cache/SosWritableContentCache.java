@@ -36,6 +36,7 @@ import org.joda.time.DateTime;
 
 import org.n52.iceland.cache.WritableContentCache;
 import org.n52.janmayen.i18n.MultilingualString;
+import org.n52.shetland.ogc.gml.time.Time;
 
 /**
  * Extension of {@code ContentCache} to allow the manipulation of the cache.
@@ -580,6 +581,16 @@ public interface SosWritableContentCache
      */
     void removeFeatureOfInterestTypesForOffering(String offering);
 
+    /**
+     * Dissociate all datasets with the specified offering.
+     *
+     * @param offering
+     *            the offering
+     *
+     * @since 5.0.2
+     */
+    void removeDatasetsForOffering(String offering);
+
     /**
      * Dissociate the specified observation type with the specified offering.
      *
@@ -939,6 +950,38 @@ public interface SosWritableContentCache
      */
     void setFeatureOfInterestTypesForOffering(String offering, Collection<String> featureOfInterestTypes);
 
+    /**
+     * Sets the datasets for the specified offering.
+     *
+     * @param offering
+     *            the offering
+     * @param datasets
+     *            the datasets
+     *
+     * @since 5.0.2
+     */
+    void setDatasetsForOffering(String offering, Collection<DatasetInfo> datasets);
+
+    /**
+     * Updates the phenomenon time extent of the dataset with the specified constellation to include the specified
+     * time. The dataset is added if it does not exist.
+     *
+     * @param procedure
+     *            the procedure
+     * @param observableProperty
+     *            the observable property
+     * @param featureOfInterest
+     *            the feature of interest
+     * @param offering
+     *            the offering
+     * @param phenomenonTime
+     *            the phenomenon time
+     *
+     * @since 5.0.2
+     */
+    void updatePhenomenonTimeForDataset(String procedure, String observableProperty, String featureOfInterest,
+            String offering, Time phenomenonTime);
+
     /**
      * Sets the specified offerings for the specified observable property.
      *
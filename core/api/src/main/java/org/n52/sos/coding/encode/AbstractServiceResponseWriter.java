@@ -84,11 +84,18 @@ public class AbstractServiceResponseWriter extends AbstractResponseWriter<OwsSer
                 // use encoded Object specific writer, e.g. XmlResponseWriter
                 Object encode = encoder.encode(asr);
                 if (encode != null) {
-                    ResponseWriter<Object> writer = this.responseWriterRepository.getWriter(encode.getClass());
-                    if (writer == null) {
-                        throw new RuntimeException("no writer for " + encode.getClass() + " found!");
+                    try {
+                        ResponseWriter<Object> writer = this.responseWriterRepository.getWriter(encode.getClass());
+                        if (writer == null) {
+                            throw new RuntimeException("no writer for " + encode.getClass() + " found!");
+                        }
+                        writer.write(encode, out, responseProxy);
+                    } finally {
+                        if (encode instanceof FileAttachmentResponse) {
+                            // delete the temporary file even if it was not written
+                            ((FileAttachmentResponse) encode).close();
+                        }
                     }
-                    writer.write(encode, out, responseProxy);
                 }
             }
         }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.coding.encode;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.n52.janmayen.http.MediaType;
+import org.n52.shetland.ogc.sos.response.BinaryAttachmentResponse;
+
+/**
+ * {@link BinaryAttachmentResponse} whose content is stored in a (temporary) file. The content is not held in memory
+ * but written from the file to the response by the {@link FileAttachmentResponseWriter}. The file and, if set, its
+ * temporary directory are deleted when the response is closed, which the {@link AbstractServiceResponseWriter} does
+ * even if the response is not written.
+ *
+ * @since 5.0.2
+ */
+public class FileAttachmentResponse extends BinaryAttachmentResponse implements Closeable {
+    private static final byte[] EMPTY = new byte[0];
+    private final File file;
+    private final File temporaryDirectory;
+
+    /**
+     * @param file               the file to write
+     * @param contentType        the content type of the file
+     * @param filename           the file name of the attachment
+     * @param temporaryDirectory the directory to delete together with the file, may be {@code null}
+     */
+    public FileAttachmentResponse(File file, MediaType contentType, String filename, File temporaryDirectory) {
+        super(EMPTY, contentType, filename);
+        this.file = file;
+        this.temporaryDirectory = temporaryDirectory;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Reads the content of the file into memory. Should only be used by writers that do not know this response.
+     *
+     * @return the content of the file
+     */
+    @Override
+    public byte[] getBytes() {
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (temporaryDirectory != null) {
+            delete(temporaryDirectory.toPath());
+        }
+        Files.deleteIfExists(file.toPath());
+    }
+
+    /**
+     * Deletes the file or directory including its content.
+     *
+     * @param path the file or directory
+     *
+     * @throws IOException if the deletion fails
+     */
+    public static void delete(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
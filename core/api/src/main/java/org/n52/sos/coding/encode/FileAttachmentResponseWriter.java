@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.coding.encode;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collections;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import org.n52.iceland.coding.encode.AbstractResponseWriter;
+import org.n52.iceland.coding.encode.ResponseProxy;
+import org.n52.iceland.coding.encode.ResponseWriterKey;
+import org.n52.sos.coding.encode.BinaryAttachmentResponseWriter.HeaderCode;
+import org.n52.svalbard.encode.EncoderRepository;
+
+import com.google.common.base.Strings;
+
+/**
+ * Writer for {@link FileAttachmentResponse}. The file is transferred to the output stream without loading it into
+ * memory and the response is closed afterwards, which deletes the file.
+ *
+ * @since 5.0.2
+ */
+public class FileAttachmentResponseWriter extends AbstractResponseWriter<FileAttachmentResponse> {
+    public static final ResponseWriterKey KEY = new ResponseWriterKey(FileAttachmentResponse.class);
+
+    public FileAttachmentResponseWriter(EncoderRepository encoderRepository) {
+        super(encoderRepository);
+    }
+
+    @Override
+    public Set<ResponseWriterKey> getKeys() {
+        return Collections.singleton(KEY);
+    }
+
+    @Override
+    public void write(FileAttachmentResponse response, OutputStream out, ResponseProxy responseProxy)
+            throws IOException {
+        if (response == null) {
+            return;
+        }
+        try (FileAttachmentResponse r = response;
+             FileChannel channel = new FileInputStream(r.getFile()).getChannel()) {
+            long size = channel.size();
+            if (!(out instanceof GZIPOutputStream) && size <= Integer.MAX_VALUE) {
+                responseProxy.setContentLength((int) size);
+            }
+            responseProxy.addHeader(HeaderCode.CONTENT_TRANSFER_ENCODING,
+                                    HeaderCode.CONTENT_TRANSFER_ENCODING_BINARY);
+            if (!Strings.isNullOrEmpty(r.getFilename())) {
+                responseProxy.addHeader(HeaderCode.CONTENT_DISPOSITION,
+                                        String.format(HeaderCode.CONTENT_ATTACHMENT_FILENAME_FORMAT, r.getFilename()));
+            }
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            out.flush();
+        }
+    }
+
+    @Override
+    public boolean supportsGZip(FileAttachmentResponse t) {
+        return false;
+    }
+}
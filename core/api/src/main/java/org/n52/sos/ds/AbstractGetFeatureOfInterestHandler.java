@@ -62,7 +62,7 @@ public abstract class AbstractGetFeatureOfInterestHandler extends AbstractOperat
             throws OwsExceptionReport;
 
     protected boolean isRelatedFeature(String featureIdentifier) {
-        return getCache().getRelatedFeatures().contains(featureIdentifier);
+        return getCache().hasRelatedFeature(featureIdentifier);
     }
 
     protected Set<String> getFeatureIdentifiers(List<String> featureIdentifiers) {
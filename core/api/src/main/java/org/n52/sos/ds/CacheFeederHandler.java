@@ -30,6 +30,7 @@ package org.n52.sos.ds;
 
 import java.util.Collection;
 
+import org.joda.time.DateTime;
 import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
 import org.n52.sos.cache.SosWritableContentCache;
 
@@ -63,4 +64,19 @@ public interface CacheFeederHandler {
      */
     void updateCache(SosWritableContentCache cache)
             throws OwsExceptionReport;
+
+    /**
+     * Updates the cached data that changed since the specified time. The
+     * default implementation updates all cached data.
+     *
+     * @param cache the cache to update
+     * @param since the time since which the data should be updated, if
+     *              {@code null} all cached data is updated
+     *
+     * @throws OwsExceptionReport if an occurs during the cache update
+     */
+    default void updateCache(SosWritableContentCache cache, DateTime since)
+            throws OwsExceptionReport {
+        updateCache(cache);
+    }
 }
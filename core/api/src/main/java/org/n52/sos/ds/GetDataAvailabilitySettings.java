@@ -31,4 +31,5 @@ package org.n52.sos.ds;
 public interface GetDataAvailabilitySettings {
     String FORCE_GDA_VALUE_COUNT = "operation.gda.forceValueCount";
     public static final String FORCE_GDA_20_RESPONSE = "operation.gda.forceVersion20";
+    String GDA_FROM_CACHE = "operation.gda.fromCache";
 }
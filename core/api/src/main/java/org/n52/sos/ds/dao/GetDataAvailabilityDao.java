@@ -28,6 +28,7 @@
  */
 package org.n52.sos.ds.dao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -46,6 +47,21 @@ public interface GetDataAvailabilityDao extends DefaultDao {
 
     List<TimeInstant> getResultTimes(DataAvailability dataAvailability, GetDataAvailabilityRequest request) throws OwsExceptionReport;
 
+    /**
+     * Query the distinct result times of the datasets with as few queries as possible.
+     *
+     * @param datasets
+     *            the dataset ids
+     * @param request
+     *            the request
+     * @return the ascending sorted result times mapped by dataset id
+     * @throws OwsExceptionReport
+     *             If an error occurs
+     * @since 5.0.2
+     */
+    Map<Long, List<TimeInstant>> getResultTimes(Collection<Long> datasets, GetDataAvailabilityRequest request)
+            throws OwsExceptionReport;
+
     Map<String, NamedValue<?>> getMetadata(DataAvailability dataAvailability) throws OwsExceptionReport;
 
 }
@@ -553,7 +553,7 @@ public abstract class AbstractRequestOperator<D extends OperationHandler, Q exte
     protected void checkProcedure(String procedure, String parameterName) throws OwsExceptionReport {
         if (Strings.isNullOrEmpty(procedure)) {
             throw new MissingProcedureParameterException();
-        } else if (!getCache().getPublishedProcedures().contains(procedure)) {
+        } else if (!getCache().hasPublishedProcedure(procedure)) {
             throw new InvalidParameterValueException(parameterName, procedure);
         }
     }
@@ -667,7 +667,7 @@ public abstract class AbstractRequestOperator<D extends OperationHandler, Q exte
         if (featureOfInterest == null || featureOfInterest.isEmpty()) {
             throw new MissingParameterValueException(parameterName);
         }
-        if (getCache().getPublishedFeatureOfInterest().contains(featureOfInterest)) {
+        if (getCache().hasPublishedFeatureOfInterest(featureOfInterest)) {
             return;
         }
         if (getCache().hasRelatedFeature(featureOfInterest) && getCache().isRelatedFeatureSampled(featureOfInterest)) {
@@ -726,7 +726,7 @@ public abstract class AbstractRequestOperator<D extends OperationHandler, Q exte
                   getCache().hasObservableProperty(observedProperty))) {
                 throw new InvalidParameterValueException(parameterName, observedProperty);
             }
-        } else if (!getCache().getPublishedObservableProperties().contains(observedProperty)) {
+        } else if (!getCache().hasPublishedObservableProperty(observedProperty)) {
             throw new InvalidParameterValueException(parameterName, observedProperty);
         }
 
@@ -777,11 +777,11 @@ public abstract class AbstractRequestOperator<D extends OperationHandler, Q exte
             throw new MissingParameterValueException(parameterName);
         }
         if (all) {
-            if (!getCache().getOfferings().contains(offering)) {
+            if (!getCache().hasOffering(offering)) {
                 throw new InvalidParameterValueException(parameterName, offering);
             }
         } else {
-            if (!getCache().getPublishedOfferings().contains(offering)) {
+            if (!getCache().hasPublishedOffering(offering)) {
                 throw new InvalidParameterValueException(parameterName, offering);
             }
         }
@@ -42,5 +42,12 @@ public interface SosSettings {
     String ALLOW_TEMPLATE_WITHOUT_PROCEDURE_FEATURE = "service.allowTemplateWithoutProcedureAndFeature";
     String INCLUDE_RESULT_TIME_FOR_MERGING = "service.includeResultTimeForMerging";
     String CHECK_FOR_DUPLICITY = "service.checkForDuplicity";
+    String CONCURRENT_INSERT_OBSERVATION = "service.concurrentInsertObservation";
+    String INSERT_RESULT_BATCH_SIZE = "service.insertResultBatchSize";
+    String CACHE_SNAPSHOTS = "service.cacheSnapshots";
+    String INCREMENTAL_CACHE_UPDATE = "service.incrementalCacheUpdate";
+    String PARTIAL_CACHE_UPDATE_QUEUE = "service.partialCacheUpdateQueue";
+    String CAPABILITIES_CONTENTS_CACHE = "service.capabilitiesContentsCache";
+    String REFERENCE_ENTITY_CACHE = "service.referenceEntityCache";
 
 }
@@ -31,10 +31,15 @@ package org.n52.sos.util;
 import static java.util.stream.Collectors.toSet;
 import static org.geotools.referencing.ReferencingFactoryFinder.getCRSAuthorityFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
 
 import org.geotools.factory.Hints;
@@ -42,8 +47,11 @@ import org.geotools.geometry.jts.JTS;
 import org.geotools.referencing.CRS;
 import org.geotools.referencing.factory.AbstractAuthorityFactory;
 import org.geotools.referencing.factory.DeferredAuthorityFactory;
+import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
 import org.opengis.geometry.MismatchedDimensionException;
 import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.crs.CRSAuthorityFactory;
@@ -108,6 +116,8 @@ public class GeometryHandler implements GeometryTransformer, Constructable, Dest
     private String authority;
     private CRSAuthorityFactory crsAuthority;
     private final Map<Integer, CoordinateReferenceSystem> crsCache = Maps.newConcurrentMap();
+    private final Map<MathTransformKey, MathTransform> transformCache = Maps.newConcurrentMap();
+    private boolean longitudeFirst;
     private String srsNamePrefixUrl;
 
     @Setting(CodingSettings.SRS_NAME_PREFIX_URL)
@@ -119,8 +129,8 @@ public class GeometryHandler implements GeometryTransformer, Constructable, Dest
     @Override
     public void init() {
         GeometryHandler.instance = this;
-        Hints hints = new Hints(Hints.FORCE_LONGITUDE_FIRST_AXIS_ORDER,
-                                isEastingFirstEpsgCode(getStorageEPSG()));
+        this.longitudeFirst = isEastingFirstEpsgCode(getStorageEPSG());
+        Hints hints = new Hints(Hints.FORCE_LONGITUDE_FIRST_AXIS_ORDER, this.longitudeFirst);
         this.crsAuthority = getCRSAuthorityFactory(this.authority, hints);
     }
 
@@ -576,6 +586,70 @@ public class GeometryHandler implements GeometryTransformer, Constructable, Dest
         return transform(geometry, targetSRID, sourceCRS, targetCRS);
     }
 
+    /**
+     * Transform the geometries to this EPSG code. Points are collected by their EPSG code and transformed with a
+     * single {@link MathTransform#transform(double[], int, double[], int, int)} call per EPSG code, all other
+     * geometries are transformed one by one.
+     *
+     * @param geometries Geometries to transform
+     * @param targetSRID Target EPSG code
+     *
+     * @return Transformed geometries in the order of the geometries to transform
+     *
+     * @throws OwsExceptionReport If the transformation fails
+     */
+    public List<Geometry> transform(List<Geometry> geometries, int targetSRID) throws OwsExceptionReport {
+        Geometry[] transformed = geometries.toArray(new Geometry[geometries.size()]);
+        Map<Integer, List<Integer>> pointsBySRID = new LinkedHashMap<>();
+        for (int i = 0; i < transformed.length; i++) {
+            Geometry geometry = transformed[i];
+            if (geometry instanceof Point && !geometry.isEmpty() && geometry.getSRID() != targetSRID) {
+                pointsBySRID.computeIfAbsent(geometry.getSRID(), srid -> new ArrayList<>()).add(i);
+            } else {
+                transformed[i] = transform(geometry, targetSRID);
+            }
+        }
+        for (Entry<Integer, List<Integer>> entry : pointsBySRID.entrySet()) {
+            transformPoints(transformed, entry.getValue(), entry.getKey(), targetSRID);
+        }
+        return Arrays.asList(transformed);
+    }
+
+    private void transformPoints(Geometry[] geometries, List<Integer> indices, int sourceSRID, int targetSRID)
+            throws OwsExceptionReport {
+        CoordinateReferenceSystem sourceCRS = getCRS(sourceSRID);
+        CoordinateReferenceSystem targetCRS = getCRS(targetSRID);
+        MathTransform transform = null;
+        if (!sourceCRS.equals(targetCRS)) {
+            transform = getMathTransform(sourceSRID, targetSRID);
+        }
+        if (transform == null || transform.getSourceDimensions() != 2 || transform.getTargetDimensions() != 2) {
+            for (int index : indices) {
+                geometries[index] = transform(geometries[index], targetSRID, sourceCRS, targetCRS);
+            }
+            return;
+        }
+        boolean switchAxis = isNorthingFirstEpsgCode(sourceSRID) != isNorthingFirstEpsgCode(targetSRID);
+        double[] coordinates = new double[indices.size() * 2];
+        for (int i = 0; i < indices.size(); i++) {
+            Coordinate coordinate = geometries[indices.get(i)].getCoordinate();
+            coordinates[2 * i] = switchAxis ? coordinate.y : coordinate.x;
+            coordinates[2 * i + 1] = switchAxis ? coordinate.x : coordinate.y;
+        }
+        try {
+            transform.transform(coordinates, 0, coordinates, 0, indices.size());
+        } catch (TransformException te) {
+            throw new NoApplicableCodeException().causedBy(te)
+                    .withMessage("Transformation from EPSG code '%s' to '%s' fails!", sourceSRID, targetSRID);
+        }
+        GeometryFactory factory = JTSHelper.getGeometryFactoryForSRID(targetSRID);
+        for (int i = 0; i < indices.size(); i++) {
+            Coordinate coordinate = geometries[indices.get(i)].getCoordinate();
+            geometries[indices.get(i)] =
+                    factory.createPoint(new Coordinate(coordinates[2 * i], coordinates[2 * i + 1], coordinate.z));
+        }
+    }
+
     private Geometry transform(final Geometry geometry, final int targetSRID,
                                final CoordinateReferenceSystem sourceCRS, final CoordinateReferenceSystem targetCRS)
             throws OwsExceptionReport {
@@ -602,17 +676,42 @@ public class GeometryHandler implements GeometryTransformer, Constructable, Dest
         }
         Geometry switchedCoordiantes = switchCoordinateAxisIfNeeded(JTSConverter.convert(geometry), targetSRID);
         try {
-            MathTransform transform = CRS.findMathTransform(sourceCRS, targetCRS);
+            MathTransform transform = getMathTransform(switchedCoordiantes.getSRID(), targetSRID);
             Geometry transformed = JTSConverter.convert(JTS
                     .transform(JTSConverter.convert(switchedCoordiantes), transform));
             transformed.setSRID(targetSRID);
             return transformed;
-        } catch (FactoryException | MismatchedDimensionException | TransformException fe) {
+        } catch (MismatchedDimensionException | TransformException fe) {
             throw new NoApplicableCodeException().causedBy(fe)
                     .withMessage("The EPSG code '%s' is not supported!", switchedCoordiantes.getSRID());
         }
     }
 
+    /**
+     * Get the cached {@link MathTransform} from the source to the target EPSG code.
+     *
+     * @param sourceSRID Source EPSG code
+     * @param targetSRID Target EPSG code
+     *
+     * @return the transform
+     *
+     * @throws OwsExceptionReport If the EPSG code is not supported
+     */
+    private MathTransform getMathTransform(int sourceSRID, int targetSRID) throws OwsExceptionReport {
+        MathTransformKey key = new MathTransformKey(sourceSRID, targetSRID, this.longitudeFirst);
+        MathTransform transform = this.transformCache.get(key);
+        if (transform == null) {
+            try {
+                transform = CRS.findMathTransform(getCRS(sourceSRID), getCRS(targetSRID));
+            } catch (FactoryException fe) {
+                throw new NoApplicableCodeException().causedBy(fe)
+                        .withMessage("The EPSG code '%s' is not supported!", sourceSRID);
+            }
+            this.transformCache.put(key, transform);
+        }
+        return transform;
+    }
+
     /**
      * Get CRS from EPSG code.
      *
@@ -682,15 +781,10 @@ public class GeometryHandler implements GeometryTransformer, Constructable, Dest
     public Envelope transformEnvelope(com.vividsolutions.jts.geom.Envelope envelope, int sourceSRID, int targetSRID)
             throws OwsExceptionReport {
         if (envelope != null && !envelope.isNull() && targetSRID > 0 && sourceSRID != targetSRID) {
-            CoordinateReferenceSystem sourceCRS = getCRS(sourceSRID);
-            CoordinateReferenceSystem targetCRS = getCRS(targetSRID);
+            MathTransform transform = getMathTransform(sourceSRID, targetSRID);
             try {
-                MathTransform transform = CRS.findMathTransform(sourceCRS, targetCRS);
                 Envelope transformed = JTSConverter.convert(JTS.transform(envelope, transform));
                 return transformed;
-            } catch (FactoryException fe) {
-                throw new NoApplicableCodeException().causedBy(fe).withMessage("The EPSG code '%s' is not supported!",
-                                                                               sourceSRID);
             } catch (MismatchedDimensionException mde) {
                 throw new NoApplicableCodeException().causedBy(mde).withMessage(
                         "Transformation from EPSG code '%s' to '%s' fails!", sourceSRID, targetSRID);
@@ -708,6 +802,7 @@ public class GeometryHandler implements GeometryTransformer, Constructable, Dest
     @VisibleForTesting
     protected void clearSupportedCRSMap() {
         crsCache.clear();
+        transformCache.clear();
     }
 
     public Set<String> addAuthorityCrsPrefix(Collection<Integer> crses) {
@@ -739,4 +834,37 @@ public class GeometryHandler implements GeometryTransformer, Constructable, Dest
         return instance;
     }
 
+    /**
+     * Key of the {@link MathTransform} cache.
+     */
+    private static final class MathTransformKey {
+        private final int sourceSRID;
+        private final int targetSRID;
+        private final boolean longitudeFirst;
+
+        MathTransformKey(int sourceSRID, int targetSRID, boolean longitudeFirst) {
+            this.sourceSRID = sourceSRID;
+            this.targetSRID = targetSRID;
+            this.longitudeFirst = longitudeFirst;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sourceSRID, targetSRID, longitudeFirst);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof MathTransformKey)) {
+                return false;
+            }
+            MathTransformKey other = (MathTransformKey) obj;
+            return sourceSRID == other.sourceSRID && targetSRID == other.targetSRID
+                    && longitudeFirst == other.longitudeFirst;
+        }
+    }
+
 }
\ No newline at end of file
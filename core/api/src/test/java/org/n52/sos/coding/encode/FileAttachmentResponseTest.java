@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.coding.encode;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.janmayen.http.MediaType;
+
+/**
+ * @since 5.0.2
+ *
+ */
+public class FileAttachmentResponseTest {
+
+    private static final byte[] CONTENT = "netcdf".getBytes(StandardCharsets.UTF_8);
+
+    private Path tempDir;
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("sos-test");
+        file = Files.write(tempDir.resolve("test.nc"), CONTENT).toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileAttachmentResponse.delete(tempDir);
+    }
+
+    @Test
+    public void shouldReadTheBytesFromTheFile() throws IOException {
+        FileAttachmentResponse response = new FileAttachmentResponse(file, MediaType.parse("application/netcdf"),
+                "test.nc", tempDir.toFile());
+        assertThat(response.getBytes(), is(CONTENT));
+        assertThat(response.getFilename(), is("test.nc"));
+    }
+
+    @Test
+    public void shouldDeleteTheTemporaryDirectoryOnClose() throws IOException {
+        FileAttachmentResponse response = new FileAttachmentResponse(file, MediaType.parse("application/netcdf"),
+                "test.nc", tempDir.toFile());
+        response.close();
+        assertThat(file.exists(), is(false));
+        assertThat(Files.exists(tempDir), is(false));
+        // closing again, e.g. by the writer and the service response writer, is fine
+        response.close();
+    }
+}
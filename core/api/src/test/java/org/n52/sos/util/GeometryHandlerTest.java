@@ -32,6 +32,9 @@ import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -161,6 +164,20 @@ public class GeometryHandlerTest {
         assertThat((geometryHandler.switchCoordinateAxisFromToDatasourceIfNeeded(get31467Geometry()).distance(get31467Geometry()) < DISTANCE), is(true));
     }
 
+    @Test
+    public void shouldTransformPointsLikeSingleGeometries() throws OwsExceptionReport {
+        geometryHandler.clearSupportedCRSMap();
+        List<Geometry> transformed = geometryHandler
+                .transform(Arrays.asList(get31467Geometry(), get4326Geometry(), get31467SwitchedGeometry()), EPSG_4326);
+        assertThat(transformed.size(), is(3));
+        assertThat(transformed.get(0).getSRID(), is(EPSG_4326));
+        assertThat(transformed.get(0).distance(geometryHandler.transform(get31467Geometry(), EPSG_4326)) < DISTANCE,
+                is(true));
+        assertThat(transformed.get(1).distance(get4326Geometry()) < DISTANCE, is(true));
+        assertThat(transformed.get(2).distance(geometryHandler.transform(get31467SwitchedGeometry(), EPSG_4326))
+                < DISTANCE, is(true));
+    }
+
     @Test
     public void changeEpsgCodesWithNorthingFirstAxisOrder() throws OwsExceptionReport {
         assertThat(geometryHandler.isNorthingFirstEpsgCode(EPSG_31467), is(true));
@@ -139,6 +139,23 @@ public abstract class AbstractContentCache implements ContentCache {
         }
     }
 
+    /**
+     * Creates a unmodifiable view of the specified set. In contrast to {@link #copyOf(Set)} changes to the set are
+     * visible through the view, so this should only be used for sets that are not modified anymore.
+     *
+     * @param <T> the element type
+     * @param set the set
+     *
+     * @return a unmodifiable view
+     */
+    protected static <T> Set<T> viewOf(Set<T> set) {
+        if (set == null) {
+            return Collections.emptySet();
+        } else {
+            return Collections.unmodifiableSet(set);
+        }
+    }
+
     /**
      * Creates a unmodifiable copy of the specified collection of sets.
      *
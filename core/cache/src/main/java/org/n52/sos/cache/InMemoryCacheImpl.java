@@ -28,20 +28,33 @@
  */
 package org.n52.sos.cache;
 
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.n52.sos.util.SosHelper.getHierarchy;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 import org.joda.time.DateTime;
 import org.locationtech.jts.geom.Envelope;
@@ -63,78 +76,412 @@ import org.slf4j.LoggerFactory;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
 import com.google.common.collect.Sets;
 import org.locationtech.jts.geom.Envelope;
 
-public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements SosWritableContentCache, CacheConstants {
+public class InMemoryCacheImpl extends AbstractStaticSosContentCache
+        implements SosWritableContentCache, CacheConstants, CacheFootprint {
     private static final Logger LOG = LoggerFactory.getLogger(InMemoryCacheImpl.class);
     private static final long serialVersionUID = 3630601584420744019L;
-
-    private final Map<String, DateTime> maxPhenomenonTimeForOfferings = newSynchronizedMap();
-    private final Map<String, DateTime> minPhenomenonTimeForOfferings = newSynchronizedMap();
-    private final Map<String, DateTime> maxResultTimeForOfferings = newSynchronizedMap();
-    private final Map<String, DateTime> minResultTimeForOfferings = newSynchronizedMap();
-    private final Map<String, DateTime> maxPhenomenonTimeForProcedures = newSynchronizedMap();
-    private final Map<String, DateTime> minPhenomenonTimeForProcedures = newSynchronizedMap();
-    private final Map<String, Set<String>> allowedObservationTypeForOfferings = newSynchronizedMap();
-    private final Map<String, Set<String>> allowedFeatureOfInterestTypeForOfferings = newSynchronizedMap();
-    private final Map<String, Set<String>> childFeaturesForFeatureOfInterest = newSynchronizedMap();
-    private final Map<String, Set<String>> childProceduresForProcedures = newSynchronizedMap();
-    private final Map<String, Set<String>> childOfferingsForOfferings = newSynchronizedMap();
-    private final Map<String, Set<String>> compositePhenomenonsForProcedure = newSynchronizedMap();
-    private final Map<String, Set<String>> compositePhenomenonsForOffering = newSynchronizedMap();
-    private final Map<String, Set<String>> compositePhenomenonsForObservableProperty = newSynchronizedMap();
-    private final Map<String, Set<String>> featuresOfInterestForOfferings = newSynchronizedMap();
-    private final Map<String, Set<String>> offeringsForFeaturesOfInterest = newSynchronizedMap();
-    private final Map<String, Set<String>> featuresOfInterestForResultTemplates = newSynchronizedMap();
-    private final Map<String, Set<String>> observablePropertiesForCompositePhenomenons = newSynchronizedMap();
-    private final Map<String, Set<String>> observablePropertiesForOfferings = newSynchronizedMap();
-    private final Map<String, Set<String>> observablePropertiesForProcedures = newSynchronizedMap();
-    private final Map<String, Set<String>> observationTypesForOfferings = newSynchronizedMap();
-    private final Map<String, Set<String>> featureOfInterestTypesForOfferings = newSynchronizedMap();
-    private final Map<String, Set<String>> observedPropertiesForResultTemplates = newSynchronizedMap();
-    private final Map<String, Set<String>> offeringsForObservableProperties = newSynchronizedMap();
-    private final Map<String, Set<String>> offeringsForProcedures = newSynchronizedMap();
-    private final Map<String, Set<String>> parentFeaturesForFeaturesOfInterest = newSynchronizedMap();
-    private final Map<String, Set<String>> parentProceduresForProcedures = newSynchronizedMap();
-    private final Map<String, Set<String>> parentOfferingsForOfferings = newSynchronizedMap();
-    private final Map<String, Set<String>> proceduresForFeaturesOfInterest = newSynchronizedMap();
-    private final Map<String, Set<String>> proceduresForObservableProperties = newSynchronizedMap();
-    private final Map<String, Set<String>> proceduresForOfferings = newSynchronizedMap();
-    private final Map<String, Set<String>> hiddenChildProceduresForOfferings = newSynchronizedMap();
-    private final Map<String, Set<String>> relatedFeaturesForOfferings = newSynchronizedMap();
-    private final Map<String, Set<String>> resultTemplatesForOfferings = newSynchronizedMap();
-    private final Map<String, Set<String>> rolesForRelatedFeatures = newSynchronizedMap();
-    private final Map<String, ReferencedEnvelope> envelopeForOfferings = newSynchronizedMap();
-    private final Map<String, String> nameForOfferings = newSynchronizedMap();
-    private final Map<String, MultilingualString> i18nNameForOfferings = newSynchronizedMap();
-    private final Map<String, MultilingualString> i18nDescriptionForOfferings = newSynchronizedMap();
-    private final Set<Integer> epsgCodes = newSynchronizedSet();
-    private final Set<String> featuresOfInterest = newSynchronizedSet();
-    private final Set<String> procedures = newSynchronizedSet();
-    private final Set<String> resultTemplates = newSynchronizedSet();
-    private final Set<String> offerings = newSynchronizedSet();
-    private final Set<String> compositePhenomenons = newSynchronizedSet();
+    /**
+     * Estimated heap size of a string without its characters, assuming compact (Latin-1) strings.
+     */
+    private static final long ESTIMATED_STRING_SIZE = 40;
+    /**
+     * Estimated heap size of a hash set entry including the bucket.
+     */
+    private static final long ESTIMATED_ENTRY_SIZE = 40;
+    /**
+     * Estimated heap size of an empty synchronized hash set.
+     */
+    private static final long ESTIMATED_SET_SIZE = 104;
+
+    private Map<String, DateTime> maxPhenomenonTimeForOfferings = newSynchronizedMap();
+    private Map<String, DateTime> minPhenomenonTimeForOfferings = newSynchronizedMap();
+    private Map<String, DateTime> maxResultTimeForOfferings = newSynchronizedMap();
+    private Map<String, DateTime> minResultTimeForOfferings = newSynchronizedMap();
+    private Map<String, DateTime> maxPhenomenonTimeForProcedures = newSynchronizedMap();
+    private Map<String, DateTime> minPhenomenonTimeForProcedures = newSynchronizedMap();
+    private Map<String, Set<String>> allowedObservationTypeForOfferings = newSynchronizedMap();
+    private Map<String, Set<String>> allowedFeatureOfInterestTypeForOfferings = newSynchronizedMap();
+    private Map<String, Set<String>> childFeaturesForFeatureOfInterest = newSynchronizedMap();
+    private Map<String, Set<String>> childProceduresForProcedures = newSynchronizedMap();
+    private Map<String, Set<String>> childOfferingsForOfferings = newSynchronizedMap();
+    private Map<String, Set<String>> compositePhenomenonsForProcedure = newSynchronizedMap();
+    private Map<String, Set<String>> compositePhenomenonsForOffering = newSynchronizedMap();
+    private Map<String, Set<String>> compositePhenomenonsForObservableProperty = newSynchronizedMap();
+    private Map<String, Set<String>> featuresOfInterestForOfferings = newSynchronizedMap();
+    private Map<String, Set<String>> offeringsForFeaturesOfInterest = newSynchronizedMap();
+    private Map<String, Set<String>> featuresOfInterestForResultTemplates = newSynchronizedMap();
+    private Map<String, Set<String>> observablePropertiesForCompositePhenomenons = newSynchronizedMap();
+    private Map<String, Set<String>> observablePropertiesForOfferings = newSynchronizedMap();
+    private Map<String, Set<String>> observablePropertiesForProcedures = newSynchronizedMap();
+    private Map<String, Set<String>> observationTypesForOfferings = newSynchronizedMap();
+    private Map<String, Set<String>> featureOfInterestTypesForOfferings = newSynchronizedMap();
+    private Map<String, Set<String>> observedPropertiesForResultTemplates = newSynchronizedMap();
+    private Map<String, Set<String>> offeringsForObservableProperties = newSynchronizedMap();
+    private Map<String, Set<String>> offeringsForProcedures = newSynchronizedMap();
+    private Map<String, Set<String>> parentFeaturesForFeaturesOfInterest = newSynchronizedMap();
+    private Map<String, Set<String>> parentProceduresForProcedures = newSynchronizedMap();
+    private Map<String, Set<String>> parentOfferingsForOfferings = newSynchronizedMap();
+    private Map<String, Set<String>> proceduresForFeaturesOfInterest = newSynchronizedMap();
+    private Map<String, Set<String>> proceduresForObservableProperties = newSynchronizedMap();
+    private Map<String, Set<String>> proceduresForOfferings = newSynchronizedMap();
+    private Map<String, Set<String>> hiddenChildProceduresForOfferings = newSynchronizedMap();
+    private Map<String, Set<String>> relatedFeaturesForOfferings = newSynchronizedMap();
+    private Map<String, Set<String>> resultTemplatesForOfferings = newSynchronizedMap();
+    private Map<String, Set<String>> rolesForRelatedFeatures = newSynchronizedMap();
+    private Map<String, ReferencedEnvelope> envelopeForOfferings = newSynchronizedMap();
+    private Map<String, String> nameForOfferings = newSynchronizedMap();
+    private Map<String, MultilingualString> i18nNameForOfferings = newSynchronizedMap();
+    private Map<String, MultilingualString> i18nDescriptionForOfferings = newSynchronizedMap();
+    private Set<Integer> epsgCodes = newSynchronizedSet();
+    private Set<String> featuresOfInterest = newSynchronizedSet();
+    private Set<String> procedures = newSynchronizedSet();
+    private Set<String> resultTemplates = newSynchronizedSet();
+    private Set<String> offerings = newSynchronizedSet();
+    private Set<String> compositePhenomenons = newSynchronizedSet();
     private final TimePeriod globalPhenomenonTimeEnvelope = new TimePeriod();
     private final TimePeriod globalResultTimeEnvelope = new TimePeriod();
-    private final Map<String, ReferencedEnvelope> spatialFilteringProfileEnvelopeForOfferings = newSynchronizedMap();
-    private final Set<Locale> supportedLanguages = newSynchronizedSet();
-    private final Set<String> requestableProcedureDescriptionFormats = newSynchronizedSet();
-    private final BiMap<String, String> featureOfInterestIdentifierHumanReadableName = newSynchronizedBiMap();
-    private final BiMap<String, String> observablePropertyIdentifierHumanReadableName = newSynchronizedBiMap();
-    private final BiMap<String, String> procedureIdentifierHumanReadableName = newSynchronizedBiMap();
-    private final BiMap<String, String> offeringIdentifierHumanReadableName = newSynchronizedBiMap();
-    private final Map<TypeInstance, Set<String>> typeInstanceProcedures = newSynchronizedMap();
-    private final Map<ComponentAggregation, Set<String>> componentAggregationProcedures = newSynchronizedMap();
-    private final Map<String, Set<String>> typeOfProceduresMap = newSynchronizedMap();
+    private Map<String, ReferencedEnvelope> spatialFilteringProfileEnvelopeForOfferings = newSynchronizedMap();
+    private Set<Locale> supportedLanguages = newSynchronizedSet();
+    private Set<String> requestableProcedureDescriptionFormats = newSynchronizedSet();
+    private BiMap<String, String> featureOfInterestIdentifierHumanReadableName = newSynchronizedBiMap();
+    private BiMap<String, String> observablePropertyIdentifierHumanReadableName = newSynchronizedBiMap();
+    private BiMap<String, String> procedureIdentifierHumanReadableName = newSynchronizedBiMap();
+    private BiMap<String, String> offeringIdentifierHumanReadableName = newSynchronizedBiMap();
+    private Map<TypeInstance, Set<String>> typeInstanceProcedures = newSynchronizedMap();
+    private Map<ComponentAggregation, Set<String>> componentAggregationProcedures = newSynchronizedMap();
+    private Map<String, Set<String>> typeOfProceduresMap = newSynchronizedMap();
     private int defaultEpsgCode = 4326;
     private ReferencedEnvelope globalEnvelope = new ReferencedEnvelope(null, defaultEpsgCode);
     private DateTime updateTime;
-    private final Map<String, Set<String>> procedureProcedureDescriptionFormats = newSynchronizedMap();
+    private Map<String, Set<String>> procedureProcedureDescriptionFormats = newSynchronizedMap();
+    private Map<String, Map<DatasetInfo.Constellation, DatasetInfo>> datasetsForOfferings = newSynchronizedMap();
     private Set<String> publishedFeatureOfInterest = newSynchronizedSet();
     private Set<String> publishedProcedure= newSynchronizedSet();
     private Set<String> publishedOffering = newSynchronizedSet();
     private Set<String> publishedObservableProperty = newSynchronizedSet();
+    private transient volatile boolean frozen;
+    /**
+     * The collections that are shared with the cache this cache was copied from. They are replaced by a copy before
+     * they are modified for the first time.
+     */
+    private transient Set<Object> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Marks this cache as a read only snapshot. The getters of a frozen cache return unmodifiable views instead of
+     * copies of the cached sets. The cache must not be modified after it was frozen, use {@link #copy()} to create a
+     * modifiable copy.
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+
+    /**
+     * @return if this cache is a read only snapshot
+     */
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    /**
+     * Creates a modifiable (not frozen) copy of this cache. The copy shares the collections of this cache and copies
+     * only those collections that are modified afterwards, so that the costs of a partial update depend on the
+     * relations it changes and not on the size of the cache. This cache must not be modified afterwards, which is
+     * the case for a frozen cache.
+     *
+     * @return the copy
+     */
+    public InMemoryCacheImpl copy() {
+        InMemoryCacheImpl copy = new InMemoryCacheImpl();
+        copy.maxPhenomenonTimeForOfferings = this.maxPhenomenonTimeForOfferings;
+        copy.minPhenomenonTimeForOfferings = this.minPhenomenonTimeForOfferings;
+        copy.maxResultTimeForOfferings = this.maxResultTimeForOfferings;
+        copy.minResultTimeForOfferings = this.minResultTimeForOfferings;
+        copy.maxPhenomenonTimeForProcedures = this.maxPhenomenonTimeForProcedures;
+        copy.minPhenomenonTimeForProcedures = this.minPhenomenonTimeForProcedures;
+        copy.allowedObservationTypeForOfferings = this.allowedObservationTypeForOfferings;
+        copy.allowedFeatureOfInterestTypeForOfferings = this.allowedFeatureOfInterestTypeForOfferings;
+        copy.childFeaturesForFeatureOfInterest = this.childFeaturesForFeatureOfInterest;
+        copy.childProceduresForProcedures = this.childProceduresForProcedures;
+        copy.childOfferingsForOfferings = this.childOfferingsForOfferings;
+        copy.compositePhenomenonsForProcedure = this.compositePhenomenonsForProcedure;
+        copy.compositePhenomenonsForOffering = this.compositePhenomenonsForOffering;
+        copy.compositePhenomenonsForObservableProperty = this.compositePhenomenonsForObservableProperty;
+        copy.featuresOfInterestForOfferings = this.featuresOfInterestForOfferings;
+        copy.offeringsForFeaturesOfInterest = this.offeringsForFeaturesOfInterest;
+        copy.featuresOfInterestForResultTemplates = this.featuresOfInterestForResultTemplates;
+        copy.observablePropertiesForCompositePhenomenons = this.observablePropertiesForCompositePhenomenons;
+        copy.observablePropertiesForOfferings = this.observablePropertiesForOfferings;
+        copy.observablePropertiesForProcedures = this.observablePropertiesForProcedures;
+        copy.observationTypesForOfferings = this.observationTypesForOfferings;
+        copy.featureOfInterestTypesForOfferings = this.featureOfInterestTypesForOfferings;
+        copy.observedPropertiesForResultTemplates = this.observedPropertiesForResultTemplates;
+        copy.offeringsForObservableProperties = this.offeringsForObservableProperties;
+        copy.offeringsForProcedures = this.offeringsForProcedures;
+        copy.parentFeaturesForFeaturesOfInterest = this.parentFeaturesForFeaturesOfInterest;
+        copy.parentProceduresForProcedures = this.parentProceduresForProcedures;
+        copy.parentOfferingsForOfferings = this.parentOfferingsForOfferings;
+        copy.proceduresForFeaturesOfInterest = this.proceduresForFeaturesOfInterest;
+        copy.proceduresForObservableProperties = this.proceduresForObservableProperties;
+        copy.proceduresForOfferings = this.proceduresForOfferings;
+        copy.hiddenChildProceduresForOfferings = this.hiddenChildProceduresForOfferings;
+        copy.relatedFeaturesForOfferings = this.relatedFeaturesForOfferings;
+        copy.resultTemplatesForOfferings = this.resultTemplatesForOfferings;
+        copy.rolesForRelatedFeatures = this.rolesForRelatedFeatures;
+        copy.envelopeForOfferings = this.envelopeForOfferings;
+        copy.nameForOfferings = this.nameForOfferings;
+        copy.i18nNameForOfferings = this.i18nNameForOfferings;
+        copy.i18nDescriptionForOfferings = this.i18nDescriptionForOfferings;
+        copy.epsgCodes = this.epsgCodes;
+        copy.featuresOfInterest = this.featuresOfInterest;
+        copy.procedures = this.procedures;
+        copy.resultTemplates = this.resultTemplates;
+        copy.offerings = this.offerings;
+        copy.compositePhenomenons = this.compositePhenomenons;
+        copy.spatialFilteringProfileEnvelopeForOfferings = this.spatialFilteringProfileEnvelopeForOfferings;
+        copy.supportedLanguages = this.supportedLanguages;
+        copy.requestableProcedureDescriptionFormats = this.requestableProcedureDescriptionFormats;
+        copy.featureOfInterestIdentifierHumanReadableName = this.featureOfInterestIdentifierHumanReadableName;
+        copy.observablePropertyIdentifierHumanReadableName = this.observablePropertyIdentifierHumanReadableName;
+        copy.procedureIdentifierHumanReadableName = this.procedureIdentifierHumanReadableName;
+        copy.offeringIdentifierHumanReadableName = this.offeringIdentifierHumanReadableName;
+        copy.typeInstanceProcedures = this.typeInstanceProcedures;
+        copy.componentAggregationProcedures = this.componentAggregationProcedures;
+        copy.typeOfProceduresMap = this.typeOfProceduresMap;
+        copy.procedureProcedureDescriptionFormats = this.procedureProcedureDescriptionFormats;
+        copy.datasetsForOfferings = this.datasetsForOfferings;
+        copy.publishedFeatureOfInterest = this.publishedFeatureOfInterest;
+        copy.publishedProcedure = this.publishedProcedure;
+        copy.publishedOffering = this.publishedOffering;
+        copy.publishedObservableProperty = this.publishedObservableProperty;
+        copy.shared.addAll(copy.getCollections());
+        // the time envelopes and the global envelope are modified in place
+        copy.globalPhenomenonTimeEnvelope.setStart(this.globalPhenomenonTimeEnvelope.getStart());
+        copy.globalPhenomenonTimeEnvelope.setEnd(this.globalPhenomenonTimeEnvelope.getEnd());
+        copy.globalResultTimeEnvelope.setStart(this.globalResultTimeEnvelope.getStart());
+        copy.globalResultTimeEnvelope.setEnd(this.globalResultTimeEnvelope.getEnd());
+        copy.globalEnvelope = copyOf(this.globalEnvelope);
+        copy.defaultEpsgCode = this.defaultEpsgCode;
+        copy.updateTime = this.updateTime;
+        copy.setSupportedTypeRepository(getSupportedTypeRepository());
+        return copy;
+    }
+
+    /**
+     * @return all collections of this cache
+     */
+    private List<Object> getCollections() {
+        List<Object> collections = new ArrayList<>();
+        collections.addAll(getIdentifierSets());
+        collections.addAll(getRelationMaps());
+        collections.addAll(Arrays.asList(
+                this.maxPhenomenonTimeForOfferings, this.minPhenomenonTimeForOfferings,
+                this.maxResultTimeForOfferings, this.minResultTimeForOfferings,
+                this.maxPhenomenonTimeForProcedures, this.minPhenomenonTimeForProcedures,
+                this.envelopeForOfferings, this.spatialFilteringProfileEnvelopeForOfferings,
+                this.nameForOfferings, this.i18nNameForOfferings, this.i18nDescriptionForOfferings,
+                this.typeInstanceProcedures, this.componentAggregationProcedures,
+                this.featureOfInterestIdentifierHumanReadableName, this.observablePropertyIdentifierHumanReadableName,
+                this.procedureIdentifierHumanReadableName, this.offeringIdentifierHumanReadableName,
+                this.epsgCodes, this.supportedLanguages, this.datasetsForOfferings));
+        return collections;
+    }
+
+    /**
+     * @param <T> the element type
+     * @param set the set to modify
+     *
+     * @return the set itself or a copy of it, if it is shared with another cache
+     */
+    private <T> Set<T> writable(Set<T> set) {
+        return this.shared.remove(set) ? newSynchronizedSet(set) : set;
+    }
+
+    /**
+     * Copies a map that is shared with another cache. The sets of the relations and the datasets of the offerings are
+     * modified in place, so that they are copied as well.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param map the map to modify
+     *
+     * @return the map itself or a copy of it, if it is shared with another cache
+     */
+    @SuppressWarnings("unchecked")
+    private <K, V> Map<K, V> writable(Map<K, V> map) {
+        if (!this.shared.remove(map)) {
+            return map;
+        }
+        Map<K, V> copy = newSynchronizedMap();
+        map.forEach((key, value) -> {
+            if (value instanceof Set) {
+                copy.put(key, (V) newSynchronizedSet((Set<?>) value));
+            } else if (value instanceof Map) {
+                copy.put(key, (V) newSynchronizedMap((Map<?, ?>) value));
+            } else {
+                copy.put(key, value);
+            }
+        });
+        return copy;
+    }
+
+    /**
+     * @param <K> the key type
+     * @param <V> the value type
+     * @param map the map to modify
+     *
+     * @return the map itself or a copy of it, if it is shared with another cache
+     */
+    private <K, V> BiMap<K, V> writable(BiMap<K, V> map) {
+        return this.shared.remove(map) ? newSynchronizedBiMap(HashBiMap.create(map)) : map;
+    }
+
+    private <T> Set<T> readOnly(Set<T> set) {
+        return isFrozen() ? viewOf(set) : copyOf(set);
+    }
+
+    /**
+     * Replaces all equal identifiers stored in the relations of this cache with a single instance. The feeder and
+     * the deserialization of a persisted cache create a new string instance for every occurrence of an identifier,
+     * so that large caches hold the same identifier in every relation it is part of. This should be called before
+     * the cache is published, as it replaces the sets of the relations.
+     */
+    public void compact() {
+        if (isFrozen() || !this.shared.isEmpty()) {
+            throw new IllegalStateException("A frozen or copied cache can not be compacted");
+        }
+        Map<String, String> dictionary = new HashMap<>();
+        UnaryOperator<String> intern = id -> id == null ? null : dictionary.computeIfAbsent(id, Function.identity());
+        getIdentifierSets().forEach(set -> internElements(set, intern));
+        getRelationMaps().forEach(map -> internRelations(map, intern));
+        internRelationValues(this.typeInstanceProcedures, intern);
+        internRelationValues(this.componentAggregationProcedures, intern);
+        LOG.debug("Compacted cache to {} distinct identifiers", dictionary.size());
+    }
+
+    @Override
+    public int getIdentifierCount() {
+        Set<String> identifiers = new HashSet<>();
+        getIdentifierSets().forEach(set -> addAll(identifiers, set));
+        getRelationMaps().forEach(map -> {
+            synchronized (map) {
+                identifiers.addAll(map.keySet());
+                map.values().forEach(set -> addAll(identifiers, set));
+            }
+        });
+        return identifiers.size();
+    }
+
+    @Override
+    public long getRelationCount() {
+        long count = 0;
+        for (Map<String, Set<String>> map : getRelationMaps()) {
+            synchronized (map) {
+                count += map.values().stream().mapToLong(Set::size).sum();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long getEstimatedMemoryUsage() {
+        long size = 0;
+        Set<String> identifiers = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Set<String> set : getIdentifierSets()) {
+            size += estimateMemoryUsage(set, identifiers);
+        }
+        for (Map<String, Set<String>> map : getRelationMaps()) {
+            synchronized (map) {
+                for (Map.Entry<String, Set<String>> entry : map.entrySet()) {
+                    size += ESTIMATED_ENTRY_SIZE + estimateMemoryUsage(entry.getKey(), identifiers)
+                            + estimateMemoryUsage(entry.getValue(), identifiers);
+                }
+            }
+        }
+        return size;
+    }
+
+    private List<Set<String>> getIdentifierSets() {
+        return Arrays.asList(
+                this.featuresOfInterest, this.procedures, this.resultTemplates, this.offerings,
+                this.compositePhenomenons, this.requestableProcedureDescriptionFormats,
+                this.publishedFeatureOfInterest, this.publishedProcedure, this.publishedOffering,
+                this.publishedObservableProperty);
+    }
+
+    private List<Map<String, Set<String>>> getRelationMaps() {
+        return Arrays.asList(
+                this.allowedObservationTypeForOfferings, this.allowedFeatureOfInterestTypeForOfferings,
+                this.childFeaturesForFeatureOfInterest, this.childProceduresForProcedures,
+                this.childOfferingsForOfferings, this.compositePhenomenonsForProcedure,
+                this.compositePhenomenonsForOffering, this.compositePhenomenonsForObservableProperty,
+                this.featuresOfInterestForOfferings, this.offeringsForFeaturesOfInterest,
+                this.featuresOfInterestForResultTemplates, this.observablePropertiesForCompositePhenomenons,
+                this.observablePropertiesForOfferings, this.observablePropertiesForProcedures,
+                this.observationTypesForOfferings, this.featureOfInterestTypesForOfferings,
+                this.observedPropertiesForResultTemplates, this.offeringsForObservableProperties,
+                this.offeringsForProcedures, this.parentFeaturesForFeaturesOfInterest,
+                this.parentProceduresForProcedures, this.parentOfferingsForOfferings,
+                this.proceduresForFeaturesOfInterest, this.proceduresForObservableProperties,
+                this.proceduresForOfferings, this.hiddenChildProceduresForOfferings,
+                this.relatedFeaturesForOfferings, this.resultTemplatesForOfferings, this.rolesForRelatedFeatures,
+                this.typeOfProceduresMap, this.procedureProcedureDescriptionFormats);
+    }
+
+    private static void addAll(Set<String> identifiers, Set<String> set) {
+        synchronized (set) {
+            identifiers.addAll(set);
+        }
+    }
+
+    private static long estimateMemoryUsage(Set<String> set, Set<String> identifiers) {
+        synchronized (set) {
+            long size = ESTIMATED_SET_SIZE;
+            for (String identifier : set) {
+                size += ESTIMATED_ENTRY_SIZE + estimateMemoryUsage(identifier, identifiers);
+            }
+            return size;
+        }
+    }
+
+    private static long estimateMemoryUsage(String identifier, Set<String> identifiers) {
+        if (identifier == null || !identifiers.add(identifier)) {
+            return 0;
+        }
+        return ESTIMATED_STRING_SIZE + identifier.length();
+    }
+
+    private static void internElements(Set<String> set, UnaryOperator<String> intern) {
+        synchronized (set) {
+            List<String> interned = set.stream().map(intern).collect(toList());
+            set.clear();
+            set.addAll(interned);
+        }
+    }
+
+    private static void internRelations(Map<String, Set<String>> map, UnaryOperator<String> intern) {
+        synchronized (map) {
+            Map<String, Set<String>> interned = new HashMap<>(map.size());
+            map.forEach((key, value) -> interned.put(intern.apply(key), internValues(value, intern)));
+            map.clear();
+            map.putAll(interned);
+        }
+    }
+
+    private static <K> void internRelationValues(Map<K, Set<String>> map, UnaryOperator<String> intern) {
+        synchronized (map) {
+            map.replaceAll((key, value) -> internValues(value, intern));
+        }
+    }
+
+    private static Set<String> internValues(Set<String> set, UnaryOperator<String> intern) {
+        synchronized (set) {
+            return newSynchronizedSet(set.stream().map(intern).collect(toList()));
+        }
+    }
 
     @Override
     public DateTime getLastUpdateTime() {
@@ -224,36 +571,38 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public Set<Integer> getEpsgCodes() {
-        return copyOf(this.epsgCodes);
+        return readOnly(this.epsgCodes);
     }
 
     @Override
     public Set<String> getFeaturesOfInterest() {
-        return copyOf(this.featuresOfInterest);
+        return readOnly(this.featuresOfInterest);
     }
 
     @Override
     public void setFeaturesOfInterest(Collection<String> featuresOfInterest) {
         LOG.trace("Setting FeaturesOfInterest");
+        this.featuresOfInterest = writable(this.featuresOfInterest);
         this.featuresOfInterest.clear();
         addFeaturesOfInterest(featuresOfInterest);
     }
 
     @Override
     public Set<String> getProcedures() {
-        return copyOf(this.procedures);
+        return readOnly(this.procedures);
     }
 
     @Override
     public void setProcedures(Collection<String> procedures) {
         LOG.trace("Setting Procedures");
+        this.procedures = writable(this.procedures);
         this.procedures.clear();
         addProcedures(procedures);
     }
 
     @Override
     public Set<String> getResultTemplates() {
-        return copyOf(this.resultTemplates);
+        return readOnly(this.resultTemplates);
     }
 
     @Override
@@ -274,7 +623,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public Set<String> getOfferings() {
-        return copyOf(this.offerings);
+        return readOnly(this.offerings);
     }
 
     @Override
@@ -285,47 +634,47 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public Set<String> getOfferingsForObservableProperty(String observableProperty) {
-        return copyOf(this.offeringsForObservableProperties.get(observableProperty));
+        return readOnly(this.offeringsForObservableProperties.get(observableProperty));
     }
 
     @Override
     public Set<String> getOfferingsForProcedure(String procedure) {
-        return copyOf(this.offeringsForProcedures.get(procedure));
+        return readOnly(this.offeringsForProcedures.get(procedure));
     }
 
     @Override
     public Set<String> getProceduresForFeatureOfInterest(String featureOfInterest) {
-        return copyOf(this.proceduresForFeaturesOfInterest.get(featureOfInterest));
+        return readOnly(this.proceduresForFeaturesOfInterest.get(featureOfInterest));
     }
 
     @Override
     public Set<String> getProceduresForObservableProperty(String observableProperty) {
-        return copyOf(this.proceduresForObservableProperties.get(observableProperty));
+        return readOnly(this.proceduresForObservableProperties.get(observableProperty));
     }
 
     @Override
     public Set<String> getProceduresForOffering(String offering) {
-        return copyOf(this.proceduresForOfferings.get(offering));
+        return readOnly(this.proceduresForOfferings.get(offering));
     }
 
     @Override
     public Set<String> getHiddenChildProceduresForOffering(String offering) {
-        return copyOf(this.hiddenChildProceduresForOfferings.get(offering));
+        return readOnly(this.hiddenChildProceduresForOfferings.get(offering));
     }
 
     @Override
     public Set<String> getRelatedFeaturesForOffering(String offering) {
-        return copyOf(this.relatedFeaturesForOfferings.get(offering));
+        return readOnly(this.relatedFeaturesForOfferings.get(offering));
     }
 
     @Override
     public Set<String> getResultTemplatesForOffering(String offering) {
-        return copyOf(this.resultTemplatesForOfferings.get(offering));
+        return readOnly(this.resultTemplatesForOfferings.get(offering));
     }
 
     @Override
     public Set<String> getRolesForRelatedFeature(String relatedFeature) {
-        return copyOf(this.rolesForRelatedFeatures.get(relatedFeature));
+        return readOnly(this.rolesForRelatedFeatures.get(relatedFeature));
     }
 
     @Override
@@ -401,39 +750,39 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public Set<String> getAllowedObservationTypesForOffering(String offering) {
-        return copyOf(this.allowedObservationTypeForOfferings.get(offering));
+        return readOnly(this.allowedObservationTypeForOfferings.get(offering));
     }
 
     @Override
     public Set<String> getAllObservationTypesForOffering(final String offering) {
-        Set<String> observationTypes  =Sets.newHashSet(copyOf(this.allowedObservationTypeForOfferings.get(offering)));
+        Set<String> observationTypes  =Sets.newHashSet(readOnly(this.allowedObservationTypeForOfferings.get(offering)));
         observationTypes.addAll(getObservationTypesForOffering(offering));
         return observationTypes;
     }
 
     @Override
     public Set<String> getFeaturesOfInterestForOffering(String offering) {
-        return copyOf(this.featuresOfInterestForOfferings.get(offering));
+        return readOnly(this.featuresOfInterestForOfferings.get(offering));
     }
 
     @Override
     public Set<String> getOfferingsForFeatureOfInterest(final String featureOfInterest) {
-        return copyOf(this.offeringsForFeaturesOfInterest.get(featureOfInterest));
+        return readOnly(this.offeringsForFeaturesOfInterest.get(featureOfInterest));
     }
 
     @Override
     public Set<String> getFeaturesOfInterestForResultTemplate(String resultTemplate) {
-        return copyOf(this.featuresOfInterestForResultTemplates.get(resultTemplate));
+        return readOnly(this.featuresOfInterestForResultTemplates.get(resultTemplate));
     }
 
     @Override
     public Set<String> getObservablePropertiesForOffering(String offering) {
-        return copyOf(this.observablePropertiesForOfferings.get(offering));
+        return readOnly(this.observablePropertiesForOfferings.get(offering));
     }
 
     @Override
     public Set<String> getObservablePropertiesForProcedure(String procedure) {
-        return copyOf(this.observablePropertiesForProcedures.get(procedure));
+        return readOnly(this.observablePropertiesForProcedures.get(procedure));
     }
 
     @Override
@@ -444,12 +793,12 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public Set<String> getObservationTypesForOffering(String offering) {
-        return copyOf(this.observationTypesForOfferings.get(offering));
+        return readOnly(this.observationTypesForOfferings.get(offering));
     }
 
     @Override
     public Set<String> getObservablePropertiesForResultTemplate(String resultTemplate) {
-        return copyOf(this.observedPropertiesForResultTemplates.get(resultTemplate));
+        return readOnly(this.observedPropertiesForResultTemplates.get(resultTemplate));
     }
 
     @Override
@@ -543,7 +892,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public Set<String> getOfferingsWithResultTemplate() {
-        return copyOf(this.resultTemplatesForOfferings.keySet());
+        return readOnly(this.resultTemplatesForOfferings.keySet());
     }
 
     @Override
@@ -578,7 +927,10 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public boolean hasRelatedFeature(String relatedFeature) {
-        return getRelatedFeatures().contains(relatedFeature);
+        Map<String, Set<String>> map = this.relatedFeaturesForOfferings;
+        synchronized (map) {
+            return map.values().stream().anyMatch(features -> features.contains(relatedFeature));
+        }
     }
 
     @Override
@@ -691,7 +1043,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public boolean isRelatedFeatureSampled(String relatedFeatureIdentifier) {
         return Optional.ofNullable(relatedFeatureIdentifier)
                 .filter(Predicates.not(String::isEmpty))
-                .filter(getRelatedFeatures()::contains)
+                .filter(this::hasRelatedFeature)
                 .filter(id -> !getChildFeatures(id, true, false).isEmpty())
                 .isPresent();
     }
@@ -714,17 +1066,30 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public Set<String> getFeatureOfInterestTypesForOffering(String offering) {
-        return copyOf(this.featureOfInterestTypesForOfferings.get(offering));
+        return readOnly(this.featureOfInterestTypesForOfferings.get(offering));
     }
 
     @Override
     public Set<String> getAllowedFeatureOfInterestTypesForOffering(String offering) {
-        return copyOf(this.allowedFeatureOfInterestTypeForOfferings.get(offering));
+        return readOnly(this.allowedFeatureOfInterestTypeForOfferings.get(offering));
+    }
+
+    @Override
+    public Collection<DatasetInfo> getDatasetsForOffering(String offering) {
+        Map<DatasetInfo.Constellation, DatasetInfo> datasets = this.datasetsForOfferings.get(offering);
+        if (datasets == null) {
+            return Collections.emptySet();
+        } else if (isFrozen()) {
+            return Collections.unmodifiableCollection(datasets.values());
+        }
+        synchronized (datasets) {
+            return new ArrayList<>(datasets.values());
+        }
     }
 
     @Override
     public Set<Locale> getSupportedLanguages() {
-        return copyOf(this.supportedLanguages);
+        return readOnly(this.supportedLanguages);
     }
 
     @Override
@@ -788,6 +1153,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void addEpsgCode(Integer epsgCode) {
         greaterZero(EPSG_CODE, epsgCode);
         LOG.trace("Adding EpsgCode {}", epsgCode);
+        this.epsgCodes = writable(this.epsgCodes);
         this.epsgCodes.add(epsgCode);
     }
 
@@ -795,6 +1161,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void addFeatureOfInterest(String featureOfInterest) {
         notNullOrEmpty(FEATURE_OF_INTEREST, featureOfInterest);
         LOG.trace("Adding FeatureOfInterest {}", featureOfInterest);
+        this.featuresOfInterest = writable(this.featuresOfInterest);
         this.featuresOfInterest.add(featureOfInterest);
     }
 
@@ -802,6 +1169,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void addProcedure(String procedure) {
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Adding procedure {}", procedure);
+        this.procedures = writable(this.procedures);
         this.procedures.add(procedure);
     }
 
@@ -809,6 +1177,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void addResultTemplate(String resultTemplate) {
         notNullOrEmpty(RESULT_TEMPLATE, resultTemplate);
         LOG.trace("Adding SosResultTemplate {}", resultTemplate);
+        this.resultTemplates = writable(this.resultTemplates);
         this.resultTemplates.add(resultTemplate);
     }
 
@@ -840,6 +1209,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeFeatureOfInterest(String featureOfInterest) {
         notNullOrEmpty(FEATURE_OF_INTEREST, featureOfInterest);
         LOG.trace("Removing FeatureOfInterest {}", featureOfInterest);
+        this.featuresOfInterest = writable(this.featuresOfInterest);
         this.featuresOfInterest.remove(featureOfInterest);
     }
 
@@ -853,6 +1223,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeProcedure(String procedure) {
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Removing Procedure {}", procedure);
+        this.procedures = writable(this.procedures);
         this.procedures.remove(procedure);
     }
 
@@ -866,6 +1237,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeResultTemplate(String resultTemplate) {
         notNullOrEmpty(RESULT_TEMPLATE, resultTemplate);
         LOG.trace("Removing SosResultTemplate {}", resultTemplate);
+        this.resultTemplates = writable(this.resultTemplates);
         this.resultTemplates.remove(resultTemplate);
     }
 
@@ -873,6 +1245,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setObservablePropertiesForOffering(String offering, Collection<String> observableProperties) {
         final Set<String> newValue = newSynchronizedSet(observableProperties);
         LOG.trace("Setting ObservableProperties for Offering {} to {}", offering, observableProperties);
+        this.observablePropertiesForOfferings = writable(this.observablePropertiesForOfferings);
         this.observablePropertiesForOfferings.put(offering, newValue);
     }
 
@@ -881,6 +1254,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
                                                     final Collection<String> observableProperties) {
         final Set<String> newValue = newSynchronizedSet(observableProperties);
         LOG.trace("Setting ObservableProperties for Procedure {} to {}", procedure, newValue);
+        this.observablePropertiesForProcedures = writable(this.observablePropertiesForProcedures);
         this.observablePropertiesForProcedures.put(procedure, newValue);
     }
 
@@ -888,6 +1262,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setObservationTypesForOffering(String offering, Collection<String> observationTypes) {
         final Set<String> newValue = newSynchronizedSet(observationTypes);
         LOG.trace("Setting ObservationTypes for Offering {} to {}", offering, newValue);
+        this.observationTypesForOfferings = writable(this.observationTypesForOfferings);
         this.observationTypesForOfferings.put(offering, newValue);
     }
 
@@ -895,6 +1270,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setOfferingsForObservableProperty(String observableProperty, Collection<String> offerings) {
         final Set<String> newValue = newSynchronizedSet(offerings);
         LOG.trace("Setting Offerings for ObservableProperty {} to {}", observableProperty, newValue);
+        this.offeringsForObservableProperties = writable(this.offeringsForObservableProperties);
         this.offeringsForObservableProperties.put(observableProperty, newValue);
     }
 
@@ -902,6 +1278,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setOfferingsForProcedure(String procedure, Collection<String> offerings) {
         final Set<String> newValue = newSynchronizedSet(offerings);
         LOG.trace("Setting Offerings for Procedure {} to {}", procedure, newValue);
+        this.offeringsForProcedures = writable(this.offeringsForProcedures);
         this.offeringsForProcedures.put(procedure, newValue);
     }
 
@@ -909,6 +1286,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setProceduresForFeatureOfInterest(String featureOfInterest, Collection<String> procedures) {
         final Set<String> newValue = newSynchronizedSet(procedures);
         LOG.trace("Setting Procedures for FeatureOfInterest {} to {}", featureOfInterest, newValue);
+        this.proceduresForFeaturesOfInterest = writable(this.proceduresForFeaturesOfInterest);
         this.proceduresForFeaturesOfInterest.put(featureOfInterest, newValue);
     }
 
@@ -916,6 +1294,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setProceduresForObservableProperty(String observableProperty, Collection<String> procedures) {
         final Set<String> newValue = newSynchronizedSet(procedures);
         LOG.trace("Setting Procedures for ObservableProperty {} to {}", observableProperty, procedures);
+        this.proceduresForObservableProperties = writable(this.proceduresForObservableProperties);
         this.proceduresForObservableProperties.put(observableProperty, newValue);
     }
 
@@ -923,6 +1302,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setProceduresForOffering(String offering, Collection<String> procedures) {
         final Set<String> newValue = newSynchronizedSet(procedures);
         LOG.trace("Setting Procedures for Offering {} to {}", offering, newValue);
+        this.proceduresForOfferings = writable(this.proceduresForOfferings);
         this.proceduresForOfferings.put(offering, newValue);
     }
 
@@ -930,6 +1310,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setRelatedFeaturesForOffering(String offering, Collection<String> relatedFeatures) {
         final Set<String> newValue = newSynchronizedSet(relatedFeatures);
         LOG.trace("Setting Related Features for Offering {} to {}", offering, newValue);
+        this.relatedFeaturesForOfferings = writable(this.relatedFeaturesForOfferings);
         this.relatedFeaturesForOfferings.put(offering, newValue);
     }
 
@@ -937,6 +1318,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setResultTemplatesForOffering(String offering, Collection<String> resultTemplates) {
         final Set<String> newValue = newSynchronizedSet(resultTemplates);
         LOG.trace("Setting ResultTemplates for Offering {} to {}", offering, newValue);
+        this.resultTemplatesForOfferings = writable(this.resultTemplatesForOfferings);
         this.resultTemplatesForOfferings.put(offering, newValue);
     }
 
@@ -944,6 +1326,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setRolesForRelatedFeature(String relatedFeature, Collection<String> roles) {
         final Set<String> newValue = newSynchronizedSet(roles);
         LOG.trace("Setting Roles for RelatedFeature {} to {}", relatedFeature, newValue);
+        this.rolesForRelatedFeatures = writable(this.rolesForRelatedFeatures);
         this.rolesForRelatedFeatures.put(relatedFeature, newValue);
     }
 
@@ -957,6 +1340,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setMaxPhenomenonTimeForOffering(String offering, DateTime maxTime) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Setting maximal EventTime for Offering {} to {}", offering, maxTime);
+        this.maxPhenomenonTimeForOfferings = writable(this.maxPhenomenonTimeForOfferings);
         if (maxTime == null) {
             this.maxPhenomenonTimeForOfferings.remove(offering);
         } else {
@@ -968,6 +1352,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setMinPhenomenonTimeForOffering(String offering, DateTime minTime) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Setting minimal EventTime for Offering {} to {}", offering, minTime);
+        this.minPhenomenonTimeForOfferings = writable(this.minPhenomenonTimeForOfferings);
         if (minTime == null) {
             this.minPhenomenonTimeForOfferings.remove(offering);
         } else {
@@ -979,6 +1364,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setMaxPhenomenonTimeForProcedure(String procedure, DateTime maxTime) {
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Setting maximal phenomenon time for procedure {} to {}", procedure, maxTime);
+        this.maxPhenomenonTimeForProcedures = writable(this.maxPhenomenonTimeForProcedures);
         if (maxTime == null) {
             this.maxPhenomenonTimeForProcedures.remove(procedure);
         } else {
@@ -990,6 +1376,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setMinPhenomenonTimeForProcedure(String procedure, DateTime minTime) {
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Setting minimal phenomenon time for procedure {} to {}", procedure, minTime);
+        this.minPhenomenonTimeForProcedures = writable(this.minPhenomenonTimeForProcedures);
         if (minTime == null) {
             this.minPhenomenonTimeForProcedures.remove(procedure);
         } else {
@@ -1002,6 +1389,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(NAME, name);
         LOG.trace("Setting Name of Offering {} to {}", offering, name);
+        this.nameForOfferings = writable(this.nameForOfferings);
         this.nameForOfferings.put(offering, name);
 
     }
@@ -1011,6 +1399,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         Objects.requireNonNull(name, NAME);
         LOG.trace("Setting I18N Name of Offering {} to {}", offering, name);
+        this.i18nNameForOfferings = writable(this.i18nNameForOfferings);
         this.i18nNameForOfferings.put(offering, name);
     }
 
@@ -1020,12 +1409,14 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         Objects.requireNonNull(description, DESCRIPTION);
         LOG.trace("Setting I18N Description of Offering {} to {}", offering, description);
+        this.i18nDescriptionForOfferings = writable(this.i18nDescriptionForOfferings);
         this.i18nDescriptionForOfferings.put(offering, description);
     }
 
     @Override
     public void setEnvelopeForOffering(String offering, ReferencedEnvelope envelope) {
         LOG.trace("Setting Envelope for Offering {} to {}", offering, envelope);
+        this.envelopeForOfferings = writable(this.envelopeForOfferings);
         this.envelopeForOfferings.put(offering, copyOf(envelope));
     }
 
@@ -1044,6 +1435,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(ALLOWED_OBSERVATION_TYPE, allowedObservationType);
         LOG.trace("Adding AllowedObservationType {} to Offering {}", allowedObservationType, offering);
+        this.allowedObservationTypeForOfferings = writable(this.allowedObservationTypeForOfferings);
         this.allowedObservationTypeForOfferings.computeIfAbsent(offering, createSynchronizedSet())
                 .add(allowedObservationType);
     }
@@ -1053,6 +1445,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         noNullValues(ALLOWED_OBSERVATION_TYPES, allowedObservationTypes);
         LOG.trace("Adding AllowedObservationTypes {} to Offering {}", allowedObservationTypes, offering);
+        this.allowedObservationTypeForOfferings = writable(this.allowedObservationTypeForOfferings);
         this.allowedObservationTypeForOfferings.computeIfAbsent(offering, createSynchronizedSet())
                 .addAll(allowedObservationTypes);
     }
@@ -1062,7 +1455,9 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(FEATURE_OF_INTEREST, featureOfInterest);
         LOG.trace("Adding featureOfInterest {} to Offering {}", featureOfInterest, offering);
+        this.featuresOfInterestForOfferings = writable(this.featuresOfInterestForOfferings);
         this.featuresOfInterestForOfferings.computeIfAbsent(offering, createSynchronizedSet()).add(featureOfInterest);
+        this.offeringsForFeaturesOfInterest = writable(this.offeringsForFeaturesOfInterest);
         this.offeringsForFeaturesOfInterest.computeIfAbsent(featureOfInterest, createSynchronizedSet())
             .add(offering);
     }
@@ -1072,6 +1467,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(RESULT_TEMPLATE, resultTemplate);
         notNullOrEmpty(FEATURE_OF_INTEREST, featureOfInterest);
         LOG.trace("Adding FeatureOfInterest {} to SosResultTemplate {}", featureOfInterest, resultTemplate);
+        this.featuresOfInterestForResultTemplates = writable(this.featuresOfInterestForResultTemplates);
         this.featuresOfInterestForResultTemplates.computeIfAbsent(resultTemplate, createSynchronizedSet())
                 .add(featureOfInterest);
     }
@@ -1081,6 +1477,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(RESULT_TEMPLATE, resultTemplate);
         noNullValues(FEATURES_OF_INTEREST, featuresOfInterest);
         LOG.trace("Adding FeatureOfInterest {} to SosResultTemplate {}", featuresOfInterest, resultTemplate);
+        this.featuresOfInterestForResultTemplates = writable(this.featuresOfInterestForResultTemplates);
         this.featuresOfInterestForResultTemplates.computeIfAbsent(resultTemplate, createSynchronizedSet())
                 .addAll(featuresOfInterest);
     }
@@ -1090,6 +1487,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(OBSERVABLE_PROPERTY, observableProperty);
         LOG.trace("Adding observableProperty {} to offering {}", observableProperty, offering);
+        this.observablePropertiesForOfferings = writable(this.observablePropertiesForOfferings);
         this.observablePropertiesForOfferings.computeIfAbsent(offering, createSynchronizedSet()).add(observableProperty);
     }
 
@@ -1098,6 +1496,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(PROCEDURE, procedure);
         notNullOrEmpty(OBSERVABLE_PROPERTY, observableProperty);
         LOG.trace("Adding observableProperty {} to procedure {}", observableProperty, procedure);
+        this.observablePropertiesForProcedures = writable(this.observablePropertiesForProcedures);
         this.observablePropertiesForProcedures.computeIfAbsent(procedure, createSynchronizedSet())
                 .add(observableProperty);
     }
@@ -1107,6 +1506,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(RESULT_TEMPLATE, resultTemplate);
         notNullOrEmpty(OBSERVABLE_PROPERTY, observableProperty);
         LOG.trace("Adding observableProperty {} to resultTemplate {}", observableProperty, resultTemplate);
+        this.observedPropertiesForResultTemplates = writable(this.observedPropertiesForResultTemplates);
         this.observedPropertiesForResultTemplates.computeIfAbsent(resultTemplate, createSynchronizedSet())
                 .add(observableProperty);
     }
@@ -1116,6 +1516,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(OBSERVATION_TYPE, observationType);
         LOG.trace("Adding observationType {} to offering {}", observationType, offering);
+        this.observationTypesForOfferings = writable(this.observationTypesForOfferings);
         this.observationTypesForOfferings.computeIfAbsent(offering, createSynchronizedSet()).add(observationType);
     }
 
@@ -1124,6 +1525,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OBSERVABLE_PROPERTY, observableProperty);
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Adding offering {} to observableProperty {}", offering, observableProperty);
+        this.offeringsForObservableProperties = writable(this.offeringsForObservableProperties);
         this.offeringsForObservableProperties.computeIfAbsent(observableProperty, createSynchronizedSet()).add(offering);
     }
 
@@ -1132,6 +1534,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(PROCEDURE, procedure);
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Adding offering {} to procedure {}", offering, procedure);
+        this.offeringsForProcedures = writable(this.offeringsForProcedures);
         this.offeringsForProcedures.computeIfAbsent(procedure, createSynchronizedSet()).add(offering);
     }
 
@@ -1140,6 +1543,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(FEATURE_OF_INTEREST, featureOfInterest);
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Adding procedure {} to featureOfInterest {}", procedure, featureOfInterest);
+        this.proceduresForFeaturesOfInterest = writable(this.proceduresForFeaturesOfInterest);
         this.proceduresForFeaturesOfInterest.computeIfAbsent(featureOfInterest, createSynchronizedSet()).add(procedure);
     }
 
@@ -1148,6 +1552,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(FEATURE_OF_INTEREST, observableProperty);
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Adding procedure {} to observableProperty {}", procedure, observableProperty);
+        this.proceduresForObservableProperties = writable(this.proceduresForObservableProperties);
         this.proceduresForObservableProperties.computeIfAbsent(observableProperty, createSynchronizedSet())
                 .add(procedure);
     }
@@ -1157,6 +1562,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Adding procedure {} to offering {}", procedure, offering);
+        this.proceduresForOfferings = writable(this.proceduresForOfferings);
         this.proceduresForOfferings.computeIfAbsent(offering, createSynchronizedSet()).add(procedure);
     }
 
@@ -1165,6 +1571,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(RELATED_FEATURE, relatedFeature);
         LOG.trace("Adding relatedFeature {} to offering {}", relatedFeature, offering);
+        this.relatedFeaturesForOfferings = writable(this.relatedFeaturesForOfferings);
         this.relatedFeaturesForOfferings.computeIfAbsent(offering, createSynchronizedSet()).add(relatedFeature);
     }
 
@@ -1173,6 +1580,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         noNullValues(RELATED_FEATURE, relatedFeature);
         LOG.trace("Adding relatedFeatures {} to offering {}", relatedFeature, offering);
+        this.relatedFeaturesForOfferings = writable(this.relatedFeaturesForOfferings);
         this.relatedFeaturesForOfferings.computeIfAbsent(offering, createSynchronizedSet()).addAll(relatedFeature);
     }
 
@@ -1181,6 +1589,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(RESULT_TEMPLATE, resultTemplate);
         LOG.trace("Adding resultTemplate {} to offering {}", resultTemplate, offering);
+        this.resultTemplatesForOfferings = writable(this.resultTemplatesForOfferings);
         this.resultTemplatesForOfferings.computeIfAbsent(offering, createSynchronizedSet()).add(resultTemplate);
     }
 
@@ -1189,6 +1598,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(RELATED_FEATURE, relatedFeature);
         notNullOrEmpty("role", role);
         LOG.trace("Adding role {} to relatedFeature {}", role, relatedFeature);
+        this.rolesForRelatedFeatures = writable(this.rolesForRelatedFeatures);
         this.rolesForRelatedFeatures.computeIfAbsent(relatedFeature, createSynchronizedSet()).add(role);
     }
 
@@ -1197,6 +1607,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty("allowedObservationType", allowedObservationType);
         LOG.trace("Removing allowedObservationType {} from offering {}", allowedObservationType, offering);
+        this.allowedObservationTypeForOfferings = writable(this.allowedObservationTypeForOfferings);
         this.allowedObservationTypeForOfferings.getOrDefault(offering, Collections.emptySet())
                 .remove(allowedObservationType);
     }
@@ -1205,6 +1616,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeAllowedObservationTypesForOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing allowedObservationTypes for offering {}", offering);
+        this.allowedObservationTypeForOfferings = writable(this.allowedObservationTypeForOfferings);
         this.allowedObservationTypeForOfferings.remove(offering);
     }
 
@@ -1212,6 +1624,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeEnvelopeForOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing envelope for offering {}", offering);
+        this.envelopeForOfferings = writable(this.envelopeForOfferings);
         this.envelopeForOfferings.remove(offering);
     }
 
@@ -1219,6 +1632,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeEpsgCode(Integer epsgCode) {
         Objects.requireNonNull(epsgCode, EPSG_CODE);
         LOG.trace("Removing epsgCode {}", epsgCode);
+        this.epsgCodes = writable(this.epsgCodes);
         this.epsgCodes.remove(epsgCode);
     }
 
@@ -1233,7 +1647,9 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(FEATURE_OF_INTEREST, featureOfInterest);
         LOG.trace("Removing featureOfInterest {} from offering {}", featureOfInterest, offering);
+        this.featuresOfInterestForOfferings = writable(this.featuresOfInterestForOfferings);
         this.featuresOfInterestForOfferings.getOrDefault(offering, Collections.emptySet()).remove(featureOfInterest);
+        this.offeringsForFeaturesOfInterest = writable(this.offeringsForFeaturesOfInterest);
         this.offeringsForFeaturesOfInterest.getOrDefault(featureOfInterest, Collections.emptySet()).remove(offering);
     }
 
@@ -1242,6 +1658,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(RESULT_TEMPLATE, resultTemplate);
         notNullOrEmpty(FEATURE_OF_INTEREST, featureOfInterest);
         LOG.trace("Removing featureOfInterest {} from resultTemplate {}", featureOfInterest, resultTemplate);
+        this.featuresOfInterestForResultTemplates = writable(this.featuresOfInterestForResultTemplates);
         this.featuresOfInterestForResultTemplates.getOrDefault(resultTemplate, Collections.emptySet())
                 .remove(featureOfInterest);
     }
@@ -1253,6 +1670,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         for (String featureOfInterest : featuresOfInterestForOfferings.get(offering)) {
             removeFeatureOfInterestForOffering(offering, featureOfInterest);
         }
+        this.featuresOfInterestForOfferings = writable(this.featuresOfInterestForOfferings);
         this.featuresOfInterestForOfferings.remove(offering);
     }
 
@@ -1260,6 +1678,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeFeaturesOfInterestForResultTemplate(String resultTemplate) {
         notNullOrEmpty(RESULT_TEMPLATE, resultTemplate);
         LOG.trace("Removing featuresOfInterest for resultTemplate {}", resultTemplate);
+        this.featuresOfInterestForResultTemplates = writable(this.featuresOfInterestForResultTemplates);
         this.featuresOfInterestForResultTemplates.remove(resultTemplate);
     }
 
@@ -1267,6 +1686,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeMaxPhenomenonTimeForOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing maxEventTime for offering {}", offering);
+        this.maxPhenomenonTimeForOfferings = writable(this.maxPhenomenonTimeForOfferings);
         this.maxPhenomenonTimeForOfferings.remove(offering);
     }
 
@@ -1274,6 +1694,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeMinPhenomenonTimeForOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing minEventTime for offering {}", offering);
+        this.minPhenomenonTimeForOfferings = writable(this.minPhenomenonTimeForOfferings);
         this.minPhenomenonTimeForOfferings.remove(offering);
     }
 
@@ -1281,6 +1702,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeMaxPhenomenonTimeForProcedure(String procedure) {
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Removing maxEventTime for procedure {}", procedure);
+        this.maxPhenomenonTimeForProcedures = writable(this.maxPhenomenonTimeForProcedures);
         this.maxPhenomenonTimeForProcedures.remove(procedure);
     }
 
@@ -1288,6 +1710,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeMinPhenomenonTimeForProcedure(String procedure) {
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Removing minEventTime for procedure {}", procedure);
+        this.minPhenomenonTimeForProcedures = writable(this.minPhenomenonTimeForProcedures);
         this.minPhenomenonTimeForProcedures.remove(procedure);
     }
 
@@ -1295,6 +1718,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeNameForOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing name for offering {}", offering);
+        this.nameForOfferings = writable(this.nameForOfferings);
         this.nameForOfferings.remove(offering);
     }
 
@@ -1302,6 +1726,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeObservablePropertiesForOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing observableProperties for offering {}", offering);
+        this.observablePropertiesForOfferings = writable(this.observablePropertiesForOfferings);
         this.observablePropertiesForOfferings.remove(offering);
     }
 
@@ -1309,6 +1734,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeObservablePropertiesForProcedure(String procedure) {
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Removing observableProperties for procedure {}", procedure);
+        this.observablePropertiesForProcedures = writable(this.observablePropertiesForProcedures);
         this.observablePropertiesForProcedures.remove(procedure);
     }
 
@@ -1316,6 +1742,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeObservablePropertiesForResultTemplate(String resultTemplate) {
         notNullOrEmpty(RESULT_TEMPLATE, resultTemplate);
         LOG.trace("Removing observableProperties for resultTemplate {}", resultTemplate);
+        this.observedPropertiesForResultTemplates = writable(this.observedPropertiesForResultTemplates);
         this.observedPropertiesForResultTemplates.remove(resultTemplate);
     }
 
@@ -1324,6 +1751,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(OBSERVABLE_PROPERTY, observableProperty);
         LOG.trace("Removing observableProperty {} from offering {}", observableProperty, offering);
+        this.observablePropertiesForOfferings = writable(this.observablePropertiesForOfferings);
         this.observablePropertiesForOfferings.getOrDefault(offering, Collections.emptySet()).remove(observableProperty);
     }
 
@@ -1332,6 +1760,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(PROCEDURE, procedure);
         notNullOrEmpty(OBSERVABLE_PROPERTY, observableProperty);
         LOG.trace("Removing observableProperty {} from procedure {}", observableProperty, procedure);
+        this.observablePropertiesForProcedures = writable(this.observablePropertiesForProcedures);
         this.observablePropertiesForProcedures.getOrDefault(procedure, Collections.emptySet())
                 .remove(observableProperty);
     }
@@ -1341,6 +1770,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(RESULT_TEMPLATE, resultTemplate);
         notNullOrEmpty(OBSERVABLE_PROPERTY, observableProperty);
         LOG.trace("Removing observableProperty {} from resultTemplate {}", observableProperty, resultTemplate);
+        this.observedPropertiesForResultTemplates = writable(this.observedPropertiesForResultTemplates);
         this.observedPropertiesForResultTemplates.getOrDefault(resultTemplate, Collections.emptySet())
                 .remove(observableProperty);
     }
@@ -1350,6 +1780,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(OBSERVATION_TYPE, observationType);
         LOG.trace("Removing observationType {} from offering {}", observationType, offering);
+        this.observationTypesForOfferings = writable(this.observationTypesForOfferings);
         this.observationTypesForOfferings.getOrDefault(offering, Collections.emptySet()).remove(observationType);
     }
 
@@ -1357,6 +1788,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeObservationTypesForOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing observationTypes for offering {}", offering);
+        this.observationTypesForOfferings = writable(this.observationTypesForOfferings);
         this.observationTypesForOfferings.remove(offering);
     }
 
@@ -1365,6 +1797,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OBSERVABLE_PROPERTY, observableProperty);
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing offering {} from observableProperty {}", offering, observableProperty);
+        this.offeringsForObservableProperties = writable(this.offeringsForObservableProperties);
         this.offeringsForObservableProperties.getOrDefault(observableProperty, Collections.emptySet()).remove(offering);
     }
 
@@ -1373,6 +1806,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(PROCEDURE, procedure);
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing offering {} from procedure {}", offering, procedure);
+        this.offeringsForProcedures = writable(this.offeringsForProcedures);
         this.offeringsForProcedures.getOrDefault(procedure, Collections.emptySet()).remove(offering);
     }
 
@@ -1380,6 +1814,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeOfferingsForObservableProperty(String observableProperty) {
         notNullOrEmpty(OBSERVABLE_PROPERTY, observableProperty);
         LOG.trace("Removing offerings for observableProperty {}", observableProperty);
+        this.offeringsForObservableProperties = writable(this.offeringsForObservableProperties);
         this.offeringsForObservableProperties.remove(observableProperty);
     }
 
@@ -1387,6 +1822,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeOfferingsForProcedure(String procedure) {
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Removing offering for procedure {}", procedure);
+        this.offeringsForProcedures = writable(this.offeringsForProcedures);
         this.offeringsForProcedures.remove(procedure);
     }
 
@@ -1395,6 +1831,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(FEATURE_OF_INTEREST, featureOfInterest);
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Removing procedure {} from featureOfInterest {}", procedure, featureOfInterest);
+        this.proceduresForFeaturesOfInterest = writable(this.proceduresForFeaturesOfInterest);
         this.proceduresForFeaturesOfInterest.getOrDefault(featureOfInterest, Collections.emptySet()).remove(procedure);
     }
 
@@ -1403,6 +1840,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OBSERVABLE_PROPERTY, observableProperty);
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Removing procedure {} from observableProperty {}", procedure, observableProperty);
+        this.proceduresForObservableProperties = writable(this.proceduresForObservableProperties);
         this.proceduresForObservableProperties.getOrDefault(observableProperty, Collections.emptySet())
                 .remove(procedure);
     }
@@ -1412,6 +1850,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Removing procedure {} from offering {}", procedure, offering);
+        this.proceduresForOfferings = writable(this.proceduresForOfferings);
         this.proceduresForOfferings.getOrDefault(offering, Collections.emptySet()).remove(procedure);
     }
 
@@ -1419,6 +1858,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeProceduresForFeatureOfInterest(String featureOfInterest) {
         notNullOrEmpty(FEATURE_OF_INTEREST, featureOfInterest);
         LOG.trace("Removing procedures for featureOfInterest {}", featureOfInterest);
+        this.proceduresForFeaturesOfInterest = writable(this.proceduresForFeaturesOfInterest);
         this.proceduresForFeaturesOfInterest.remove(featureOfInterest);
     }
 
@@ -1426,6 +1866,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeProceduresForObservableProperty(String observableProperty) {
         notNullOrEmpty(OBSERVABLE_PROPERTY, observableProperty);
         LOG.trace("Removing procedures for observableProperty {}", observableProperty);
+        this.proceduresForObservableProperties = writable(this.proceduresForObservableProperties);
         this.proceduresForObservableProperties.remove(observableProperty);
     }
 
@@ -1433,6 +1874,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeProceduresForOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing procedures for offering {}", offering);
+        this.proceduresForOfferings = writable(this.proceduresForOfferings);
         this.proceduresForOfferings.remove(offering);
     }
 
@@ -1441,6 +1883,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(RELATED_FEATURE, relatedFeature);
         LOG.trace("Removing relatedFeature {} from offering {}", relatedFeature, offering);
+        this.relatedFeaturesForOfferings = writable(this.relatedFeaturesForOfferings);
         this.relatedFeaturesForOfferings.getOrDefault(offering, Collections.emptySet()).remove(relatedFeature);
     }
 
@@ -1448,6 +1891,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeRelatedFeaturesForOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing RelatedFeatures for offering {}", offering);
+        this.relatedFeaturesForOfferings = writable(this.relatedFeaturesForOfferings);
         this.relatedFeaturesForOfferings.remove(offering);
     }
 
@@ -1456,6 +1900,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(RESULT_TEMPLATE, resultTemplate);
         LOG.trace("Removing resultTemplate {} from offering {}", resultTemplate, offering);
+        this.resultTemplatesForOfferings = writable(this.resultTemplatesForOfferings);
         this.resultTemplatesForOfferings.getOrDefault(offering, Collections.emptySet()).remove(resultTemplate);
     }
 
@@ -1463,6 +1908,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeResultTemplatesForOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing ResultTemplates for offering {}", offering);
+        this.resultTemplatesForOfferings = writable(this.resultTemplatesForOfferings);
         this.resultTemplatesForOfferings.remove(offering);
     }
 
@@ -1471,6 +1917,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(RELATED_FEATURE, relatedFeature);
         notNullOrEmpty(ROLE, role);
         LOG.trace("Removing role {} from relatedFeature {}", role, relatedFeature);
+        this.rolesForRelatedFeatures = writable(this.rolesForRelatedFeatures);
         this.rolesForRelatedFeatures.getOrDefault(relatedFeature, Collections.emptySet()).remove(role);
     }
 
@@ -1478,12 +1925,14 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeRolesForRelatedFeature(String relatedFeature) {
         notNullOrEmpty(RELATED_FEATURE, relatedFeature);
         LOG.trace("Removing roles for relatedFeature {}", relatedFeature);
+        this.rolesForRelatedFeatures = writable(this.rolesForRelatedFeatures);
         this.rolesForRelatedFeatures.remove(relatedFeature);
     }
 
     @Override
     public void removeRolesForRelatedFeatureNotIn(Collection<String> relatedFeatures) {
         Objects.requireNonNull(relatedFeatures, RELATED_FEATURES);
+        this.rolesForRelatedFeatures = writable(this.rolesForRelatedFeatures);
         final Iterator<String> iter = this.rolesForRelatedFeatures.keySet().iterator();
         while (iter.hasNext()) {
             if (!relatedFeatures.contains(iter.next())) {
@@ -1497,6 +1946,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         final Set<String> newValue = newSynchronizedSet(observationTypes);
         LOG.trace("Setting allowedObservationTypes for offering {} to {}", offering, newValue);
+        this.allowedObservationTypeForOfferings = writable(this.allowedObservationTypeForOfferings);
         this.allowedObservationTypeForOfferings.put(offering, newValue);
     }
 
@@ -1505,6 +1955,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         final Set<String> newValue = newSynchronizedSet(featureTypes);
         LOG.trace("Setting allowedFeatureOfInterestTypes for offering {} to {}", offering, newValue);
+        this.allowedFeatureOfInterestTypeForOfferings = writable(this.allowedFeatureOfInterestTypeForOfferings);
         this.allowedFeatureOfInterestTypeForOfferings.put(offering, newValue);
     }
 
@@ -1513,6 +1964,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         final Set<String> newValue = newSynchronizedSet(featureOfInterest);
         LOG.trace("Setting featureOfInterest for offering {} to {}", offering, newValue);
+        this.featuresOfInterestForOfferings = writable(this.featuresOfInterestForOfferings);
         this.featuresOfInterestForOfferings.put(offering, newValue);
     }
 
@@ -1521,6 +1973,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         noNullOrEmptyValues(FEATURES_OF_INTEREST, featuresOfInterest);
         LOG.trace("Adding offering {} to featureOfInterest {}", offering, featuresOfInterest);
+        this.offeringsForFeaturesOfInterest = writable(this.offeringsForFeaturesOfInterest);
         for (final String featureOfInterest : featuresOfInterest) {
             this.offeringsForFeaturesOfInterest.computeIfAbsent(featureOfInterest, createSynchronizedSet())
             .add(offering);
@@ -1533,6 +1986,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(RESULT_TEMPLATE, resultTemplate);
         final Set<String> newValue = newSynchronizedSet(observableProperties);
         LOG.trace("Setting observableProperties for resultTemplate {} to {}", resultTemplate, newValue);
+        this.observedPropertiesForResultTemplates = writable(this.observedPropertiesForResultTemplates);
         this.observedPropertiesForResultTemplates.put(resultTemplate, newValue);
     }
 
@@ -1541,8 +1995,10 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(FEATURE_OF_INTEREST, featureOfInterest);
         notNullOrEmpty(PARENT_FEATURE, parentFeature);
         LOG.trace("Adding parentFeature {} to featureOfInterest {}", parentFeature, featureOfInterest);
+        this.parentFeaturesForFeaturesOfInterest = writable(this.parentFeaturesForFeaturesOfInterest);
         this.parentFeaturesForFeaturesOfInterest.computeIfAbsent(featureOfInterest, createSynchronizedSet())
                 .add(parentFeature);
+        this.childFeaturesForFeatureOfInterest = writable(this.childFeaturesForFeatureOfInterest);
         this.childFeaturesForFeatureOfInterest.computeIfAbsent(parentFeature, createSynchronizedSet())
                 .add(featureOfInterest);
     }
@@ -1552,8 +2008,10 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(FEATURE_OF_INTEREST, featureOfInterest);
         noNullOrEmptyValues(PARENT_FEATURES, parentFeatures);
         LOG.trace("Adding parentFeature {} to featureOfInterest {}", parentFeatures, featureOfInterest);
+        this.parentFeaturesForFeaturesOfInterest = writable(this.parentFeaturesForFeaturesOfInterest);
         this.parentFeaturesForFeaturesOfInterest.computeIfAbsent(featureOfInterest, createSynchronizedSet())
                 .addAll(parentFeatures);
+        this.childFeaturesForFeatureOfInterest = writable(this.childFeaturesForFeatureOfInterest);
         parentFeatures.forEach(parentFeature
                 -> this.childFeaturesForFeatureOfInterest.computeIfAbsent(parentFeature, createSynchronizedSet())
                         .add(featureOfInterest)
@@ -1565,7 +2023,9 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(PROCEDURE, procedure);
         notNullOrEmpty(PARENT_PROCEDURE, parentProcedure);
         LOG.trace("Adding parentProcedure {} to procedure {}", parentProcedure, procedure);
+        this.parentProceduresForProcedures = writable(this.parentProceduresForProcedures);
         this.parentProceduresForProcedures.computeIfAbsent(procedure, createSynchronizedSet()).add(parentProcedure);
+        this.childProceduresForProcedures = writable(this.childProceduresForProcedures);
         this.childProceduresForProcedures.computeIfAbsent(parentProcedure, createSynchronizedSet()).add(procedure);
     }
 
@@ -1574,7 +2034,9 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(PROCEDURE, procedure);
         noNullOrEmptyValues(PARENT_PROCEDURES, parentProcedures);
         LOG.trace("Adding parentProcedures {} to procedure {}", parentProcedures, procedure);
+        this.parentProceduresForProcedures = writable(this.parentProceduresForProcedures);
         this.parentProceduresForProcedures.computeIfAbsent(procedure, createSynchronizedSet()).addAll(parentProcedures);
+        this.childProceduresForProcedures = writable(this.childProceduresForProcedures);
         parentProcedures.forEach((parentProcedure)
                 -> this.childProceduresForProcedures.computeIfAbsent(parentProcedure, createSynchronizedSet())
                         .add(procedure));
@@ -1585,7 +2047,9 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(PARENT_OFFERING, parentOffering);
         LOG.trace("Adding parentOffering {} to offering {}", parentOffering, offering);
+        this.parentOfferingsForOfferings = writable(this.parentOfferingsForOfferings);
         this.parentOfferingsForOfferings.computeIfAbsent(offering, createSynchronizedSet()).add(parentOffering);
+        this.childOfferingsForOfferings = writable(this.childOfferingsForOfferings);
         this.childOfferingsForOfferings.computeIfAbsent(parentOffering, createSynchronizedSet()).add(offering);
     }
 
@@ -1594,7 +2058,9 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         noNullOrEmptyValues(PARENT_OFFERINGS, parentOfferings);
         LOG.trace("Adding parentOfferings {} to offering {}", parentOfferings, offering);
+        this.parentOfferingsForOfferings = writable(this.parentOfferingsForOfferings);
         this.parentOfferingsForOfferings.computeIfAbsent(offering, createSynchronizedSet()).addAll(parentOfferings);
+        this.childOfferingsForOfferings = writable(this.childOfferingsForOfferings);
         parentOfferings.forEach((parentOffering)
                 -> this.childOfferingsForOfferings.computeIfAbsent(parentOffering, createSynchronizedSet())
                         .add(offering));
@@ -1605,9 +2071,11 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         Objects.requireNonNull(envelope, ENVELOPE);
         if (hasEnvelopeForOffering(offering)) {
-            final ReferencedEnvelope offeringEnvelope = this.envelopeForOfferings.get(offering);
+            final ReferencedEnvelope offeringEnvelope = copyOf(this.envelopeForOfferings.get(offering));
             LOG.trace("Expanding envelope {} for offering {} to include {}", offeringEnvelope, offering, envelope);
             offeringEnvelope.expandToInclude(envelope);
+            this.envelopeForOfferings = writable(this.envelopeForOfferings);
+            this.envelopeForOfferings.put(offering, offeringEnvelope);
         } else {
             setEnvelopeForOffering(offering, new ReferencedEnvelope(envelope, getDefaultEPSGCode()));
         }
@@ -1706,6 +2174,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeMaxResultTimeForOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing maxResultTime for offering {}", offering);
+        this.maxResultTimeForOfferings = writable(this.maxResultTimeForOfferings);
         this.maxResultTimeForOfferings.remove(offering);
     }
 
@@ -1713,6 +2182,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeMinResultTimeForOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing minResultTime for offering {}", offering);
+        this.minResultTimeForOfferings = writable(this.minResultTimeForOfferings);
         this.minResultTimeForOfferings.remove(offering);
     }
 
@@ -1767,6 +2237,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setMaxResultTimeForOffering(String offering, DateTime maxTime) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Setting maximal ResultTime for Offering {} to {}", offering, maxTime);
+        this.maxResultTimeForOfferings = writable(this.maxResultTimeForOfferings);
         if (maxTime == null) {
             this.maxResultTimeForOfferings.remove(offering);
         } else {
@@ -1778,6 +2249,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setMinResultTimeForOffering(String offering, DateTime minTime) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Setting minimal ResultTime for Offering {} to {}", offering, minTime);
+        this.minResultTimeForOfferings = writable(this.minResultTimeForOfferings);
         if (minTime == null) {
             this.minResultTimeForOfferings.remove(offering);
         } else {
@@ -1804,127 +2276,149 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     @Override
     public void clearFeaturesOfInterest() {
         LOG.trace("Clearing features of interest");
+        this.featuresOfInterest = writable(this.featuresOfInterest);
         this.featuresOfInterest.clear();
     }
 
     @Override
     public void clearProceduresForFeatureOfInterest() {
         LOG.trace("Clearing procedures for feature of interest");
+        this.proceduresForFeaturesOfInterest = writable(this.proceduresForFeaturesOfInterest);
         this.proceduresForFeaturesOfInterest.clear();
     }
 
     @Override
     public void clearFeatureHierarchy() {
         LOG.trace("Clearing feature hierarchy");
+        this.childFeaturesForFeatureOfInterest = writable(this.childFeaturesForFeatureOfInterest);
         this.childFeaturesForFeatureOfInterest.clear();
+        this.parentFeaturesForFeaturesOfInterest = writable(this.parentFeaturesForFeaturesOfInterest);
         this.parentFeaturesForFeaturesOfInterest.clear();
     }
 
     @Override
     public void clearProceduresForOfferings() {
         LOG.trace("Clearing procedures for offerings");
+        this.proceduresForOfferings = writable(this.proceduresForOfferings);
         this.proceduresForOfferings.clear();
     }
 
     @Override
     public void clearNameForOfferings() {
         LOG.trace("Clearing names for offerings");
+        this.nameForOfferings = writable(this.nameForOfferings);
         this.nameForOfferings.clear();
     }
 
     @Override
     public void clearI18nNamesForOfferings() {
         LOG.trace("Clearing i18n names for offerings");
+        this.i18nNameForOfferings = writable(this.i18nNameForOfferings);
         this.i18nNameForOfferings.clear();
     }
 
     @Override
     public void clearI18nDescriptionsNameForOfferings() {
         LOG.trace("Clearing i18n descriptions for offerings");
+        this.i18nDescriptionForOfferings = writable(this.i18nDescriptionForOfferings);
         this.i18nDescriptionForOfferings.clear();
     }
 
     @Override
     public void clearObservablePropertiesForOfferings() {
         LOG.trace("Clearing observable properties for offerings");
+        this.observablePropertiesForOfferings = writable(this.observablePropertiesForOfferings);
         this.observablePropertiesForOfferings.clear();
     }
 
     @Override
     public void clearRelatedFeaturesForOfferings() {
         LOG.trace("Clearing related features for offerings");
+        this.relatedFeaturesForOfferings = writable(this.relatedFeaturesForOfferings);
         this.relatedFeaturesForOfferings.clear();
     }
 
     @Override
     public void clearObservationTypesForOfferings() {
         LOG.trace("Clearing observation types for offerings");
+        this.observationTypesForOfferings = writable(this.observationTypesForOfferings);
         this.observationTypesForOfferings.clear();
     }
 
     @Override
     public void clearAllowedObservationTypeForOfferings() {
         LOG.trace("Clearing allowed observation types for offerings");
+        this.allowedObservationTypeForOfferings = writable(this.allowedObservationTypeForOfferings);
         this.allowedObservationTypeForOfferings.clear();
     }
 
     @Override
     public void clearEnvelopeForOfferings() {
         LOG.trace("Clearing envelope for offerings");
+        this.envelopeForOfferings = writable(this.envelopeForOfferings);
         this.envelopeForOfferings.clear();
     }
 
     @Override
     public void clearFeaturesOfInterestForOfferings() {
         LOG.trace("Clearing features of interest for offerings");
+        this.featuresOfInterestForOfferings = writable(this.featuresOfInterestForOfferings);
         this.featuresOfInterestForOfferings.clear();
     }
 
     @Override
     public void clearOfferingsForFeaturesOfInterest() {
         LOG.trace("Clearing offerings for features of interest");
+        this.offeringsForFeaturesOfInterest = writable(this.offeringsForFeaturesOfInterest);
         this.offeringsForFeaturesOfInterest.clear();
     }
 
     @Override
     public void clearMinPhenomenonTimeForOfferings() {
         LOG.trace("Clearing min phenomenon time for offerings");
+        this.minPhenomenonTimeForOfferings = writable(this.minPhenomenonTimeForOfferings);
         this.minPhenomenonTimeForOfferings.clear();
     }
 
     @Override
     public void clearMaxPhenomenonTimeForOfferings() {
         LOG.trace("Clearing max phenomenon time for offerings");
+        this.maxPhenomenonTimeForOfferings = writable(this.maxPhenomenonTimeForOfferings);
         this.maxPhenomenonTimeForOfferings.clear();
     }
 
     @Override
     public void clearMinPhenomenonTimeForProcedures() {
         LOG.trace("Clearing min phenomenon time for procedures");
+        this.minPhenomenonTimeForProcedures = writable(this.minPhenomenonTimeForProcedures);
         this.minPhenomenonTimeForProcedures.clear();
     }
 
     @Override
     public void clearMaxPhenomenonTimeForProcedures() {
         LOG.trace("Clearing max phenomenon time for procedures");
+        this.maxPhenomenonTimeForProcedures = writable(this.maxPhenomenonTimeForProcedures);
         this.maxPhenomenonTimeForProcedures.clear();
     }
 
     @Override
     public void clearMinResultTimeForOfferings() {
         LOG.trace("Clearing min result time for offerings");
+        this.minResultTimeForOfferings = writable(this.minResultTimeForOfferings);
         this.minResultTimeForOfferings.clear();
     }
 
     @Override
     public void clearMaxResultTimeForOfferings() {
         LOG.trace("Clearing max result time for offerings");
+        this.maxResultTimeForOfferings = writable(this.maxResultTimeForOfferings);
         this.maxResultTimeForOfferings.clear();
     }
 
     @Override
     public void clearOfferings() {
         LOG.trace("Clearing offerings");
+        this.offerings = writable(this.offerings);
         this.offerings.clear();
     }
 
@@ -1932,6 +2426,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void addOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Adding offering {}", offering);
+        this.offerings = writable(this.offerings);
         this.offerings.add(offering);
     }
 
@@ -1945,6 +2440,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing Offering {}", offering);
+        this.offerings = writable(this.offerings);
         this.offerings.remove(offering);
     }
 
@@ -1959,6 +2455,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Adding hidden child procedure {} to offering {}", procedure, offering);
+        this.hiddenChildProceduresForOfferings = writable(this.hiddenChildProceduresForOfferings);
         this.hiddenChildProceduresForOfferings.computeIfAbsent(offering, createSynchronizedSet()).add(procedure);
     }
 
@@ -1967,6 +2464,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(PROCEDURE, procedure);
         LOG.trace("Removing hidden chil procedure {} from offering {}", procedure, offering);
+        this.hiddenChildProceduresForOfferings = writable(this.hiddenChildProceduresForOfferings);
         this.hiddenChildProceduresForOfferings.getOrDefault(offering, Collections.emptySet()).remove(procedure);
     }
 
@@ -1974,12 +2472,14 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setHiddenChildProceduresForOffering(String offering, Collection<String> procedures) {
         final Set<String> newValue = newSynchronizedSet(procedures);
         LOG.trace("Setting hidden child Procedures for Offering {} to {}", offering, newValue);
+        this.hiddenChildProceduresForOfferings = writable(this.hiddenChildProceduresForOfferings);
         this.hiddenChildProceduresForOfferings.put(offering, newValue);
     }
 
     @Override
     public void clearHiddenChildProceduresForOfferings() {
         LOG.trace("Clearing hidden child procedures for offerings");
+        this.hiddenChildProceduresForOfferings = writable(this.hiddenChildProceduresForOfferings);
         this.hiddenChildProceduresForOfferings.clear();
     }
 
@@ -1987,12 +2487,14 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeSpatialFilteringProfileEnvelopeForOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing Spatial Filtering Profile envelope for offering {}", offering);
+        this.spatialFilteringProfileEnvelopeForOfferings = writable(this.spatialFilteringProfileEnvelopeForOfferings);
         this.spatialFilteringProfileEnvelopeForOfferings.remove(offering);
     }
 
     @Override
     public void setSpatialFilteringProfileEnvelopeForOffering(String offering, ReferencedEnvelope envelope) {
         LOG.trace("Setting Spatial Filtering Profile Envelope for Offering {} to {}", offering, envelope);
+        this.spatialFilteringProfileEnvelopeForOfferings = writable(this.spatialFilteringProfileEnvelopeForOfferings);
         this.spatialFilteringProfileEnvelopeForOfferings.put(offering, copyOf(envelope));
     }
 
@@ -2001,10 +2503,14 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         Objects.requireNonNull(envelope, ENVELOPE);
         if (hasSpatialFilteringProfileEnvelopeForOffering(offering)) {
-            final ReferencedEnvelope offeringEnvelope = this.spatialFilteringProfileEnvelopeForOfferings.get(offering);
+            final ReferencedEnvelope offeringEnvelope =
+                    copyOf(this.spatialFilteringProfileEnvelopeForOfferings.get(offering));
             LOG.trace("Expanding Spatial Filtering Profile envelope {} for offering {} to include {}",
                       offeringEnvelope, offering, envelope);
             offeringEnvelope.expandToInclude(envelope);
+            this.spatialFilteringProfileEnvelopeForOfferings =
+                    writable(this.spatialFilteringProfileEnvelopeForOfferings);
+            this.spatialFilteringProfileEnvelopeForOfferings.put(offering, offeringEnvelope);
         } else {
             setSpatialFilteringProfileEnvelopeForOffering(offering, new ReferencedEnvelope(envelope, getDefaultEPSGCode()));
         }
@@ -2013,6 +2519,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     @Override
     public void clearSpatialFilteringProfileEnvelopeForOfferings() {
         LOG.trace("Clearing Spatial Filtering Profile envelope for offerings");
+        this.spatialFilteringProfileEnvelopeForOfferings = writable(this.spatialFilteringProfileEnvelopeForOfferings);
         this.spatialFilteringProfileEnvelopeForOfferings.clear();
     }
 
@@ -2021,6 +2528,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(FEATURE_OF_INTEREST_TYPE, featureOfInterestType);
         LOG.trace("Adding observationType {} to offering {}", featureOfInterestType, offering);
+        this.featureOfInterestTypesForOfferings = writable(this.featureOfInterestTypesForOfferings);
         this.featureOfInterestTypesForOfferings.computeIfAbsent(offering, createSynchronizedSet())
                 .add(featureOfInterestType);
     }
@@ -2030,6 +2538,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(FEATURE_OF_INTEREST_TYPE, featureOfInterestType);
         LOG.trace("Removing observationType {} from offering {}", featureOfInterestType, offering);
+        this.featureOfInterestTypesForOfferings = writable(this.featureOfInterestTypesForOfferings);
         this.featureOfInterestTypesForOfferings.getOrDefault(offering, Collections.emptySet())
                 .remove(featureOfInterestType);
     }
@@ -2038,6 +2547,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeFeatureOfInterestTypesForOffering(String offering) {
         notNullOrEmpty(OFFERING, offering);
         LOG.trace("Removing featureOfInterestTypes for offering {}", offering);
+        this.featureOfInterestTypesForOfferings = writable(this.featureOfInterestTypesForOfferings);
         this.featureOfInterestTypesForOfferings.remove(offering);
     }
 
@@ -2045,14 +2555,68 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void setFeatureOfInterestTypesForOffering(String offering, Collection<String> featureOfInterestTypes) {
         final Set<String> newValue = newSynchronizedSet(featureOfInterestTypes);
         LOG.trace("Setting FeatureOfInterestTypes for Offering {} to {}", offering, newValue);
+        this.featureOfInterestTypesForOfferings = writable(this.featureOfInterestTypesForOfferings);
         this.featureOfInterestTypesForOfferings.put(offering, newValue);
     }
 
+    @Override
+    public void setDatasetsForOffering(String offering, Collection<DatasetInfo> datasets) {
+        notNullOrEmpty(OFFERING, offering);
+        final Map<DatasetInfo.Constellation, DatasetInfo> newValue = toDatasetMap(datasets);
+        LOG.trace("Setting {} datasets for offering {}", newValue.size(), offering);
+        this.datasetsForOfferings = writable(this.datasetsForOfferings);
+        this.datasetsForOfferings.put(offering, newValue);
+    }
+
+    @Override
+    public void removeDatasetsForOffering(String offering) {
+        notNullOrEmpty(OFFERING, offering);
+        LOG.trace("Removing datasets for offering {}", offering);
+        this.datasetsForOfferings = writable(this.datasetsForOfferings);
+        this.datasetsForOfferings.remove(offering);
+    }
+
+    @Override
+    public void updatePhenomenonTimeForDataset(String procedure, String observableProperty, String featureOfInterest,
+            String offering, Time phenomenonTime) {
+        notNullOrEmpty(PROCEDURE, procedure);
+        notNullOrEmpty(OBSERVABLE_PROPERTY, observableProperty);
+        notNullOrEmpty(FEATURE_OF_INTEREST, featureOfInterest);
+        notNullOrEmpty(OFFERING, offering);
+        Objects.requireNonNull(phenomenonTime, EVENT_TIME);
+        final TimePeriod tp = toTimePeriod(phenomenonTime);
+        LOG.trace("Expanding phenomenon time of dataset {}/{}/{}/{} to include {}", procedure, observableProperty,
+                  featureOfInterest, offering, tp);
+        this.datasetsForOfferings = writable(this.datasetsForOfferings);
+        this.datasetsForOfferings.computeIfAbsent(offering, key -> newSynchronizedMap())
+                .merge(new DatasetInfo.Constellation(procedure, observableProperty, featureOfInterest),
+                       new DatasetInfo(procedure, observableProperty, featureOfInterest, offering, tp.getStart(),
+                                       tp.getEnd()),
+                       DatasetInfo::extend);
+    }
+
+    /**
+     * Creates a map of the specified datasets keyed by their constellation. The phenomenon time extents of datasets
+     * of the same constellation are merged.
+     *
+     * @param datasets the datasets
+     *
+     * @return the synchronized map
+     */
+    private static Map<DatasetInfo.Constellation, DatasetInfo> toDatasetMap(Collection<DatasetInfo> datasets) {
+        Map<DatasetInfo.Constellation, DatasetInfo> map = newSynchronizedMap();
+        if (datasets != null) {
+            datasets.forEach(dataset -> map.merge(dataset.getConstellation(), dataset, DatasetInfo::extend));
+        }
+        return map;
+    }
+
     @Override
     public void addAllowedFeatureOfInterestTypeForOffering(String offering, String allowedFeatureOfInterestType) {
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(ALLOWED_FEATURE_OF_INTEREST_TYPE, allowedFeatureOfInterestType);
         LOG.trace("Adding AllowedFeatureOfInterestType {} to Offering {}", allowedFeatureOfInterestType, offering);
+        this.allowedFeatureOfInterestTypeForOfferings = writable(this.allowedFeatureOfInterestTypeForOfferings);
         this.allowedFeatureOfInterestTypeForOfferings.computeIfAbsent(offering, createSynchronizedSet())
                 .add(allowedFeatureOfInterestType);
     }
@@ -2063,6 +2627,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         noNullValues(ALLOWED_FEATURE_OF_INTEREST_TYPES, allowedFeatureOfInterestTypes);
         LOG.trace("Adding AllowedFeatureOfInterestTypes {} to Offering {}", allowedFeatureOfInterestTypes, offering);
+        this.allowedFeatureOfInterestTypeForOfferings = writable(this.allowedFeatureOfInterestTypeForOfferings);
         this.allowedFeatureOfInterestTypeForOfferings.computeIfAbsent(offering, createSynchronizedSet())
                 .addAll(allowedFeatureOfInterestTypes);
     }
@@ -2071,6 +2636,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void addSupportedLanguage(Locale language) {
         Objects.requireNonNull(language, SUPPORTED_LANGUAGE);
         LOG.trace("Adding Language {}", language);
+        this.supportedLanguages = writable(this.supportedLanguages);
         this.supportedLanguages.add(language);
     }
 
@@ -2083,17 +2649,20 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     @Override
     public void clearSupportedLanguage() {
         LOG.trace("Clearing supported languages");
+        this.supportedLanguages = writable(this.supportedLanguages);
         this.supportedLanguages.clear();
     }
 
     @Override
     public void removeSupportedLanguage(Locale language) {
         LOG.trace("Removing Language {}", language);
+        this.supportedLanguages = writable(this.supportedLanguages);
         this.supportedLanguages.remove(language);
     }
 
     @Override
     public void addFeatureOfInterestIdentifierHumanReadableName(String identifier, String humanReadableName) {
+        this.featureOfInterestIdentifierHumanReadableName = writable(this.featureOfInterestIdentifierHumanReadableName);
         if (!Strings.isNullOrEmpty(identifier) && !Strings.isNullOrEmpty(humanReadableName)) {
             try {
                 featureOfInterestIdentifierHumanReadableName.put(identifier, humanReadableName);
@@ -2105,6 +2674,8 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public void addObservablePropertyIdentifierHumanReadableName(String identifier, String humanReadableName) {
+        this.observablePropertyIdentifierHumanReadableName =
+                writable(this.observablePropertyIdentifierHumanReadableName);
         if (!Strings.isNullOrEmpty(identifier) && !Strings.isNullOrEmpty(humanReadableName)) {
             try {
                 observablePropertyIdentifierHumanReadableName.put(identifier, humanReadableName);
@@ -2117,6 +2688,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public void addProcedureIdentifierHumanReadableName(String identifier, String humanReadableName) {
+        this.procedureIdentifierHumanReadableName = writable(this.procedureIdentifierHumanReadableName);
         if (!Strings.isNullOrEmpty(identifier) && !Strings.isNullOrEmpty(humanReadableName)) {
             try {
                 procedureIdentifierHumanReadableName.put(identifier, humanReadableName);
@@ -2129,6 +2701,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public void addOfferingIdentifierHumanReadableName(String identifier, String humanReadableName) {
+        this.offeringIdentifierHumanReadableName = writable(this.offeringIdentifierHumanReadableName);
         if (!Strings.isNullOrEmpty(identifier) && !Strings.isNullOrEmpty(humanReadableName)) {
             try {
                 offeringIdentifierHumanReadableName.put(identifier, humanReadableName);
@@ -2143,6 +2716,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeFeatureOfInterestIdentifierForHumanReadableName(String humanReadableName) {
         notNullOrEmpty(FEATURE_OF_INTEREST_NAME, humanReadableName);
         LOG.trace("Removing featuresOfInterest identifier for humanReadableName {}", humanReadableName);
+        this.featureOfInterestIdentifierHumanReadableName = writable(this.featureOfInterestIdentifierHumanReadableName);
         featureOfInterestIdentifierHumanReadableName.inverse().remove(humanReadableName);
     }
 
@@ -2150,6 +2724,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeFeatureOfInterestHumanReadableNameForIdentifier(String identifier) {
         notNullOrEmpty(FEATURE_OF_INTEREST, identifier);
         LOG.trace("Removing featuresOfInterest human readable name for identifier {}", identifier);
+        this.featureOfInterestIdentifierHumanReadableName = writable(this.featureOfInterestIdentifierHumanReadableName);
         featureOfInterestIdentifierHumanReadableName.remove(identifier);
     }
 
@@ -2157,6 +2732,8 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeObservablePropertyIdentifierForHumanReadableName(String humanReadableName) {
         notNullOrEmpty(OBSERVABLE_PROPERTY_NAME, humanReadableName);
         LOG.trace("Removing featuresOfInterest identifier for humanReadableName {}", humanReadableName);
+        this.observablePropertyIdentifierHumanReadableName =
+                writable(this.observablePropertyIdentifierHumanReadableName);
         observablePropertyIdentifierHumanReadableName.inverse().remove(humanReadableName);
     }
 
@@ -2164,6 +2741,8 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeObservablePropertyHumanReadableNameForIdentifier(String identifier) {
         notNullOrEmpty(OBSERVABLE_PROPERTY, identifier);
         LOG.trace("Removing observableProperty human readable name for identifier {}", identifier);
+        this.observablePropertyIdentifierHumanReadableName =
+                writable(this.observablePropertyIdentifierHumanReadableName);
         observablePropertyIdentifierHumanReadableName.remove(identifier);
     }
 
@@ -2171,6 +2750,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeProcedureIdentifierForHumanReadableName(String humanReadableName) {
         notNullOrEmpty(PROCEDURE_NAME, humanReadableName);
         LOG.trace("Removing procedure identifier for humanReadableName {}", humanReadableName);
+        this.procedureIdentifierHumanReadableName = writable(this.procedureIdentifierHumanReadableName);
         procedureIdentifierHumanReadableName.inverse().remove(humanReadableName);
     }
 
@@ -2178,6 +2758,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeProcedureHumanReadableNameForIdentifier(String identifier) {
         notNullOrEmpty(PROCEDURE, identifier);
         LOG.trace("Removing procedure human readable name for identifier {}", identifier);
+        this.procedureIdentifierHumanReadableName = writable(this.procedureIdentifierHumanReadableName);
         procedureIdentifierHumanReadableName.remove(identifier);
     }
 
@@ -2185,6 +2766,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeOfferingIdentifierForHumanReadableName(String humanReadableName) {
         notNullOrEmpty(OFFERING_NAME, humanReadableName);
         LOG.trace("Removing offering identifier for humanReadableName {}", humanReadableName);
+        this.offeringIdentifierHumanReadableName = writable(this.offeringIdentifierHumanReadableName);
         offeringIdentifierHumanReadableName.inverse().remove(humanReadableName);
     }
 
@@ -2192,32 +2774,38 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeOfferingHumanReadableNameForIdentifier(String identifier) {
         notNullOrEmpty(OFFERING, identifier);
         LOG.trace("Removing offering human readable name for identifier {}", identifier);
+        this.offeringIdentifierHumanReadableName = writable(this.offeringIdentifierHumanReadableName);
         offeringIdentifierHumanReadableName.remove(identifier);
     }
 
     @Override
     public void clearFeatureOfInterestIdentifierHumanReadableNameMaps() {
+        this.featureOfInterestIdentifierHumanReadableName = writable(this.featureOfInterestIdentifierHumanReadableName);
         featureOfInterestIdentifierHumanReadableName.clear();
     }
 
     @Override
     public void clearObservablePropertyIdentifierHumanReadableNameMaps() {
+        this.observablePropertyIdentifierHumanReadableName =
+                writable(this.observablePropertyIdentifierHumanReadableName);
         observablePropertyIdentifierHumanReadableName.clear();
     }
 
     @Override
     public void clearProcedureIdentifierHumanReadableNameMaps() {
+        this.procedureIdentifierHumanReadableName = writable(this.procedureIdentifierHumanReadableName);
         procedureIdentifierHumanReadableName.clear();
     }
 
     @Override
     public void clearOfferingIdentifierHumanReadableNameMaps() {
+        this.offeringIdentifierHumanReadableName = writable(this.offeringIdentifierHumanReadableName);
         offeringIdentifierHumanReadableName.clear();
     }
 
     @Override
     public Set<String> getCompositePhenomenons() {
-        return copyOf(this.compositePhenomenons);
+        return readOnly(this.compositePhenomenons);
     }
 
     @Override
@@ -2227,7 +2815,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public Set<String> getCompositePhenomenonsForProcedure(String procedure) {
-        return copyOf(this.compositePhenomenonsForProcedure.get(procedure));
+        return readOnly(this.compositePhenomenonsForProcedure.get(procedure));
     }
 
     @Override
@@ -2239,7 +2827,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public Set<String> getCompositePhenomenonsForOffering(String offering) {
-        return copyOf(this.compositePhenomenonsForOffering.get(offering));
+        return readOnly(this.compositePhenomenonsForOffering.get(offering));
     }
 
     @Override
@@ -2250,7 +2838,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public Set<String> getObservablePropertiesForCompositePhenomenon(String compositePhenomenon) {
-        return copyOf(this.observablePropertiesForCompositePhenomenons.get(compositePhenomenon));
+        return readOnly(this.observablePropertiesForCompositePhenomenons.get(compositePhenomenon));
     }
 
     @Override
@@ -2261,7 +2849,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public Set<String> getCompositePhenomenonForObservableProperty(String observableProperty) {
-        return copyOf(this.compositePhenomenonsForObservableProperty.get(observableProperty));
+        return readOnly(this.compositePhenomenonsForObservableProperty.get(observableProperty));
     }
 
     @Override
@@ -2274,6 +2862,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void addCompositePhenomenon(String compositePhenomenon) {
         notNullOrEmpty(COMPOSITE_PHENOMENON, compositePhenomenon);
         LOG.trace("Adding composite phenomenon {}", compositePhenomenon);
+        this.compositePhenomenons = writable(this.compositePhenomenons);
         this.compositePhenomenons.add(compositePhenomenon);
     }
 
@@ -2281,6 +2870,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void addCompositePhenomenon(Collection<String> compositePhenomenon) {
         noNullOrEmptyValues(COMPOSITE_PHENOMENON, compositePhenomenon);
         LOG.trace("Adding composite phenomenon {}", compositePhenomenon);
+        this.compositePhenomenons = writable(this.compositePhenomenons);
         this.compositePhenomenons.addAll(compositePhenomenon);
     }
 
@@ -2293,6 +2883,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     @Override
     public void clearCompositePhenomenon() {
         LOG.trace("Clearing composite phenomenon");
+        this.compositePhenomenons = writable(this.compositePhenomenons);
         this.compositePhenomenons.clear();
     }
 
@@ -2302,6 +2893,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(PROCEDURE, procedure);
         notNullOrEmpty(COMPOSITE_PHENOMENON, compositePhenomenon);
         LOG.trace("Adding composite phenomenon {} to procedure {}", compositePhenomenon, procedure);
+        this.compositePhenomenonsForProcedure = writable(this.compositePhenomenonsForProcedure);
         this.compositePhenomenonsForProcedure.computeIfAbsent(procedure, createSynchronizedSet())
                 .add(compositePhenomenon);
         addCompositePhenomenon(compositePhenomenon);
@@ -2313,6 +2905,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(PROCEDURE, procedure);
         noNullOrEmptyValues(COMPOSITE_PHENOMENON, compositePhenomenon);
         LOG.trace("Adding composite phenomenon {} to procedure {}", compositePhenomenon, procedure);
+        this.compositePhenomenonsForProcedure = writable(this.compositePhenomenonsForProcedure);
         this.compositePhenomenonsForProcedure.computeIfAbsent(procedure, createSynchronizedSet())
                 .addAll(compositePhenomenon);
         addCompositePhenomenon(compositePhenomenon);
@@ -2328,12 +2921,14 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     @Override
     public void clearCompositePhenomenonForProcedure(String procedure) {
         LOG.trace("Clearing composite phenomenons for procedure {}", procedure);
+        this.compositePhenomenonsForProcedure = writable(this.compositePhenomenonsForProcedure);
         this.compositePhenomenonsForProcedure.remove(procedure);
     }
 
     @Override
     public void clearCompositePhenomenonForProcedures() {
         LOG.trace("Clearing composite phenomenons for procedures");
+        this.compositePhenomenonsForProcedure = writable(this.compositePhenomenonsForProcedure);
         this.compositePhenomenonsForProcedure.clear();
     }
 
@@ -2342,6 +2937,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         notNullOrEmpty(COMPOSITE_PHENOMENON, compositePhenomenon);
         LOG.trace("Adding composite phenomenon {} to offering {}", offering);
+        this.compositePhenomenonsForOffering = writable(this.compositePhenomenonsForOffering);
         this.compositePhenomenonsForOffering.computeIfAbsent(offering, createSynchronizedSet()).add(compositePhenomenon);
         addCompositePhenomenon(compositePhenomenon);
     }
@@ -2351,6 +2947,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OFFERING, offering);
         noNullOrEmptyValues(COMPOSITE_PHENOMENON, compositePhenomenon);
         LOG.trace("Adding composite phenomenon {} to offering {}", offering);
+        this.compositePhenomenonsForOffering = writable(this.compositePhenomenonsForOffering);
         this.compositePhenomenonsForOffering.computeIfAbsent(offering, createSynchronizedSet())
                 .addAll(compositePhenomenon);
         addCompositePhenomenon(compositePhenomenon);
@@ -2366,12 +2963,14 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     @Override
     public void clearCompositePhenomenonForOffering(String offering) {
         LOG.trace("Clearing composite phenomenons for offering {}", offering);
+        this.compositePhenomenonsForOffering = writable(this.compositePhenomenonsForOffering);
         this.compositePhenomenonsForOffering.remove(offering);
     }
 
     @Override
     public void clearCompositePhenomenonForOfferings() {
         LOG.trace("Clearing composite phenomenons for offerings");
+        this.compositePhenomenonsForOffering = writable(this.compositePhenomenonsForOffering);
         this.compositePhenomenonsForOffering.clear();
     }
 
@@ -2382,6 +2981,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(OBSERVABLE_PROPERTY, observableProperty);
         LOG
                 .trace("Adding composite phenomenon {} to to observable property {}", compositePhenomenon, observableProperty);
+        this.compositePhenomenonsForObservableProperty = writable(this.compositePhenomenonsForObservableProperty);
         this.compositePhenomenonsForObservableProperty.computeIfAbsent(observableProperty, createSynchronizedSet())
                 .add(compositePhenomenon);
         addCompositePhenomenon(compositePhenomenon);
@@ -2393,6 +2993,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(COMPOSITE_PHENOMENON, compositePhenomenon);
         notNullOrEmpty(OBSERVABLE_PROPERTY, observableProperty);
         LOG.trace("Adding observable property {} to composite phenomenon {}", observableProperty, compositePhenomenon);
+        this.observablePropertiesForCompositePhenomenons = writable(this.observablePropertiesForCompositePhenomenons);
         this.observablePropertiesForCompositePhenomenons.computeIfAbsent(compositePhenomenon, createSynchronizedSet())
                 .add(observableProperty);
         addCompositePhenomenon(compositePhenomenon);
@@ -2404,6 +3005,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(COMPOSITE_PHENOMENON, compositePhenomenon);
         noNullOrEmptyValues(OBSERVABLE_PROPERTY, observableProperty);
         LOG.trace("Adding observable properties {} to composite phenomenon {}", observableProperty, compositePhenomenon);
+        this.observablePropertiesForCompositePhenomenons = writable(this.observablePropertiesForCompositePhenomenons);
         this.observablePropertiesForCompositePhenomenons.computeIfAbsent(compositePhenomenon, createSynchronizedSet())
                 .addAll(observableProperty);
         addCompositePhenomenon(compositePhenomenon);
@@ -2419,35 +3021,40 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     @Override
     public void clearObservablePropertiesForCompositePhenomenon(String compositePhenomenon) {
         LOG.trace("Clearing observable properties for composite phenomenon {}", compositePhenomenon);
+        this.observablePropertiesForCompositePhenomenons = writable(this.observablePropertiesForCompositePhenomenons);
         this.observablePropertiesForCompositePhenomenons.remove(compositePhenomenon);
     }
 
     @Override
     public void clearObservablePropertiesForCompositePhenomenon() {
         LOG.trace("Clearing observable properties for composite phenomenon");
+        this.observablePropertiesForCompositePhenomenons = writable(this.observablePropertiesForCompositePhenomenons);
         this.observablePropertiesForCompositePhenomenons.clear();
     }
 
     @Override
     public void clearCompositePhenomenonsForObservableProperty() {
         LOG.trace("Clearing composite phenomenon for observable properties");
+        this.compositePhenomenonsForObservableProperty = writable(this.compositePhenomenonsForObservableProperty);
         this.compositePhenomenonsForObservableProperty.clear();
     }
 
     @Override
     public void clearCompositePhenomenonsForObservableProperty(String observableProperty) {
         LOG.trace("Clearing composite phenomenon for observable property {}", observableProperty);
+        this.compositePhenomenonsForObservableProperty = writable(this.compositePhenomenonsForObservableProperty);
         this.compositePhenomenonsForObservableProperty.remove(observableProperty);
     }
 
     @Override
     public Set<String> getRequestableProcedureDescriptionFormat() {
-        return copyOf(this.requestableProcedureDescriptionFormats);
+        return readOnly(this.requestableProcedureDescriptionFormats);
     }
 
     @Override
     public void setRequestableProcedureDescriptionFormat(Collection<String> formats) {
         LOG.trace("Adding requestable procedureDescriptionFormat");
+        this.requestableProcedureDescriptionFormats = writable(this.requestableProcedureDescriptionFormats);
         this.requestableProcedureDescriptionFormats.addAll(formats);
     }
 
@@ -2502,17 +3109,17 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public Set<String> getTypeInstanceProcedure(TypeInstance typeInstance) {
-        return copyOf(typeInstanceProcedures.get(typeInstance));
+        return readOnly(typeInstanceProcedures.get(typeInstance));
     }
 
     @Override
     public Set<String> getComponentAggregationProcedure(ComponentAggregation componentAggregation) {
-        return copyOf(componentAggregationProcedures.get(componentAggregation));
+        return readOnly(componentAggregationProcedures.get(componentAggregation));
     }
 
     @Override
     public Set<String> getInstancesForProcedure(String identifier) {
-        return copyOf(typeOfProceduresMap.get(identifier));
+        return readOnly(typeOfProceduresMap.get(identifier));
     }
 
     @Override
@@ -2524,6 +3131,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void addTypeInstanceProcedure(TypeInstance typeInstance, String identifier) {
         notNullOrEmpty(TYPE_PROCEDURE, identifier);
         logAdding(TYPE_PROCEDURE, identifier);
+        this.typeInstanceProcedures = writable(this.typeInstanceProcedures);
         if (typeInstanceProcedures.containsKey(typeInstance)) {
             typeInstanceProcedures.get(typeInstance).add(identifier);
         } else {
@@ -2535,12 +3143,14 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeTypeInstanceProcedure(String identifier) {
         notNullOrEmpty(TYPE_PROCEDURE, identifier);
         logRemoving(TYPE_PROCEDURE, identifier);
+        this.typeInstanceProcedures = writable(this.typeInstanceProcedures);
         removeValue(typeInstanceProcedures, identifier);
     }
 
     @Override
     public void clearTypeInstanceProcedure() {
         logClearing(TYPE_PROCEDURE);
+        this.typeInstanceProcedures = writable(this.typeInstanceProcedures);
         typeInstanceProcedures.clear();
     }
 
@@ -2548,6 +3158,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void addComponentAggregationProcedure(ComponentAggregation componentAggregation, String identifier) {
         notNullOrEmpty(AGGREGATED_PROCEDURE, identifier);
         logAdding(AGGREGATED_PROCEDURE, identifier);
+        this.componentAggregationProcedures = writable(this.componentAggregationProcedures);
         if (componentAggregationProcedures.containsKey(componentAggregation)) {
             componentAggregationProcedures.get(componentAggregation).add(identifier);
         } else {
@@ -2559,12 +3170,14 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeComponentAggregationProcedure(String identifier) {
         notNullOrEmpty(AGGREGATED_PROCEDURE, identifier);
         logRemoving(AGGREGATED_PROCEDURE, identifier);
+        this.componentAggregationProcedures = writable(this.componentAggregationProcedures);
         removeValue(componentAggregationProcedures, identifier);
     }
 
     @Override
     public void clearComponentAggregationProcedure() {
         logClearing(AGGREGATED_PROCEDURE);
+        this.componentAggregationProcedures = writable(this.componentAggregationProcedures);
         componentAggregationProcedures.clear();
     }
 
@@ -2573,6 +3186,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(TYPE_PROCEDURE, type);
         notNullOrEmpty(PROCEDURE_INSTANCE, instance);
         LOG.trace("Adding instance '{}' to type '{}'", instance, type);
+        this.typeOfProceduresMap = writable(this.typeOfProceduresMap);
         if (hasInstancesForProcedure(type)) {
             typeOfProceduresMap.get(type).add(instance);
         } else {
@@ -2585,6 +3199,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(TYPE_PROCEDURE, type);
         noNullValues(PROCEDURE_INSTANCES, instances);
         LOG.trace("Adding instances {} to type '{}'", instances, type);
+        this.typeOfProceduresMap = writable(this.typeOfProceduresMap);
         if (hasInstancesForProcedure(type)) {
             typeOfProceduresMap.get(type).addAll(instances);
         } else {
@@ -2596,6 +3211,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removeTypeOfProcedure(String type) {
         notNullOrEmpty(TYPE_PROCEDURE, type);
         LOG.trace("Removing type '{}'", type);
+        this.typeOfProceduresMap = writable(this.typeOfProceduresMap);
         if (hasInstancesForProcedure(type)) {
             typeOfProceduresMap.remove(type);
         }
@@ -2608,6 +3224,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         notNullOrEmpty(TYPE_PROCEDURE, type);
         notNullOrEmpty(PROCEDURE_INSTANCE, instance);
         logRemoving(type, instance);
+        this.typeOfProceduresMap = writable(this.typeOfProceduresMap);
         if (hasInstancesForProcedure(type)) {
             typeOfProceduresMap.get(type).remove(instance);
         }
@@ -2616,6 +3233,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     @Override
     public void clearTypeOfProcedure() {
         logClearing("Clearing type instance procedure map");
+        this.typeOfProceduresMap = writable(this.typeOfProceduresMap);
         typeOfProceduresMap.clear();
     }
 
@@ -2651,6 +3269,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public void addProcedureDescriptionFormatsForProcedure(String procedure, Set<String> formats) {
+        this.procedureProcedureDescriptionFormats = writable(this.procedureProcedureDescriptionFormats);
         this.procedureProcedureDescriptionFormats.computeIfAbsent(procedure, createSynchronizedSet())
         .addAll(formats);
     }
@@ -2658,6 +3277,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public void removeProcedureDescriptionFormatsForProcedure(String procedure) {
+        this.procedureProcedureDescriptionFormats = writable(this.procedureProcedureDescriptionFormats);
         procedureProcedureDescriptionFormats.remove(procedure);
     }
 
@@ -2670,22 +3290,42 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
 
     @Override
     public Set<String> getPublishedFeatureOfInterest() {
-        return copyOf(publishedFeatureOfInterest);
+        return readOnly(publishedFeatureOfInterest);
     }
 
     @Override
     public Set<String> getPublishedProcedures() {
-        return copyOf(publishedProcedure);
+        return readOnly(publishedProcedure);
     }
 
     @Override
     public Set<String> getPublishedOfferings() {
-        return copyOf(publishedOffering);
+        return readOnly(publishedOffering);
     }
 
     @Override
     public Set<String> getPublishedObservableProperties() {
-        return copyOf(publishedObservableProperty);
+        return readOnly(publishedObservableProperty);
+    }
+
+    @Override
+    public boolean hasPublishedFeatureOfInterest(String featureOfInterest) {
+        return publishedFeatureOfInterest.contains(featureOfInterest);
+    }
+
+    @Override
+    public boolean hasPublishedProcedure(String procedure) {
+        return publishedProcedure.contains(procedure);
+    }
+
+    @Override
+    public boolean hasPublishedOffering(String offering) {
+        return publishedOffering.contains(offering);
+    }
+
+    @Override
+    public boolean hasPublishedObservableProperty(String observableProperty) {
+        return publishedObservableProperty.contains(observableProperty);
     }
 
 
@@ -2693,6 +3333,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void addPublishedFeatureOfInterest(String featureOfInterest) {
         notNullOrEmpty(PUBLISHED_FEATURE_OF_INTEREST, featureOfInterest);
         LOG.trace("Adding published FeatureOfInterest {}", featureOfInterest);
+        this.publishedFeatureOfInterest = writable(this.publishedFeatureOfInterest);
         publishedFeatureOfInterest.add(featureOfInterest);
     }
 
@@ -2714,6 +3355,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     @Override
     public void clearPublishedFeaturesOfInterest() {
         LOG.trace("Clearing published features of interest");
+        this.publishedFeatureOfInterest = writable(this.publishedFeatureOfInterest);
         publishedFeatureOfInterest.clear();
     }
 
@@ -2721,6 +3363,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
     public void removePublishedFeatureOfInterest(final String featureOfInterest) {
         notNullOrEmpty(PUBLISHED_FEATURE_OF_INTEREST, featureOfInterest);
         LOG.trace("Removing published FeatureOfInterest {}", featureOfInterest);
+        this.publishedFeatureOfInterest = writable(this.publishedFeatureOfInterest);
         publishedFeatureOfInterest.remove(featureOfInterest);
     }
 
@@ -2736,6 +3379,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
    public void addPublishedProcedure(String procedure) {
        notNullOrEmpty(PUBLISHED_PROCEDURE, procedure);
        LOG.trace("Adding published procedure {}", procedure);
+       this.publishedProcedure = writable(this.publishedProcedure);
        publishedProcedure.add(procedure);
    }
 
@@ -2757,6 +3401,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
    @Override
    public void clearPublishedProcedure() {
        LOG.trace("Clearing published procedure");
+       this.publishedProcedure = writable(this.publishedProcedure);
        publishedProcedure.clear();
    }
 
@@ -2764,6 +3409,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
    public void removePublishedProcedure(final String procedure) {
        notNullOrEmpty(PUBLISHED_PROCEDURE, procedure);
        LOG.trace("Removing published procedure {}", procedure);
+       this.publishedProcedure = writable(this.publishedProcedure);
        publishedProcedure.remove(procedure);
    }
 
@@ -2779,6 +3425,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
    public void addPublishedOffering(String offering) {
        notNullOrEmpty(PUBLISHED_OFFERING, offering);
        LOG.trace("Adding published offering {}", offering);
+       this.publishedOffering = writable(this.publishedOffering);
        publishedOffering.add(offering);
    }
 
@@ -2800,6 +3447,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
    @Override
    public void clearPublishedOffering() {
        LOG.trace("Clearing published offering");
+       this.publishedOffering = writable(this.publishedOffering);
        publishedOffering.clear();
    }
 
@@ -2807,6 +3455,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
    public void removePublishedOffering(final String offering) {
        notNullOrEmpty(PUBLISHED_OFFERING, offering);
        LOG.trace("Removing published offering {}", offering);
+       this.publishedOffering = writable(this.publishedOffering);
        publishedOffering.remove(offering);
    }
 
@@ -2822,6 +3471,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
    public void addPublishedObservableProperty(String observableProperty) {
        notNullOrEmpty(PUBLISHED_OBSERVABLE_PROPERTY, observableProperty);
        LOG.trace("Adding published observableProperty {}", observableProperty);
+       this.publishedObservableProperty = writable(this.publishedObservableProperty);
        publishedObservableProperty.add(observableProperty);
    }
 
@@ -2843,6 +3493,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
    @Override
    public void clearPublishedObservableProperty() {
        LOG.trace("Clearing published observableProperties");
+       this.publishedObservableProperty = writable(this.publishedObservableProperty);
        publishedObservableProperty.clear();
    }
 
@@ -2850,6 +3501,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
    public void removePublishedObservableProperty(final String observableProperty) {
        notNullOrEmpty(PUBLISHED_OBSERVABLE_PROPERTY, observableProperty);
        LOG.trace("Removing published observableProperty {}", observableProperty);
+       this.publishedObservableProperty = writable(this.publishedObservableProperty);
        publishedObservableProperty.remove(observableProperty);
    }
 
@@ -2918,6 +3570,7 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         hash = 61 * hash + Objects.hashCode(this.typeInstanceProcedures);
         hash = 61 * hash + Objects.hashCode(this.componentAggregationProcedures);
         hash = 61 * hash + Objects.hashCode(this.typeOfProceduresMap);
+        hash = 61 * hash + Objects.hashCode(this.datasetsForOfferings);
         hash = 61 * hash + this.defaultEpsgCode;
         hash = 61 * hash + Objects.hashCode(this.globalEnvelope);
         hash = 61 * hash + Objects.hashCode(this.updateTime);
@@ -3113,6 +3766,9 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         if (!Objects.equals(this.updateTime, other.updateTime)) {
             return false;
         }
+        if (!Objects.equals(this.datasetsForOfferings, other.datasetsForOfferings)) {
+            return false;
+        }
         return true;
     }
 
@@ -3134,4 +3790,216 @@ public class InMemoryCacheImpl extends AbstractStaticSosContentCache implements
         return Suppliers.<X, Set<T>>asFunction(HashSet<T>::new).andThen(Collections::synchronizedSet);
     }
 
+    /**
+     * Replaces this cache with a {@link SerializationProxy} during serialization.
+     *
+     * @return the proxy
+     */
+    private Object writeReplace() {
+        return new SerializationProxy(this);
+    }
+
+    /**
+     * Initializes the fields that are missing in caches persisted with the default serialized form.
+     *
+     * @return this cache
+     */
+    private Object readResolve() {
+        if (this.datasetsForOfferings == null) {
+            this.datasetsForOfferings = newSynchronizedMap();
+        }
+        this.shared = Collections.newSetFromMap(new IdentityHashMap<>());
+        return this;
+    }
+
+    /**
+     * Compact and versioned serialized form of an {@link InMemoryCacheImpl}. Identifiers are written only once to an
+     * inline dictionary and referenced by their index afterwards, so that the identifier sets and relations are stored
+     * as integer arrays. All other values use the default serialization. Caches persisted with the default serialized
+     * form of {@link InMemoryCacheImpl} can still be read.
+     * <p>
+     * The order of {@link InMemoryCacheImpl#getIdentifierSets()} and {@link InMemoryCacheImpl#getRelationMaps()} is
+     * part of the format, any change requires a new {@link #VERSION}. Version 2 added the datasets of the offerings,
+     * caches written with version 1 are read without them.
+     */
+    private static final class SerializationProxy implements Serializable {
+        private static final long serialVersionUID = -4818744453170435227L;
+        private static final int VERSION = 2;
+        private static final int NEW_IDENTIFIER = -1;
+        private transient InMemoryCacheImpl cache;
+        private transient Map<String, Integer> writeDictionary;
+        private transient List<String> readDictionary;
+
+        SerializationProxy(InMemoryCacheImpl cache) {
+            this.cache = cache;
+        }
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            out.writeInt(VERSION);
+            this.writeDictionary = new HashMap<>();
+            for (Set<String> set : cache.getIdentifierSets()) {
+                synchronized (set) {
+                    writeIdentifiers(out, set);
+                }
+            }
+            for (Map<String, Set<String>> map : cache.getRelationMaps()) {
+                synchronized (map) {
+                    out.writeInt(map.size());
+                    for (Map.Entry<String, Set<String>> entry : map.entrySet()) {
+                        writeIdentifier(out, entry.getKey());
+                        synchronized (entry.getValue()) {
+                            writeIdentifiers(out, entry.getValue());
+                        }
+                    }
+                }
+            }
+            synchronized (cache.datasetsForOfferings) {
+                out.writeInt(cache.datasetsForOfferings.size());
+                for (Map.Entry<String, Map<DatasetInfo.Constellation, DatasetInfo>> entry
+                        : cache.datasetsForOfferings.entrySet()) {
+                    writeIdentifier(out, entry.getKey());
+                    synchronized (entry.getValue()) {
+                        out.writeObject(new ArrayList<>(entry.getValue().values()));
+                    }
+                }
+            }
+            this.writeDictionary = null;
+            out.writeObject(cache.maxPhenomenonTimeForOfferings);
+            out.writeObject(cache.minPhenomenonTimeForOfferings);
+            out.writeObject(cache.maxResultTimeForOfferings);
+            out.writeObject(cache.minResultTimeForOfferings);
+            out.writeObject(cache.maxPhenomenonTimeForProcedures);
+            out.writeObject(cache.minPhenomenonTimeForProcedures);
+            out.writeObject(cache.envelopeForOfferings);
+            out.writeObject(cache.spatialFilteringProfileEnvelopeForOfferings);
+            out.writeObject(cache.nameForOfferings);
+            out.writeObject(cache.i18nNameForOfferings);
+            out.writeObject(cache.i18nDescriptionForOfferings);
+            out.writeObject(cache.typeInstanceProcedures);
+            out.writeObject(cache.componentAggregationProcedures);
+            out.writeObject(cache.featureOfInterestIdentifierHumanReadableName);
+            out.writeObject(cache.observablePropertyIdentifierHumanReadableName);
+            out.writeObject(cache.procedureIdentifierHumanReadableName);
+            out.writeObject(cache.offeringIdentifierHumanReadableName);
+            out.writeObject(cache.epsgCodes);
+            out.writeObject(cache.supportedLanguages);
+            out.writeObject(cache.globalPhenomenonTimeEnvelope.getStart());
+            out.writeObject(cache.globalPhenomenonTimeEnvelope.getEnd());
+            out.writeObject(cache.globalResultTimeEnvelope.getStart());
+            out.writeObject(cache.globalResultTimeEnvelope.getEnd());
+            out.writeObject(cache.globalEnvelope);
+            out.writeInt(cache.defaultEpsgCode);
+            out.writeObject(cache.updateTime);
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            int version = in.readInt();
+            if (version < 1 || version > VERSION) {
+                throw new InvalidObjectException(String.format("Unsupported cache format version %d", version));
+            }
+            this.cache = new InMemoryCacheImpl();
+            this.readDictionary = new ArrayList<>();
+            for (Set<String> set : cache.getIdentifierSets()) {
+                set.addAll(readIdentifiers(in));
+            }
+            for (Map<String, Set<String>> map : cache.getRelationMaps()) {
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    String key = readIdentifier(in);
+                    map.put(key, newSynchronizedSet(readIdentifiers(in)));
+                }
+            }
+            if (version >= 2) {
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    String offering = readIdentifier(in);
+                    List<DatasetInfo> datasets = read(in);
+                    cache.datasetsForOfferings.put(offering, toDatasetMap(datasets));
+                }
+            }
+            this.readDictionary = null;
+            cache.maxPhenomenonTimeForOfferings.putAll(read(in));
+            cache.minPhenomenonTimeForOfferings.putAll(read(in));
+            cache.maxResultTimeForOfferings.putAll(read(in));
+            cache.minResultTimeForOfferings.putAll(read(in));
+            cache.maxPhenomenonTimeForProcedures.putAll(read(in));
+            cache.minPhenomenonTimeForProcedures.putAll(read(in));
+            cache.envelopeForOfferings.putAll(read(in));
+            cache.spatialFilteringProfileEnvelopeForOfferings.putAll(read(in));
+            cache.nameForOfferings.putAll(read(in));
+            cache.i18nNameForOfferings.putAll(read(in));
+            cache.i18nDescriptionForOfferings.putAll(read(in));
+            cache.typeInstanceProcedures.putAll(read(in));
+            cache.componentAggregationProcedures.putAll(read(in));
+            cache.featureOfInterestIdentifierHumanReadableName.putAll(read(in));
+            cache.observablePropertyIdentifierHumanReadableName.putAll(read(in));
+            cache.procedureIdentifierHumanReadableName.putAll(read(in));
+            cache.offeringIdentifierHumanReadableName.putAll(read(in));
+            cache.epsgCodes.addAll(read(in));
+            cache.supportedLanguages.addAll(read(in));
+            cache.globalPhenomenonTimeEnvelope.setStart((DateTime) in.readObject());
+            cache.globalPhenomenonTimeEnvelope.setEnd((DateTime) in.readObject());
+            cache.globalResultTimeEnvelope.setStart((DateTime) in.readObject());
+            cache.globalResultTimeEnvelope.setEnd((DateTime) in.readObject());
+            cache.globalEnvelope = read(in);
+            cache.defaultEpsgCode = in.readInt();
+            cache.updateTime = read(in);
+        }
+
+        private Object readResolve() {
+            return this.cache;
+        }
+
+        private void writeIdentifiers(ObjectOutputStream out, Set<String> identifiers) throws IOException {
+            out.writeInt(identifiers.size());
+            for (String identifier : identifiers) {
+                writeIdentifier(out, identifier);
+            }
+        }
+
+        private void writeIdentifier(ObjectOutputStream out, String identifier) throws IOException {
+            Integer index = this.writeDictionary.get(identifier);
+            if (index != null) {
+                out.writeInt(index);
+            } else {
+                this.writeDictionary.put(identifier, this.writeDictionary.size());
+                byte[] bytes = identifier.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(NEW_IDENTIFIER);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        private List<String> readIdentifiers(ObjectInputStream in) throws IOException {
+            int size = in.readInt();
+            List<String> identifiers = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                identifiers.add(readIdentifier(in));
+            }
+            return identifiers;
+        }
+
+        private String readIdentifier(ObjectInputStream in) throws IOException {
+            int index = in.readInt();
+            if (index != NEW_IDENTIFIER) {
+                if (index < 0 || index >= this.readDictionary.size()) {
+                    throw new InvalidObjectException(String.format("Invalid identifier index %d", index));
+                }
+                return this.readDictionary.get(index);
+            }
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            String identifier = new String(bytes, StandardCharsets.UTF_8);
+            this.readDictionary.add(identifier);
+            return identifier;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T read(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            return (T) in.readObject();
+        }
+    }
+
 }
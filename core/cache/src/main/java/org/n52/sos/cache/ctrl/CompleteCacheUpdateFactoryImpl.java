@@ -30,17 +30,33 @@ package org.n52.sos.cache.ctrl;
 
 import javax.inject.Inject;
 
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.n52.faroe.annotation.Configurable;
+import org.n52.faroe.annotation.Setting;
 import org.n52.iceland.cache.ContentCacheUpdate;
 import org.n52.iceland.cache.ctrl.CompleteCacheUpdateFactory;
 import org.n52.iceland.coding.SupportedTypeRepository;
 import org.n52.sos.cache.ctrl.action.CompleteCacheUpdate;
+import org.n52.sos.cache.ctrl.action.IncrementalCacheUpdate;
 import org.n52.sos.ds.CacheFeederHandler;
+import org.n52.sos.service.SosSettings;
 
+@Configurable
 public class CompleteCacheUpdateFactoryImpl
         implements CompleteCacheUpdateFactory {
 
+    /**
+     * The maximum time between two updates that recreate the cache from scratch if incremental updates are enabled.
+     * Incremental updates do not remove data that was deleted from the datasource by other applications.
+     */
+    private static final Duration FULL_UPDATE_INTERVAL = Duration.standardDays(1);
+
     private CacheFeederHandler cacheFeederHandler;
     private SupportedTypeRepository supportedTypeRepository;
+    private boolean incrementalUpdate;
+    private DateTime lastUpdate;
+    private DateTime lastFullUpdate;
 
     @Inject
     public void setCacheFeederHandler(CacheFeederHandler cacheFeederHandler) {
@@ -52,9 +68,33 @@ public class CompleteCacheUpdateFactoryImpl
         this.supportedTypeRepository = supportedTypeRepository;
     }
 
+    @Setting(SosSettings.INCREMENTAL_CACHE_UPDATE)
+    public void setIncrementalUpdate(boolean incrementalUpdate) {
+        this.incrementalUpdate = incrementalUpdate;
+    }
+
     @Override
     public ContentCacheUpdate get() {
-        return new CompleteCacheUpdate(this.cacheFeederHandler,this.supportedTypeRepository);
+        if (!incrementalUpdate) {
+            return new CompleteCacheUpdate(this.cacheFeederHandler, this.supportedTypeRepository);
+        }
+        return new IncrementalCacheUpdate(this.cacheFeederHandler, this.supportedTypeRepository, getSince(),
+                                          this::updated);
+    }
+
+    private synchronized DateTime getSince() {
+        if (lastUpdate == null || lastFullUpdate == null
+                || lastFullUpdate.plus(FULL_UPDATE_INTERVAL).isBeforeNow()) {
+            return null;
+        }
+        return lastUpdate;
+    }
+
+    private synchronized void updated(DateTime start, boolean incremental) {
+        this.lastUpdate = start;
+        if (!incremental) {
+            this.lastFullUpdate = start;
+        }
     }
 
 }
@@ -44,9 +44,19 @@ package org.n52.sos.cache.ctrl;
  * limitations under the License.
  */
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -54,6 +64,8 @@ import java.util.concurrent.locks.ReentrantLock;
 import javax.inject.Inject;
 
 import org.joda.time.DateTime;
+import org.n52.faroe.annotation.Configurable;
+import org.n52.faroe.annotation.Setting;
 import org.n52.iceland.cache.ContentCacheController;
 import org.n52.iceland.cache.ContentCachePersistenceStrategy;
 import org.n52.iceland.cache.ContentCacheUpdate;
@@ -62,15 +74,22 @@ import org.n52.iceland.cache.ctrl.CompleteCacheUpdateFactory;
 import org.n52.iceland.cache.ctrl.ContentCacheFactory;
 import org.n52.janmayen.lifecycle.Constructable;
 import org.n52.janmayen.lifecycle.Destroyable;
+import org.n52.shetland.ogc.ows.exception.NoApplicableCodeException;
 import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
 import org.n52.sos.cache.AbstractStaticSosContentCache;
+import org.n52.sos.cache.CacheUpdateStatistics;
 import org.n52.sos.cache.ContentCacheFactoryImpl;
+import org.n52.sos.cache.InMemoryCacheImpl;
+import org.n52.sos.service.SosSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-
-public class SosContentCacheControllerImpl implements ContentCacheController, Constructable, Destroyable {
+@Configurable
+public class SosContentCacheControllerImpl
+        implements ContentCacheController, CacheUpdateStatistics, Constructable, Destroyable {
     private static final Logger LOGGER = LoggerFactory.getLogger(SosContentCacheControllerImpl.class);
+    private static final int MAX_PARTIAL_UPDATE_BATCH_SIZE = 100;
+    private static final long PARTIAL_UPDATE_SHUTDOWN_TIMEOUT = 30;
 
     private static final AtomicInteger COMPLETE_UPDATE_COUNT = new AtomicInteger(0);
     private static final AtomicInteger PARTIAL_UPDATE_COUNT = new AtomicInteger(0);
@@ -78,6 +97,13 @@ public class SosContentCacheControllerImpl implements ContentCacheController, Co
     private CompleteUpdate next = null;
     private volatile WritableContentCache cache;
     private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock partialUpdateLock = new ReentrantLock();
+    private volatile boolean cacheSnapshots;
+    private volatile boolean partialUpdateQueue;
+    private final BlockingQueue<PartialUpdate> queuedPartialUpdates = new LinkedBlockingQueue<>();
+    private ExecutorService partialUpdateWriter;
+    private final AtomicLong partialUpdateCount = new AtomicLong(0);
+    private final AtomicLong partialUpdateBatchCount = new AtomicLong(0);
 
     private ContentCachePersistenceStrategy persistenceStrategy;
     private ContentCacheFactory cacheFactory;
@@ -98,6 +124,54 @@ public class SosContentCacheControllerImpl implements ContentCacheController, Co
         this.completeCacheUpdateFactory = factory;
     }
 
+    /**
+     * If enabled, the published cache is a read only snapshot that is not modified by partial updates. Partial
+     * updates are applied to a copy of the cache which replaces the snapshot afterwards. This avoids copying the
+     * cached sets on every read. The copy shares the collections of the snapshot and copies only those collections
+     * that are modified by the partial updates.
+     *
+     * @param cacheSnapshots if the cache should be published as read only snapshot
+     */
+    @Setting(SosSettings.CACHE_SNAPSHOTS)
+    public void setCacheSnapshots(boolean cacheSnapshots) {
+        this.cacheSnapshots = cacheSnapshots;
+        if (cacheSnapshots && getCache() != null) {
+            partialUpdateLock.lock();
+            try {
+                setCache(getCache());
+            } finally {
+                partialUpdateLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * If enabled, partial updates are applied by a single writer thread. Partial updates that are queued while the
+     * writer is busy are applied and persisted together. The requesting threads still wait until their update was
+     * applied.
+     *
+     * @param partialUpdateQueue if partial updates should be queued
+     */
+    @Setting(SosSettings.PARTIAL_CACHE_UPDATE_QUEUE)
+    public void setPartialUpdateQueue(boolean partialUpdateQueue) {
+        this.partialUpdateQueue = partialUpdateQueue;
+    }
+
+    @Override
+    public int getQueuedPartialUpdateCount() {
+        return queuedPartialUpdates.size();
+    }
+
+    @Override
+    public long getPartialUpdateCount() {
+        return partialUpdateCount.get();
+    }
+
+    @Override
+    public long getPartialUpdateBatchCount() {
+        return partialUpdateBatchCount.get();
+    }
+
     @Override
     public void init() {
         loadOrCreateCache();
@@ -106,6 +180,9 @@ public class SosContentCacheControllerImpl implements ContentCacheController, Co
     private void loadOrCreateCache() {
         Optional<WritableContentCache> optionalCache = persistenceStrategy.load();
         if (optionalCache.isPresent()) {
+            if (optionalCache.get() instanceof InMemoryCacheImpl) {
+                ((InMemoryCacheImpl) optionalCache.get()).compact();
+            }
             setCache(optionalCache.get());
             if (getCache() instanceof AbstractStaticSosContentCache
                     && this.cacheFactory instanceof ContentCacheFactoryImpl) {
@@ -130,11 +207,15 @@ public class SosContentCacheControllerImpl implements ContentCacheController, Co
     }
 
     protected void setCache(WritableContentCache wcc) {
+        if (cacheSnapshots && wcc instanceof InMemoryCacheImpl) {
+            ((InMemoryCacheImpl) wcc).freeze();
+        }
         this.cache = wcc;
     }
 
     @Override
     public void destroy() {
+        shutdownPartialUpdateWriter();
         lock();
         try {
             persistenceStrategy.persistOnShutdown(getCache());
@@ -177,11 +258,52 @@ public class SosContentCacheControllerImpl implements ContentCacheController, Co
     }
 
     private void executePartial(PartialUpdate update) throws OwsExceptionReport {
-        update.execute(getCache());
+        if (this.partialUpdateQueue) {
+            this.queuedPartialUpdates.offer(update);
+            getPartialUpdateWriter().execute(this::applyQueuedPartialUpdates);
+            update.awaitApplied();
+        } else {
+            applyPartialUpdates(Collections.singletonList(update));
+        }
+        update.checkFailure();
+    }
+
+    private void applyQueuedPartialUpdates() {
+        List<PartialUpdate> updates = new ArrayList<>(MAX_PARTIAL_UPDATE_BATCH_SIZE);
+        while (this.queuedPartialUpdates.drainTo(updates, MAX_PARTIAL_UPDATE_BATCH_SIZE) > 0) {
+            try {
+                applyPartialUpdates(updates);
+            } catch (RuntimeException e) {
+                LOGGER.error("Error while applying partial updates", e);
+                updates.forEach(update -> update.fail(e));
+            } finally {
+                updates.forEach(PartialUpdate::signalApplied);
+                updates.clear();
+            }
+        }
+    }
+
+    private void applyPartialUpdates(List<PartialUpdate> updates) {
+        LOGGER.trace("Applying {} partial update(s)", updates.size());
+        this.partialUpdateCount.addAndGet(updates.size());
+        this.partialUpdateBatchCount.incrementAndGet();
+        if (cacheSnapshots && getCache() instanceof InMemoryCacheImpl) {
+            partialUpdateLock.lock();
+            try {
+                InMemoryCacheImpl copy = ((InMemoryCacheImpl) getCache()).copy();
+                // every update catches its own failure, so a failing update does not discard the others
+                updates.forEach(update -> update.apply(copy));
+                setCache(copy);
+            } finally {
+                partialUpdateLock.unlock();
+            }
+        } else {
+            updates.forEach(update -> update.apply(getCache()));
+        }
         lock();
         try {
             if (this.current != null) {
-                this.current.addUpdate(update);
+                updates.stream().filter(update -> !update.isFailed()).forEach(this.current::addUpdate);
             } else {
                 persistenceStrategy.persistOnPartialUpdate(getCache());
             }
@@ -190,6 +312,32 @@ public class SosContentCacheControllerImpl implements ContentCacheController, Co
         }
     }
 
+    private synchronized ExecutorService getPartialUpdateWriter() {
+        if (this.partialUpdateWriter == null) {
+            this.partialUpdateWriter = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "partial-cache-update");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return this.partialUpdateWriter;
+    }
+
+    private synchronized void shutdownPartialUpdateWriter() {
+        if (this.partialUpdateWriter != null) {
+            this.partialUpdateWriter.shutdown();
+            try {
+                if (!this.partialUpdateWriter.awaitTermination(PARTIAL_UPDATE_SHUTDOWN_TIMEOUT, TimeUnit.SECONDS)) {
+                    LOGGER.warn("Partial cache updates did not finish within {} seconds",
+                                PARTIAL_UPDATE_SHUTDOWN_TIMEOUT);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            this.partialUpdateWriter = null;
+        }
+    }
+
     private void executeComplete(CompleteUpdate update) throws OwsExceptionReport {
         boolean isCurrent = false;
         boolean isNext = false;
@@ -276,6 +424,8 @@ public class SosContentCacheControllerImpl implements ContentCacheController, Co
 
     private class PartialUpdate extends Update {
         private final int nr = PARTIAL_UPDATE_COUNT.getAndIncrement();
+        private final CountDownLatch applied = new CountDownLatch(1);
+        private volatile Exception failure;
 
         PartialUpdate(ContentCacheUpdate update) {
             super(update);
@@ -293,6 +443,52 @@ public class SosContentCacheControllerImpl implements ContentCacheController, Co
             }
         }
 
+        void apply(WritableContentCache cache) {
+            try {
+                execute(cache);
+            } catch (OwsExceptionReport | RuntimeException e) {
+                this.failure = e;
+            }
+        }
+
+        boolean isFailed() {
+            return this.failure != null;
+        }
+
+        /**
+         * Marks this update as failed if it did not fail already, e.g. because the batch it was part of could not be
+         * published or persisted. The failure is rethrown to the waiting caller by {@link #checkFailure()}.
+         *
+         * @param cause the cause
+         */
+        void fail(RuntimeException cause) {
+            if (this.failure == null) {
+                this.failure = cause;
+            }
+        }
+
+        void checkFailure() throws OwsExceptionReport {
+            if (this.failure instanceof OwsExceptionReport) {
+                throw (OwsExceptionReport) this.failure;
+            } else if (this.failure instanceof RuntimeException) {
+                throw (RuntimeException) this.failure;
+            }
+        }
+
+        void signalApplied() {
+            this.applied.countDown();
+        }
+
+        void awaitApplied() throws OwsExceptionReport {
+            try {
+                this.applied.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new NoApplicableCodeException().causedBy(e)
+                        .withMessage("Interrupted while waiting for the cache update");
+            }
+        }
+
         @Override
         public String toString() {
             return String.format("PartialUpdate[#%d]", nr);
@@ -359,7 +555,13 @@ public class SosContentCacheControllerImpl implements ContentCacheController, Co
         }
 
         void execute() throws OwsExceptionReport {
-            setCache(execute(getCache()));
+            WritableContentCache cc = execute(getCache());
+            partialUpdateLock.lock();
+            try {
+                setCache(cc);
+            } finally {
+                partialUpdateLock.unlock();
+            }
         }
 
         WritableContentCache execute(WritableContentCache cache) throws OwsExceptionReport {
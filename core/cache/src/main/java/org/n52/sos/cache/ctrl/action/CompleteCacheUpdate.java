@@ -31,7 +31,6 @@ package org.n52.sos.cache.ctrl.action;
 import org.n52.iceland.coding.SupportedTypeRepository;
 import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
 import org.n52.sos.cache.InMemoryCacheImpl;
-import org.n52.sos.cache.SosWritableContentCache;
 import org.n52.sos.ds.CacheFeederHandler;
 
 /**
@@ -52,9 +51,10 @@ public class CompleteCacheUpdate
     @Override
     public void execute() {
         try {
-            SosWritableContentCache cache = (SosWritableContentCache) new InMemoryCacheImpl()
-                    .setSupportedTypeRepository(supportedTypeRepository);
+            InMemoryCacheImpl cache = new InMemoryCacheImpl();
+            cache.setSupportedTypeRepository(supportedTypeRepository);
             getCacheFeederDAO().updateCache(cache);
+            cache.compact();
             setCache(cache);
         } catch (OwsExceptionReport ex) {
             fail(ex);
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.cache.ctrl.action;
+
+import org.joda.time.DateTime;
+import org.n52.iceland.coding.SupportedTypeRepository;
+import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
+import org.n52.sos.cache.InMemoryCacheImpl;
+import org.n52.sos.ds.CacheFeederHandler;
+
+/**
+ * Complete cache update that only updates the data that changed since a given time. The changes are applied to a
+ * copy of the current cache that replaces it afterwards. If no time is given or the current cache can not be copied,
+ * a new cache is created from scratch.
+ *
+ * @since 5.0.2
+ */
+public class IncrementalCacheUpdate
+        extends CompleteCacheUpdate {
+
+    private final DateTime since;
+    private final Listener listener;
+
+    public IncrementalCacheUpdate(CacheFeederHandler cacheFeederDAO,
+                                  SupportedTypeRepository supportedTypeRepository,
+                                  DateTime since,
+                                  Listener listener) {
+        super(cacheFeederDAO, supportedTypeRepository);
+        this.since = since;
+        this.listener = listener;
+    }
+
+    @Override
+    public void execute() {
+        DateTime start = DateTime.now();
+        boolean incremental = since != null && getCache() instanceof InMemoryCacheImpl;
+        if (incremental) {
+            try {
+                InMemoryCacheImpl cache = ((InMemoryCacheImpl) getCache()).copy();
+                // the copy shares the unchanged collections with the current cache, so it is not compacted
+                getCacheFeederDAO().updateCache(cache, since);
+                setCache(cache);
+            } catch (OwsExceptionReport ex) {
+                fail(ex);
+            }
+        } else {
+            super.execute();
+        }
+        if (!failed()) {
+            listener.updated(start, incremental);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[since=%s]", getClass().getSimpleName(), since);
+    }
+
+    /**
+     * Listener that is notified about successful updates.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param start       the time the update was started
+         * @param incremental if only the changed data was updated
+         */
+        void updated(DateTime start, boolean incremental);
+    }
+}
@@ -30,7 +30,9 @@ package org.n52.sos.cache.ctrl.action;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.n52.shetland.ogc.sos.Sos2Constants;
 import org.n52.iceland.util.action.Action;
@@ -68,6 +70,7 @@ import org.locationtech.jts.geom.Geometry;
  * <li>Offering &rarr; temporal bounding box</li>
  * <li>Offering &rarr; spatial bounding box</li>
  * <li>Procedure &rarr; temporal bounding box</li>
+ * <li>Dataset &rarr; temporal bounding box</li>
  * <li>Global temporal bounding box</li>
  * </ul>
  *
@@ -130,6 +133,10 @@ public class ObservationInsertionUpdate extends InMemoryCacheUpdate {
                 for (String offering : request.getOfferings()) {
                     cache.addRelatedFeatureForOffering(offering, featureOfInterest);
                     cache.addFeatureOfInterestForOffering(offering, featureOfInterest);
+                    for (String observedProperty : getObservedProperties(observableProperty)) {
+                        cache.updatePhenomenonTimeForDataset(procedure, observedProperty, featureOfInterest, offering,
+                                                             phenomenonTime);
+                    }
                     if (!OGCConstants.UNKNOWN.equals(sosSamplingFeature.getFeatureType())) {
                         cache.addFeatureOfInterestTypesForOffering(offering, sosSamplingFeature.getFeatureType());
                     }
@@ -173,6 +180,15 @@ public class ObservationInsertionUpdate extends InMemoryCacheUpdate {
         }
     }
 
+    private List<String> getObservedProperties(AbstractPhenomenon observableProperty) {
+        if (observableProperty instanceof OmCompositePhenomenon) {
+            // the datasets are stored for the components of a composite phenomenon
+            return ((OmCompositePhenomenon) observableProperty).getPhenomenonComponents().stream()
+                    .map(OmObservableProperty::getIdentifier).collect(Collectors.toList());
+        }
+        return Collections.singletonList(observableProperty.getIdentifier());
+    }
+
     private void updateObservableProperties(InMemoryCacheImpl cache,
                                             AbstractPhenomenon observableProperty,
                                             String procedure) {
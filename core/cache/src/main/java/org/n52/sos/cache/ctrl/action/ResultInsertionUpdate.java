@@ -105,8 +105,11 @@ public class ResultInsertionUpdate extends InMemoryCacheUpdate {
                 cache.addFeatureOfInterest(featureOfInterest);
                 cache.addFeatureOfInterestForResultTemplate(templateIdentifier, featureOfInterest);
                 cache.addProcedureForFeatureOfInterest(featureOfInterest, procedure);
-                observation.getObservationConstellation().getOfferings()
-                        .forEach(offering -> cache.addFeatureOfInterestForOffering(offering, featureOfInterest));
+                observation.getObservationConstellation().getOfferings().forEach(offering -> {
+                    cache.addFeatureOfInterestForOffering(offering, featureOfInterest);
+                    cache.updatePhenomenonTimeForDataset(procedure, observableProperty, featureOfInterest, offering,
+                                                         phenomenonTime);
+                });
             });
             observation.getObservationConstellation().getOfferings().stream().forEach(offering -> {
                 cache.addOffering(offering);
@@ -106,6 +106,7 @@ public class SensorDeletionUpdate extends CacheFeederDAOCacheUpdate {
                 cache.removeObservationTypesForOffering(offering);
                 cache.removeEnvelopeForOffering(offering);
                 cache.removeSpatialFilteringProfileEnvelopeForOffering(offering);
+                cache.removeDatasetsForOffering(offering);
                 for (String observableProperty : cache.getObservablePropertiesForOffering(offering)) {
                     cache.removeOfferingForObservableProperty(observableProperty, offering);
                 }
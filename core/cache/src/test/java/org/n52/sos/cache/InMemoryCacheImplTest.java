@@ -33,6 +33,7 @@ import static java.lang.Boolean.TRUE;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.core.IsNull.nullValue;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
@@ -40,6 +41,12 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
 
@@ -47,7 +54,10 @@ import org.joda.time.DateTime;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
 import org.n52.iceland.coding.SupportedTypeRepository;
+import org.n52.shetland.ogc.gml.time.TimeInstant;
+import org.n52.shetland.ogc.gml.time.TimePeriod;
 import org.n52.shetland.util.ReferencedEnvelope;
 import org.n52.svalbard.decode.DecoderRepository;
 import org.n52.svalbard.encode.EncoderRepository;
@@ -183,6 +193,17 @@ public class InMemoryCacheImplTest {
         assertThat(readCache.isRelatedFeatureSampled(relatedFeature), is(FALSE));
     }
 
+    @Test
+    public void should_find_relatedFeature_of_any_offering() {
+        final InMemoryCacheImpl readCache = new InMemoryCacheImpl();
+        readCache.addRelatedFeatureForOffering("test-offering", "test-feature");
+        readCache.addRelatedFeatureForOffering("test-offering-2", "test-feature-2");
+
+        assertThat(readCache.hasRelatedFeature("test-feature"), is(TRUE));
+        assertThat(readCache.hasRelatedFeature("test-feature-2"), is(TRUE));
+        assertThat(readCache.hasRelatedFeature("test-offering"), is(FALSE));
+    }
+
     @Test
     public void should_return_true_if_relatedFeature_has_one_or_more_children() {
         final InMemoryCacheImpl readCache = new InMemoryCacheImpl();
@@ -196,4 +217,182 @@ public class InMemoryCacheImplTest {
         assertThat(readCache.isRelatedFeatureSampled(relatedFeature), is(TRUE));
     }
 
+    @Test
+    public void should_return_views_of_frozen_cache() {
+        final InMemoryCacheImpl cache = new InMemoryCacheImpl();
+        cache.addOffering(OFFERING_IDENTIFIER);
+        cache.freeze();
+
+        assertThat(cache.isFrozen(), is(TRUE));
+        assertThat(cache.getOfferings().contains(OFFERING_IDENTIFIER), is(TRUE));
+        assertThat(cache.getProceduresForOffering(OFFERING_IDENTIFIER).isEmpty(), is(TRUE));
+    }
+
+    @Test
+    public void should_create_independent_modifiable_copy() {
+        final InMemoryCacheImpl cache = new InMemoryCacheImpl();
+        cache.addOffering(OFFERING_IDENTIFIER);
+        cache.freeze();
+
+        final InMemoryCacheImpl copy = cache.copy();
+        copy.addOffering("test-offering-2");
+
+        assertThat(copy.isFrozen(), is(FALSE));
+        assertThat(copy.getOfferings().size(), is(2));
+        assertThat(cache.getOfferings().size(), is(1));
+    }
+
+    @Test
+    public void should_be_equal_to_unmodified_copy() {
+        final InMemoryCacheImpl cache = new InMemoryCacheImpl();
+        cache.addProcedureForOffering(OFFERING_IDENTIFIER, "test-procedure");
+        cache.setNameForOffering(OFFERING_IDENTIFIER, "name");
+        cache.setMaxPhenomenonTime(new DateTime(52l));
+        cache.freeze();
+
+        assertEquals("copied cache differs", cache, cache.copy());
+    }
+
+    @Test
+    public void should_not_modify_original_through_copy() {
+        final InMemoryCacheImpl cache = new InMemoryCacheImpl();
+        cache.addProcedureForOffering(OFFERING_IDENTIFIER, "test-procedure");
+        cache.addProcedureIdentifierHumanReadableName("test-procedure", "name");
+        cache.setEnvelopeForOffering(OFFERING_IDENTIFIER, new ReferencedEnvelope(new Envelope(0, 1, 0, 1), 4326));
+        cache.updateGlobalEnvelope(new Envelope(0, 1, 0, 1));
+        cache.setMaxPhenomenonTime(new DateTime(52l));
+        cache.freeze();
+
+        final InMemoryCacheImpl copy = cache.copy();
+        copy.addProcedureForOffering(OFFERING_IDENTIFIER, "test-procedure-2");
+        copy.addProcedureIdentifierHumanReadableName("test-procedure-2", "name-2");
+        copy.updateEnvelopeForOffering(OFFERING_IDENTIFIER, new Envelope(0, 2, 0, 2));
+        copy.updateGlobalEnvelope(new Envelope(0, 2, 0, 2));
+        copy.setMaxPhenomenonTime(new DateTime(62l));
+
+        assertThat(copy.getProceduresForOffering(OFFERING_IDENTIFIER).size(), is(2));
+        assertThat(cache.getProceduresForOffering(OFFERING_IDENTIFIER).size(), is(1));
+        assertThat(cache.getProcedureIdentifierForHumanReadableName("name-2"), is("name-2"));
+        assertThat(copy.getEnvelopeForOffering(OFFERING_IDENTIFIER).getEnvelope().getMaxX(), is(2.0));
+        assertThat(cache.getEnvelopeForOffering(OFFERING_IDENTIFIER).getEnvelope().getMaxX(), is(1.0));
+        assertThat(cache.getGlobalEnvelope().getEnvelope().getMaxX(), is(1.0));
+        assertThat(cache.getMaxPhenomenonTime(), is(new DateTime(52l)));
+    }
+
+    @Test
+    public void should_share_identifier_instances_after_compaction() {
+        final InMemoryCacheImpl cache = new InMemoryCacheImpl();
+        cache.addOffering(new String(OFFERING_IDENTIFIER));
+        cache.addOfferingForProcedure("test-procedure", new String(OFFERING_IDENTIFIER));
+        cache.compact();
+
+        final String offering = cache.getOfferings().iterator().next();
+        final String offeringOfProcedure = cache.getOfferingsForProcedure("test-procedure").iterator().next();
+        assertThat(offeringOfProcedure, is(sameInstance(offering)));
+        assertThat(cache.getIdentifierCount(), is(2));
+    }
+
+    @Test
+    public void should_be_equal_after_serialization() throws IOException, ClassNotFoundException {
+        final InMemoryCacheImpl cache = new InMemoryCacheImpl();
+        cache.addOfferingForProcedure("test-procedure", OFFERING_IDENTIFIER);
+        cache.addProcedureForOffering(OFFERING_IDENTIFIER, "test-procedure");
+        cache.addFeatureOfInterestForOffering(OFFERING_IDENTIFIER, "test-feature");
+        cache.setMinResultTimeForOffering(OFFERING_IDENTIFIER, new DateTime(52l));
+        cache.setMaxPhenomenonTime(new DateTime(52l));
+        cache.setNameForOffering(OFFERING_IDENTIFIER, "name");
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(cache);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("deserialized cache differs", cache, ois.readObject());
+        }
+    }
+
+    @Test
+    public void should_extend_phenomenon_time_for_dataset() {
+        final InMemoryCacheImpl cache = new InMemoryCacheImpl();
+        cache.updatePhenomenonTimeForDataset("test-procedure", "test-property", "test-feature", OFFERING_IDENTIFIER,
+                new TimeInstant(new DateTime(52l)));
+        cache.updatePhenomenonTimeForDataset("test-procedure", "test-property", "test-feature", OFFERING_IDENTIFIER,
+                new TimePeriod(new DateTime(42l), new DateTime(62l)));
+
+        assertThat(cache.getDatasetsForOffering(OFFERING_IDENTIFIER).size(), is(1));
+        DatasetInfo dataset = cache.getDatasetsForOffering(OFFERING_IDENTIFIER).iterator().next();
+        assertThat(dataset.getPhenomenonTimeStart(), is(new DateTime(42l)));
+        assertThat(dataset.getPhenomenonTimeEnd(), is(new DateTime(62l)));
+    }
+
+    @Test
+    public void should_key_datasets_by_constellation() {
+        final InMemoryCacheImpl cache = new InMemoryCacheImpl();
+        cache.setDatasetsForOffering(OFFERING_IDENTIFIER, Arrays.asList(
+                new DatasetInfo("test-procedure", "test-property", "test-feature", OFFERING_IDENTIFIER,
+                        new DateTime(42l), new DateTime(52l)),
+                new DatasetInfo("test-procedure", "test-property", "test-feature", OFFERING_IDENTIFIER,
+                        new DateTime(32l), new DateTime(47l))));
+        cache.updatePhenomenonTimeForDataset("test-procedure", "test-property", "test-feature-2", OFFERING_IDENTIFIER,
+                new TimeInstant(new DateTime(62l)));
+
+        assertThat(cache.getDatasetsForOffering(OFFERING_IDENTIFIER).size(), is(2));
+        DatasetInfo dataset = cache.getDatasetsForOffering(OFFERING_IDENTIFIER).stream()
+                .filter(d -> d.getFeatureOfInterest().equals("test-feature")).findFirst().get();
+        assertThat(dataset.getPhenomenonTimeStart(), is(new DateTime(32l)));
+        assertThat(dataset.getPhenomenonTimeEnd(), is(new DateTime(52l)));
+    }
+
+    @Test
+    public void should_not_modify_datasets_of_original_through_copy() {
+        final InMemoryCacheImpl cache = new InMemoryCacheImpl();
+        cache.updatePhenomenonTimeForDataset("test-procedure", "test-property", "test-feature", OFFERING_IDENTIFIER,
+                new TimeInstant(new DateTime(52l)));
+        cache.freeze();
+
+        final InMemoryCacheImpl copy = cache.copy();
+        copy.updatePhenomenonTimeForDataset("test-procedure", "test-property", "test-feature", OFFERING_IDENTIFIER,
+                new TimeInstant(new DateTime(62l)));
+
+        assertThat(copy.getDatasetsForOffering(OFFERING_IDENTIFIER).iterator().next().getPhenomenonTimeEnd(),
+                is(new DateTime(62l)));
+        assertThat(cache.getDatasetsForOffering(OFFERING_IDENTIFIER).iterator().next().getPhenomenonTimeEnd(),
+                is(new DateTime(52l)));
+    }
+
+    @Test
+    public void should_keep_datasets_after_serialization() throws IOException, ClassNotFoundException {
+        final InMemoryCacheImpl cache = new InMemoryCacheImpl();
+        cache.setDatasetsForOffering(OFFERING_IDENTIFIER, Collections.singleton(new DatasetInfo("test-procedure",
+                "test-property", "test-feature", OFFERING_IDENTIFIER, new DateTime(42l), new DateTime(52l))));
+        cache.setDatasetsForOffering("empty-offering", Collections.emptySet());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(cache);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            InMemoryCacheImpl deserialized = (InMemoryCacheImpl) ois.readObject();
+            assertEquals("deserialized cache differs", cache, deserialized);
+            assertThat(deserialized.getDatasetsForOffering(OFFERING_IDENTIFIER),
+                    is(cache.getDatasetsForOffering(OFFERING_IDENTIFIER)));
+        }
+    }
+
+    @Test
+    public void should_check_published_identifiers() {
+        final InMemoryCacheImpl cache = new InMemoryCacheImpl();
+        cache.addPublishedFeatureOfInterest("test-feature");
+        cache.addPublishedProcedure("test-procedure");
+        cache.addPublishedOffering(OFFERING_IDENTIFIER);
+        cache.addPublishedObservableProperty("test-property");
+
+        assertThat(cache.hasPublishedFeatureOfInterest("test-feature"), is(true));
+        assertThat(cache.hasPublishedProcedure("test-procedure"), is(true));
+        assertThat(cache.hasPublishedOffering(OFFERING_IDENTIFIER), is(true));
+        assertThat(cache.hasPublishedObservableProperty("test-property"), is(true));
+        assertThat(cache.hasPublishedFeatureOfInterest("test-procedure"), is(false));
+        assertThat(cache.hasPublishedOffering("other-offering"), is(false));
+    }
+
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.cache.ctrl;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.iceland.cache.ctrl.persistence.NoOpCachePersistenceStrategy;
+import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
+import org.n52.sos.cache.InMemoryCacheImpl;
+import org.n52.sos.cache.NoOpCacheFeederHandler;
+import org.n52.sos.cache.SosContentCacheUpdate;
+import org.n52.sos.cache.SosWritableContentCache;
+
+/**
+ * Tests the queued partial updates of {@link SosContentCacheControllerImpl}.
+ *
+ * @since 5.0.2
+ */
+public class SosContentCacheControllerImplTest {
+
+    private static final String OFFERING_1 = "offering-1";
+    private static final String OFFERING_2 = "offering-2";
+    private static final String OFFERING_3 = "offering-3";
+    private static final long TIMEOUT = 10;
+
+    private SosContentCacheControllerImpl controller;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        CompleteCacheUpdateFactoryImpl cacheUpdateFactory = new CompleteCacheUpdateFactoryImpl();
+        cacheUpdateFactory.setCacheFeederHandler(new NoOpCacheFeederHandler());
+        controller = new SosContentCacheControllerImpl();
+        controller.setCacheFactory(InMemoryCacheImpl::new);
+        controller.setPersistenceStrategy(new NoOpCachePersistenceStrategy());
+        controller.setCompleteCacheUpdateFactory(cacheUpdateFactory);
+        controller.setCacheSnapshots(true);
+        controller.setPartialUpdateQueue(true);
+        controller.init();
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        controller.destroy();
+    }
+
+    @Test
+    public void shouldRethrowFailureToCaller() throws OwsExceptionReport {
+        try {
+            controller.update(new FailingUpdate());
+            fail("expected the failure of the update");
+        } catch (IllegalStateException e) {
+            assertThat(getCache().getOfferings().isEmpty(), is(true));
+        }
+        controller.update(new AddOfferingUpdate(OFFERING_1));
+        assertThat(getCache().getOfferings(), containsInAnyOrder(OFFERING_1));
+    }
+
+    @Test
+    public void shouldApplyRemainingUpdatesOfBatch() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Void> blocking = submit(new BlockingUpdate(OFFERING_1, release));
+        while (controller.getPartialUpdateCount() == 0) {
+            Thread.sleep(TIMEOUT);
+        }
+        // queued while the writer is busy, so both are applied in the same batch
+        Future<Void> failing = submit(new FailingUpdate());
+        Future<Void> succeeding = submit(new AddOfferingUpdate(OFFERING_3));
+        while (controller.getQueuedPartialUpdateCount() < 2) {
+            Thread.sleep(TIMEOUT);
+        }
+        release.countDown();
+
+        blocking.get(TIMEOUT, TimeUnit.SECONDS);
+        succeeding.get(TIMEOUT, TimeUnit.SECONDS);
+        try {
+            failing.get(TIMEOUT, TimeUnit.SECONDS);
+            fail("expected the failure of the update");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+        }
+        assertThat(controller.getPartialUpdateBatchCount(), is(2L));
+        assertThat(getCache().getOfferings(), containsInAnyOrder(OFFERING_1, OFFERING_3));
+    }
+
+    private Future<Void> submit(SosContentCacheUpdate update) {
+        return executor.submit(() -> {
+            controller.update(update);
+            return null;
+        });
+    }
+
+    private SosWritableContentCache getCache() {
+        return (SosWritableContentCache) controller.getCache();
+    }
+
+    private static class AddOfferingUpdate extends SosContentCacheUpdate {
+        private final String offering;
+
+        AddOfferingUpdate(String offering) {
+            this.offering = offering;
+        }
+
+        @Override
+        public void execute() {
+            getCache().addOffering(offering);
+        }
+
+        @Override
+        public boolean isCompleteUpdate() {
+            return false;
+        }
+    }
+
+    private static class BlockingUpdate extends AddOfferingUpdate {
+        private final CountDownLatch release;
+
+        BlockingUpdate(String offering, CountDownLatch release) {
+            super(offering);
+            this.release = release;
+        }
+
+        @Override
+        public void execute() {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.execute();
+        }
+    }
+
+    private static class FailingUpdate extends AddOfferingUpdate {
+
+        FailingUpdate() {
+            super(OFFERING_2);
+        }
+
+        @Override
+        public void execute() {
+            throw new IllegalStateException("failing update");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.cache.ctrl.action;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.shetland.ogc.gml.time.TimeInstant;
+import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
+import org.n52.sos.cache.InMemoryCacheImpl;
+import org.n52.sos.cache.NoOpCacheFeederHandler;
+import org.n52.sos.cache.SosContentCache;
+import org.n52.sos.cache.SosWritableContentCache;
+
+/**
+ * Tests {@link IncrementalCacheUpdate} with a feeder that reports observations inserted into the existing time range
+ * of an offering.
+ *
+ * @since 5.0.2
+ */
+public class IncrementalCacheUpdateTest {
+
+    private static final String OFFERING = "offering";
+    private static final String PROCEDURE = "procedure";
+    private static final String BACKFILLED_PROCEDURE = "backfilledProcedure";
+
+    private static final DateTime START = new DateTime(2018, 1, 1, 0, 0);
+    private static final DateTime END = new DateTime(2018, 1, 31, 0, 0);
+    private static final DateTime BACKFILLED = new DateTime(2018, 1, 15, 0, 0);
+
+    private InMemoryCacheImpl cache;
+    private List<Boolean> updates;
+
+    @Before
+    public void setUp() {
+        InMemoryCacheImpl original = new InMemoryCacheImpl();
+        original.addProcedure(PROCEDURE);
+        original.addProcedureForOffering(OFFERING, PROCEDURE);
+        original.setMinPhenomenonTimeForOffering(OFFERING, START);
+        original.setMaxPhenomenonTimeForOffering(OFFERING, END);
+        // the current cache is itself the result of a previous incremental update
+        cache = original.copy();
+        updates = new ArrayList<>();
+    }
+
+    @Test
+    public void shouldApplyBackfilledObservationsToCopy() {
+        IncrementalCacheUpdate update =
+                new IncrementalCacheUpdate(new BackfillingCacheFeederHandler(), null, START,
+                                           (start, incremental) -> updates.add(incremental));
+        update.setCache(cache);
+        update.execute();
+
+        assertThat(update.failed(), is(false));
+        assertThat(updates, contains(true));
+        assertThat(update.getCache(), is(not(sameInstance(cache))));
+        SosContentCache updated = (SosContentCache) update.getCache();
+        assertThat(updated.getProcedures(), containsInAnyOrder(PROCEDURE, BACKFILLED_PROCEDURE));
+        assertThat(updated.getProceduresForOffering(OFFERING), containsInAnyOrder(PROCEDURE, BACKFILLED_PROCEDURE));
+        assertThat(updated.getMinPhenomenonTimeForOffering(OFFERING).isEqual(START), is(true));
+        assertThat(updated.getMaxPhenomenonTimeForOffering(OFFERING).isEqual(END), is(true));
+        assertThat(cache.getProcedures(), contains(PROCEDURE));
+        assertThat(cache.getProceduresForOffering(OFFERING), contains(PROCEDURE));
+    }
+
+    /**
+     * Feeder that adds a dataset whose observations lie inside the existing phenomenon time of the offering.
+     */
+    private static class BackfillingCacheFeederHandler extends NoOpCacheFeederHandler {
+        @Override
+        public void updateCache(SosWritableContentCache cache, DateTime since) throws OwsExceptionReport {
+            cache.addProcedure(BACKFILLED_PROCEDURE);
+            cache.addProcedureForOffering(OFFERING, BACKFILLED_PROCEDURE);
+            cache.updatePhenomenonTimeForOffering(OFFERING, new TimeInstant(BACKFILLED));
+        }
+    }
+}
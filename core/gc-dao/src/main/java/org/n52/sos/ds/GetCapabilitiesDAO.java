@@ -1071,7 +1071,7 @@ public class GetCapabilitiesDAO extends AbstractGetCapabilitiesHandler {
         }
         Collection<String> published = Sets.newHashSet();
         for (String procedure : procedures) {
-            if (getCache().getPublishedProcedures().contains(procedure)) {
+            if (getCache().hasPublishedProcedure(procedure)) {
                 published.add(procedure);
             }
         }
@@ -35,15 +35,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -53,7 +56,15 @@ import javax.xml.namespace.QName;
 
 import org.hibernate.HibernateException;
 import org.hibernate.Session;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.sql.JoinType;
+import org.joda.time.DateTime;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
+import org.n52.faroe.annotation.Configurable;
+import org.n52.faroe.annotation.Setting;
 import org.n52.iceland.binding.BindingRepository;
 import org.n52.iceland.exception.ows.concrete.InvalidServiceParameterException;
 import org.n52.iceland.ogc.ows.OwsServiceMetadataRepository;
@@ -71,14 +82,12 @@ import org.n52.janmayen.function.Functions;
 import org.n52.janmayen.i18n.LocaleHelper;
 import org.n52.series.db.DataAccessException;
 import org.n52.series.db.HibernateSessionStore;
-import org.n52.series.db.beans.FormatEntity;
+import org.n52.series.db.beans.DatasetEntity;
 import org.n52.series.db.beans.OfferingEntity;
 import org.n52.series.db.beans.PhenomenonEntity;
 import org.n52.series.db.beans.ProcedureEntity;
 import org.n52.series.db.dao.DbQuery;
 import org.n52.series.db.dao.OfferingDao;
-import org.n52.series.db.dao.PhenomenonDao;
-import org.n52.series.db.dao.ProcedureDao;
 import org.n52.shetland.ogc.OGCConstants;
 import org.n52.shetland.ogc.filter.FilterCapabilities;
 import org.n52.shetland.ogc.filter.FilterConstants.ComparisonOperator;
@@ -119,11 +128,13 @@ import org.n52.shetland.ogc.sos.extension.SosObservationOfferingExtension;
 import org.n52.shetland.util.CollectionHelper;
 import org.n52.shetland.util.OMHelper;
 import org.n52.shetland.util.ReferencedEnvelope;
+import org.n52.sos.cache.SosContentCache;
 import org.n52.sos.coding.encode.ProcedureDescriptionFormatRepository;
 import org.n52.sos.coding.encode.ResponseFormatRepository;
 import org.n52.sos.config.CapabilitiesExtensionService;
 import org.n52.sos.ogc.sos.SosObservationOfferingExtensionProvider;
 import org.n52.sos.ogc.sos.SosObservationOfferingExtensionRepository;
+import org.n52.sos.service.SosSettings;
 import org.n52.sos.util.GeometryHandler;
 import org.n52.sos.util.I18NHelper;
 import org.n52.sos.util.JTSConverter;
@@ -141,6 +152,7 @@ import com.google.common.collect.Sets;
  *
  * @since 4.0.0
  */
+@Configurable
 public class GetCapabilitiesHandler extends AbstractGetCapabilitiesHandler implements ApiQueryHelper {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GetCapabilitiesHandler.class);
@@ -154,6 +166,9 @@ public class GetCapabilitiesHandler extends AbstractGetCapabilitiesHandler imple
     private static final int ALL = 0x20 | SERVICE_IDENTIFICATION | SERVICE_PROVIDER | OPERATIONS_METADATA |
                                    FILTER_CAPABILITIES | CONTENTS;
 
+    /* number of offerings that are loaded at once for the contents */
+    private static final int CONTENTS_PAGE_SIZE = 500;
+
     @Inject
     private HibernateSessionStore sessionStore;
     @Inject
@@ -182,11 +197,25 @@ public class GetCapabilitiesHandler extends AbstractGetCapabilitiesHandler imple
     private OwsCapabilitiesExtensionRepository capabilitiesExtensionRepository;
     @Inject
     private ProcedureDescriptionFormatRepository procedureDescriptionFormatRepository;
+    private volatile boolean contentsCache;
+    private volatile ContentsTemplates contentsTemplates;
 
     public GetCapabilitiesHandler() {
         super(SosConstants.SOS);
     }
 
+    /**
+     * If enabled, the offering data that is queried from the database for the SOS 2.0 contents is kept until the
+     * content cache is updated.
+     *
+     * @param contentsCache if the contents should be cached
+     */
+    @Setting(SosSettings.CAPABILITIES_CONTENTS_CACHE)
+    public void setContentsCache(boolean contentsCache) {
+        this.contentsCache = contentsCache;
+        this.contentsTemplates = null;
+    }
+
     @Override
     public GetCapabilitiesResponse getCapabilities(GetCapabilitiesRequest request) throws OwsExceptionReport {
         String capabilitiesId = request.getCapabilitiesId();
@@ -561,83 +590,128 @@ public class GetCapabilitiesHandler extends AbstractGetCapabilitiesHandler imple
     // version is supported by this!
     private List<SosObservationOffering> getContentsForSosV2(SectionSpecificContentObject sectionSpecificContentObject)
             throws OwsExceptionReport {
-        Session session = null;
-        try {
-            session = sessionStore.getSession();
-            String verssion = sectionSpecificContentObject.getGetCapabilitiesResponse().getVersion();
-            final Collection<OfferingEntity> offerings = new OfferingDao(session).getAllInstances(new DbQuery(IoParameters.createDefaults()));
-            final List<SosObservationOffering> sosOfferings = new ArrayList<>(offerings.size());
+        final ContentsTemplates contentsTemplates = getContentsTemplates();
+        final List<SosObservationOffering> sosOfferings = new ArrayList<>(contentsTemplates.getOfferings().size());
+        if (contentsTemplates.isEmpty()) {
+            // Set empty offering to add empty Contents section to Capabilities
+            sosOfferings.add(new SosObservationOffering());
+        } else {
             final Map<String, List<SosObservationOfferingExtension>> extensions = this.capabilitiesExtensionService
                     .getActiveOfferingExtensions();
+            for (OfferingTemplate offering : contentsTemplates.getOfferings()) {
+                sosOfferings.add(createObservationOffering(offering,
+                        sectionSpecificContentObject.getGetCapabilitiesRequest(), extensions));
+            }
+        }
+        return sosOfferings;
+    }
 
-            if (CollectionHelper.isEmpty(offerings)) {
-                // Set empty offering to add empty Contents section to Capabilities
-                sosOfferings.add(new SosObservationOffering());
-            } else {
-                for (final OfferingEntity offering : offerings) {
-                    final Collection<ProcedureEntity> procedures = getProceduresForOffering(offering, session);
-                    if (!procedures.isEmpty()) {
-                        final Collection<FormatEntity> observationTypes = offering.getObservationTypes();
-                        if (observationTypes != null && !observationTypes.isEmpty()) {
-                            // FIXME why a loop? We are in SOS 2.0 context -> offering 1
-                            // <-> 1 procedure!
-                            for (final ProcedureEntity procedure : procedures) {
-
-                                final SosObservationOffering sosObservationOffering = new SosObservationOffering();
-
-                                // insert observationTypes
-                                sosObservationOffering.setObservationTypes(toStringSet(observationTypes));
-
-                                if (offering.isSetGeometry()) {
-                                    sosObservationOffering.setObservedArea(processObservedArea(JTSConverter.convert(offering.getGeometry())));
-                                } else if (getCache().hasEnvelopeForOffering(offering.getIdentifier())) {
-                                    sosObservationOffering.setObservedArea(getCache().getEnvelopeForOffering(offering.getIdentifier()));
-                                }
-
-                                sosObservationOffering.setProcedures(Collections.singletonList(procedure.getIdentifier()));
-
-                                // TODO: add intended application
-
-                                // add offering to observation offering
-                                addSosOfferingToObservationOffering(offering, sosObservationOffering,
-                                        sectionSpecificContentObject.getGetCapabilitiesRequest());
-                                // add offering extension
-                                if (offeringExtensionRepository.hasOfferingExtensionProviderFor(
-                                        sectionSpecificContentObject.getGetCapabilitiesRequest())) {
-                                    for (SosObservationOfferingExtensionProvider provider : offeringExtensionRepository
-                                            .getOfferingExtensionProvider(
-                                                    sectionSpecificContentObject.getGetCapabilitiesRequest())) {
-                                        if (provider != null && provider.hasExtendedOfferingFor(offering.getIdentifier())) {
-                                            sosObservationOffering.addExtensions(provider.getOfferingExtensions(offering.getIdentifier()));
-                                        }
-                                    }
-                                }
-                                if (extensions.containsKey(sosObservationOffering.getOffering().getIdentifier())) {
-                                    for (SosObservationOfferingExtension offeringExtension : extensions
-                                            .get(sosObservationOffering.getOffering().getIdentifier())) {
-                                        sosObservationOffering.addExtension(
-                                                new CapabilitiesExtension<SosObservationOfferingExtension>().setValue(offeringExtension));
-                                    }
-                                }
-
-                                setUpPhenomenaForOffering(offering, procedure, sosObservationOffering, session);
-                                setUpTimeForOffering(offering, sosObservationOffering);
-                                setUpRelatedFeaturesForOffering(offering, sosObservationOffering);
-                                setUpFeatureOfInterestTypesForOffering(offering, sosObservationOffering);
-                                setUpProcedureDescriptionFormatForOffering(sosObservationOffering);
-                                setUpResponseFormatForOffering(sosObservationOffering);
-
-                                sosOfferings.add(sosObservationOffering);
-                            }
-                        }
-                    } else {
-                        LOGGER.error( "No procedures are contained in the database for the offering {}! Please contact the admin of this SOS.", offering.getIdentifier());
-                    }
+    private SosObservationOffering createObservationOffering(OfferingTemplate offering,
+            GetCapabilitiesRequest request, Map<String, List<SosObservationOfferingExtension>> extensions)
+            throws OwsExceptionReport {
+        final SosObservationOffering sosObservationOffering = new SosObservationOffering();
+
+        // insert observationTypes
+        sosObservationOffering.setObservationTypes(new HashSet<>(offering.getObservationTypes()));
+
+        if (offering.getObservedArea() != null) {
+            sosObservationOffering.setObservedArea(copyOf(offering.getObservedArea()));
+        } else if (getCache().hasEnvelopeForOffering(offering.getIdentifier())) {
+            sosObservationOffering.setObservedArea(getCache().getEnvelopeForOffering(offering.getIdentifier()));
+        }
+
+        sosObservationOffering.setProcedures(Collections.singletonList(offering.getProcedure()));
+
+        // TODO: add intended application
+
+        // add offering to observation offering
+        addSosOfferingToObservationOffering(offering.getIdentifier(), sosObservationOffering, request);
+        // add offering extension
+        if (offeringExtensionRepository.hasOfferingExtensionProviderFor(request)) {
+            for (SosObservationOfferingExtensionProvider provider : offeringExtensionRepository
+                    .getOfferingExtensionProvider(request)) {
+                if (provider != null && provider.hasExtendedOfferingFor(offering.getIdentifier())) {
+                    sosObservationOffering.addExtensions(provider.getOfferingExtensions(offering.getIdentifier()));
                 }
             }
+        }
+        if (extensions.containsKey(sosObservationOffering.getOffering().getIdentifier())) {
+            for (SosObservationOfferingExtension offeringExtension : extensions
+                    .get(sosObservationOffering.getOffering().getIdentifier())) {
+                sosObservationOffering.addExtension(
+                        new CapabilitiesExtension<SosObservationOfferingExtension>().setValue(offeringExtension));
+            }
+        }
 
-            return sosOfferings;
-        } catch (final HibernateException | DataAccessException e) {
+        sosObservationOffering.setObservableProperties(new LinkedList<>(offering.getObservableProperties()));
+        sosObservationOffering.setPhens4CompPhens(new HashMap<>());
+        sosObservationOffering.setPhenomenonTime(
+                new TimePeriod(offering.getPhenomenonTimeStart(), offering.getPhenomenonTimeEnd()));
+        sosObservationOffering.setResultTime(
+                new TimePeriod(offering.getResultTimeStart(), offering.getResultTimeEnd()));
+        setUpRelatedFeaturesForOffering(offering.getIdentifier(), sosObservationOffering);
+        sosObservationOffering.setFeatureOfInterestTypes(new HashSet<>(offering.getFeatureOfInterestTypes()));
+        setUpProcedureDescriptionFormatForOffering(sosObservationOffering);
+        setUpResponseFormatForOffering(sosObservationOffering);
+        return sosObservationOffering;
+    }
+
+    /**
+     * Get the offering templates for the contents. If the contents cache is enabled, the templates are only loaded
+     * from the database if the content cache was updated since they were loaded the last time.
+     *
+     * @return the offering templates
+     *
+     * @throws OwsExceptionReport
+     *             If an error occurs
+     */
+    private ContentsTemplates getContentsTemplates() throws OwsExceptionReport {
+        SosContentCache cache = getCache();
+        ContentsTemplates contentsTemplates = this.contentsTemplates;
+        if (contentsTemplates != null && contentsTemplates.isValidFor(cache)) {
+            return contentsTemplates;
+        }
+        contentsTemplates = loadContentsTemplates(cache);
+        if (this.contentsCache) {
+            this.contentsTemplates = contentsTemplates;
+        }
+        return contentsTemplates;
+    }
+
+    /**
+     * Load the offering templates with set based queries. The offerings are loaded in pages, and the session is
+     * cleared after each page, so it never holds more than one page of offerings. The relations between offerings,
+     * procedures and observable properties of a page are queried as identifiers from the datasets, the observation
+     * and feature types and the composite phenomena are taken from the content cache, so the number of queries only
+     * depends on the number of pages.
+     *
+     * @param cache
+     *            the content cache
+     * @return the offering templates
+     *
+     * @throws OwsExceptionReport
+     *             If an error occurs
+     */
+    private ContentsTemplates loadContentsTemplates(SosContentCache cache) throws OwsExceptionReport {
+        // get the update time before querying to not miss updates during the query
+        DateTime lastUpdateTime = cache.getLastUpdateTime();
+        Session session = null;
+        try {
+            session = sessionStore.getSession();
+            final List<OfferingTemplate> templates = new ArrayList<>();
+            boolean noOfferings = true;
+            List<OfferingEntity> offerings;
+            int firstResult = 0;
+            do {
+                offerings = getOfferings(session, firstResult);
+                noOfferings &= offerings.isEmpty();
+                addOfferingTemplates(offerings, getOfferingRelations(offerings, cache, session), cache, templates);
+                // the templates do not reference the entities
+                session.clear();
+                firstResult += CONTENTS_PAGE_SIZE;
+            } while (offerings.size() == CONTENTS_PAGE_SIZE);
+            return new ContentsTemplates(cache, lastUpdateTime, noOfferings, templates);
+        } catch (final HibernateException e) {
             throw new NoApplicableCodeException().causedBy(e).withMessage(
                     "Error while querying data for GetCapabilities document!");
         } finally {
@@ -645,6 +719,94 @@ public class GetCapabilitiesHandler extends AbstractGetCapabilitiesHandler imple
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private List<OfferingEntity> getOfferings(Session session, int firstResult) {
+        return session.createCriteria(OfferingEntity.class)
+                .addOrder(Order.asc(OfferingEntity.PROPERTY_ID))
+                .setFirstResult(firstResult)
+                .setMaxResults(CONTENTS_PAGE_SIZE)
+                .list();
+    }
+
+    private void addOfferingTemplates(List<OfferingEntity> offerings,
+            Map<String, Map<String, Set<String>>> relations, SosContentCache cache, List<OfferingTemplate> templates)
+            throws OwsExceptionReport {
+        for (final OfferingEntity offering : offerings) {
+            final Map<String, Set<String>> procedures =
+                    relations.getOrDefault(offering.getIdentifier(), Collections.emptyMap());
+            if (!procedures.isEmpty()) {
+                final Set<String> observationTypes =
+                        cache.getAllowedObservationTypesForOffering(offering.getIdentifier());
+                if (observationTypes != null && !observationTypes.isEmpty()) {
+                    final ReferencedEnvelope observedArea = offering.isSetGeometry()
+                            ? processObservedArea(JTSConverter.convert(offering.getGeometry()))
+                            : null;
+                    final Set<String> featureOfInterestTypes =
+                            cache.getAllowedFeatureOfInterestTypesForOffering(offering.getIdentifier());
+                    // FIXME why a loop? We are in SOS 2.0 context -> offering 1
+                    // <-> 1 procedure!
+                    for (final Entry<String, Set<String>> procedure : procedures.entrySet()) {
+                        templates.add(new OfferingTemplate(offering, procedure.getKey(), procedure.getValue(),
+                                observedArea, observationTypes, featureOfInterestTypes));
+                    }
+                }
+            } else {
+                LOGGER.error("No procedures are contained in the database for the offering {}! Please contact the admin of this SOS.", offering.getIdentifier());
+            }
+        }
+    }
+
+    /**
+     * Map the datasets of the offerings to the procedures per offering and the observable properties per offering
+     * and procedure. Only the identifiers are queried, so no dataset, procedure or phenomenon entity is loaded.
+     * Composite phenomena and their components are not listed as observable properties.
+     *
+     * @param offerings
+     *            the offerings
+     * @param cache
+     *            the content cache
+     * @param session
+     *            the session to use
+     * @return the procedures and their observable properties per offering
+     */
+    private Map<String, Map<String, Set<String>>> getOfferingRelations(List<OfferingEntity> offerings,
+            SosContentCache cache, Session session) {
+        Map<String, Map<String, Set<String>>> relations = new HashMap<>();
+        if (offerings.isEmpty()) {
+            return relations;
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> datasets = session.createCriteria(DatasetEntity.class)
+                .createAlias(DatasetEntity.PROPERTY_OFFERING, "off")
+                .createAlias(DatasetEntity.PROPERTY_PROCEDURE, "proc")
+                .createAlias(DatasetEntity.PROPERTY_PHENOMENON, "phen", JoinType.LEFT_OUTER_JOIN)
+                .add(Restrictions.eq(DatasetEntity.PROPERTY_DELETED, false))
+                .add(Restrictions.eq(DatasetEntity.PROPERTY_PUBLISHED, true))
+                .add(Restrictions.in("off." + OfferingEntity.PROPERTY_ID,
+                        offerings.stream().map(OfferingEntity::getId).collect(toList())))
+                .setProjection(Projections.projectionList()
+                        .add(Projections.property("off." + OfferingEntity.IDENTIFIER))
+                        .add(Projections.property("proc." + ProcedureEntity.IDENTIFIER))
+                        .add(Projections.property("phen." + PhenomenonEntity.IDENTIFIER)))
+                .list();
+        for (Object[] dataset : datasets) {
+            Set<String> observableProperties = relations
+                    .computeIfAbsent((String) dataset[0], offering -> new LinkedHashMap<>())
+                    .computeIfAbsent((String) dataset[1], procedure -> new LinkedHashSet<>());
+            String observableProperty = (String) dataset[2];
+            if (observableProperty != null && !cache.isCompositePhenomenon(observableProperty)
+                    && !cache.isCompositePhenomenonComponent(observableProperty)) {
+                observableProperties.add(observableProperty);
+            }
+        }
+        return relations;
+    }
+
+    private static ReferencedEnvelope copyOf(ReferencedEnvelope envelope) {
+        return new ReferencedEnvelope(envelope.getEnvelope() == null ? null : new Envelope(envelope.getEnvelope()),
+                envelope.getSrid());
+    }
+
 //    private void addSosOfferingToObservationOffering(String offering, SosObservationOffering sosObservationOffering,
 //                                                     GetCapabilitiesRequest request) throws CodedException {
 //        SosOffering sosOffering = new SosOffering(offering, false);
@@ -657,7 +819,12 @@ public class GetCapabilitiesHandler extends AbstractGetCapabilitiesHandler imple
 
     private void addSosOfferingToObservationOffering(OfferingEntity offering,
             SosObservationOffering sosObservationOffering, GetCapabilitiesRequest request) throws CodedException {
-        SosOffering sosOffering = new SosOffering(offering.getIdentifier(), false);
+        addSosOfferingToObservationOffering(offering.getIdentifier(), sosObservationOffering, request);
+    }
+
+    private void addSosOfferingToObservationOffering(String offering,
+            SosObservationOffering sosObservationOffering, GetCapabilitiesRequest request) throws CodedException {
+        SosOffering sosOffering = new SosOffering(offering, false);
         sosObservationOffering.setOffering(sosOffering);
         // add offering name
         I18NHelper.addOfferingNames(getCache(), sosOffering, getRequestedLocale(request), Locale.ROOT, false);
@@ -865,62 +1032,12 @@ public class GetCapabilitiesHandler extends AbstractGetCapabilitiesHandler imple
                 .collect(toList());
     }
 
-    protected void setUpPhenomenaForOffering(OfferingEntity offering, ProcedureEntity procedure,
-            SosObservationOffering sosOffering, Session session) throws DataAccessException {
-        Map<String, String> map = Maps.newHashMap();
-        map.put(IoParameters.OFFERINGS, Long.toString(offering.getId()));
-        map.put(IoParameters.PROCEDURES, Long.toString(procedure.getId()));
-
-        List<PhenomenonEntity> observableProperties =
-                new PhenomenonDao(session).getAllInstances(new DbQuery(IoParameters.createFromSingleValueMap(map)));
-
-        Collection<String> phenomenons = new LinkedList<>();
-        Map<String, Collection<String>> phens4CompPhens = new HashMap<>();
-        for (PhenomenonEntity observableProperty : observableProperties) {
-            if (!observableProperty.hasChildren() && !observableProperty.hasParents()) {
-                phenomenons.add(observableProperty.getIdentifier());
-            } else if (observableProperty.hasChildren() && !observableProperty.hasParents()) {
-                Set<String> childs = new TreeSet<String>();
-                for (PhenomenonEntity child : observableProperty.getChildren()) {
-                    childs.add(child.getIdentifier());
-                }
-            }
-        }
-        sosOffering.setObservableProperties(phenomenons);
-        sosOffering.setPhens4CompPhens(phens4CompPhens);
-        // sosOffering.setCompositePhenomena(getCache().getCompositePhenomenonsForOffering(offering));
-        //
-        // final Collection<String> compositePhenomenonsForOffering =
-        // getCache().getCompositePhenomenonsForOffering(offering);
-        //
-        // if (compositePhenomenonsForOffering != null) {
-        // final Map<String, Collection<String>> phens4CompPhens =
-        // new HashMap<>(compositePhenomenonsForOffering.size());
-        // for (final String compositePhenomenon :
-        // compositePhenomenonsForOffering) {
-        // final Collection<String> phenomenonsForComposite =
-        // getCache().getObservablePropertiesForCompositePhenomenon(compositePhenomenon);
-        // phens4CompPhens.put(compositePhenomenon, phenomenonsForComposite);
-        // }
-        // sosOffering.setPhens4CompPhens(phens4CompPhens);
-        // } else {
-        // sosOffering.setPhens4CompPhens(Collections.<String,
-        // Collection<String>> emptyMap());
-        // }
-
-    }
-
     protected void setUpTimeForOffering(OfferingEntity offering, SosObservationOffering sosOffering) {
         sosOffering
                 .setPhenomenonTime(new TimePeriod(offering.getPhenomenonTimeStart(), offering.getPhenomenonTimeEnd()));
         sosOffering.setResultTime(new TimePeriod(offering.getResultTimeStart(), offering.getResultTimeEnd()));
     }
 
-    protected void setUpFeatureOfInterestTypesForOffering(OfferingEntity offering,
-            SosObservationOffering sosOffering) {
-        sosOffering.setFeatureOfInterestTypes(toStringSet(offering.getFeatureTypes()));
-    }
-
 
     protected void setUpResponseFormatForOffering(SosObservationOffering sosOffering) {
         // initialize as new HashSet so that collection is modifiable
@@ -973,11 +1090,11 @@ public class GetCapabilitiesHandler extends AbstractGetCapabilitiesHandler imple
 //                .collect(toMap(Function.identity(), getCache()::getRolesForRelatedFeature)));
 //    }
 
-    private void setUpRelatedFeaturesForOffering(OfferingEntity offering,
+    private void setUpRelatedFeaturesForOffering(String offering,
             SosObservationOffering sosObservationOffering) throws OwsExceptionReport {
         final Map<String, Set<String>> relatedFeatures = Maps.newHashMap();
         final Set<String> relatedFeaturesForThisOffering =
-                getCache().getRelatedFeaturesForOffering(offering.getIdentifier());
+                getCache().getRelatedFeaturesForOffering(offering);
         if (CollectionHelper.isNotEmpty(relatedFeaturesForThisOffering)) {
             for (final String relatedFeature : relatedFeaturesForThisOffering) {
                 relatedFeatures.put(relatedFeature, getCache().getRolesForRelatedFeature(relatedFeature));
@@ -1034,21 +1151,6 @@ public class GetCapabilitiesHandler extends AbstractGetCapabilitiesHandler imple
         return procedures;
     }
 
-    private Collection<ProcedureEntity> getProceduresForOffering(final OfferingEntity offering, Session session)
-            throws OwsExceptionReport, DataAccessException {
-        Map<String, String> map = Maps.newHashMap();
-        map.put(IoParameters.OFFERINGS, Long.toString(offering.getId()));
-        List<ProcedureEntity> procedures =
-                new ProcedureDao(session).getAllInstances(new DbQuery(IoParameters.createFromSingleValueMap(map)));
-        // if (procedures.isEmpty()) {
-        // throw new NoApplicableCodeException().withMessage(
-        // "No procedures are contained in the database for the offering '%s'!
-        // Please contact the admin of this SOS.",
-        // offering);
-        // }
-        return procedures;
-    }
-
     private boolean isV2(GetCapabilitiesResponse response) {
         return response.getVersion().equals(Sos2Constants.SERVICEVERSION);
     }
@@ -1170,6 +1272,107 @@ public class GetCapabilitiesHandler extends AbstractGetCapabilitiesHandler imple
         return new OwsDomain(OWSConstants.AdditionalRequestParams.language, new OwsAllowedValues(allowedValues));
     }
 
+    /**
+     * The offering templates of the contents and the content cache state they were loaded for.
+     */
+    private static final class ContentsTemplates {
+        private final SosContentCache cache;
+        private final DateTime lastUpdateTime;
+        private final boolean empty;
+        private final List<OfferingTemplate> offerings;
+
+        ContentsTemplates(SosContentCache cache, DateTime lastUpdateTime, boolean empty,
+                List<OfferingTemplate> offerings) {
+            this.cache = cache;
+            this.lastUpdateTime = lastUpdateTime;
+            this.empty = empty;
+            this.offerings = Collections.unmodifiableList(offerings);
+        }
+
+        boolean isValidFor(SosContentCache cache) {
+            return this.cache == cache && Objects.equals(this.lastUpdateTime, cache.getLastUpdateTime());
+        }
+
+        boolean isEmpty() {
+            return empty;
+        }
+
+        List<OfferingTemplate> getOfferings() {
+            return offerings;
+        }
+    }
+
+    /**
+     * The values of an offering and procedure pair that are queried from the database. The values are not modified,
+     * so the template can be shared by concurrent requests.
+     */
+    private static final class OfferingTemplate {
+        private final String identifier;
+        private final String procedure;
+        private final Collection<String> observableProperties;
+        private final ReferencedEnvelope observedArea;
+        private final Set<String> observationTypes;
+        private final Set<String> featureOfInterestTypes;
+        private final Date phenomenonTimeStart;
+        private final Date phenomenonTimeEnd;
+        private final Date resultTimeStart;
+        private final Date resultTimeEnd;
+
+        OfferingTemplate(OfferingEntity offering, String procedure, Collection<String> observableProperties,
+                ReferencedEnvelope observedArea, Set<String> observationTypes, Set<String> featureOfInterestTypes) {
+            this.identifier = offering.getIdentifier();
+            this.procedure = procedure;
+            this.observableProperties = Collections.unmodifiableCollection(observableProperties);
+            this.observedArea = observedArea;
+            this.observationTypes = Collections.unmodifiableSet(observationTypes);
+            this.featureOfInterestTypes = Collections.unmodifiableSet(featureOfInterestTypes);
+            this.phenomenonTimeStart = offering.getPhenomenonTimeStart();
+            this.phenomenonTimeEnd = offering.getPhenomenonTimeEnd();
+            this.resultTimeStart = offering.getResultTimeStart();
+            this.resultTimeEnd = offering.getResultTimeEnd();
+        }
+
+        String getIdentifier() {
+            return identifier;
+        }
+
+        String getProcedure() {
+            return procedure;
+        }
+
+        Collection<String> getObservableProperties() {
+            return observableProperties;
+        }
+
+        ReferencedEnvelope getObservedArea() {
+            return observedArea;
+        }
+
+        Set<String> getObservationTypes() {
+            return observationTypes;
+        }
+
+        Set<String> getFeatureOfInterestTypes() {
+            return featureOfInterestTypes;
+        }
+
+        Date getPhenomenonTimeStart() {
+            return phenomenonTimeStart;
+        }
+
+        Date getPhenomenonTimeEnd() {
+            return phenomenonTimeEnd;
+        }
+
+        Date getResultTimeStart() {
+            return resultTimeStart;
+        }
+
+        Date getResultTimeEnd() {
+            return resultTimeEnd;
+        }
+    }
+
     private class SectionSpecificContentObject {
         private GetCapabilitiesRequest request;
         private GetCapabilitiesResponse response;
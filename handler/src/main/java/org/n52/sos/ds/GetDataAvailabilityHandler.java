@@ -28,16 +28,27 @@
  */
 package org.n52.sos.ds;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 
 import javax.inject.Inject;
 
 import org.hibernate.Session;
+import org.joda.time.DateTime;
+import org.n52.faroe.annotation.Configurable;
+import org.n52.faroe.annotation.Setting;
 import org.n52.io.request.IoParameters;
 import org.n52.series.db.DataAccessException;
 import org.n52.series.db.HibernateSessionStore;
@@ -48,6 +59,7 @@ import org.n52.series.db.dao.DatasetDao;
 import org.n52.series.db.dao.DbQuery;
 import org.n52.shetland.ogc.filter.TemporalFilter;
 import org.n52.shetland.ogc.gml.ReferenceType;
+import org.n52.shetland.ogc.gml.time.TimeInstant;
 import org.n52.shetland.ogc.gml.time.TimePeriod;
 import org.n52.shetland.ogc.ows.exception.NoApplicableCodeException;
 import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
@@ -61,16 +73,20 @@ import org.n52.shetland.ogc.sos.gda.GetDataAvailabilityResponse.DataAvailability
 import org.n52.shetland.ogc.sos.gda.GetDataAvailabilityResponse.FormatDescriptor;
 import org.n52.shetland.ogc.sos.gda.GetDataAvailabilityResponse.ObservationFormatDescriptor;
 import org.n52.shetland.ogc.sos.gda.GetDataAvailabilityResponse.ProcedureDescriptionFormatDescriptor;
+import org.n52.sos.cache.DatasetInfo;
+import org.n52.sos.cache.SosContentCache;
 import org.n52.sos.ds.dao.GetDataAvailabilityDao;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
+@Configurable
 public class GetDataAvailabilityHandler extends AbstractGetDataAvailabilityHandler implements ApiQueryHelper {
 
     private HibernateSessionStore sessionStore;
     private Optional<GetDataAvailabilityDao> dao = Optional.empty();
+    private boolean fromCache;
 
 
     public GetDataAvailabilityHandler() {
@@ -89,6 +105,11 @@ public class GetDataAvailabilityHandler extends AbstractGetDataAvailabilityHandl
         }
     }
 
+    @Setting(GetDataAvailabilitySettings.GDA_FROM_CACHE)
+    public void setFromCache(boolean fromCache) {
+        this.fromCache = fromCache;
+    }
+
     @Override
     public GetDataAvailabilityResponse getDataAvailability(GetDataAvailabilityRequest request)
             throws OwsExceptionReport {
@@ -113,17 +134,26 @@ public class GetDataAvailabilityHandler extends AbstractGetDataAvailabilityHandl
     }
 
     private List<DataAvailability> queryDataAvailabilityValues(GetDataAvailabilityRequest request) throws OwsExceptionReport {
+        if (isFromCache(request)) {
+            return getDataAvailabilityValuesFromCache(request);
+        }
         Session session = sessionStore.getSession();
         try {
             GDARequestContext context = new GDARequestContext(request);
             boolean gdaV20 = checkForGDAv20(request);
+            Map<String, OfferingEntity> offerings = new LinkedHashMap<>();
             for (final DatasetEntity entity : new DatasetDao<>(session).getAllInstances(createDbQuery(request))) {
                 if (gdaV20) {
                     processDataAvailabilityV2(entity, context, session);
+                    offerings.putIfAbsent(entity.getOffering().getIdentifier(), entity.getOffering());
                 } else {
                     processDataAvailability(entity, context, session);
                 }
             }
+            addResultTimes(context);
+            for (OfferingEntity offering : offerings.values()) {
+                checkForParentOfferings(context, offering);
+            }
             if (!gdaV20) {
                 return checkForDuplictation(context.getDataAvailabilityList());
             }
@@ -136,6 +166,71 @@ public class GetDataAvailabilityHandler extends AbstractGetDataAvailabilityHandl
         }
     }
 
+    /**
+     * Check if the request can be answered from the datasets stored in the cache. Value counts, result times and the
+     * format descriptors of GetDataAvailability 2.0 are not stored in the cache.
+     *
+     * @param request
+     *            GetDataAvailability request
+     * @return <code>true</code>, if the request can be answered from the cache
+     */
+    private boolean isFromCache(GetDataAvailabilityRequest request) {
+        return fromCache && !checkForGDAv20(request) && !isShowCount(request) && !isIncludeResultTime(request);
+    }
+
+    /**
+     * Get the {@link DataAvailability}s from the datasets stored in the cache.
+     *
+     * @param request
+     *            GetDataAvailability request
+     * @return the {@link DataAvailability}s
+     */
+    private List<DataAvailability> getDataAvailabilityValuesFromCache(GetDataAvailabilityRequest request) {
+        SosContentCache cache = getCache();
+        GDARequestContext context = new GDARequestContext(request);
+        Set<String> procedures = request.isSetProcedures() ? new HashSet<>(request.getProcedures()) : null;
+        Set<String> observedProperties =
+                request.isSetObservedProperties() ? new HashSet<>(request.getObservedProperties()) : null;
+        Set<String> features =
+                request.isSetFeaturesOfInterest() ? new HashSet<>(request.getFeaturesOfInterest()) : null;
+        Collection<String> offerings = request.isSetOfferings() ? request.getOfferings() : cache.getOfferings();
+        for (String offering : offerings) {
+            for (DatasetInfo dataset : cache.getDatasetsForOffering(offering)) {
+                if (dataset.isSetPhenomenonTime() && matches(procedures, dataset.getProcedure())
+                        && matches(observedProperties, dataset.getObservableProperty())
+                        && matches(features, dataset.getFeatureOfInterest())) {
+                    context.addDataAvailability(new DataAvailability(
+                            getReference(dataset.getProcedure(), context.getProcedures(),
+                                    cache::getProcedureHumanReadableNameForIdentifier),
+                            getReference(dataset.getObservableProperty(), context.getObservableProperties(),
+                                    cache::getObservablePropertyHumanReadableNameForIdentifier),
+                            getReference(dataset.getFeatureOfInterest(), context.getFeaturesOfInterest(),
+                                    cache::getFeatureOfInterestHumanReadableNameForIdentifier),
+                            getReference(dataset.getOffering(), context.getOfferings(),
+                                    cache::getOfferingHumanReadableNameForIdentifier),
+                            new TimePeriod(dataset.getPhenomenonTimeStart(), dataset.getPhenomenonTimeEnd())));
+                }
+            }
+        }
+        return checkForDuplictation(context.getDataAvailabilityList());
+    }
+
+    private boolean matches(Set<String> requested, String identifier) {
+        return requested == null || requested.contains(identifier);
+    }
+
+    private ReferenceType getReference(String identifier, Map<String, ReferenceType> references,
+            Function<String, String> names) {
+        return references.computeIfAbsent(identifier, id -> {
+            ReferenceType referenceType = new ReferenceType(id);
+            String name = names.apply(id);
+            if (name != null && !name.equals(id)) {
+                referenceType.setTitle(name);
+            }
+            return referenceType;
+        });
+    }
+
     private DbQuery createDbQuery(GetDataAvailabilityRequest req) {
         Map<String, String> map = Maps.newHashMap();
         if (req.isSetFeaturesOfInterest()) {
@@ -165,7 +260,7 @@ public class GetDataAvailabilityHandler extends AbstractGetDataAvailabilityHandl
                     dataAvailability.setCount(entity.getObservationCount());
                 }
                 if (isIncludeResultTime(context.getRequest()) && dao.isPresent()) {
-                    dataAvailability.setResultTimes(dao.get().getResultTimes(dataAvailability, context.getRequest()));
+                    context.addResultTimeDataset(dataAvailability, entity.getId());
                 }
                 return dataAvailability;
             }
@@ -209,44 +304,90 @@ public class GetDataAvailabilityHandler extends AbstractGetDataAvailabilityHandl
             }
             context.addDataAvailability(dataAvailability);
         }
-        checkForParentOfferings(context, entity.getOffering());
+    }
+
+    /**
+     * Query the result times of all datasets with one query per batch of datasets and add them to the
+     * {@link DataAvailability}s. As for a single {@link DataAvailability}, the result times are those of the
+     * procedure, observed property and feature of interest constellation.
+     *
+     * @param context
+     *            Request context with the {@link DataAvailability}s that require result times
+     * @throws OwsExceptionReport
+     *             If an error occurs
+     */
+    private void addResultTimes(GDARequestContext context) throws OwsExceptionReport {
+        Map<DataAvailability, Long> datasets = context.getResultTimeDatasets();
+        if (datasets.isEmpty() || !dao.isPresent()) {
+            return;
+        }
+        Map<Long, List<TimeInstant>> datasetResultTimes =
+                dao.get().getResultTimes(new HashSet<>(datasets.values()), context.getRequest());
+        Map<String, Map<DateTime, TimeInstant>> constellationResultTimes = new HashMap<>();
+        for (Entry<DataAvailability, Long> dataset : datasets.entrySet()) {
+            Map<DateTime, TimeInstant> resultTimes = constellationResultTimes
+                    .computeIfAbsent(getConstellation(dataset.getKey()), constellation -> new TreeMap<>());
+            for (TimeInstant resultTime : datasetResultTimes.getOrDefault(dataset.getValue(),
+                    Collections.emptyList())) {
+                resultTimes.putIfAbsent(resultTime.getValue(), resultTime);
+            }
+        }
+        for (DataAvailability dataAvailability : datasets.keySet()) {
+            dataAvailability.setResultTimes(
+                    new ArrayList<>(constellationResultTimes.get(getConstellation(dataAvailability)).values()));
+        }
+    }
+
+    private String getConstellation(DataAvailability dataAvailability) {
+        return String.join("\n", dataAvailability.getProcedure().getHref(),
+                dataAvailability.getObservedProperty().getHref(), dataAvailability.getFeatureOfInterest().getHref());
     }
 
     private TimePeriod createTimePeriod(DatasetEntity entity) {
         return new TimePeriod(entity.getFirstValueAt(), entity.getLastValueAt());
     }
 
+    /**
+     * Merge the {@link DataAvailability}s of the child offerings of the offering into those of the requested parent
+     * offerings. The {@link DataAvailability}s are matched by their procedure, observed property and feature of
+     * interest constellation.
+     *
+     * @param context
+     *            Request context with the {@link DataAvailability}s
+     * @param offeringEntity
+     *            the offering
+     */
     private void checkForParentOfferings(GDARequestContext context, OfferingEntity offeringEntity) {
         if (context.isSetDataAvailabilityList()) {
-            List<String> requestedOfferings = context.getRequest().getOfferings();
-            for (String requestedOffering : requestedOfferings) {
-                Set<String> childOfferings = getChildOfferings(offeringEntity);
-                if (!childOfferings.isEmpty()) {
-                    if (context.hasDataAvailability(requestedOffering)) {
-                        Set<DataAvailability> parentDataAvailabilities =
-                                context.getDataAvailability(requestedOffering);
-                        for (String childOffering : childOfferings) {
-                            Set<DataAvailability> childDataAvailabilities = context.getDataAvailability(childOffering);
-                            for (DataAvailability childDataAvailability : childDataAvailabilities) {
-                                for (DataAvailability parentDataAvailability : parentDataAvailabilities) {
-                                    parentDataAvailability.merge(childDataAvailability, true);
-                                }
+            Set<String> childOfferings = getChildOfferings(offeringEntity);
+            if (childOfferings.isEmpty()) {
+                return;
+            }
+            for (String requestedOffering : context.getRequest().getOfferings()) {
+                if (context.hasDataAvailability(requestedOffering)) {
+                    Map<String, List<DataAvailability>> parentDataAvailabilities = new HashMap<>();
+                    for (DataAvailability parentDataAvailability : context.getDataAvailability(requestedOffering)) {
+                        parentDataAvailabilities
+                                .computeIfAbsent(getConstellation(parentDataAvailability), k -> new ArrayList<>())
+                                .add(parentDataAvailability);
+                    }
+                    for (String childOffering : childOfferings) {
+                        for (DataAvailability childDataAvailability : context.getDataAvailability(childOffering)) {
+                            for (DataAvailability parentDataAvailability : parentDataAvailabilities
+                                    .getOrDefault(getConstellation(childDataAvailability), Collections.emptyList())) {
+                                parentDataAvailability.merge(childDataAvailability, true);
                             }
                         }
-                    } else {
-                        Set<DataAvailability> parentDataAvailabilities = Sets.newHashSet();
-                        for (String childOffering : childOfferings) {
-                            Set<DataAvailability> childDataAvailabilities = context.getDataAvailability(childOffering);
-                            for (DataAvailability childDataAvailability : childDataAvailabilities) {
-                                addParentDataAvailabilityIfMissing(parentDataAvailabilities, childDataAvailability,
-                                        new ReferenceType(requestedOffering));
-                                for (DataAvailability parentDataAvailability : parentDataAvailabilities) {
-                                    parentDataAvailability.merge(childDataAvailability, true);
-                                }
-                            }
+                    }
+                } else {
+                    Map<String, DataAvailability> parentDataAvailabilities = new LinkedHashMap<>();
+                    for (String childOffering : childOfferings) {
+                        for (DataAvailability childDataAvailability : context.getDataAvailability(childOffering)) {
+                            parentDataAvailabilities.computeIfAbsent(getConstellation(childDataAvailability),
+                                    k -> childDataAvailability.copy()).merge(childDataAvailability, true);
                         }
-                        context.addDataAvailabilities(parentDataAvailabilities);
                     }
+                    context.addDataAvailabilities(parentDataAvailabilities.values());
                 }
             }
         }
@@ -269,24 +410,15 @@ public class GetDataAvailabilityHandler extends AbstractGetDataAvailabilityHandl
     }
 
     private List<DataAvailability> checkForDuplictation(List<DataAvailability> dataAvailabilityValues) {
-        List<DataAvailability> checked = Lists.newLinkedList();
+        Map<String, DataAvailability> checked = new LinkedHashMap<>();
         for (DataAvailability dataAvailability : dataAvailabilityValues) {
-            if (checked.isEmpty()) {
-                checked.add(dataAvailability);
-            } else {
-                boolean notDuplicated = true;
-                for (DataAvailability checkedDA : checked) {
-                    if (dataAvailability.equals(checkedDA)) {
-                        checkedDA.getPhenomenonTime().extendToContain(dataAvailability.getPhenomenonTime());
-                        notDuplicated = false;
-                    }
-                }
-                if (notDuplicated) {
-                    checked.add(dataAvailability);
-                }
+            DataAvailability checkedDA = checked.putIfAbsent(String.join("\n", getConstellation(dataAvailability),
+                    dataAvailability.getOfferingString()), dataAvailability);
+            if (checkedDA != null) {
+                checkedDA.getPhenomenonTime().extendToContain(dataAvailability.getPhenomenonTime());
             }
         }
-        return checked;
+        return new ArrayList<>(checked.values());
     }
 
     private ReferenceType getProcedureReference(DatasetEntity entity, Map<String, ReferenceType> procedures) {
@@ -414,27 +546,15 @@ public class GetDataAvailabilityHandler extends AbstractGetDataAvailabilityHandl
         return formatDescriptors;
     }
 
-    private boolean addParentDataAvailabilityIfMissing(Set<DataAvailability> parentDataAvailabilities,
-            DataAvailability childDataAvailability, ReferenceType offering) {
-        boolean notContained = true;
-        for (DataAvailability parentDataAvailability : parentDataAvailabilities) {
-            if (parentDataAvailability.sameConstellation(childDataAvailability)) {
-                notContained = false;
-            }
-        }
-        if (notContained) {
-            parentDataAvailabilities.add(childDataAvailability.copy());
-        }
-        return notContained;
-    }
-
     public class GDARequestContext {
         private GetDataAvailabilityRequest request;
         private List<DataAvailability> dataAvailabilityValues = Lists.newArrayList();
+        private Map<String, List<DataAvailability>> dataAvailabilityForOfferings = new HashMap<>();
         private Map<String, ReferenceType> procedures = new HashMap<>();
         private Map<String, ReferenceType> observableProperties = new HashMap<>();
         private Map<String, ReferenceType> featuresOfInterest = new HashMap<>();
         private Map<String, ReferenceType> offerings = new HashMap<>();
+        private Map<DataAvailability, Long> resultTimeDatasets = new IdentityHashMap<>();
 
         public GDARequestContext(GetDataAvailabilityRequest request) {
             this.request = request;
@@ -462,19 +582,23 @@ public class GetDataAvailabilityHandler extends AbstractGetDataAvailabilityHandl
 
         public GDARequestContext setDataAvailabilityList(List<DataAvailability> dataAvailabilityValues) {
             this.dataAvailabilityValues.clear();
+            this.dataAvailabilityForOfferings.clear();
             return addDataAvailabilities(dataAvailabilityValues);
         }
 
         public GDARequestContext addDataAvailability(DataAvailability dataAvailability) {
             if (dataAvailability != null) {
                 this.dataAvailabilityValues.add(dataAvailability);
+                this.dataAvailabilityForOfferings
+                        .computeIfAbsent(dataAvailability.getOfferingString(), k -> new ArrayList<>())
+                        .add(dataAvailability);
             }
             return this;
         }
 
         public GDARequestContext addDataAvailabilities(Collection<DataAvailability> dataAvailabilityValues) {
             if (dataAvailabilityValues != null) {
-                this.dataAvailabilityValues.addAll(dataAvailabilityValues);
+                dataAvailabilityValues.forEach(this::addDataAvailability);
             }
             return this;
         }
@@ -483,27 +607,25 @@ public class GetDataAvailabilityHandler extends AbstractGetDataAvailabilityHandl
             return Lists.newArrayList(dataAvailabilityValues);
         }
 
+        public GDARequestContext addResultTimeDataset(DataAvailability dataAvailability, Long dataset) {
+            this.resultTimeDatasets.put(dataAvailability, dataset);
+            return this;
+        }
+
+        public Map<DataAvailability, Long> getResultTimeDatasets() {
+            return resultTimeDatasets;
+        }
+
         public boolean hasDataAvailability(String requestedOffering) {
-            for (DataAvailability dataAvailability : dataAvailabilityValues) {
-                if (requestedOffering.equals(dataAvailability.getOfferingString())) {
-                    return true;
-                }
-            }
-            return false;
+            return dataAvailabilityForOfferings.containsKey(requestedOffering);
         }
 
         public Set<DataAvailability> getDataAvailability(String offering) {
-            Set<DataAvailability> das = Sets.newHashSet();
-            for (DataAvailability dataAvailability : dataAvailabilityValues) {
-                if (offering.equals(dataAvailability.getOfferingString())) {
-                    das.add(dataAvailability);
-                }
-            }
-            return das;
+            return Sets.newHashSet(dataAvailabilityForOfferings.getOrDefault(offering, Collections.emptyList()));
         }
 
         public boolean isSetDataAvailabilityList() {
-            return getDataAvailabilityList() != null && !getDataAvailabilityList().isEmpty();
+            return !dataAvailabilityValues.isEmpty();
         }
 
     }
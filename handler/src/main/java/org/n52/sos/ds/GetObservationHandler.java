@@ -86,7 +86,7 @@ public class GetObservationHandler extends AbstractGetObservationHandler impleme
                 request.getObservedProperties().isEmpty()) {
            throw new MissingObservedPropertyParameterException();
        }
-       if (request.isSetResultFilter()) {
+       if (request.isSetResultFilter() && !request.hasResultFilter()) {
            throw new NotYetSupportedException("result filtering");
        }
         Session session = sessionStore.getSession();
@@ -33,10 +33,12 @@ import static org.n52.sos.ds.cache.CacheFeederSettingDefinitionProvider.CACHE_TH
 import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.inject.Inject;
 
 import org.hibernate.Session;
+import org.joda.time.DateTime;
 import org.joda.time.Period;
 import org.joda.time.format.PeriodFormat;
 import org.n52.faroe.ConfigurationError;
@@ -53,7 +55,10 @@ import org.n52.shetland.ogc.ows.exception.CompositeOwsException;
 import org.n52.shetland.ogc.ows.exception.NoApplicableCodeException;
 import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
 import org.n52.shetland.util.CollectionHelper;
+import org.n52.sos.cache.CacheUpdateTaskStatistics;
 import org.n52.sos.cache.SosWritableContentCache;
+import org.n52.sos.ds.cache.CacheUpdateTaskTimings;
+import org.n52.sos.ds.cache.ChangedDatasetsCacheUpdate;
 import org.n52.sos.ds.cache.InitialCacheUpdate;
 import org.n52.sos.ds.cache.base.OfferingCacheUpdate;
 import org.slf4j.Logger;
@@ -65,7 +70,7 @@ import org.slf4j.LoggerFactory;
  * @since 4.0.0
  */
 @Configurable
-public class SosCacheFeederHandler implements CacheFeederHandler {
+public class SosCacheFeederHandler implements CacheFeederHandler, CacheUpdateTaskStatistics {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SosCacheFeederHandler.class);
 
@@ -78,6 +83,11 @@ public class SosCacheFeederHandler implements CacheFeederHandler {
     private I18NDAORepository i18NDAORepository;
     private OwsServiceMetadataRepository serviceMetadataRepository;
     private HibernateSessionStore sessionStore;
+    private final CacheUpdateTaskTimings taskTimings = new CacheUpdateTaskTimings();
+    /**
+     * The greatest observation id at the start of the last successful update, {@code null} if there was none.
+     */
+    private volatile Long observationId;
 
     @Inject
     public void setConnectionProvider(HibernateSessionStore sessionStore) {
@@ -110,13 +120,15 @@ public class SosCacheFeederHandler implements CacheFeederHandler {
         checkCacheNotNull(cache);
         List<OwsExceptionReport> errors = CollectionHelper.synchronizedList();
         Session session = null;
+        Long maxObservationId = null;
         try {
             InitialCacheUpdate update = new InitialCacheUpdate(
                     this.cacheThreadCount,
                     this.defaultLocale,
                     this.i18NDAORepository,
                     this.sessionStore,
-                    this.serviceMetadataRepository);
+                    this.serviceMetadataRepository,
+                    this.taskTimings);
             session = this.sessionStore.getSession();
             update.setCache(cache);
             update.setErrors(errors);
@@ -125,7 +137,10 @@ public class SosCacheFeederHandler implements CacheFeederHandler {
             LOGGER.info("Starting cache update");
             long cacheUpdateStartTime = System.currentTimeMillis();
 
+            maxObservationId = ChangedDatasetsCacheUpdate.getMaxObservationId(session);
             update.execute();
+            // tasks of offerings and procedures that no longer exist
+            this.taskTimings.removeRecordedBefore(cacheUpdateStartTime);
 
             logCacheLoadTime(cacheUpdateStartTime);
         } catch (Exception e) {
@@ -142,7 +157,7 @@ public class SosCacheFeederHandler implements CacheFeederHandler {
         if (!errors.isEmpty()) {
             throw new CompositeOwsException(errors);
         }
-
+        this.observationId = maxObservationId;
     }
 
     @Override
@@ -158,7 +173,9 @@ public class SosCacheFeederHandler implements CacheFeederHandler {
                 this.cacheThreadCount,
                 this.defaultLocale,
                 this.i18NDAORepository,
-                this.sessionStore);
+                this.sessionStore,
+                offeringsNeedingUpdate,
+                this.taskTimings);
         update.setCache(cache);
         update.setErrors(errors);
         update.setSession(session);
@@ -187,6 +204,62 @@ public class SosCacheFeederHandler implements CacheFeederHandler {
         }
     }
 
+    @Override
+    public void updateCache(SosWritableContentCache cache, DateTime since) throws OwsExceptionReport {
+        checkCacheNotNull(cache);
+        Long lastObservationId = this.observationId;
+        if (since == null || lastObservationId == null) {
+            // without the observation id of a previous update, changes inside the value times can not be detected
+            updateCache(cache);
+            return;
+        }
+        List<OwsExceptionReport> errors = CollectionHelper.synchronizedList();
+        Session session = null;
+        Long maxObservationId = null;
+        try {
+            ChangedDatasetsCacheUpdate update = new ChangedDatasetsCacheUpdate(
+                    this.cacheThreadCount,
+                    this.defaultLocale,
+                    this.i18NDAORepository,
+                    this.sessionStore,
+                    since,
+                    lastObservationId,
+                    this.taskTimings);
+            session = this.sessionStore.getSession();
+            update.setCache(cache);
+            update.setErrors(errors);
+            update.setSession(session);
+
+            LOGGER.info("Starting cache update for datasets changed since {} or observation id {}", since,
+                    lastObservationId);
+            long cacheUpdateStartTime = System.currentTimeMillis();
+
+            maxObservationId = ChangedDatasetsCacheUpdate.getMaxObservationId(session);
+            update.execute();
+
+            logCacheLoadTime(cacheUpdateStartTime);
+        } catch (Exception e) {
+            LOGGER.error("Error while updating ContentCache!", e);
+            errors.add(new NoApplicableCodeException().causedBy(e).withMessage("Error while updating ContentCache!"));
+        } finally {
+            try {
+                this.sessionStore.returnSession(session);
+            } catch (Exception e2) {
+                // TODO check why this is necessary
+                LOGGER.error("Error while returning connection after cache update!", e2);
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new CompositeOwsException(errors);
+        }
+        this.observationId = maxObservationId;
+    }
+
+    @Override
+    public Map<String, Long> getCacheUpdateTaskDurations() {
+        return this.taskTimings.getDurations();
+    }
+
     private void checkCacheNotNull(WritableContentCache cache) {
         if (cache == null) {
             throw new NullPointerException("cache is null");
@@ -28,17 +28,27 @@
  */
 package org.n52.sos.ds.cache;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import org.n52.iceland.ds.ConnectionProvider;
-import org.n52.iceland.ds.ConnectionProviderException;
-import org.n52.iceland.util.action.CompositeParallelAction;
 import org.n52.series.db.HibernateSessionStore;
 import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
 
 /**
+ * Executes the cache update tasks in a work-stealing pool. The pool uses at
+ * most one thread (and therefore one session) per task and the tasks that took
+ * longest during the previous update are started first, so that large
+ * offerings or procedures do not straggle at the end of the update.
+ *
  * @author <a href="mailto:c.autermann@52north.org">Christian Autermann</a>
  * @author <a href="mailto:shane@axiomalaska.com">Shane StClair</a>
  *
@@ -54,10 +64,18 @@ public abstract class AbstractQueueingDatasourceCacheUpdate<T extends AbstractTh
 
     private final ThreadLocalSessionFactory sessionFactory;
 
+    private final CacheUpdateTaskTimings taskTimings;
+
     public AbstractQueueingDatasourceCacheUpdate(int threads, String threadGroupName, HibernateSessionStore sessionStore) {
+        this(threads, threadGroupName, sessionStore, new CacheUpdateTaskTimings());
+    }
+
+    public AbstractQueueingDatasourceCacheUpdate(int threads, String threadGroupName, HibernateSessionStore sessionStore,
+            CacheUpdateTaskTimings taskTimings) {
         this.threads = threads;
         this.threadGroupName = threadGroupName;
         this.sessionFactory = new ThreadLocalSessionFactory(sessionStore);
+        this.taskTimings = taskTimings;
     }
 
     protected abstract T[] getUpdatesToExecute() throws OwsExceptionReport;
@@ -72,29 +90,27 @@ public abstract class AbstractQueueingDatasourceCacheUpdate<T extends AbstractTh
             getErrors().add(ex);
             return;
         }
-        CompositeParallelAction<AbstractThreadableDatasourceCacheUpdate> compositeParallelAction =
-                new CompositeParallelAction<AbstractThreadableDatasourceCacheUpdate>(threads, threadGroupName, updatesToExecute) {
-
-            @Override
-            protected void pre(AbstractThreadableDatasourceCacheUpdate action) {
-                action.setCache(getCache());
-                action.setErrors(getErrors());
-                action.setSessionFactory(sessionFactory);
+        if (updatesToExecute.length > 0) {
+            List<T> updates = new ArrayList<>(Arrays.asList(updatesToExecute));
+            // longest running tasks of the previous update first, tasks without a duration keep their order
+            updates.sort(Comparator.comparingLong((T update) -> taskTimings.getDuration(update.getTaskName()))
+                    .reversed());
+            List<Callable<Void>> tasks = new ArrayList<>(updates.size());
+            for (T update : updates) {
+                tasks.add(() -> {
+                    execute(update);
+                    return null;
+                });
             }
-
-            @Override
-            protected void post(AbstractThreadableDatasourceCacheUpdate action) {
-                if (action.getSession() != null) {
-                    try {
-                        action.getSession().clear();
-                    } catch (Exception e) {
-                        LOGGER.error("Error while returning connection after cache update!", e);
-                    }
-                }
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(threads, tasks.size())),
+                    this::createWorkerThread, null, false);
+            try {
+                //execute multiple threads
+                pool.invokeAll(tasks);
+            } finally {
+                pool.shutdown();
             }
-        };
-        //execute multiple threads
-        compositeParallelAction.execute();
+        }
 
         try {
             sessionFactory.close();
@@ -102,4 +118,33 @@ public abstract class AbstractQueueingDatasourceCacheUpdate<T extends AbstractTh
             LOGGER.error("Error while closing SessionFactory", e);
         }
     }
+
+    private void execute(T action) {
+        action.setCache(getCache());
+        action.setErrors(getErrors());
+        action.setSessionFactory(sessionFactory);
+        long start = System.nanoTime();
+        try {
+            action.execute();
+        } catch (RuntimeException e) {
+            LOGGER.error("Error while executing cache update task {}", action.getTaskName(), e);
+        } finally {
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            taskTimings.record(action.getTaskName(), millis);
+            LOGGER.trace("Executed cache update task {} in {} ms", action.getTaskName(), millis);
+            if (action.getSession() != null) {
+                try {
+                    action.getSession().clear();
+                } catch (Exception e) {
+                    LOGGER.error("Error while returning connection after cache update!", e);
+                }
+            }
+        }
+    }
+
+    private ForkJoinWorkerThread createWorkerThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName(threadGroupName + "-" + thread.getPoolIndex());
+        return thread;
+    }
 }
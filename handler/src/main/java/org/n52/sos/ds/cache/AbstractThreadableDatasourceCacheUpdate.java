@@ -41,6 +41,13 @@ public abstract class AbstractThreadableDatasourceCacheUpdate extends AbstractDa
         this.sessionFactory = sessionFactory;
     }
 
+    /**
+     * @return the name of this task, used to record its duration
+     */
+    public String getTaskName() {
+        return getClass().getSimpleName();
+    }
+
     @Override
     public Session getSession(){
         if (super.getSession() == null && sessionFactory != null) {
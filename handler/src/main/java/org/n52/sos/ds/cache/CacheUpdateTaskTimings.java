@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.cache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the duration of the last execution of each cache update task. The
+ * durations are used to schedule the longest running tasks of the previous
+ * cache update first and are reported on the admin cache page. Durations of
+ * tasks that were not executed by a complete cache update are removed with
+ * {@link #removeRecordedBefore(long)}, so that tasks of deleted or renamed
+ * offerings and procedures do not accumulate.
+ *
+ * @since 5.0.2
+ */
+public class CacheUpdateTaskTimings {
+
+    private final ConcurrentMap<String, Timing> timings = new ConcurrentHashMap<>();
+
+    /**
+     * Record the duration of a task execution.
+     *
+     * @param task
+     *            the task name
+     * @param millis
+     *            the duration in milliseconds
+     */
+    public void record(String task, long millis) {
+        timings.put(task, new Timing(millis, System.currentTimeMillis()));
+    }
+
+    /**
+     * Get the duration of the last execution of a task.
+     *
+     * @param task
+     *            the task name
+     * @return the duration in milliseconds or <code>-1</code> if the task was
+     *         not executed yet
+     */
+    public long getDuration(String task) {
+        Timing timing = timings.get(task);
+        return timing == null ? -1L : timing.duration;
+    }
+
+    /**
+     * @return a copy of the durations in milliseconds keyed by task name
+     */
+    public Map<String, Long> getDurations() {
+        Map<String, Long> durations = new HashMap<>(timings.size());
+        timings.forEach((task, timing) -> durations.put(task, timing.duration));
+        return Collections.unmodifiableMap(durations);
+    }
+
+    /**
+     * Remove the durations of all tasks that were not executed since the
+     * specified time.
+     *
+     * @param timestamp
+     *            the time in milliseconds since the epoch
+     */
+    public void removeRecordedBefore(long timestamp) {
+        timings.values().removeIf(timing -> timing.recorded < timestamp);
+    }
+
+    private static final class Timing {
+        private final long duration;
+        private final long recorded;
+
+        Timing(long duration, long recorded) {
+            this.duration = duration;
+            this.recorded = recorded;
+        }
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.cache;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.criterion.DetachedCriteria;
+import org.hibernate.criterion.Projections;
+import org.hibernate.criterion.Restrictions;
+import org.hibernate.criterion.Subqueries;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.n52.iceland.i18n.I18NDAORepository;
+import org.n52.series.db.HibernateSessionStore;
+import org.n52.series.db.beans.DataEntity;
+import org.n52.series.db.beans.DatasetEntity;
+import org.n52.shetland.ogc.gml.time.TimePeriod;
+import org.n52.shetland.ogc.ows.exception.NoApplicableCodeException;
+import org.n52.sos.ds.cache.base.OfferingCacheUpdate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Updates an existing cache with the datasets that got observations with an id greater than a given observation id,
+ * e.g. the greatest id at the start of the previous cache update, or whose first or last value time is not before a
+ * given time. The observation id also finds observations that were inserted into the existing time range of a dataset.
+ * The offerings of these datasets are updated completely, the procedures, observable properties and features are only
+ * added to the cache.
+ *
+ * @since 5.0.2
+ */
+public class ChangedDatasetsCacheUpdate extends AbstractDatasourceCacheUpdate {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangedDatasetsCacheUpdate.class);
+    private final int threads;
+    private final Locale defaultLanguage;
+    private final I18NDAORepository i18NDAORepository;
+    private final HibernateSessionStore sessionStore;
+    private final DateTime since;
+    private final long observationId;
+    private final CacheUpdateTaskTimings taskTimings;
+
+    public ChangedDatasetsCacheUpdate(int threads,
+                                      Locale defaultLanguage,
+                                      I18NDAORepository i18NDAORepository,
+                                      HibernateSessionStore sessionStore,
+                                      DateTime since,
+                                      long observationId,
+                                      CacheUpdateTaskTimings taskTimings) {
+        this.threads = threads;
+        this.defaultLanguage = defaultLanguage;
+        this.i18NDAORepository = i18NDAORepository;
+        this.sessionStore = sessionStore;
+        this.since = since;
+        this.observationId = observationId;
+        this.taskTimings = taskTimings;
+    }
+
+    @Override
+    public void execute() {
+        LOGGER.debug("Executing ChangedDatasetsCacheUpdate");
+        startStopwatch();
+        List<DatasetEntity> datasets;
+        try {
+            datasets = getChangedDatasets();
+        } catch (HibernateException he) {
+            getErrors().add(new NoApplicableCodeException().causedBy(he)
+                    .withMessage("Error while querying changed datasets!"));
+            return;
+        }
+        datasets.forEach(this::addDataset);
+        Set<String> offerings = DatasourceCacheUpdateHelper.getAllOfferingIdentifiersFromDatasetEntitys(datasets);
+        if (!offerings.isEmpty()) {
+            OfferingCacheUpdate update = new OfferingCacheUpdate(this.threads,
+                                                                 this.defaultLanguage,
+                                                                 this.i18NDAORepository,
+                                                                 this.sessionStore,
+                                                                 offerings,
+                                                                 this.taskTimings);
+            update.setCache(getCache());
+            update.setErrors(getErrors());
+            update.setSession(getSession());
+            update.execute();
+        }
+        getCache().recalculatePhenomenonTime();
+        getCache().recalculateResultTime();
+        getCache().recalculateGlobalEnvelope();
+        LOGGER.debug("Finished executing ChangedDatasetsCacheUpdate for {} dataset(s) of {} offering(s) ({})",
+                     datasets.size(), offerings.size(), getStopwatchResult());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DatasetEntity> getChangedDatasets() {
+        return getSession().createCriteria(DatasetEntity.class)
+                .add(Restrictions.eq(DatasetEntity.PROPERTY_DELETED, false))
+                .add(Restrictions.or(Subqueries.propertyIn(DatasetEntity.PROPERTY_ID, getObservationsAfter()),
+                                     Restrictions.ge(DatasetEntity.PROPERTY_LAST_VALUE_AT, since.toDate()),
+                                     Restrictions.ge(DatasetEntity.PROPERTY_FIRST_VALUE_AT, since.toDate())))
+                .list();
+    }
+
+    private DetachedCriteria getObservationsAfter() {
+        return DetachedCriteria.forClass(DataEntity.class)
+                .add(Restrictions.gt(DataEntity.PROPERTY_ID, observationId))
+                .setProjection(Projections.distinct(Projections.property(DataEntity.PROPERTY_DATASET)));
+    }
+
+    /**
+     * Query the greatest observation id, to be passed to the next update.
+     *
+     * @param session
+     *            the session to use
+     * @return the greatest observation id or {@code 0} if there are no observations
+     * @throws HibernateException
+     *             if the query fails
+     */
+    public static long getMaxObservationId(Session session) {
+        Long max = (Long) session.createCriteria(DataEntity.class)
+                .setProjection(Projections.max(DataEntity.PROPERTY_ID))
+                .uniqueResult();
+        return max != null ? max : 0L;
+    }
+
+    private void addDataset(DatasetEntity dataset) {
+        if (dataset.getProcedure() == null || dataset.getOffering() == null || dataset.getPhenomenon() == null) {
+            return;
+        }
+        String procedure = dataset.getProcedure().getIdentifier();
+        String offering = dataset.getOffering().getIdentifier();
+        String observableProperty = dataset.getPhenomenon().getIdentifier();
+        getCache().addProcedure(procedure);
+        getCache().addOfferingForProcedure(procedure, offering);
+        getCache().addObservablePropertyForProcedure(procedure, observableProperty);
+        getCache().addProcedureForObservableProperty(observableProperty, procedure);
+        getCache().addOfferingForObservableProperty(observableProperty, offering);
+        if (dataset.isPublished()) {
+            getCache().addPublishedProcedure(procedure);
+            getCache().addPublishedObservableProperty(observableProperty);
+        }
+        if (dataset.getFeature() != null) {
+            String feature = dataset.getFeature().getIdentifier();
+            getCache().addFeatureOfInterest(feature);
+            getCache().addProcedureForFeatureOfInterest(feature, procedure);
+            if (dataset.isPublished()) {
+                getCache().addPublishedFeatureOfInterest(feature);
+            }
+        }
+        if (dataset.isSetFirstValueAt() && dataset.isSetLastValueAt()) {
+            getCache().updatePhenomenonTimeForProcedure(procedure,
+                    new TimePeriod(new DateTime(dataset.getFirstValueAt(), DateTimeZone.UTC),
+                                   new DateTime(dataset.getLastValueAt(), DateTimeZone.UTC)));
+        }
+    }
+
+}
@@ -66,7 +66,8 @@ public class InitialCacheUpdate extends CompositeCacheUpdate {
                               Locale defaultLocale,
                               I18NDAORepository i18NDAORepository,
                               HibernateSessionStore sessionStore,
-                              OwsServiceMetadataRepository serviceMetadataRepository) {
+                              OwsServiceMetadataRepository serviceMetadataRepository,
+                              CacheUpdateTaskTimings taskTimings) {
         //execute all updates except offerings and procedures in parallel, then execute offering and procedure updates
         //(which spawn their own threads)
         super(new ParallelCacheUpdate(threadCount,
@@ -81,8 +82,10 @@ public class InitialCacheUpdate extends CompositeCacheUpdate {
               new OfferingCacheUpdate(threadCount,
                                       defaultLocale,
                                       i18NDAORepository,
-                                      sessionStore),
-              new ProcedureCacheUpdate(threadCount, sessionStore));
+                                      sessionStore,
+                                      null,
+                                      taskTimings),
+              new ProcedureCacheUpdate(threadCount, sessionStore, taskTimings));
     }
 
 }
@@ -46,6 +46,7 @@ import org.n52.shetland.ogc.ows.exception.NoApplicableCodeException;
 import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
 import org.n52.sos.ds.ApiQueryHelper;
 import org.n52.sos.ds.cache.AbstractQueueingDatasourceCacheUpdate;
+import org.n52.sos.ds.cache.CacheUpdateTaskTimings;
 import org.n52.sos.ds.cache.DatasourceCacheUpdateHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -74,7 +75,11 @@ public class OfferingCacheUpdate extends AbstractQueueingDatasourceCacheUpdate<O
     }
 
     public OfferingCacheUpdate(int threads, Locale defaultLanguage, I18NDAORepository i18NDAORepository, HibernateSessionStore sessionStore, Collection<String> offeringIdsToUpdate) {
-        super(threads, THREAD_GROUP_NAME, sessionStore);
+        this(threads, defaultLanguage, i18NDAORepository, sessionStore, offeringIdsToUpdate, new CacheUpdateTaskTimings());
+    }
+
+    public OfferingCacheUpdate(int threads, Locale defaultLanguage, I18NDAORepository i18NDAORepository, HibernateSessionStore sessionStore, Collection<String> offeringIdsToUpdate, CacheUpdateTaskTimings taskTimings) {
+        super(threads, THREAD_GROUP_NAME, sessionStore, taskTimings);
         if (offeringIdsToUpdate != null) {
             this.offeringsIdToUpdate.addAll(offeringIdsToUpdate);
         }
@@ -111,8 +116,10 @@ public class OfferingCacheUpdate extends AbstractQueueingDatasourceCacheUpdate<O
     private Map<String,Collection<DatasetEntity>> getOfferingDatasets() throws OwsExceptionReport {
         if (offDatasetMap == null) {
             try {
-                offDatasetMap = DatasourceCacheUpdateHelper.mapByOffering(
-                    new DatasetDao(getSession()).get(new DbQuery(IoParameters.createDefaults())));
+                DbQuery query = offeringsIdToUpdate.isEmpty()
+                        ? new DbQuery(IoParameters.createDefaults())
+                        : createDatasetDbQuery(offeringsIdToUpdate);
+                offDatasetMap = DatasourceCacheUpdateHelper.mapByOffering(new DatasetDao(getSession()).get(query));
             } catch (HibernateException dae) {
                 throw new NoApplicableCodeException().causedBy(dae).withMessage("Error while querying datasets for offerings");
             }
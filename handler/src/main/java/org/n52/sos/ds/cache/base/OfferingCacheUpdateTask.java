@@ -29,6 +29,7 @@
 package org.n52.sos.ds.cache.base;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
@@ -37,6 +38,8 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.hibernate.Session;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.locationtech.jts.geom.Envelope;
 import org.n52.iceland.exception.ows.concrete.GenericThrowableWrapperException;
 import org.n52.iceland.i18n.I18NDAO;
@@ -52,6 +55,7 @@ import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
 import org.n52.shetland.util.CollectionHelper;
 import org.n52.shetland.util.DateTimeHelper;
 import org.n52.shetland.util.ReferencedEnvelope;
+import org.n52.sos.cache.DatasetInfo;
 import org.n52.sos.ds.ApiQueryHelper;
 import org.n52.sos.ds.cache.AbstractThreadableDatasourceCacheUpdate;
 import org.n52.sos.ds.cache.DatasourceCacheUpdateHelper;
@@ -147,6 +151,9 @@ public class OfferingCacheUpdateTask extends AbstractThreadableDatasourceCacheUp
         getCache().setMaxPhenomenonTimeForOffering(identifier, DateTimeHelper.makeDateTime(offering.getSamplingTimeEnd()));
         getCache().setMinResultTimeForOffering(identifier, DateTimeHelper.makeDateTime(offering.getResultTimeStart()));
         getCache().setMaxResultTimeForOffering(identifier,DateTimeHelper.makeDateTime(offering.getResultTimeEnd()));
+
+        // Datasets
+        getCache().setDatasetsForOffering(identifier, getDatasets());
     }
 
     protected void addOfferingNamesAndDescriptionsToCache(String identifier, Session session)
@@ -273,11 +280,31 @@ public class OfferingCacheUpdateTask extends AbstractThreadableDatasourceCacheUp
                 .collect(Collectors.toSet());
     }
 
+    private Collection<DatasetInfo> getDatasets() {
+        if (datasets == null) {
+            return Collections.emptySet();
+        }
+        return datasets.stream()
+                .filter(d -> d.isPublished() && !d.isDeleted())
+                .filter(d -> d.isSetFeature() && d.getProcedure() != null && d.getPhenomenon() != null)
+                .filter(d -> d.isSetFirstValueAt() && d.isSetLastValueAt())
+                .map(d -> new DatasetInfo(d.getProcedure().getIdentifier(), d.getPhenomenon().getIdentifier(),
+                        d.getFeature().getIdentifier(), identifier,
+                        new DateTime(d.getFirstValueAt(), DateTimeZone.UTC),
+                        new DateTime(d.getLastValueAt(), DateTimeZone.UTC)))
+                .collect(Collectors.toSet());
+    }
+
     private Collection<String> getFeatureTypes() {
         return datasets.stream().filter(d -> d.isSetFeature()).filter(d -> d.getFeature().isSetFeatureType())
                 .map(d -> d.getFeature().getFeatureType().getFormat()).collect(Collectors.toSet());
     }
 
+    @Override
+    public String getTaskName() {
+        return "offering " + identifier;
+    }
+
     @Override
     public void execute() {
         try {
@@ -46,6 +46,7 @@ import org.n52.shetland.ogc.ows.exception.NoApplicableCodeException;
 import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
 import org.n52.sos.cache.SosContentCache;
 import org.n52.sos.ds.cache.AbstractQueueingDatasourceCacheUpdate;
+import org.n52.sos.ds.cache.CacheUpdateTaskTimings;
 import org.n52.sos.ds.cache.DatasourceCacheUpdateHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,7 +71,16 @@ public class ProcedureCacheUpdate extends AbstractQueueingDatasourceCacheUpdate<
      * @param threads Thread count
      */
     public ProcedureCacheUpdate(int threads, HibernateSessionStore sessionStore) {
-        super(threads, THREAD_GROUP_NAME, sessionStore);
+        this(threads, sessionStore, new CacheUpdateTaskTimings());
+    }
+
+    /**
+     * constructor
+     * @param threads Thread count
+     * @param taskTimings the durations of the procedure tasks
+     */
+    public ProcedureCacheUpdate(int threads, HibernateSessionStore sessionStore, CacheUpdateTaskTimings taskTimings) {
+        super(threads, THREAD_GROUP_NAME, sessionStore, taskTimings);
     }
 
     @SuppressWarnings("unchecked")
@@ -125,6 +125,11 @@ class ProcedureCacheUpdateTask extends AbstractThreadableDatasourceCacheUpdate {
         return new DbQuery(IoParameters.createFromSingleValueMap(map));
     }
 
+    @Override
+    public String getTaskName() {
+        return "procedure " + procedure.getIdentifier();
+    }
+
     @Override
     public void execute() {
         try {
@@ -77,7 +77,7 @@ public class AbstractIdentifierNameDescriptionDAO extends TimeCreator {
                                    ? identifier.getCodeSpace()
                            : OGCConstants.UNKNOWN;
         entity.setIdentifier(value);
-        entity.setIdentifierCodespace(new CodespaceDAO()
+        entity.setIdentifierCodespace(new CodespaceDAO(getReferenceEntityCache())
                 .getOrInsertCodespace(codespace, session));
     }
 
@@ -94,7 +94,7 @@ public class AbstractIdentifierNameDescriptionDAO extends TimeCreator {
         String codespace = name != null && name.isSetCodeSpace()
                                    ? name.getCodeSpace().toString() : OGCConstants.UNKNOWN;
         entity.setName(value);
-        entity.setNameCodespace(new CodespaceDAO()
+        entity.setNameCodespace(new CodespaceDAO(getReferenceEntityCache())
                 .getOrInsertCodespace(codespace, session));
     }
 
@@ -148,7 +148,7 @@ public class AbstractIdentifierNameDescriptionDAO extends TimeCreator {
     }
 
     public void insertNames(AbstractFeatureEntity feature, List<CodeType> name, I18NDAORepository i18nr, Session session) {
-        CodespaceDAO codespaceDAO = new CodespaceDAO();
+        CodespaceDAO codespaceDAO = new CodespaceDAO(getReferenceEntityCache());
         I18NDAO<I18NFeatureMetadata> dao = i18nr.getDAO(I18NFeatureMetadata.class);
         for (CodeType codeType : name) {
             CodespaceEntity codespace = codespaceDAO.getOrInsertCodespace(codeType.getCodeSpace().toString(), session);
@@ -171,4 +171,12 @@ public class AbstractIdentifierNameDescriptionDAO extends TimeCreator {
     public DaoFactory getDaoFactory() {
         return daoFactory;
     }
+
+    /**
+     * @return the reference entity cache of the DAO factory or
+     *         <code>null</code> if none is configured
+     */
+    protected ReferenceEntityCache getReferenceEntityCache() {
+        return daoFactory == null ? null : daoFactory.getReferenceEntityCache();
+    }
 }
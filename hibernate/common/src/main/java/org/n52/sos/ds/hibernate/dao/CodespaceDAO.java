@@ -46,6 +46,20 @@ public class CodespaceDAO {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CodespaceDAO.class);
 
+    private final ReferenceEntityCache referenceEntityCache;
+
+    public CodespaceDAO() {
+        this(null);
+    }
+
+    /**
+     * @param referenceEntityCache
+     *            cache for the ids of the entities, may be <code>null</code>
+     */
+    public CodespaceDAO(ReferenceEntityCache referenceEntityCache) {
+        this.referenceEntityCache = referenceEntityCache;
+    }
+
     /**
      * Get codespace object for identifier
      *
@@ -72,13 +86,20 @@ public class CodespaceDAO {
      * @return Codespace object
      */
     public CodespaceEntity getOrInsertCodespace(final String codespace, final Session session) {
-        CodespaceEntity result = getCodespace(codespace, session);
+        CodespaceEntity result = referenceEntityCache == null ? null
+                : referenceEntityCache.get(CodespaceEntity.class, codespace, CodespaceEntity::getName, session);
         if (result == null) {
-            result = new CodespaceEntity();
-            result.setName(codespace);
-            session.save(result);
-            session.flush();
-            session.refresh(result);
+            result = getCodespace(codespace, session);
+            if (result == null) {
+                result = new CodespaceEntity();
+                result.setName(codespace);
+                session.save(result);
+                session.flush();
+                session.refresh(result);
+            }
+            if (referenceEntityCache != null) {
+                referenceEntityCache.put(CodespaceEntity.class, codespace, result.getId(), session);
+            }
         }
         return result;
     }
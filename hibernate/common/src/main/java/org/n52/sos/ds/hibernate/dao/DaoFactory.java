@@ -88,6 +88,7 @@ public class DaoFactory {
     private GeometryHandler geometryHandler;
     private SweHelper sweHelper;
     private FeatureQueryHandler featureQueryHandler;
+    private ReferenceEntityCache referenceEntityCache;
 
     @Inject
     public void setI18NDAORepository(I18NDAORepository i18NDAORepository) {
@@ -136,6 +137,11 @@ public class DaoFactory {
         this.featureQueryHandler = featureQueryHandler;
     }
 
+    @Inject
+    public void setReferenceEntityCache(ReferenceEntityCache referenceEntityCache) {
+        this.referenceEntityCache = referenceEntityCache;
+    }
+
     public AbstractSeriesDAO getSeriesDAO() {
         if (HibernateHelper.isEntitySupported(EReportingDatasetEntity.class)) {
             return new EReportingSeriesDAO(this);
@@ -215,7 +221,7 @@ public class DaoFactory {
     }
 
     public UnitDAO getUnitDAO() {
-        return new UnitDAO();
+        return new UnitDAO(referenceEntityCache);
     }
 
     public ResultTemplateDAO getResultTemplateDAO() {
@@ -227,15 +233,15 @@ public class DaoFactory {
     }
 
     public CodespaceDAO getCodespaceDAO() {
-        return new CodespaceDAO();
+        return new CodespaceDAO(referenceEntityCache);
     }
 
     public FormatDAO getObservationTypeDAO() {
-        return new FormatDAO();
+        return new FormatDAO(referenceEntityCache);
     }
 
     public FormatDAO getFeatureTypeDAO() {
-        return new FormatDAO();
+        return new FormatDAO(referenceEntityCache);
     }
 
     public OfferingDAO getOfferingDAO() {
@@ -247,7 +253,7 @@ public class DaoFactory {
     }
 
     public FormatDAO getProcedureDescriptionFormatDAO() {
-        return new FormatDAO();
+        return new FormatDAO(referenceEntityCache);
     }
 
     public I18NDAORepository getI18NDAORepository() {
@@ -266,4 +272,8 @@ public class DaoFactory {
         return featureQueryHandler;
     }
 
+    public ReferenceEntityCache getReferenceEntityCache() {
+        return referenceEntityCache;
+    }
+
 }
@@ -37,7 +37,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import org.hibernate.Criteria;import org.hibernate.query.Query;
+import org.hibernate.Criteria;
+import org.hibernate.query.Query;
 import org.hibernate.Session;
 import org.hibernate.criterion.DetachedCriteria;
 import org.hibernate.criterion.Projections;
@@ -303,7 +304,7 @@ public class FeatureOfInterestDAO extends AbstractFeatureOfInterestDAO {
                 feature.setUrl(url);
             }
             FormatEntity type =
-                    new FormatDAO().getOrInsertFormatEntity(OGCConstants.UNKNOWN, session);
+                    new FormatDAO(getReferenceEntityCache()).getOrInsertFormatEntity(OGCConstants.UNKNOWN, session);
             feature.setFeatureType(type);
             session.save(feature);
         } else if (feature.getUrl() != null && !feature.getUrl().isEmpty() && url != null && !url.isEmpty()) {
@@ -452,7 +453,7 @@ public class FeatureOfInterestDAO extends AbstractFeatureOfInterestDAO {
                 }
                 if (abstractFeature instanceof FeatureWithFeatureType
                         && ((FeatureWithFeatureType) abstractFeature).isSetFeatureType()) {
-                    feature.setFeatureType(new FormatDAO().getOrInsertFormatEntity(
+                    feature.setFeatureType(new FormatDAO(getReferenceEntityCache()).getOrInsertFormatEntity(
                             ((FeatureWithFeatureType) abstractFeature).getFeatureType(), session));
                 }
                 if (abstractFeature instanceof AbstractSamplingFeature && ((AbstractSamplingFeature) abstractFeature).isSetParameter()) {
@@ -488,7 +489,9 @@ public class FeatureOfInterestDAO extends AbstractFeatureOfInterestDAO {
         }
 
         private UnitEntity getUnit(Value<?> value) {
-            return value.isSetUnit() ? new UnitDAO().getOrInsertUnit(value.getUnitObject(), session) : null;
+            return value.isSetUnit()
+                    ? new UnitDAO(getReferenceEntityCache()).getOrInsertUnit(value.getUnitObject(), session)
+                    : null;
         }
 
         private AbstractFeatureEntity getFeatureOfInterest(AbstractSamplingFeature value) throws OwsExceptionReport {
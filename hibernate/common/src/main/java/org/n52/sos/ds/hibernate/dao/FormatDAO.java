@@ -53,6 +53,20 @@ public class FormatDAO {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FormatDAO.class);
 
+    private final ReferenceEntityCache referenceEntityCache;
+
+    public FormatDAO() {
+        this(null);
+    }
+
+    /**
+     * @param referenceEntityCache
+     *            cache for the ids of the entities, may be <code>null</code>
+     */
+    public FormatDAO(ReferenceEntityCache referenceEntityCache) {
+        this.referenceEntityCache = referenceEntityCache;
+    }
+
     @SuppressWarnings("unchecked")
     public List<String> getFormatEntity(Session session) {
         Criteria c = session.createCriteria(FormatEntity.class);
@@ -110,13 +124,19 @@ public class FormatDAO {
      */
     public FormatEntity getOrInsertFormatEntity(String format,
             Session session) {
-        FormatEntity hFormatEntity =
-                getFormatEntityObject(format, session);
+        FormatEntity hFormatEntity = referenceEntityCache == null ? null
+                : referenceEntityCache.get(FormatEntity.class, format, FormatEntity::getFormat, session);
         if (hFormatEntity == null) {
-            hFormatEntity = new FormatEntity();
-            hFormatEntity.setFormat(format);
-            session.save(hFormatEntity);
-            session.flush();
+            hFormatEntity = getFormatEntityObject(format, session);
+            if (hFormatEntity == null) {
+                hFormatEntity = new FormatEntity();
+                hFormatEntity.setFormat(format);
+                session.save(hFormatEntity);
+                session.flush();
+            }
+            if (referenceEntityCache != null) {
+                referenceEntityCache.put(FormatEntity.class, format, hFormatEntity.getId(), session);
+            }
         }
         return hFormatEntity;
     }
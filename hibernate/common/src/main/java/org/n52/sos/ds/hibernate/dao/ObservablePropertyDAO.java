@@ -264,14 +264,23 @@ public class ObservablePropertyDAO extends AbstractIdentifierNameDescriptionDAO
     }
 
     public PhenomenonEntity getOrInsertObservableProperty(AbstractPhenomenon observableProperty, Session session) {
-        PhenomenonEntity obsProp = getObservablePropertyForIdentifier(observableProperty.getIdentifier(), session);
+        ReferenceEntityCache cache = getReferenceEntityCache();
+        PhenomenonEntity obsProp = cache == null ? null
+                : cache.get(PhenomenonEntity.class, observableProperty.getIdentifier(),
+                        PhenomenonEntity::getIdentifier, session);
         if (obsProp == null) {
-            obsProp = new PhenomenonEntity();
-            addIdentifierNameDescription(observableProperty, obsProp, session);
-            obsProp.setHiddenChild(false);
-            session.save(obsProp);
-            session.flush();
-            session.refresh(obsProp);
+            obsProp = getObservablePropertyForIdentifier(observableProperty.getIdentifier(), session);
+            if (obsProp == null) {
+                obsProp = new PhenomenonEntity();
+                addIdentifierNameDescription(observableProperty, obsProp, session);
+                obsProp.setHiddenChild(false);
+                session.save(obsProp);
+                session.flush();
+                session.refresh(obsProp);
+            }
+            if (cache != null) {
+                cache.put(PhenomenonEntity.class, observableProperty.getIdentifier(), obsProp.getId(), session);
+            }
         }
         return obsProp;
     }
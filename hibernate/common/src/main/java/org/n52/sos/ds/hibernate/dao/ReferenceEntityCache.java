@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.dao;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.resource.transaction.spi.TransactionStatus;
+import org.n52.faroe.annotation.Configurable;
+import org.n52.faroe.annotation.Setting;
+import org.n52.sos.service.SosSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded in-process cache that maps the natural keys of rarely changing
+ * reference entities (formats, units, codespaces, phenomena) to their database
+ * ids, so that they are loaded by id instead of being queried by their natural
+ * key.
+ *
+ * Keys found or inserted within an active transaction are only added after the
+ * transaction is committed, so rolled back inserts never end up in the cache.
+ * A cached entity that no longer exists or whose natural key changed (e.g.
+ * deleted or modified by another service instance) is evicted on lookup and
+ * the caller falls back to the query. The cache is disabled until it is
+ * enabled by the setting.
+ *
+ * @since 5.0.2
+ */
+@Configurable
+public class ReferenceEntityCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceEntityCache.class);
+
+    private static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private final ConcurrentMap<Class<?>, Map<String, Long>> ids = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private volatile boolean enabled;
+
+    public ReferenceEntityCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public ReferenceEntityCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Setting(SosSettings.REFERENCE_ENTITY_CACHE)
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            clear();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the cached entity. The entity is loaded by its id and returned only
+     * if it still exists and has the requested natural key, otherwise the key
+     * is evicted.
+     *
+     * @param <T>
+     *            the entity type
+     * @param type
+     *            the entity class
+     * @param key
+     *            the natural key of the entity
+     * @param naturalKey
+     *            function to get the natural key of a loaded entity
+     * @param session
+     *            Hibernate session
+     * @return the entity or <code>null</code> if the key is not cached
+     */
+    public <T> T get(Class<T> type, String key, Function<? super T, String> naturalKey, Session session) {
+        if (!enabled || key == null) {
+            return null;
+        }
+        Long id = getIds(type).get(key);
+        if (id == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        T entity = session.get(type, id);
+        if (entity == null || !key.equals(naturalKey.apply(entity))) {
+            LOGGER.debug("Evicting stale {} '{}' with id {}", type.getSimpleName(), key, id);
+            evict(type, key);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entity;
+    }
+
+    /**
+     * Add the id of an entity to the cache, after the current transaction of
+     * the session is committed.
+     *
+     * @param type
+     *            the entity class
+     * @param key
+     *            the natural key of the entity
+     * @param id
+     *            the id of the entity
+     * @param session
+     *            Hibernate session
+     */
+    public void put(Class<?> type, String key, Long id, Session session) {
+        if (!enabled || key == null || id == null) {
+            return;
+        }
+        Transaction transaction = session.getTransaction();
+        if (transaction != null && transaction.getStatus() == TransactionStatus.ACTIVE) {
+            transaction.registerSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == Status.STATUS_COMMITTED && enabled) {
+                        getIds(type).put(key, id);
+                    }
+                }
+            });
+        } else {
+            getIds(type).put(key, id);
+        }
+    }
+
+    /**
+     * Remove an entity from the cache.
+     *
+     * @param type
+     *            the entity class
+     * @param key
+     *            the natural key of the entity
+     */
+    public void evict(Class<?> type, String key) {
+        getIds(type).remove(key);
+    }
+
+    /**
+     * Remove all entities from the cache.
+     */
+    public void clear() {
+        LOGGER.debug("Clearing reference entity cache ({} hits, {} misses)", hits.get(), misses.get());
+        ids.values().forEach(Map::clear);
+    }
+
+    /**
+     * @return the number of lookups answered from this cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups that were not cached
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private Map<String, Long> getIds(Class<?> type) {
+        return ids.computeIfAbsent(type, t -> Collections.synchronizedMap(new LinkedHashMap<String, Long>(16, 0.75f,
+                true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        }));
+    }
+}
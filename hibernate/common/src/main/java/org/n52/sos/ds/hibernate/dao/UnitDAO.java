@@ -49,6 +49,20 @@ public class UnitDAO {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UnitDAO.class);
 
+    private final ReferenceEntityCache referenceEntityCache;
+
+    public UnitDAO() {
+        this(null);
+    }
+
+    /**
+     * @param referenceEntityCache
+     *            cache for the ids of the entities, may be <code>null</code>
+     */
+    public UnitDAO(ReferenceEntityCache referenceEntityCache) {
+        this.referenceEntityCache = referenceEntityCache;
+    }
+
     public List<UnitEntity> getUnits(Session session) {
         Criteria criteria = session.createCriteria(UnitEntity.class);
         LOGGER.debug("QUERY getUnits(): {}", HibernateHelper.getSqlString(criteria));
@@ -108,19 +122,26 @@ public class UnitDAO {
      * @return Unit object
      */
     public UnitEntity getOrInsertUnit(UoM unit, Session session) {
-        UnitEntity result = getUnit(unit.getUom(), session);
+        UnitEntity result = referenceEntityCache == null ? null
+                : referenceEntityCache.get(UnitEntity.class, unit.getUom(), UnitEntity::getUnit, session);
         if (result == null) {
-            result = new UnitEntity();
-            result.setUnit(unit.getUom());
-            if (unit.isSetName()) {
-                result.setName(unit.getName());
+            result = getUnit(unit.getUom(), session);
+            if (result == null) {
+                result = new UnitEntity();
+                result.setUnit(unit.getUom());
+                if (unit.isSetName()) {
+                    result.setName(unit.getName());
+                }
+                if (unit.isSetLink()) {
+                    result.setLink(unit.getLink());
+                }
+                session.save(result);
+                session.flush();
+                session.refresh(result);
             }
-            if (unit.isSetLink()) {
-                result.setLink(unit.getLink());
+            if (referenceEntityCache != null) {
+                referenceEntityCache.put(UnitEntity.class, unit.getUom(), result.getId(), session);
             }
-            session.save(result);
-            session.flush();
-            session.refresh(result);
         }
         return result;
     }
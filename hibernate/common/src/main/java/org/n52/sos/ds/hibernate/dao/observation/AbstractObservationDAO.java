@@ -289,7 +289,8 @@ public abstract class AbstractObservationDAO
     public ResultFilterClasses getResultFilterClasses() {
         return new ResultFilterClasses(getObservationFactory().numericClass(), getObservationFactory().countClass(),
                 getObservationFactory().textClass(), getObservationFactory().categoryClass(),
-                getObservationFactory().complexClass(), getObservationFactory().profileClass());
+                getObservationFactory().complexClass(), getObservationFactory().profileClass(),
+                getObservationFactory().truthClass());
     }
 
     /**
@@ -567,10 +568,34 @@ public abstract class AbstractObservationDAO
             AbstractFeatureEntity feature, OmObservation containerObservation,
                                             Map<String, CodespaceEntity> codespaceCache,
                                             Map<UoM, UnitEntity> unitCache, Session session) throws OwsExceptionReport {
+        insertObservationMultiValue(observationConstellation, feature, containerObservation,
+                new ObservationLookupCache(codespaceCache, unitCache), session);
+    }
+
+    /**
+     * Insert a multi value observation for observation constellations and
+     * featureOfInterest with a request scoped lookup cache
+     *
+     * @param observationConstellation
+     *                                  Observation constellation objects
+     * @param feature
+     *                                  FeatureOfInterest object
+     * @param containerObservation
+     *                                  SOS observation
+     * @param lookupCache
+     *                                  Cache for the referenced entities to prevent redundant queries
+     * @param session
+     *                                  Hibernate session
+     *
+     * @throws OwsExceptionReport
+     *                            If an error occurs
+     */
+    public void insertObservationMultiValue(DatasetEntity observationConstellation,
+            AbstractFeatureEntity feature, OmObservation containerObservation,
+            ObservationLookupCache lookupCache, Session session) throws OwsExceptionReport {
         List<OmObservation> unfoldObservations = new ObservationUnfolder(containerObservation, getDaoFactory().getSweHelper()).unfold();
         for (OmObservation sosObservation : unfoldObservations) {
-            insertObservationSingleValue(observationConstellation, feature, sosObservation, codespaceCache, unitCache,
-                                         session);
+            insertObservationSingleValue(observationConstellation, feature, sosObservation, lookupCache, session);
         }
     }
 
@@ -615,12 +640,38 @@ public abstract class AbstractObservationDAO
      *
      * @throws OwsExceptionReport
      */
-    @SuppressWarnings("rawtypes")
     public void insertObservationSingleValue(DatasetEntity hObservationConstellation,
                                              AbstractFeatureEntity hFeature, OmObservation sosObservation,
                                              Map<String, CodespaceEntity> codespaceCache,
                                              Map<UoM, UnitEntity> unitCache, Session session)
             throws OwsExceptionReport {
+        insertObservationSingleValue(hObservationConstellation, hFeature, sosObservation,
+                new ObservationLookupCache(codespaceCache, unitCache), session);
+    }
+
+    /**
+     * Insert a single observation for observation constellations and
+     * featureOfInterest with a request scoped lookup cache
+     *
+     * @param hObservationConstellation
+     *                                   Observation constellation objects
+     * @param hFeature
+     *                                   FeatureOfInterest object
+     * @param sosObservation
+     *                                   SOS observation to insert
+     * @param lookupCache
+     *                                   Cache for the referenced entities (to prevent redundant
+     *                                   querying)
+     * @param session
+     *                                   Hibernate session
+     *
+     * @throws OwsExceptionReport
+     */
+    @SuppressWarnings("rawtypes")
+    public void insertObservationSingleValue(DatasetEntity hObservationConstellation,
+                                             AbstractFeatureEntity hFeature, OmObservation sosObservation,
+                                             ObservationLookupCache lookupCache, Session session)
+            throws OwsExceptionReport {
         SingleObservationValue<?> value
                 = (SingleObservationValue) sosObservation.getValue();
         ObservationPersister persister = new ObservationPersister(
@@ -630,8 +681,7 @@ public abstract class AbstractObservationDAO
                 sosObservation,
                 hObservationConstellation,
                 hFeature,
-                codespaceCache,
-                unitCache,
+                lookupCache,
                 getOfferings(hObservationConstellation),
                 session
         );
@@ -670,7 +720,8 @@ public abstract class AbstractObservationDAO
             return localCache.get(codespace);
         } else {
             // query codespace and set cache
-            CodespaceEntity hCodespace = new CodespaceDAO().getOrInsertCodespace(codespace, session);
+            CodespaceEntity hCodespace =
+                    new CodespaceDAO(getReferenceEntityCache()).getOrInsertCodespace(codespace, session);
             if (localCache != null) {
                 localCache.put(codespace, hCodespace);
             }
@@ -708,7 +759,7 @@ public abstract class AbstractObservationDAO
             return localCache.get(unit);
         } else {
             // query unit and set cache
-            UnitEntity hUnit = new UnitDAO().getOrInsertUnit(unit, session);
+            UnitEntity hUnit = new UnitDAO(getReferenceEntityCache()).getOrInsertUnit(unit, session);
             if (localCache != null) {
                 localCache.put(unit, hUnit);
             }
@@ -29,11 +29,13 @@
 package org.n52.sos.ds.hibernate.dao.observation;
 
 import java.sql.Timestamp;
+import java.util.Date;
 
 import org.hibernate.Criteria;
 import org.hibernate.FetchMode;
 import org.hibernate.Session;
 import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Projection;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
@@ -115,7 +117,8 @@ public abstract class AbstractValueDAO extends TimeCreator {
     protected ResultFilterClasses getResultFilterClasses() {
         return new ResultFilterClasses(getValuedObservationFactory().numericClass(), getValuedObservationFactory().countClass(),
                 getValuedObservationFactory().textClass(), getValuedObservationFactory().categoryClass(),
-                getValuedObservationFactory().complexClass(), getValuedObservationFactory().profileClass());
+                getValuedObservationFactory().complexClass(), getValuedObservationFactory().profileClass(),
+                getValuedObservationFactory().truthClass());
     }
 
 
@@ -208,6 +211,45 @@ public abstract class AbstractValueDAO extends TimeCreator {
         }
     }
 
+    /**
+     * Add keyset (seek) chunk information to {@link Criteria}. Instead of
+     * skipping the previous rows with an offset, the query continues after the
+     * order column value and id of the last entity of the previous chunk. The
+     * id is used as tie breaker to get a stable order.
+     *
+     * @param c
+     *            {@link Criteria} to add information
+     * @param chunkSize
+     *            Chunk size
+     * @param lastEntity
+     *            Last entity of the previous chunk, <code>null</code> for the
+     *            first chunk
+     * @param request
+     * @param logArgs
+     */
+    protected void addKeysetChunkValuesToCriteria(Criteria c, int chunkSize, DataEntity<?> lastEntity,
+            AbstractObservationRequest request, StringBuilder logArgs) {
+        if (chunkSize > 0) {
+            c.addOrder(Order.asc(DataEntity.PROPERTY_ID));
+            if (lastEntity != null) {
+                String orderColumn = getOrderColumn(request);
+                Date lastTime = getOrderColumnValue(orderColumn, lastEntity);
+                c.add(Restrictions.or(Restrictions.gt(orderColumn, lastTime),
+                        Restrictions.and(Restrictions.eq(orderColumn, lastTime),
+                                Restrictions.gt(DataEntity.PROPERTY_ID, lastEntity.getId()))));
+            }
+            c.setMaxResults(chunkSize);
+            logArgs.append(", keysetChunk(" + (lastEntity != null ? lastEntity.getId() : "") + "," + chunkSize + ")");
+        }
+    }
+
+    private Date getOrderColumnValue(String orderColumn, DataEntity<?> entity) {
+        if (DataEntity.PROPERTY_RESULT_TIME.equals(orderColumn)) {
+            return entity.getResultTime();
+        }
+        return entity.getSamplingTimeStart();
+    }
+
     protected String getOrderColumn(AbstractObservationRequest request) {
         if (request instanceof GetObservationRequest) {
             if (((GetObservationRequest)request).isSetTemporalFilter()) {
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.dao.observation;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.n52.series.db.beans.CodespaceEntity;
+import org.n52.series.db.beans.FormatEntity;
+import org.n52.series.db.beans.PhenomenonEntity;
+import org.n52.series.db.beans.UnitEntity;
+import org.n52.shetland.ogc.UoM;
+
+/**
+ * Request scoped cache for the entities an observation refers to (formats,
+ * phenomena, units and codespaces), so that repeated values are queried only
+ * once per request.
+ *
+ * @since 5.0.2
+ */
+public class ObservationLookupCache {
+
+    private final Map<String, CodespaceEntity> codespaces;
+
+    private final Map<UoM, UnitEntity> units;
+
+    private final Map<String, FormatEntity> formats = new HashMap<>();
+
+    private final Map<String, PhenomenonEntity> phenomena = new HashMap<>();
+
+    private long hits;
+
+    private long misses;
+
+    public ObservationLookupCache() {
+        this(null, null);
+    }
+
+    /**
+     * @param codespaces
+     *            existing codespace cache (possibly null)
+     * @param units
+     *            existing unit cache (possibly null)
+     */
+    public ObservationLookupCache(Map<String, CodespaceEntity> codespaces, Map<UoM, UnitEntity> units) {
+        this.codespaces = codespaces != null ? codespaces : new HashMap<>();
+        this.units = units != null ? units : new HashMap<>();
+    }
+
+    public Map<String, CodespaceEntity> getCodespaces() {
+        return codespaces;
+    }
+
+    public Map<UoM, UnitEntity> getUnits() {
+        return units;
+    }
+
+    public UnitEntity getUnit(UoM unit, Function<UoM, UnitEntity> loader) {
+        return lookup(units, unit, loader);
+    }
+
+    public FormatEntity getFormat(String format, Function<String, FormatEntity> loader) {
+        return lookup(formats, format, loader);
+    }
+
+    public PhenomenonEntity getPhenomenon(String identifier, Function<String, PhenomenonEntity> loader) {
+        return lookup(phenomena, identifier, loader);
+    }
+
+    /**
+     * @return the number of lookups answered from this cache
+     */
+    public long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups that had to query the database
+     */
+    public long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * @return the ratio of lookups answered from this cache
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    private <K, V> V lookup(Map<K, V> cache, K key, Function<K, V> loader) {
+        V value = cache.get(key);
+        if (value != null) {
+            hits++;
+            return value;
+        }
+        misses++;
+        value = loader.apply(key);
+        if (value != null) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s [hits=%d, misses=%d, hitRate=%.2f]", getClass().getSimpleName(),
+                hits, misses, getHitRate());
+    }
+}
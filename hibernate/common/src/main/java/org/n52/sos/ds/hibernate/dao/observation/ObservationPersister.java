@@ -106,7 +106,7 @@ public class ObservationPersister implements ValueVisitor<Data<?>, OwsExceptionR
 
     private final DatasetEntity dataset;
     private final AbstractFeatureEntity featureOfInterest;
-    private final Caches caches;
+    private final ObservationLookupCache caches;
     private final Session session;
     private final Geometry samplingGeometry;
     private final DAOs daos;
@@ -128,13 +128,27 @@ public class ObservationPersister implements ValueVisitor<Data<?>, OwsExceptionR
             Map<UoM, UnitEntity> unitCache,
             Set<OfferingEntity> hOfferings,
             Session session) throws OwsExceptionReport {
-        this(geometryHandler, new DAOs(observationDao, daoFactory), new Caches(codespaceCache, unitCache),
+        this(geometryHandler, observationDao, daoFactory, sosObservation, hDataset, hFeature,
+                new ObservationLookupCache(codespaceCache, unitCache), hOfferings, session);
+    }
+
+    public ObservationPersister(
+            GeometryHandler geometryHandler,
+            AbstractObservationDAO observationDao,
+            DaoFactory daoFactory,
+            OmObservation sosObservation,
+            DatasetEntity hDataset,
+            AbstractFeatureEntity hFeature,
+            ObservationLookupCache lookupCache,
+            Set<OfferingEntity> hOfferings,
+            Session session) throws OwsExceptionReport {
+        this(geometryHandler, new DAOs(observationDao, daoFactory), lookupCache,
                 sosObservation, hDataset, hFeature, null, hOfferings, session, false);
     }
 
     private ObservationPersister(
             GeometryHandler geometryHandler,
-            DAOs daos, Caches caches,
+            DAOs daos, ObservationLookupCache caches,
             OmObservation observation,
             DatasetEntity hDataset,
             AbstractFeatureEntity hFeature,
@@ -277,14 +291,14 @@ public class ObservationPersister implements ValueVisitor<Data<?>, OwsExceptionR
             profile.setVerticalFrom(value.getFromLevel().getValue());
             profile.setVerticalFromName(value.getFromLevel().getDefinition());
             if (value.getFromLevel().isSetUom()) {
-                profile.setVerticalUnit(getUnit(value.getFromLevel().getUomObject(), caches.units, session));
+                profile.setVerticalUnit(getUnit(value.getFromLevel().getUomObject()));
             }
         }
         if (value.isSetToLevel()) {
             profile.setVerticalTo(value.getToLevel().getValue());
             profile.setVerticalToName(value.getToLevel().getDefinition());
             if (!profile.hasVerticalUnit() && value.getToLevel().isSetUom()) {
-                profile.setVerticalUnit(getUnit(value.getToLevel().getUomObject(), caches.units, session));
+                profile.setVerticalUnit(getUnit(value.getToLevel().getUomObject()));
             }
         }
         omObservation.getValue().setPhenomenonTime(value.getPhenomenonTime());
@@ -408,7 +422,12 @@ public class ObservationPersister implements ValueVisitor<Data<?>, OwsExceptionR
     }
 
     private PhenomenonEntity  getObservableProperty(AbstractPhenomenon observableProperty) {
-        return daos.observableProperty().getOrInsertObservableProperty(observableProperty, session);
+        return caches.getPhenomenon(observableProperty.getIdentifier(),
+                identifier -> daos.observableProperty().getOrInsertObservableProperty(observableProperty, session));
+    }
+
+    private UnitEntity getUnit(UoM unit) {
+        return caches.getUnit(unit, uom -> daos.unit().getOrInsertUnit(uom, session));
     }
 
     private <V, T extends Data<V>> T setUnitAndPersist(T observation, Value<V> value) throws OwsExceptionReport {
@@ -450,7 +469,8 @@ public class ObservationPersister implements ValueVisitor<Data<?>, OwsExceptionR
             }
         }
 
-        observationContext.setObservationType(daos.observationType().getOrInsertFormatEntity(observationType, session));
+        observationContext.setObservationType(caches.getFormat(observationType,
+                format -> daos.observationType().getOrInsertFormatEntity(format, session)));
 
         if (dataset != null) {
             observationContext.setPhenomenon(dataset.getObservableProperty());
@@ -467,7 +487,7 @@ public class ObservationPersister implements ValueVisitor<Data<?>, OwsExceptionR
         daos.observation().addObservationContextToObservation(observationContext, observation, session);
         if (omObservation.isSetParameter()) {
             Set<Parameter<?>> insertParameter = daos.parameter().insertParameter(omObservation.getParameter(),
-                    caches.units, session);
+                    caches.getUnits(), session);
             observation.setParameters(insertParameter);
         }
         session.saveOrUpdate(observation);
@@ -527,62 +547,6 @@ public class ObservationPersister implements ValueVisitor<Data<?>, OwsExceptionR
         return true;
     }
 
-    /**
-     * If the local unit cache isn't null, use it when retrieving unit.
-     *
-     * @param unit
-     *            Unit
-     * @param localCache
-     *            Cache (possibly null)
-     * @param session
-     * @return Unit
-     */
-    protected UnitEntity getUnit(String unit, Map<UoM, UnitEntity> localCache, Session session) {
-       return getUnit(new UoM(unit), localCache, session);
-    }
-
-    /**
-     * If the local unit cache isn't null, use it when retrieving unit.
-     *
-     * @param unit
-     *            Unit
-     * @param localCache
-     *            Cache (possibly null)
-     * @param session
-     * @return Unit
-     */
-    protected UnitEntity getUnit(UoM unit, Map<UoM, UnitEntity> localCache, Session session) {
-        if (localCache != null && localCache.containsKey(unit)) {
-            return localCache.get(unit);
-        } else {
-            // query unit and set cache
-            UnitEntity hUnit = daos.unit.getOrInsertUnit(unit, session);
-            if (localCache != null) {
-                localCache.put(unit, hUnit);
-            }
-            return hUnit;
-        }
-}
-
-    private static class Caches {
-        private final Map<String, CodespaceEntity> codespaces;
-
-        private final Map<UoM, UnitEntity> units;
-
-        Caches(Map<String, CodespaceEntity> codespaces, Map<UoM, UnitEntity> units) {
-            this.codespaces = codespaces;
-            this.units = units;
-        }
-
-        public Map<String, CodespaceEntity> codespaces() {
-            return codespaces;
-        }
-
-        public Map<UoM, UnitEntity> units() {
-            return units;
-        }
-    }
-
     private static class DAOs {
         private final ObservablePropertyDAO observableProperty;
         private final AbstractObservationDAO observation;
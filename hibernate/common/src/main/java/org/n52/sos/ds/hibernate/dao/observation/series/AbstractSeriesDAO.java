@@ -1008,7 +1008,8 @@ public abstract class AbstractSeriesDAO
     public ResultFilterClasses getResultFilterClasses() {
         return new ResultFilterClasses(getObservationFactory().numericClass(), getObservationFactory().countClass(),
                 getObservationFactory().textClass(), getObservationFactory().categoryClass(),
-                getObservationFactory().complexClass(), getObservationFactory().profileClass());
+                getObservationFactory().complexClass(), getObservationFactory().profileClass(),
+                getObservationFactory().truthClass());
     }
 
     protected boolean isIncludeChildObservableProperties() {
@@ -217,6 +217,40 @@ public abstract class AbstractSeriesValueDAO extends AbstractValueDAO {
         }
     }
 
+    /**
+     * Query streaming value for parameter as keyset chunk {@link List}. The
+     * chunk starts after the last entity of the previous chunk, so the costs
+     * per chunk do not grow with the number of already queried values.
+     *
+     * @param request
+     *            {@link AbstractObservationRequest}
+     * @param series
+     *            Datasource series id
+     * @param temporalFilterCriterion
+     *            Temporal filter {@link Criterion}, may be <code>null</code>
+     * @param chunkSize
+     *            chunk size
+     * @param lastEntity
+     *            Last entity of the previous chunk, <code>null</code> for the
+     *            first chunk
+     * @param session
+     *            Hibernate Session
+     * @return Resulting chunk {@link List}
+     * @throws OwsExceptionReport
+     *             If an error occurs when querying
+     */
+    @SuppressWarnings("unchecked")
+    public List<DataEntity<?>> getStreamingSeriesValuesAfter(AbstractObservationRequest request, long series,
+            Criterion temporalFilterCriterion, int chunkSize, DataEntity<?> lastEntity, Session session)
+            throws OwsExceptionReport {
+        StringBuilder logArgs = new StringBuilder();
+        Criteria c = getSeriesValueCriteriaFor(request, series, temporalFilterCriterion, session, logArgs);
+        addKeysetChunkValuesToCriteria(c, chunkSize, lastEntity, request, logArgs);
+        LOGGER.debug("QUERY getStreamingSeriesValuesAfter({}): {}", logArgs.toString(),
+                HibernateHelper.getSqlString(c));
+        return (List<DataEntity<?>>) c.list();
+    }
+
     /**
      * Get {@link Criteria} for parameter
      *
@@ -28,6 +28,7 @@
  */
 package org.n52.sos.ds.hibernate.util;
 
+import org.n52.series.db.beans.data.Data.BooleanData;
 import org.n52.series.db.beans.data.Data.CategoryData;
 import org.n52.series.db.beans.data.Data.ComplexData;
 import org.n52.series.db.beans.data.Data.CountData;
@@ -43,6 +44,7 @@ public class ResultFilterClasses {
     public Class<? extends CategoryData> category;
     public Class<? extends ComplexData> complex;
     public Class<? extends ProfileData> profile;
+    public Class<? extends BooleanData> truth;
 
 
     /**
@@ -65,6 +67,24 @@ public class ResultFilterClasses {
         this.profile = profile;
     }
 
+    /**
+     * @param numeric
+     * @param count
+     * @param text
+     * @param category
+     * @param complex
+     * @param profile
+     * @param truth
+     */
+    public ResultFilterClasses(
+            Class<? extends QuantityData> numeric, Class<? extends CountData> count,
+            Class<? extends TextData> text, Class<? extends CategoryData> category,
+            Class<? extends ComplexData> complex, Class<? extends ProfileData> profile,
+            Class<? extends BooleanData> truth) {
+        this(numeric, count, text, category, complex, profile);
+        this.truth = truth;
+    }
+
     /**
      * @return the numeric
      */
@@ -93,6 +113,13 @@ public class ResultFilterClasses {
         return category;
     }
 
+    /**
+     * @return the truth
+     */
+    public Class<? extends BooleanData> getTruth() {
+        return truth;
+    }
+
     /**
      * @return the complex
      */
@@ -88,6 +88,12 @@ public class ResultFilterRestrictions {
                     complexList.add(createEqDC(createDC(resultFilterClasses.getText()), resultFilter.getValue(),
                            DataEntity.PROPERTY_ID));
                 }
+                if (isBoolean(resultFilter.getValue()) && resultFilterClasses.getTruth() != null) {
+                    list.add(createEqDC(createDC(resultFilterClasses.getTruth()),
+                            Boolean.parseBoolean(resultFilter.getValue()), column));
+                    complexList.add(createEqDC(createDC(resultFilterClasses.getTruth()),
+                            Boolean.parseBoolean(resultFilter.getValue()), DataEntity.PROPERTY_ID));
+                }
                 break;
             case PropertyIsBetween:
                 if (isCount(resultFilter.getValue()) && isCount(resultFilter.getValueUpper())) {
@@ -238,6 +244,10 @@ public class ResultFilterRestrictions {
         return true;
     }
 
+    private static boolean isBoolean(String value) {
+        return Boolean.TRUE.toString().equalsIgnoreCase(value) || Boolean.FALSE.toString().equalsIgnoreCase(value);
+    }
+
     private static Criterion getSubquery(DetachedCriteria dc, String column) {
         return Subqueries.propertyIn(column, dc);
     }
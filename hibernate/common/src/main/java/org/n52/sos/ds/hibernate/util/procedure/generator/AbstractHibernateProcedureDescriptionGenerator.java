@@ -259,7 +259,7 @@ public abstract class AbstractHibernateProcedureDescriptionGenerator implements
         SortedSet<String> props = new TreeSet<>();
         Set<String> obsProps = getCache().getObservablePropertiesForProcedure(identifier);
         for (String obsProp : obsProps) {
-            if (getCache().getPublishedObservableProperties().contains(obsProp)) {
+            if (getCache().hasPublishedObservableProperty(obsProp)) {
                 props.add(obsProp);
             }
         }
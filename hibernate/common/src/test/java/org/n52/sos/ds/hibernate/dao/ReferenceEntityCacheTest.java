@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.dao;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.resource.transaction.spi.TransactionStatus;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.n52.series.db.beans.FormatEntity;
+
+public class ReferenceEntityCacheTest {
+
+    private static final String FORMAT = "http://www.opengis.net/def/observationType/OGC-OM/2.0/OM_Measurement";
+
+    private static final Long ID = 1L;
+
+    private Session session;
+
+    private Transaction transaction;
+
+    private ReferenceEntityCache cache;
+
+    @Before
+    public void setUp() {
+        session = mock(Session.class);
+        transaction = mock(Transaction.class);
+        when(session.getTransaction()).thenReturn(transaction);
+        when(transaction.getStatus()).thenReturn(TransactionStatus.NOT_ACTIVE);
+        cache = new ReferenceEntityCache();
+        cache.setEnabled(true);
+    }
+
+    @Test
+    public void shouldMissUnknownKey() {
+        assertThat(get(FORMAT), is(nullValue()));
+        assertThat(cache.getMissCount(), is(1L));
+        verify(session, never()).get(any(Class.class), any(Serializable.class));
+    }
+
+    @Test
+    public void shouldHitCachedKey() {
+        FormatEntity entity = format(FORMAT);
+        when(session.get(FormatEntity.class, ID)).thenReturn(entity);
+        cache.put(FormatEntity.class, FORMAT, ID, session);
+        assertThat(cache.get(FormatEntity.class, FORMAT, FormatEntity::getFormat, session),
+                is(sameInstance(entity)));
+        assertThat(cache.getHitCount(), is(1L));
+    }
+
+    @Test
+    public void shouldAddKeyAfterCommit() {
+        when(transaction.getStatus()).thenReturn(TransactionStatus.ACTIVE);
+        when(session.get(FormatEntity.class, ID)).thenReturn(format(FORMAT));
+        cache.put(FormatEntity.class, FORMAT, ID, session);
+        Synchronization synchronization = captureSynchronization();
+        assertThat(get(FORMAT), is(nullValue()));
+        synchronization.afterCompletion(Status.STATUS_COMMITTED);
+        assertThat(get(FORMAT), is(FORMAT));
+    }
+
+    @Test
+    public void shouldNotAddKeyAfterRollback() {
+        when(transaction.getStatus()).thenReturn(TransactionStatus.ACTIVE);
+        cache.put(FormatEntity.class, FORMAT, ID, session);
+        captureSynchronization().afterCompletion(Status.STATUS_ROLLEDBACK);
+        assertThat(get(FORMAT), is(nullValue()));
+        verify(session, never()).get(any(Class.class), any(Serializable.class));
+    }
+
+    @Test
+    public void shouldEvictKey() {
+        cache.put(FormatEntity.class, FORMAT, ID, session);
+        cache.evict(FormatEntity.class, FORMAT);
+        assertThat(get(FORMAT), is(nullValue()));
+        verify(session, never()).get(any(Class.class), any(Serializable.class));
+    }
+
+    @Test
+    public void shouldEvictDeletedEntity() {
+        when(session.get(FormatEntity.class, ID)).thenReturn(null);
+        cache.put(FormatEntity.class, FORMAT, ID, session);
+        assertThat(get(FORMAT), is(nullValue()));
+        assertThat(get(FORMAT), is(nullValue()));
+        verify(session, times(1)).get(FormatEntity.class, ID);
+    }
+
+    @Test
+    public void shouldEvictRenamedEntity() {
+        when(session.get(FormatEntity.class, ID)).thenReturn(format("other"));
+        cache.put(FormatEntity.class, FORMAT, ID, session);
+        assertThat(get(FORMAT), is(nullValue()));
+        assertThat(get(FORMAT), is(nullValue()));
+        verify(session, times(1)).get(FormatEntity.class, ID);
+    }
+
+    @Test
+    public void shouldNotCacheIfDisabled() {
+        cache.setEnabled(false);
+        cache.put(FormatEntity.class, FORMAT, ID, session);
+        assertThat(get(FORMAT), is(nullValue()));
+        verify(session, never()).get(any(Class.class), any(Serializable.class));
+    }
+
+    @Test
+    public void shouldRemoveEldestEntry() {
+        cache = new ReferenceEntityCache(1);
+        cache.setEnabled(true);
+        when(session.get(FormatEntity.class, 2L)).thenReturn(format("second"));
+        cache.put(FormatEntity.class, FORMAT, ID, session);
+        cache.put(FormatEntity.class, "second", 2L, session);
+        assertThat(get(FORMAT), is(nullValue()));
+        assertThat(get("second"), is("second"));
+    }
+
+    private String get(String key) {
+        FormatEntity entity = cache.get(FormatEntity.class, key, FormatEntity::getFormat, session);
+        return entity == null ? null : entity.getFormat();
+    }
+
+    private Synchronization captureSynchronization() {
+        ArgumentCaptor<Synchronization> captor = ArgumentCaptor.forClass(Synchronization.class);
+        verify(transaction).registerSynchronization(captor.capture());
+        return captor.getValue();
+    }
+
+    private FormatEntity format(String format) {
+        FormatEntity entity = new FormatEntity();
+        entity.setFormat(format);
+        return entity;
+    }
+
+}
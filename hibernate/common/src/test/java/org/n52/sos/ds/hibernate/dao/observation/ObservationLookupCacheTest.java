@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.dao.observation;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.n52.series.db.beans.FormatEntity;
+
+public class ObservationLookupCacheTest {
+
+    @Test
+    public void shouldQueryEachFormatOnce() {
+        ObservationLookupCache cache = new ObservationLookupCache();
+        AtomicInteger queries = new AtomicInteger();
+        FormatEntity first = cache.getFormat("format", f -> {
+            queries.incrementAndGet();
+            return new FormatEntity();
+        });
+        FormatEntity second = cache.getFormat("format", f -> {
+            queries.incrementAndGet();
+            return new FormatEntity();
+        });
+        assertThat(second, is(sameInstance(first)));
+        assertThat(queries.get(), is(1));
+        assertThat(cache.getHitCount(), is(1L));
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getHitRate(), is(closeTo(0.5, 0.0001)));
+    }
+
+    @Test
+    public void shouldNotCacheMissingEntities() {
+        ObservationLookupCache cache = new ObservationLookupCache();
+        assertThat(cache.getPhenomenon("phenomenon", id -> null), is(nullValue()));
+        assertThat(cache.getPhenomenon("phenomenon", id -> null), is(nullValue()));
+        assertThat(cache.getMissCount(), is(2L));
+        assertThat(cache.getHitRate(), is(closeTo(0.0, 0.0001)));
+    }
+
+}
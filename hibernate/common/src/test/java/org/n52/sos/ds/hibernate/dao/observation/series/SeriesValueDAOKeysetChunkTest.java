@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.dao.observation.series;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.series.db.beans.DataEntity;
+import org.n52.series.db.beans.data.Data;
+import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
+import org.n52.shetland.ogc.sos.request.GetObservationRequest;
+import org.n52.sos.ds.hibernate.ExtendedHibernateTestCase;
+import org.n52.sos.ds.hibernate.util.HibernateMetadataCache;
+import org.n52.sos.ds.hibernate.util.HibernateObservationBuilder;
+import org.n52.sos.ds.hibernate.util.ScrollableIterable;
+
+/**
+ * Test for the keyset chunks of {@link AbstractSeriesValueDAO#getStreamingSeriesValuesAfter}.
+ *
+ * @since 5.0.2
+ */
+public class SeriesValueDAOKeysetChunkTest extends ExtendedHibernateTestCase {
+
+    private static final int CHUNK_SIZE = 4;
+
+    private long series;
+
+    @Before
+    public void initMetadata() {
+        Session session = getSession();
+        try {
+            HibernateMetadataCache.init(session);
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    @After
+    public void clearObservations() throws OwsExceptionReport {
+        Session session = null;
+        Transaction transaction = null;
+        try {
+            session = getSession();
+            transaction = session.beginTransaction();
+            try (ScrollableIterable<DataEntity<?>> i =
+                    ScrollableIterable.fromCriteria(session.createCriteria(getObservationClass()))) {
+                for (DataEntity<?> o : i) {
+                    session.delete(o);
+                }
+            }
+            session.flush();
+            transaction.commit();
+        } catch (HibernateException he) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw he;
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    @Test
+    public void shouldReturnEmptyChunkWithoutValues() throws OwsExceptionReport {
+        List<List<Long>> chunks = readChunks();
+        assertThat(chunks.size(), is(1));
+        assertThat(chunks.get(0), is(empty()));
+    }
+
+    @Test
+    public void shouldReturnExactlyOneChunk() throws OwsExceptionReport {
+        List<Long> ids = fillObservations(CHUNK_SIZE, false);
+        List<List<Long>> chunks = readChunks();
+        assertThat(chunks.size(), is(2));
+        assertThat(chunks.get(0), is(ids));
+        assertThat(chunks.get(1), is(empty()));
+    }
+
+    @Test
+    public void shouldReturnValueAfterFullChunk() throws OwsExceptionReport {
+        List<Long> ids = fillObservations(CHUNK_SIZE + 1, false);
+        List<List<Long>> chunks = readChunks();
+        assertThat(chunks.size(), is(2));
+        assertThat(chunks.get(0), is(ids.subList(0, CHUNK_SIZE)));
+        assertThat(chunks.get(1), is(ids.subList(CHUNK_SIZE, CHUNK_SIZE + 1)));
+    }
+
+    @Test
+    public void shouldNotSkipOrRepeatValuesWithEqualTimes() throws OwsExceptionReport {
+        List<Long> ids = fillObservations(CHUNK_SIZE * 2 + 1, true);
+        List<Long> read = new ArrayList<>();
+        for (List<Long> chunk : readChunks()) {
+            read.addAll(chunk);
+        }
+        assertThat(read.size(), is(ids.size()));
+        assertThat(new HashSet<>(read), is(new HashSet<>(ids)));
+    }
+
+    /**
+     * Create the observations and remember their series.
+     *
+     * @param count
+     *            the number of observations
+     * @param sameTime
+     *            if all observations should have the same phenomenon time
+     * @return the ids of the observations of the series in insertion order
+     */
+    private List<Long> fillObservations(int count, boolean sameTime) throws OwsExceptionReport {
+        List<Long> ids = new ArrayList<>(count);
+        Session session = getSession();
+        Transaction transaction = null;
+        try {
+            transaction = session.beginTransaction();
+            HibernateObservationBuilder b = new HibernateObservationBuilder(session, getDaoFactory());
+            DateTime begin = new DateTime();
+            for (int i = 0; i < count; ++i) {
+                // the first observation belongs to the series of the first offering
+                Data<?> data = b.createObservation(String.valueOf(i), sameTime ? begin : begin.plusHours(i)).get(0);
+                DataEntity<?> observation = (DataEntity<?>) data;
+                series = observation.getDataset().getId();
+                ids.add(observation.getId());
+            }
+            session.flush();
+            transaction.commit();
+        } catch (HibernateException he) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw he;
+        } finally {
+            returnSession(session);
+        }
+        return ids;
+    }
+
+    /**
+     * Read the chunks of the series like the chunk streaming value does, until a chunk is empty or not full.
+     *
+     * @return the ids of the observations per chunk
+     */
+    private List<List<Long>> readChunks() throws OwsExceptionReport {
+        AbstractSeriesValueDAO valueDAO = getDaoFactory().getValueDAO();
+        GetObservationRequest request = new GetObservationRequest();
+        List<List<Long>> chunks = new ArrayList<>();
+        Session session = getSession();
+        try {
+            DataEntity<?> lastEntity = null;
+            List<DataEntity<?>> chunk;
+            do {
+                chunk = valueDAO.getStreamingSeriesValuesAfter(request, series, null, CHUNK_SIZE, lastEntity,
+                        session);
+                List<Long> ids = new ArrayList<>(chunk.size());
+                for (DataEntity<?> value : chunk) {
+                    ids.add(value.getId());
+                }
+                chunks.add(ids);
+                if (!chunk.isEmpty()) {
+                    lastEntity = chunk.get(chunk.size() - 1);
+                }
+            } while (chunk.size() == CHUNK_SIZE);
+        } finally {
+            returnSession(session);
+        }
+        return chunks;
+    }
+}
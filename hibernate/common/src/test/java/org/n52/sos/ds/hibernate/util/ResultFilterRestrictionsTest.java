@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Projections;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.n52.series.db.beans.DataEntity;
+import org.n52.shetland.ogc.filter.ComparisonFilter;
+import org.n52.shetland.ogc.filter.FilterConstants.ComparisonOperator;
+import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
+import org.n52.sos.ds.hibernate.ExtendedHibernateTestCase;
+import org.n52.sos.ds.hibernate.dao.observation.AbstractObservationDAO;
+
+/**
+ * Test for the boolean branch of {@link ResultFilterRestrictions}. The {@link HibernateObservationBuilder} creates
+ * boolean observations with the value <code>true</code>.
+ *
+ * @since 5.0.2
+ */
+public class ResultFilterRestrictionsTest extends ExtendedHibernateTestCase {
+
+    private static final int OBSERVATIONS = 5;
+
+    private AbstractObservationDAO observationDAO;
+
+    @Before
+    public void fillObservations() throws OwsExceptionReport {
+        Session session = getSession();
+        HibernateMetadataCache.init(session);
+        Transaction transaction = null;
+        try {
+            observationDAO = getObservationDao();
+            transaction = session.beginTransaction();
+            HibernateObservationBuilder b = new HibernateObservationBuilder(session, getDaoFactory());
+            DateTime begin = new DateTime();
+            for (int i = 0; i < OBSERVATIONS; ++i) {
+                b.createObservation(String.valueOf(i), begin.plusHours(i));
+            }
+            session.flush();
+            transaction.commit();
+        } catch (HibernateException he) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw he;
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    @After
+    public void clearObservations() throws OwsExceptionReport {
+        Session session = null;
+        Transaction transaction = null;
+        try {
+            session = getSession();
+            transaction = session.beginTransaction();
+            try (ScrollableIterable<DataEntity<?>> i =
+                    ScrollableIterable.fromCriteria(session.createCriteria(getObservationClass()))) {
+                for (DataEntity<?> o : i) {
+                    session.delete(o);
+                }
+            }
+            session.flush();
+            transaction.commit();
+        } catch (HibernateException he) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw he;
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    @Test
+    public void shouldProvideTruthClass() throws OwsExceptionReport {
+        ResultFilterClasses classes = observationDAO.getResultFilterClasses();
+        assertThat(classes.getTruth(), is(notNullValue()));
+        assertThat(classes.getTruth().equals(observationDAO.getObservationFactory().truthClass()), is(true));
+    }
+
+    @Test
+    public void shouldMatchBooleanObservations() throws OwsExceptionReport {
+        assertThat(count(resultIs("true"), observationDAO.getResultFilterClasses()), is(countAll()));
+        assertThat(count(resultIs("TRUE"), observationDAO.getResultFilterClasses()), is(countAll()));
+    }
+
+    @Test
+    public void shouldNotMatchOtherBooleanValue() throws OwsExceptionReport {
+        assertThat(count(resultIs("false"), observationDAO.getResultFilterClasses()), is(0L));
+    }
+
+    @Test
+    public void shouldNotMatchBooleanObservationsWithoutTruthClass() throws OwsExceptionReport {
+        ResultFilterClasses classes = observationDAO.getResultFilterClasses();
+        ResultFilterClasses withoutTruth = new ResultFilterClasses(classes.getNumeric(), classes.getCount(),
+                classes.getText(), classes.getCategory(), classes.getComplex(), classes.getProfile());
+        assertThat(withoutTruth.getTruth(), is(nullValue()));
+        assertThat(count(resultIs("true"), withoutTruth), is(0L));
+    }
+
+    @Test
+    public void shouldNotMatchBooleanObservationsWithNumericValue() throws OwsExceptionReport {
+        assertThat(count(resultIs("1"), observationDAO.getResultFilterClasses()), is(0L));
+    }
+
+    private ComparisonFilter resultIs(String value) {
+        ComparisonFilter filter = new ComparisonFilter();
+        filter.setOperator(ComparisonOperator.PropertyIsEqualTo);
+        filter.setValueReference("om:result");
+        filter.setValue(value);
+        return filter;
+    }
+
+    private long count(ComparisonFilter filter, ResultFilterClasses classes) throws OwsExceptionReport {
+        Criterion expression =
+                ResultFilterRestrictions.getResultFilterExpression(filter, classes, DataEntity.PROPERTY_ID);
+        Session session = getSession();
+        try {
+            return (Long) session.createCriteria(getObservationClass()).add(expression)
+                    .setProjection(Projections.rowCount()).uniqueResult();
+        } finally {
+            returnSession(session);
+        }
+    }
+
+    private long countAll() throws OwsExceptionReport {
+        Session session = getSession();
+        try {
+            return (Long) session.createCriteria(getObservationClass()).setProjection(Projections.rowCount())
+                    .uniqueResult();
+        } finally {
+            returnSession(session);
+        }
+    }
+}
@@ -31,9 +31,9 @@ package org.n52.sos.ds.hibernate;
 import java.sql.SQLException;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.persistence.PersistenceException;
@@ -48,12 +48,9 @@ import org.n52.faroe.annotation.Setting;
 import org.n52.iceland.ds.ConnectionProvider;
 import org.n52.janmayen.http.HTTPStatus;
 import org.n52.series.db.beans.AbstractFeatureEntity;
-import org.n52.series.db.beans.CodespaceEntity;
 import org.n52.series.db.beans.DatasetEntity;
 import org.n52.series.db.beans.ProcedureHistoryEntity;
-import org.n52.series.db.beans.UnitEntity;
 import org.n52.series.db.beans.dataset.NotInitializedDataset;
-import org.n52.shetland.ogc.UoM;
 import org.n52.shetland.ogc.gml.AbstractFeature;
 import org.n52.shetland.ogc.om.MultiObservationValues;
 import org.n52.shetland.ogc.om.OmObservation;
@@ -71,8 +68,13 @@ import org.n52.shetland.ogc.sos.response.InsertObservationResponse;
 import org.n52.sos.ds.AbstractInsertObservationHandler;
 import org.n52.sos.ds.hibernate.dao.DaoFactory;
 import org.n52.sos.ds.hibernate.dao.observation.AbstractObservationDAO;
+import org.n52.sos.ds.hibernate.dao.observation.ObservationLookupCache;
 import org.n52.sos.ds.hibernate.util.HibernateHelper;
+import org.n52.sos.ds.hibernate.util.StripedLocks;
+import org.n52.sos.ds.hibernate.util.StripedLocks.Locked;
 import org.n52.sos.service.SosSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.HashBasedTable;
@@ -85,13 +87,18 @@ import com.google.common.collect.Table.Cell;
 
 @Configurable
 public class InsertObservationHandler extends AbstractInsertObservationHandler  {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InsertObservationHandler.class);
     private static final int FLUSH_THRESHOLD = 50;
     private static final String CONSTRAINT_OBSERVATION_IDENTITY = "observationIdentity";
     private static final String CONSTRAINT_OBSERVATION_IDENTIFIER_IDENTITY = "obsIdentifierUK";
+    private static final int MAX_CONCURRENT_ATTEMPTS = 2;
 
+    private final StripedLocks datasetLocks = new StripedLocks();
+    private final Object globalLock = new Object();
     private HibernateSessionHolder sessionHolder;
     private DaoFactory daoFactory;
     private boolean strictSpatialFilteringProfile;
+    private boolean concurrentInsertion;
 
     @Inject
     public void setDaoFactory(DaoFactory daoFactory) {
@@ -108,6 +115,11 @@ public class InsertObservationHandler extends AbstractInsertObservationHandler
         this.strictSpatialFilteringProfile = strictSpatialFilteringProfile;
     }
 
+    @Setting(SosSettings.CONCURRENT_INSERT_OBSERVATION)
+    public void setConcurrentInsertion(final boolean concurrentInsertion) {
+        this.concurrentInsertion = concurrentInsertion;
+    }
+
     /**
      * constructor
      */
@@ -116,11 +128,42 @@ public class InsertObservationHandler extends AbstractInsertObservationHandler
     }
 
     @Override
-    public synchronized InsertObservationResponse insertObservation(final InsertObservationRequest request)
+    public InsertObservationResponse insertObservation(final InsertObservationRequest request)
             throws OwsExceptionReport {
         final InsertObservationResponse response = new InsertObservationResponse();
         response.setService(request.getService());
         response.setVersion(request.getVersion());
+        try {
+            if (!concurrentInsertion) {
+                synchronized (globalLock) {
+                    insertObservations(request);
+                }
+                return response;
+            }
+            // only serialize requests that write to the same datasets or
+            // features
+            try (Locked locked = datasetLocks.lock(getLockKeys(request))) {
+                for (int attempt = 1;; attempt++) {
+                    try {
+                        insertObservations(request);
+                        break;
+                    } catch (PersistenceException pe) {
+                        // a concurrent request may have inserted the same
+                        // reference entity (unit, codespace, ...), retry
+                        if (attempt >= MAX_CONCURRENT_ATTEMPTS || !isRetryable(pe)) {
+                            throw pe;
+                        }
+                    }
+                }
+            }
+        } catch (PersistenceException pe) {
+            handleHibernateException(pe);
+        }
+        return response;
+    }
+
+    private void insertObservations(final InsertObservationRequest request)
+            throws OwsExceptionReport {
         Session session = null;
         Transaction transaction = null;
 
@@ -158,6 +201,7 @@ public class InsertObservationHandler extends AbstractInsertObservationHandler
             }
 
             request.setOfferings(Lists.newArrayList(cache.getAllOfferings()));
+            LOGGER.debug("Inserted {} observation(s) using {}", obsCount, cache.getLookupCache());
 
             // if no observationConstellation is valid, throw exception
             if (exceptions.size() == request.getObservations().size()) {
@@ -170,7 +214,7 @@ public class InsertObservationHandler extends AbstractInsertObservationHandler
             if (transaction != null) {
                 transaction.rollback();
             }
-            handleHibernateException(pe);
+            throw pe;
         } finally {
             sessionHolder.returnSession(session);
         }
@@ -178,8 +222,40 @@ public class InsertObservationHandler extends AbstractInsertObservationHandler
          * TODO: ... all the DS insertion stuff Requirement 68
          * proc/obsProp/Offering same obsType;
          */
+    }
 
-        return response;
+    /**
+     * Create the lock keys for the datasets and features the request writes
+     * to. The feature is locked separately because the same new feature can be
+     * inserted via different datasets.
+     *
+     * @param request
+     *            the request
+     * @return the lock keys
+     */
+    private Set<String> getLockKeys(InsertObservationRequest request) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (OmObservation observation : request.getObservations()) {
+            OmObservationConstellation oc = observation.getObservationConstellation();
+            String feature = oc.getFeatureOfInterestIdentifier();
+            keys.add("feature:" + feature);
+            for (String offering : oc.getOfferings()) {
+                keys.add(String.join("|", "dataset:" + oc.getProcedureIdentifier(),
+                        oc.getObservablePropertyIdentifier(), feature, offering));
+            }
+        }
+        return keys;
+    }
+
+    private boolean isRetryable(PersistenceException pe) {
+        if (!(pe.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+        // duplicate observations must not be retried
+        String constraintName = ((ConstraintViolationException) pe.getCause()).getConstraintName();
+        return Strings.isNullOrEmpty(constraintName)
+                || !(constraintName.equalsIgnoreCase(CONSTRAINT_OBSERVATION_IDENTITY)
+                        || constraintName.equalsIgnoreCase(CONSTRAINT_OBSERVATION_IDENTIFIER_IDENTITY));
     }
 
     @Override
@@ -236,11 +312,11 @@ public class InsertObservationHandler extends AbstractInsertObservationHandler
             if (sosObservation.getValue() instanceof SingleObservationValue) {
                 observationDAO.insertObservationSingleValue(
                         hDataset, hFeature, sosObservation,
-                        cache.getCodespaceCache(), cache.getUnitCache(), session);
+                        cache.getLookupCache(), session);
             } else if (sosObservation.getValue() instanceof MultiObservationValues) {
                 observationDAO.insertObservationMultiValue(
                         hDataset, hFeature, sosObservation,
-                        cache.getCodespaceCache(), cache.getUnitCache(), session);
+                        cache.getLookupCache(), session);
             }
         }
     }
@@ -336,8 +412,7 @@ public class InsertObservationHandler extends AbstractInsertObservationHandler
         private final Set<String> allOfferings = Sets.newHashSet();
         private final Map<AbstractFeature, AbstractFeatureEntity> featureCache = Maps.newHashMap();
         private final Table<OmObservationConstellation, String, DatasetEntity> obsConstOfferingHibernateObsConstTable = HashBasedTable.create();
-        private final Map<String, CodespaceEntity> codespaceCache = Maps.newHashMap();
-        private final Map<UoM, UnitEntity> unitCache = Maps.newHashMap();
+        private final ObservationLookupCache lookupCache = new ObservationLookupCache();
         private final HashMultimap<OmObservationConstellation, String> obsConstOfferingCheckedMap = HashMultimap.create();
         private final HashMultimap<AbstractFeature, String> relatedFeatureCheckedMap = HashMultimap.create();
 
@@ -380,11 +455,8 @@ public class InsertObservationHandler extends AbstractInsertObservationHandler
         public Map<AbstractFeature, AbstractFeatureEntity> getFeatureCache() {
             return featureCache;
         }
-        public Map<String, CodespaceEntity> getCodespaceCache() {
-            return codespaceCache;
-        }
-        public Map<UoM, UnitEntity> getUnitCache() {
-            return unitCache;
+        public ObservationLookupCache getLookupCache() {
+            return lookupCache;
         }
         public Set<String> getAllOfferings() {
             return allOfferings;
@@ -28,7 +28,9 @@
  */
 package org.n52.sos.ds.hibernate;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -46,14 +48,11 @@ import org.n52.iceland.ds.ConnectionProvider;
 import org.n52.janmayen.lifecycle.Constructable;
 import org.n52.series.db.beans.AbstractFeatureEntity;
 import org.n52.series.db.beans.CategoryEntity;
-import org.n52.series.db.beans.CodespaceEntity;
 import org.n52.series.db.beans.DatasetEntity;
 import org.n52.series.db.beans.OfferingEntity;
 import org.n52.series.db.beans.PhenomenonEntity;
 import org.n52.series.db.beans.ProcedureEntity;
 import org.n52.series.db.beans.ResultTemplateEntity;
-import org.n52.series.db.beans.UnitEntity;
-import org.n52.shetland.ogc.UoM;
 import org.n52.shetland.ogc.gml.AbstractFeature;
 import org.n52.shetland.ogc.gml.CodeWithAuthority;
 import org.n52.shetland.ogc.om.MultiObservationValues;
@@ -92,17 +91,22 @@ import org.n52.sos.ds.hibernate.dao.DaoFactory;
 import org.n52.sos.ds.hibernate.dao.FeatureOfInterestDAO;
 import org.n52.sos.ds.hibernate.dao.FormatDAO;
 import org.n52.sos.ds.hibernate.dao.observation.AbstractObservationDAO;
+import org.n52.sos.ds.hibernate.dao.observation.ObservationLookupCache;
 import org.n52.sos.ds.hibernate.dao.observation.series.AbstractSeriesDAO;
 import org.n52.sos.ds.hibernate.util.HibernateHelper;
 import org.n52.sos.ds.hibernate.util.ResultHandlingHelper;
+import org.n52.sos.ds.hibernate.util.StripedLocks;
+import org.n52.sos.ds.hibernate.util.StripedLocks.Locked;
 import org.n52.sos.ds.hibernate.util.observation.ObservationUnfolder;
+import org.n52.sos.service.SosSettings;
 import org.n52.sos.util.GeometryHandler;
 import org.n52.svalbard.util.SweHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Maps;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
 import com.google.common.collect.Sets;
 
 /**
@@ -119,7 +123,9 @@ public class InsertResultHandler
     private static final Logger LOGGER = LoggerFactory.getLogger(InsertResultHandler.class);
     public static final String CONVERT_COMPLEX_PROFILE_TO_SINGLE_PROFILES =
             "misc.convertComplexProfileToSingleProfiles";
-    private static final int FLUSH_THRESHOLD = 50;
+    private static final int DEFAULT_BATCH_SIZE = 50;
+    private final StripedLocks resultTemplateLocks = new StripedLocks();
+    private int batchSize = DEFAULT_BATCH_SIZE;
     private HibernateSessionHolder sessionHolder;
     private DaoFactory daoFactory;
     private boolean convertComplexProfileToSingleProfiles;
@@ -151,13 +157,27 @@ public class InsertResultHandler
         this.sweHelper = sweHelper;
     }
 
+    @Setting(SosSettings.INSERT_RESULT_BATCH_SIZE)
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
+
     @Override
     public void init() {
         helper = new ResultHandlingHelper(geometryHandler, sweHelper);
     }
 
     @Override
-    public synchronized InsertResultResponse insertResult(final InsertResultRequest request)
+    public InsertResultResponse insertResult(final InsertResultRequest request)
+            throws OwsExceptionReport {
+        // only requests for the same result template are serialized
+        try (Locked locked = resultTemplateLocks
+                .lock(Collections.singleton(request.getTemplateIdentifier()))) {
+            return insertResultForTemplate(request);
+        }
+    }
+
+    private InsertResultResponse insertResultForTemplate(final InsertResultRequest request)
             throws OwsExceptionReport {
         final InsertResultResponse response = new InsertResultResponse();
         response.setService(request.getService());
@@ -165,8 +185,7 @@ public class InsertResultHandler
         Session session = null;
         Transaction transaction = null;
 
-        Map<String, CodespaceEntity> codespaceCache = Maps.newHashMap();
-        Map<UoM, UnitEntity> unitCache = Maps.newHashMap();
+        ObservationLookupCache lookupCache = new ObservationLookupCache();
 
         try {
             session = sessionHolder.getSession();
@@ -226,18 +245,18 @@ public class InsertResultHandler
                 }
                 if (observation.getValue() instanceof SingleObservationValue) {
                     observationDAO.insertObservationSingleValue(obsConst, feature,
-                            observation, codespaceCache, unitCache, session);
+                            observation, lookupCache, session);
                 } else if (observation.getValue() instanceof MultiObservationValues) {
                     observationDAO.insertObservationMultiValue(obsConst, feature,
-                            observation, codespaceCache, unitCache, session);
+                            observation, lookupCache, session);
                 }
-                if ((++insertion % FLUSH_THRESHOLD) == 0) {
+                if ((++insertion % batchSize) == 0) {
                     session.flush();
                     session.clear();
                     LOGGER.debug("Saved {}/{} observations.", insertion, size);
                 }
             }
-            LOGGER.debug("Saved {} observations.", size);
+            LOGGER.debug("Saved {} observations using {}", size, lookupCache);
             transaction.commit();
         } catch (final HibernateException he) {
             if (transaction != null) {
@@ -276,6 +295,7 @@ public class InsertResultHandler
             throws OwsExceptionReport {
         final SosResultEncoding resultEncoding = createSosResultEncoding(resultTemplate.getEncoding());
         final SosResultStructure resultStructure = createSosResultStructure(resultTemplate.getStructure());
+        checkResultEncoding(resultEncoding.get().get());
         final String[] blockValues = getBlockValues(resultValues, resultEncoding.get().get());
         final OmObservation singleObservation =
                 getObservation(resultTemplate, blockValues, resultStructure.get().get(),
@@ -490,6 +510,29 @@ public class InsertResultHandler
         return sosValues;
     }
 
+    /**
+     * Check that the separators of a text encoding are set, an empty separator
+     * can not be used to split the result values.
+     *
+     * @param encoding
+     *            ResultEncoding
+     * @throws OwsExceptionReport
+     *             If the token or block separator is empty
+     */
+    @VisibleForTesting
+    protected void checkResultEncoding(final SweAbstractEncoding encoding) throws OwsExceptionReport {
+        if (encoding instanceof SweTextEncoding) {
+            final SweTextEncoding textEncoding = (SweTextEncoding) encoding;
+            if (Strings.isNullOrEmpty(textEncoding.getTokenSeparator())
+                    || Strings.isNullOrEmpty(textEncoding.getBlockSeparator())) {
+                throw new InvalidParameterValueException()
+                        .at(Sos2Constants.InsertResultParams.resultValues)
+                        .withMessage("The resultEncoding of the resultTemplate defines an empty token or block "
+                                + "separator!");
+            }
+        }
+    }
+
     /**
      * Get single values from a block value
      *
@@ -549,16 +592,33 @@ public class InsertResultHandler
     }
 
     /**
-     * Separate values from String with separator
+     * Separate values from String with separator. The separator is matched
+     * literally and trailing empty values are removed.
      *
      * @param values
      *            Value String
      * @param separator
-     *            Separator
+     *            Separator, must not be empty
      * @return Separated values as array
      */
-    private String[] separateValues(final String values, final String separator) {
-        return values.split(separator);
+    @VisibleForTesting
+    protected String[] separateValues(final String values, final String separator) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(separator), "separator may not be empty");
+        final List<String> separated = new ArrayList<>();
+        final int length = separator.length();
+        int start = 0;
+        int end = values.indexOf(separator);
+        while (end >= 0) {
+            separated.add(values.substring(start, end));
+            start = end + length;
+            end = values.indexOf(separator, start);
+        }
+        separated.add(values.substring(start));
+        int size = separated.size();
+        while (size > 1 && separated.get(size - 1).isEmpty()) {
+            separated.remove(--size);
+        }
+        return separated.toArray(new String[size]);
     }
 
     private DatasetEntity insertObservationConstellationForProfiles(AbstractSeriesDAO obsConstDao,
@@ -146,7 +146,7 @@ public class InsertSensorHandler extends AbstractInsertSensorHandler {
         try {
             session = sessionHolder.getSession();
             transaction = session.beginTransaction();
-            FormatDAO formatDAO = new FormatDAO();
+            FormatDAO formatDAO = daoFactory.getProcedureDescriptionFormatDAO();
             final FormatEntity procedureDescriptionFormat =
                     formatDAO.getOrInsertFormatEntity(
                             request.getProcedureDescriptionFormat(), session);
@@ -46,6 +46,7 @@ import org.hibernate.jdbc.ReturningWork;
 import org.n52.iceland.ds.ConnectionProvider;
 import org.n52.sos.ds.GeneralQueryDAO;
 import org.n52.sos.ds.hibernate.HibernateSessionHolder;
+import org.n52.sos.ds.hibernate.dao.ReferenceEntityCache;
 import org.n52.sos.util.SQLHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,11 +70,18 @@ public class HibernateGeneralQueryDAO implements GeneralQueryDAO {
 
     private HibernateSessionHolder sessionHolder;
 
+    private ReferenceEntityCache referenceEntityCache;
+
     @Inject
     public void setConnectionProvider(ConnectionProvider connectionProvider) {
         this.sessionHolder = new HibernateSessionHolder(connectionProvider);
     }
 
+    @Inject
+    public void setReferenceEntityCache(ReferenceEntityCache referenceEntityCache) {
+        this.referenceEntityCache = referenceEntityCache;
+    }
+
     /**
      * Method which query the SOS DB
      *
@@ -116,6 +124,10 @@ public class HibernateGeneralQueryDAO implements GeneralQueryDAO {
             try {
                 QueryResult result = s.doReturningWork(work.setQuery(query));
                 t.commit();
+                // arbitrary statements may have modified or deleted cached reference entities
+                if (referenceEntityCache != null) {
+                    referenceEntityCache.clear();
+                }
                 return result;
             } catch (HibernateException e) {
                 t.rollback();
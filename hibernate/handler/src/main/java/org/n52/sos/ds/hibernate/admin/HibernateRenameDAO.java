@@ -39,6 +39,7 @@ import org.n52.series.db.beans.PhenomenonEntity;
 import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
 import org.n52.sos.ds.RenameDAO;
 import org.n52.sos.ds.hibernate.HibernateSessionHolder;
+import org.n52.sos.ds.hibernate.dao.ReferenceEntityCache;
 import org.n52.sos.exception.NoSuchObservablePropertyException;
 
 /**
@@ -47,11 +48,18 @@ import org.n52.sos.exception.NoSuchObservablePropertyException;
 public class HibernateRenameDAO implements RenameDAO {
     private HibernateSessionHolder sessionHolder;
 
+    private ReferenceEntityCache referenceEntityCache;
+
     @Inject
     public void setConnectionProvider(ConnectionProvider connectionProvider) {
         this.sessionHolder = new HibernateSessionHolder(connectionProvider);
     }
 
+    @Inject
+    public void setReferenceEntityCache(ReferenceEntityCache referenceEntityCache) {
+        this.referenceEntityCache = referenceEntityCache;
+    }
+
     @Override
     public void renameObservableProperty(String oldName, String newName) throws OwsExceptionReport,
                                                                               NoSuchObservablePropertyException {
@@ -70,6 +78,9 @@ public class HibernateRenameDAO implements RenameDAO {
             s.update(op);
             s.flush();
             t.commit();
+            if (referenceEntityCache != null) {
+                referenceEntityCache.evict(PhenomenonEntity.class, oldName);
+            }
         } catch (HibernateException he) {
             if (t != null) {
                 t.rollback();
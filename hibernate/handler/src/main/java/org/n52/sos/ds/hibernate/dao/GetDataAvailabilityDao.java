@@ -30,6 +30,8 @@ package org.n52.sos.ds.hibernate.dao;
 
 import static org.n52.janmayen.http.HTTPStatus.INTERNAL_SERVER_ERROR;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -148,6 +150,40 @@ public class GetDataAvailabilityDao implements org.n52.sos.ds.dao.GetDataAvailab
         }
     }
 
+    @Override
+    public Map<Long, List<TimeInstant>> getResultTimes(Collection<Long> datasets, GetDataAvailabilityRequest request)
+            throws OwsExceptionReport {
+        Session session = null;
+        try {
+            session = sessionHolder.getSession();
+            Map<Long, List<TimeInstant>> resultTimes = new HashMap<>();
+            for (List<Long> ids : HibernateHelper.getValidSizedLists(datasets)) {
+                Criteria c = getDefaultObservationInfoCriteria(session);
+                c.createAlias(DataEntity.PROPERTY_DATASET, "ds");
+                c.add(Restrictions.in("ds." + DatasetEntity.PROPERTY_ID, ids));
+                if (hasPhenomenonTimeFilter(request.getExtensions())) {
+                    c.add(SosTemporalRestrictions.filter(getPhenomenonTimeFilter(request.getExtensions())));
+                }
+                c.setProjection(Projections.distinct(Projections.projectionList()
+                        .add(Projections.property("ds." + DatasetEntity.PROPERTY_ID))
+                        .add(Projections.property(DataEntity.PROPERTY_RESULT_TIME))));
+                c.addOrder(Order.asc(DataEntity.PROPERTY_RESULT_TIME));
+                LOGGER.debug("QUERY getResultTimesForDatasets(): {}", HibernateHelper.getSqlString(c));
+                for (Object[] row : (List<Object[]>) c.list()) {
+                    resultTimes.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                            .add(new TimeInstant((Date) row[1]));
+                }
+            }
+            return resultTimes;
+        } catch (final HibernateException | OwsExceptionReport he) {
+            throw new NoApplicableCodeException().causedBy(he)
+                    .withMessage("Error while querying result times for GetDataAvailability!")
+                    .setStatus(INTERNAL_SERVER_ERROR);
+        } finally {
+            sessionHolder.returnSession(session);
+        }
+    }
+
     private Criteria getDefaultObservationInfoCriteria(Session session) {
         return session.createCriteria(DataEntity.class)
                 .add(Restrictions.eq(DataEntity.PROPERTY_DELETED, false))
@@ -35,6 +35,12 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.inject.Inject;
 
@@ -49,6 +55,7 @@ import org.n52.iceland.exception.ows.concrete.NotYetSupportedException;
 import org.n52.iceland.i18n.I18NSettings;
 import org.n52.iceland.service.MiscSettings;
 import org.n52.janmayen.http.HTTPStatus;
+import org.n52.janmayen.lifecycle.Destroyable;
 import org.n52.series.db.beans.DataEntity;
 import org.n52.series.db.beans.DatasetEntity;
 import org.n52.shetland.ogc.gml.time.IndeterminateValue;
@@ -67,6 +74,7 @@ import org.n52.sos.ds.hibernate.util.HibernateGetObservationHelper;
 import org.n52.sos.ds.hibernate.util.ObservationTimeExtrema;
 import org.n52.sos.ds.hibernate.util.observation.HibernateObservationUtilities;
 import org.n52.sos.ds.hibernate.util.observation.OmObservationCreatorContext;
+import org.n52.sos.ds.hibernate.values.HibernateStreamingSettings;
 import org.n52.sos.ds.hibernate.values.series.HibernateChunkSeriesStreamingValue;
 import org.n52.sos.ds.hibernate.values.series.HibernateSeriesStreamingValue;
 import org.n52.sos.service.profile.ProfileHandler;
@@ -80,10 +88,11 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 @Configurable
 public class GetObservationDao
-        implements org.n52.sos.ds.dao.GetObservationDao {
+        implements org.n52.sos.ds.dao.GetObservationDao, Destroyable {
     private static final Logger LOGGER = LoggerFactory.getLogger(GetObservationDao.class);
 
     private HibernateSessionHolder sessionHolder;
@@ -93,6 +102,7 @@ public class GetObservationDao
     private OmObservationCreatorContext observationCreatorContext;
     private boolean overallExtrema;
     private Locale defaultLanguage;
+    private volatile ExecutorService templateExecutor;
 
     @Inject
     public void setEncoderRepository(EncoderRepository encoderRepository) {
@@ -129,16 +139,47 @@ public class GetObservationDao
         this.defaultLanguage = new Locale(defaultLanguage);
     }
 
+    /**
+     * Set the number of threads that create the observation templates for streaming. If greater than one, the
+     * templates of the series are created in parallel, each thread with its own session. The previous executor is
+     * replaced before it is shut down, so running requests either finish on it or fall back to the request thread.
+     *
+     * @param templateThreads
+     *            the number of threads
+     */
+    @Setting(HibernateStreamingSettings.TEMPLATE_THREADS)
+    public synchronized void setTemplateThreads(int templateThreads) {
+        replaceTemplateExecutor(templateThreads > 1 ? Executors.newFixedThreadPool(templateThreads,
+                new ThreadFactoryBuilder().setNameFormat("observation-template-%d").setDaemon(true).build()) : null);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        replaceTemplateExecutor(null);
+    }
+
+    private void replaceTemplateExecutor(ExecutorService executor) {
+        ExecutorService previous = this.templateExecutor;
+        this.templateExecutor = executor;
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
     @Override
     public GetObservationResponse queryObservationData(GetObservationRequest request, GetObservationResponse response)
             throws OwsExceptionReport {
+        // reject result filters the DAOs cannot translate instead of ignoring them
+        if (request.isSetResultFilter() && !request.hasResultFilter()) {
+            throw new NotYetSupportedException("result filtering");
+        }
         Session session = null;
         try {
-            session = sessionHolder.getSession();
             List<OmObservation> observations = new ArrayList<>();
             if (!request.hasFirstLatestTemporalFilter()) {
-                observations.addAll(querySeriesObservationForStreaming(request, response, session));
+                observations.addAll(querySeriesObservationForStreaming(request, response));
             } else {
+                session = sessionHolder.getSession();
                 observations.addAll(querySeriesObservation(request, session));
             }
             response.setObservationCollection(ObservationStream.of(observations));
@@ -171,9 +212,6 @@ public class GetObservationDao
      */
     protected List<OmObservation> querySeriesObservation(GetObservationRequest request, Session session)
             throws OwsExceptionReport, ConverterException {
-        if (request.isSetResultFilter()) {
-            throw new NotYetSupportedException("result filtering");
-        }
         AbstractSeriesObservationDAO observationDAO = daoFactory.getObservationDAO();
         Locale requestedLocale = getRequestedLocale(request);
         String pdf = getProcedureDescriptionFormat(request.getResponseFormat());
@@ -259,12 +297,14 @@ public class GetObservationDao
     }
 
     /**
-     * Query the series observations for streaming datasource
+     * Query the series observations for streaming datasource. The session of the request is returned before the
+     * observation templates are created in parallel, so a request never holds its own session while it waits for the
+     * sessions of the template threads.
      *
      * @param request
      *            The GetObservation request
-     * @param session
-     *            Hibernate Session
+     * @param response
+     *            The GetObservation response
      * @return List of internal observations
      * @throws OwsExceptionReport
      *             If an error occurs.
@@ -272,22 +312,38 @@ public class GetObservationDao
      *             If an error occurs during sensor description creation.
      */
     protected List<OmObservation> querySeriesObservationForStreaming(GetObservationRequest request,
-            GetObservationResponse response, Session session) throws OwsExceptionReport, ConverterException {
+            GetObservationResponse response) throws OwsExceptionReport, ConverterException {
         final long start = System.currentTimeMillis();
         final List<OmObservation> result = new LinkedList<OmObservation>();
         List<String> features = request.getFeatureIdentifiers();
         Criterion temporalFilterCriterion = HibernateGetObservationHelper.getTemporalFilterCriterion(request);
-        List<DatasetEntity> serieses = daoFactory.getSeriesDAO().getSeries(request, features, session);
-        HibernateGetObservationHelper.checkMaxNumberOfReturnedSeriesSize(serieses.size());
+        ExecutorService executor = this.templateExecutor;
+        List<DatasetEntity> serieses;
+        Collection<DatasetEntity> duplicated;
+        ObservationTimeExtrema timeExtrema;
+        List<OmObservation> observationTemplates = null;
+        Session session = null;
+        try {
+            session = sessionHolder.getSession();
+            serieses = daoFactory.getSeriesDAO().getSeries(request, features, session);
+            HibernateGetObservationHelper.checkMaxNumberOfReturnedSeriesSize(serieses.size());
+            checkSeriesOfferings(serieses, request);
+            duplicated = checkAndGetDuplicatedtSeries(serieses, request);
+            timeExtrema =
+                    daoFactory.getValueTimeDAO().getTimeExtremaForSeries(serieses, temporalFilterCriterion, session);
+            if (executor == null || serieses.size() < 2) {
+                observationTemplates = createObservationTemplates(serieses, request, session);
+            }
+        } finally {
+            sessionHolder.returnSession(session);
+        }
+        if (observationTemplates == null) {
+            observationTemplates = createObservationTemplates(serieses, request, executor);
+        }
         int maxNumberOfValuesPerSeries = HibernateGetObservationHelper.getMaxNumberOfValuesPerSeries(serieses.size());
-        checkSeriesOfferings(serieses, request);
-        Collection<DatasetEntity> duplicated = checkAndGetDuplicatedtSeries(serieses, request);
-        for (DatasetEntity series : serieses) {
-            ObservationStream createSosObservationFromSeries =
-                    HibernateObservationUtilities.createSosObservationFromSeries(series, request,
-                            getRequestedLocale(request), getProcedureDescriptionFormat(request.getResponseFormat()),
-                            observationCreatorContext, session);
-            OmObservation observationTemplate = createSosObservationFromSeries.next();
+        for (int i = 0; i < serieses.size(); i++) {
+            DatasetEntity series = serieses.get(i);
+            OmObservation observationTemplate = observationTemplates.get(i);
             HibernateSeriesStreamingValue streamingValue =
                     new HibernateChunkSeriesStreamingValue(sessionHolder.getConnectionProvider(), daoFactory, request,
                             series.getId(), duplicated.contains(series));
@@ -299,8 +355,6 @@ public class GetObservationDao
             result.add(observationTemplate);
         }
 
-        ObservationTimeExtrema timeExtrema =
-                daoFactory.getValueTimeDAO().getTimeExtremaForSeries(serieses, temporalFilterCriterion, session);
         if (timeExtrema.isSetPhenomenonTimes()) {
             response.setGlobalObservationValues(
                     new GlobalObservationResponseValues().setPhenomenonTime(timeExtrema.getPhenomenonTime()));
@@ -309,6 +363,109 @@ public class GetObservationDao
         return result;
     }
 
+    /**
+     * Create the observation templates for the series in the session of the request thread.
+     *
+     * @param serieses
+     *            the series
+     * @param request
+     *            GetObservation request
+     * @param session
+     *            Hibernate session of the request thread
+     * @return the observation templates in the order of the series
+     * @throws OwsExceptionReport
+     *             If an error occurs.
+     * @throws ConverterException
+     *             If an error occurs during sensor description creation.
+     */
+    private List<OmObservation> createObservationTemplates(List<DatasetEntity> serieses,
+            GetObservationRequest request, Session session) throws OwsExceptionReport, ConverterException {
+        Locale requestedLocale = getRequestedLocale(request);
+        String pdf = getProcedureDescriptionFormat(request.getResponseFormat());
+        List<OmObservation> templates = new ArrayList<>(serieses.size());
+        for (DatasetEntity series : serieses) {
+            templates.add(createObservationTemplate(series, request, requestedLocale, pdf, session));
+        }
+        return templates;
+    }
+
+    /**
+     * Create the observation templates for the series in parallel. Each series is loaded again in the session of the
+     * creating thread. If the executor has been replaced in the meantime, the remaining templates are created in the
+     * request thread.
+     *
+     * @param serieses
+     *            the series
+     * @param request
+     *            GetObservation request
+     * @param executor
+     *            the executor that creates the templates
+     * @return the observation templates in the order of the series
+     * @throws OwsExceptionReport
+     *             If an error occurs.
+     * @throws ConverterException
+     *             If an error occurs during sensor description creation.
+     */
+    private List<OmObservation> createObservationTemplates(List<DatasetEntity> serieses,
+            GetObservationRequest request, ExecutorService executor) throws OwsExceptionReport, ConverterException {
+        Locale requestedLocale = getRequestedLocale(request);
+        String pdf = getProcedureDescriptionFormat(request.getResponseFormat());
+        List<OmObservation> templates = new ArrayList<>(serieses.size());
+        List<Future<OmObservation>> futures = new ArrayList<>(serieses.size());
+        for (DatasetEntity series : serieses) {
+            long id = series.getId();
+            FutureTask<OmObservation> task =
+                    new FutureTask<>(() -> createObservationTemplate(id, request, requestedLocale, pdf));
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+            futures.add(task);
+        }
+        try {
+            for (Future<OmObservation> future : futures) {
+                templates.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new NoApplicableCodeException().causedBy(e)
+                    .withMessage("Interrupted while creating the observation templates!");
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            Throwable cause = e.getCause();
+            if (cause instanceof OwsExceptionReport) {
+                throw (OwsExceptionReport) cause;
+            } else if (cause instanceof ConverterException) {
+                throw (ConverterException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new NoApplicableCodeException().causedBy(cause)
+                    .withMessage("Error while creating the observation templates!");
+        }
+        return templates;
+    }
+
+    private OmObservation createObservationTemplate(long seriesId, GetObservationRequest request,
+            Locale requestedLocale, String pdf) throws OwsExceptionReport, ConverterException {
+        Session session = null;
+        try {
+            session = sessionHolder.getSession();
+            DatasetEntity series = session.get(DatasetEntity.class, seriesId);
+            return createObservationTemplate(series, request, requestedLocale, pdf, session);
+        } finally {
+            sessionHolder.returnSession(session);
+        }
+    }
+
+    private OmObservation createObservationTemplate(DatasetEntity series, GetObservationRequest request,
+            Locale requestedLocale, String pdf, Session session) throws OwsExceptionReport, ConverterException {
+        return HibernateObservationUtilities.createSosObservationFromSeries(series, request, requestedLocale, pdf,
+                observationCreatorContext, session).next();
+    }
+
     private void checkSeriesOfferings(List<DatasetEntity> serieses, GetObservationRequest request) {
         boolean allSeriesWithOfferings = true;
         for (DatasetEntity series : serieses) {
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.locks.Lock;
+
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Lock striping for transactional operations. Instead of serializing all
+ * requests on a single monitor, callers lock only the keys (e.g. datasets or
+ * result templates) they are going to write to. Requests with disjoint keys
+ * can run in parallel.
+ *
+ * The locks for a set of keys are always acquired in the stripe order defined
+ * by {@link Striped#bulkGet(Iterable)}, so two callers locking overlapping key
+ * sets can not deadlock.
+ *
+ * @since 5.0.2
+ */
+public class StripedLocks {
+
+    public static final int DEFAULT_STRIPES = 64;
+
+    private final Striped<Lock> stripes;
+
+    public StripedLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public StripedLocks(int stripes) {
+        this.stripes = Striped.lock(stripes);
+    }
+
+    /**
+     * Acquire the locks for all keys. The returned {@link Locked} has to be
+     * closed to release them.
+     *
+     * @param keys
+     *            the keys to lock
+     * @return the acquired locks
+     */
+    public Locked lock(Collection<?> keys) {
+        Deque<Lock> acquired = new ArrayDeque<>(keys.size());
+        try {
+            for (Lock lock : stripes.bulkGet(keys)) {
+                // different keys may map to the same stripe
+                if (!acquired.contains(lock)) {
+                    lock.lock();
+                    acquired.push(lock);
+                }
+            }
+        } catch (RuntimeException e) {
+            new Locked(acquired).close();
+            throw e;
+        }
+        return new Locked(acquired);
+    }
+
+    /**
+     * Handle for a set of acquired stripe locks.
+     */
+    public static final class Locked implements AutoCloseable {
+        private final Deque<Lock> locks;
+
+        private Locked(Deque<Lock> locks) {
+            this.locks = locks;
+        }
+
+        @Override
+        public void close() {
+            while (!locks.isEmpty()) {
+                locks.pop().unlock();
+            }
+        }
+    }
+
+}
@@ -45,12 +45,14 @@ public class HibernateStreamingConfiguration implements Constructable {
     public static int DEFAULT_CHUNK_SIZE = 10000;
     public static boolean DEFAULT_STREAMING_DATASOURCE = true;
     public static boolean DEFAULT_CHUNK_STREAMING_DATASOURCE = true;
+    public static boolean DEFAULT_KEYSET_CHUNK_STREAMING = false;
 
     @Deprecated
     private static HibernateStreamingConfiguration instance;
     private boolean streamingDatasource = DEFAULT_STREAMING_DATASOURCE;
     private boolean chunkDatasourceStreaming = DEFAULT_CHUNK_STREAMING_DATASOURCE;
     private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private boolean keysetChunkStreaming = DEFAULT_KEYSET_CHUNK_STREAMING;
 
     @Override
     public void init() {
@@ -118,6 +120,29 @@ public class HibernateStreamingConfiguration implements Constructable {
         return chunkSize;
     }
 
+    /**
+     * Set the indicator to query the chunks with keyset (seek) pagination
+     * instead of offsets
+     *
+     * @param keysetChunkStreaming
+     *            Value to set
+     */
+    @Setting(HibernateStreamingSettings.KEYSET_CHUNK_STREAMING)
+    public void setKeysetChunkStreaming(boolean keysetChunkStreaming) {
+        this.keysetChunkStreaming = keysetChunkStreaming;
+    }
+
+    /**
+     * Check for chunk pagination mode to use
+     *
+     * @return <code>true</code>, if the chunks should continue after the last
+     *         value of the previous chunk <code>false</code>, if offsets
+     *         should be used
+     */
+    public boolean isKeysetChunkStreaming() {
+        return keysetChunkStreaming;
+    }
+
     /**
      * @return Returns a singleton instance of the ServiceConfiguration.
      */
@@ -44,4 +44,8 @@ public interface HibernateStreamingSettings {
 
     String CHUNK_SIZE = "service.streaming.datasource.chunkSize";
 
+    String KEYSET_CHUNK_STREAMING = "service.streaming.datasource.chunk.keyset";
+
+    String TEMPLATE_THREADS = "service.streaming.datasource.templateThreads";
+
 }
@@ -31,6 +31,7 @@ package org.n52.sos.ds.hibernate.values.series;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 
 import org.hibernate.HibernateException;
 import org.n52.iceland.ds.ConnectionProvider;
@@ -42,6 +43,7 @@ import org.n52.shetland.ogc.ows.exception.CodedException;
 import org.n52.shetland.ogc.ows.exception.NoApplicableCodeException;
 import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
 import org.n52.shetland.ogc.sos.request.AbstractObservationRequest;
+import org.n52.shetland.ogc.sos.request.GetObservationRequest;
 import org.n52.shetland.util.CollectionHelper;
 import org.n52.sos.ds.hibernate.dao.DaoFactory;
 import org.n52.sos.ds.hibernate.values.HibernateStreamingConfiguration;
@@ -61,6 +63,10 @@ public class HibernateChunkSeriesStreamingValue extends HibernateSeriesStreaming
 
     private int currentRow;
 
+    private boolean keyset;
+
+    private DataEntity<?> lastEntity;
+
     private boolean noChunk = false;
 
     private int currentResultSize = 0;
@@ -79,6 +85,11 @@ public class HibernateChunkSeriesStreamingValue extends HibernateSeriesStreaming
     public HibernateChunkSeriesStreamingValue(ConnectionProvider connectionProvider, DaoFactory daoFactory, AbstractObservationRequest request, long series, boolean duplicated ) throws OwsExceptionReport {
         super(connectionProvider, daoFactory, request, series, duplicated);
         this.chunkSize = HibernateStreamingConfiguration.getInstance().getChunkSize();
+        // the result filter queries are merged from sub queries without a
+        // common order, so they still use offsets
+        this.keyset = HibernateStreamingConfiguration.getInstance().isKeysetChunkStreaming()
+                && !(request instanceof GetObservationRequest
+                        && ((GetObservationRequest) request).hasResultFilter());
     }
 
     @Override
@@ -145,7 +156,9 @@ public class HibernateChunkSeriesStreamingValue extends HibernateSeriesStreaming
     }
 
     /**
-     * Get the next results from database
+     * Get the next results from database. Depending on the configuration the
+     * chunks are queried with offsets or continue after the last entity of
+     * the previous chunk.
      *
      * @throws OwsExceptionReport
      *             If an error occurs when querying the next results
@@ -157,7 +170,14 @@ public class HibernateChunkSeriesStreamingValue extends HibernateSeriesStreaming
         try {
             // query with temporal filter
             Collection<DataEntity<?>> seriesValuesResult = new ArrayList<>();
-            if (temporalFilterCriterion != null) {
+            if (keyset) {
+                List<DataEntity<?>> chunk = seriesValueDAO.getStreamingSeriesValuesAfter(request, series,
+                        temporalFilterCriterion, chunkSize, lastEntity, session);
+                if (!chunk.isEmpty()) {
+                    lastEntity = chunk.get(chunk.size() - 1);
+                }
+                seriesValuesResult.addAll(chunk);
+            } else if (temporalFilterCriterion != null) {
                 seriesValuesResult.addAll(seriesValueDAO.getStreamingSeriesValuesFor(request, series, temporalFilterCriterion,
                                 chunkSize, currentRow, session));
             }
@@ -34,8 +34,10 @@ import java.util.Map;
 import org.junit.Test;
 import org.n52.shetland.ogc.om.OmConstants;
 import org.n52.shetland.ogc.ows.exception.CodedException;
+import org.n52.shetland.ogc.ows.exception.OwsExceptionReport;
 import org.n52.shetland.ogc.swe.SweDataRecord;
 import org.n52.shetland.ogc.swe.SweField;
+import org.n52.shetland.ogc.swe.encoding.SweTextEncoding;
 import org.n52.shetland.ogc.swe.simpleType.SweQuantity;
 import org.n52.shetland.ogc.swe.simpleType.SweTimeRange;
 
@@ -80,6 +82,52 @@ public class InsertResultDAOTest
         assertThat(observedProperties.get(3).equals(OBS_PROP_3), is(true));
     }
 
+    @Test
+    public void test_separateValues_literalSeparator() {
+        String[] values = insertResultDAO.separateValues("1|2.5|3", "|");
+        assertThat(values.length, is(3));
+        assertThat(values[1], is("2.5"));
+    }
+
+    @Test
+    public void test_separateValues_multiCharacterSeparatorAndTrailingEmpty() {
+        String[] values = insertResultDAO.separateValues("a@@b@@@@c@@@@", "@@");
+        assertThat(values.length, is(4));
+        assertThat(values[2], is(""));
+        assertThat(values[3], is("c"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_separateValues_emptySeparator() {
+        insertResultDAO.separateValues("1,2", "");
+    }
+
+    @Test(expected = OwsExceptionReport.class)
+    public void test_checkResultEncoding_emptyTokenSeparator()
+            throws OwsExceptionReport {
+        SweTextEncoding encoding = new SweTextEncoding();
+        encoding.setTokenSeparator("");
+        encoding.setBlockSeparator("#");
+        insertResultDAO.checkResultEncoding(encoding);
+    }
+
+    @Test(expected = OwsExceptionReport.class)
+    public void test_checkResultEncoding_missingBlockSeparator()
+            throws OwsExceptionReport {
+        SweTextEncoding encoding = new SweTextEncoding();
+        encoding.setTokenSeparator(",");
+        insertResultDAO.checkResultEncoding(encoding);
+    }
+
+    @Test
+    public void test_checkResultEncoding_valid()
+            throws OwsExceptionReport {
+        SweTextEncoding encoding = new SweTextEncoding();
+        encoding.setTokenSeparator(",");
+        encoding.setBlockSeparator("#");
+        insertResultDAO.checkResultEncoding(encoding);
+    }
+
     private SweDataRecord createRecord() {
         SweDataRecord record = new SweDataRecord();
         record.addField(new SweField("phenomenonTime",
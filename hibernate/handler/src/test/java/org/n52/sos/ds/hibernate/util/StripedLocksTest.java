@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2012-2018 52°North Initiative for Geospatial Open Source
+ * Software GmbH
+ *
+ * This program is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 as published
+ * by the Free Software Foundation.
+ *
+ * If the program is linked with libraries which are licensed under one of
+ * the following licenses, the combination of the program with the linked
+ * library is not considered a "derivative work" of the program:
+ *
+ *     - Apache License, version 2.0
+ *     - Apache Software License, version 1.0
+ *     - GNU Lesser General Public License, version 3
+ *     - Mozilla Public License, versions 1.0, 1.1 and 2.0
+ *     - Common Development and Distribution License (CDDL), version 1.0
+ *
+ * Therefore the distribution of the program linked with libraries licensed
+ * under the aforementioned licenses, is permitted by the copyright holders
+ * if the distribution is compliant with both the GNU General Public
+ * License version 2 and the aforementioned licenses.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU General
+ * Public License for more details.
+ */
+package org.n52.sos.ds.hibernate.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+import org.n52.sos.ds.hibernate.util.StripedLocks.Locked;
+
+/**
+ * Test for {@link StripedLocks}.
+ *
+ * @since 5.0.2
+ */
+public class StripedLocksTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldNotBlockDisjointKeys() throws Exception {
+        // one stripe per key for the test
+        StripedLocks locks = new StripedLocks(1024);
+        try (Locked locked = locks.lock(Collections.singleton("dataset1"))) {
+            Future<Boolean> other = executor.submit(() -> {
+                try (Locked l = locks.lock(Collections.singleton("dataset2"))) {
+                    return true;
+                }
+            });
+            assertThat(other.get(5, TimeUnit.SECONDS), is(true));
+        }
+    }
+
+    @Test
+    public void shouldBlockOverlappingKeys() throws Exception {
+        StripedLocks locks = new StripedLocks();
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger acquired = new AtomicInteger();
+        Future<?> other;
+        try (Locked locked = locks.lock(Arrays.asList("dataset1", "feature1"))) {
+            other = executor.submit(() -> {
+                started.countDown();
+                try (Locked l = locks.lock(Arrays.asList("feature1", "dataset2"))) {
+                    acquired.incrementAndGet();
+                }
+            });
+            started.await(5, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            assertThat(acquired.get(), is(0));
+        }
+        other.get(5, TimeUnit.SECONDS);
+        assertThat(acquired.get(), is(1));
+    }
+
+    @Test
+    public void shouldReleaseSharedStripeOnce() throws Exception {
+        // all keys map to the same stripe
+        StripedLocks locks = new StripedLocks(1);
+        try (Locked locked = locks.lock(Arrays.asList("a", "b", "c"))) {
+            assertThat(locked != null, is(true));
+        }
+        Future<Boolean> other = executor.submit(() -> {
+            try (Locked l = locks.lock(Collections.singleton("d"))) {
+                return true;
+            }
+        });
+        assertThat(other.get(5, TimeUnit.SECONDS), is(true));
+    }
+
+}
@@ -100,7 +100,7 @@ public class SosGetResultTemplateOperatorV20 extends AbstractV2RequestOperator<A
     private void checkOffering(String offering) throws OwsExceptionReport {
         if (offering == null || offering.isEmpty()) {
             throw new MissingOfferingParameterException();
-        } else if (!getCache().getOfferings().contains(offering)) {
+        } else if (!getCache().hasOffering(offering)) {
             throw new InvalidOfferingParameterException(offering);
         }
     }
@@ -108,7 +108,7 @@ public class SosGetResultTemplateOperatorV20 extends AbstractV2RequestOperator<A
     private void checkObservedProperty(String observedProperty) throws OwsExceptionReport {
         if (observedProperty == null || observedProperty.isEmpty()) {
             throw new MissingObservedPropertyParameterException();
-        } else if (!getCache().getObservableProperties().contains(observedProperty)) {
+        } else if (!getCache().hasObservableProperty(observedProperty)) {
             throw new InvalidObservedPropertyParameterException(observedProperty);
         }
     }
@@ -158,7 +158,7 @@ public class SosInsertObservationOperatorV20 extends
             for (final String offering : request.getOfferings()) {
                 if (offering == null || offering.isEmpty()) {
                     exceptions.add(new MissingOfferingParameterException());
-                } else if (!getCache().getOfferings().contains(offering)) {
+                } else if (!getCache().hasOffering(offering)) {
                     exceptions.add(new InvalidOfferingParameterException(offering));
                 } else {
                     request.getObservations().forEach(observation -> observation.getObservationConstellation().addOffering(offering));
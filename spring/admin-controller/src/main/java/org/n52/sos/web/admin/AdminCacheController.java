@@ -41,6 +41,7 @@ import org.n52.iceland.cache.ContentCacheController;
 import org.n52.janmayen.Json;
 import org.n52.shetland.ogc.gml.time.TimePeriod;
 import org.n52.shetland.util.ReferencedEnvelope;
+import org.n52.sos.ds.CacheFeederHandler;
 import org.n52.sos.web.common.AbstractController;
 import org.n52.sos.web.common.ControllerConstants;
 
@@ -64,6 +65,9 @@ public class AdminCacheController extends AbstractController {
     @Inject
     private ContentCacheController cacheController;
 
+    @Inject
+    private CacheFeederHandler cacheFeederHandler;
+
     @RequestMapping(value = ControllerConstants.Paths.ADMIN_CACHE, method = RequestMethod.GET)
     public String view() {
         return ControllerConstants.Views.ADMIN_CACHE;
@@ -72,7 +76,7 @@ public class AdminCacheController extends AbstractController {
     @ResponseBody
     @RequestMapping(value = ControllerConstants.Paths.ADMIN_CACHE_SUMMARY, method = RequestMethod.GET, produces = "application/json; charset=UTF-8")
     public String getCacheSummary() {
-        return Json.print(Json.toJSON(CacheSummaryHandler.getCacheValues()));
+        return Json.print(Json.toJSON(CacheSummaryHandler.getCacheValues(cacheFeederHandler)));
     }
 
     @ResponseBody
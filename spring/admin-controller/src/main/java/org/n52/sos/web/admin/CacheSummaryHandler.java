@@ -29,10 +29,17 @@
 package org.n52.sos.web.admin;
 
 import java.util.Collection;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.stream.Collectors;
 
+import org.n52.sos.cache.CacheFootprint;
+import org.n52.sos.cache.CacheUpdateStatistics;
+import org.n52.sos.cache.CacheUpdateTaskStatistics;
 import org.n52.sos.cache.SosContentCache;
+import org.n52.sos.ds.CacheFeederHandler;
 import org.n52.sos.service.Configurator;
 
 /**
@@ -59,6 +66,18 @@ public class CacheSummaryHandler {
     public static final String NUM_RESULT_TEMPLATES = "num_result_templates";
     public static final String DEFAULT_EPSG = "default_epsg";
     public static final String NUM_EPSGS = "num_epsgs";
+    public static final String NUM_IDENTIFIERS = "num_identifiers";
+    public static final String NUM_RELATIONS = "num_relations";
+    public static final String ESTIMATED_MEMORY_USAGE = "estimated_memory_usage";
+    public static final String NUM_QUEUED_PARTIAL_UPDATES = "num_queued_partial_updates";
+    public static final String NUM_PARTIAL_UPDATES = "num_partial_updates";
+    public static final String PARTIAL_UPDATES_PER_BATCH = "partial_updates_per_batch";
+    public static final String NUM_CACHE_UPDATE_TASKS = "num_cache_update_tasks";
+    public static final String CACHE_UPDATE_TASK_DURATIONS = "cache_update_task_durations";
+    public static final String SLOWEST_CACHE_UPDATE_TASKS = "slowest_cache_update_tasks";
+
+    private static final long[] DURATION_BUCKETS = { 100, 1000, 10000, 60000 };
+    private static final int NUM_SLOWEST_TASKS = 5;
 
 
 
@@ -66,7 +85,7 @@ public class CacheSummaryHandler {
 
     }
 
-    public static Map<String, String> getCacheValues() {
+    public static Map<String, String> getCacheValues(CacheFeederHandler cacheFeederHandler) {
         SosContentCache cache = Configurator.getInstance().getCache();
         Map<String, String> values = new TreeMap<>();
         values.put(LAST_UPDATE_TIME, nullSafeToString(cache.getLastUpdateTime()));
@@ -85,9 +104,61 @@ public class CacheSummaryHandler {
         values.put(NUM_RESULT_TEMPLATES, nullSafeToString(cache.getResultTemplates()));
         values.put(DEFAULT_EPSG, Integer.toString(cache.getDefaultEPSGCode()));
         values.put(NUM_EPSGS, nullSafeToString(cache.getEpsgCodes()));
+        if (cache instanceof CacheFootprint) {
+            CacheFootprint footprint = (CacheFootprint) cache;
+            values.put(NUM_IDENTIFIERS, Integer.toString(footprint.getIdentifierCount()));
+            values.put(NUM_RELATIONS, Long.toString(footprint.getRelationCount()));
+            values.put(ESTIMATED_MEMORY_USAGE, toMegabytes(footprint.getEstimatedMemoryUsage()));
+        }
+        if (Configurator.getInstance().getCacheController() instanceof CacheUpdateStatistics) {
+            CacheUpdateStatistics statistics = (CacheUpdateStatistics) Configurator.getInstance().getCacheController();
+            long batches = statistics.getPartialUpdateBatchCount();
+            values.put(NUM_QUEUED_PARTIAL_UPDATES, Integer.toString(statistics.getQueuedPartialUpdateCount()));
+            values.put(NUM_PARTIAL_UPDATES, Long.toString(statistics.getPartialUpdateCount()));
+            values.put(PARTIAL_UPDATES_PER_BATCH, batches == 0 ? "0"
+                    : String.format(Locale.ROOT, "%.2f", (double) statistics.getPartialUpdateCount() / batches));
+        }
+        if (cacheFeederHandler instanceof CacheUpdateTaskStatistics) {
+            Map<String, Long> durations = ((CacheUpdateTaskStatistics) cacheFeederHandler).getCacheUpdateTaskDurations();
+            values.put(NUM_CACHE_UPDATE_TASKS, Integer.toString(durations.size()));
+            values.put(CACHE_UPDATE_TASK_DURATIONS, toHistogram(durations.values()));
+            values.put(SLOWEST_CACHE_UPDATE_TASKS, durations.entrySet().stream()
+                    .sorted(Entry.<String, Long>comparingByValue().reversed())
+                    .limit(NUM_SLOWEST_TASKS)
+                    .map(e -> String.format(Locale.ROOT, "%s (%d ms)", e.getKey(), e.getValue()))
+                    .collect(Collectors.joining(", ")));
+        }
         return values;
     }
 
+    private static String toHistogram(Collection<Long> durations) {
+        int[] counts = new int[DURATION_BUCKETS.length + 1];
+        for (long duration : durations) {
+            int bucket = 0;
+            while (bucket < DURATION_BUCKETS.length && duration >= DURATION_BUCKETS[bucket]) {
+                bucket++;
+            }
+            counts[bucket]++;
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < counts.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            if (i < DURATION_BUCKETS.length) {
+                builder.append("< ").append(DURATION_BUCKETS[i]);
+            } else {
+                builder.append(">= ").append(DURATION_BUCKETS[i - 1]);
+            }
+            builder.append(" ms: ").append(counts[i]);
+        }
+        return builder.toString();
+    }
+
+    private static String toMegabytes(long bytes) {
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
     private static String nullSafeToString(Object obj) {
         if (obj == null) {
             return "null";